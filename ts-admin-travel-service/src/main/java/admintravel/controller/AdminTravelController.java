@@ -34,6 +34,13 @@ public class AdminTravelController {
         return ok(adminTravelService.getAllTravels(headers));
     }
 
+    @CrossOrigin(origins = "*")
+    @GetMapping(path = "/admintravel/{page}/{size}")
+    public HttpEntity getTravelsPage(@PathVariable int page, @PathVariable int size, @RequestHeader HttpHeaders headers) {
+        logger.info("[getTravelsPage][Get travels page][page: {}, size: {}]", page, size);
+        return ok(adminTravelService.getTravelsPage(page, size, headers));
+    }
+
     @PostMapping(value = "/admintravel")
     public HttpEntity addTravel(@RequestBody TravelInfo request, @RequestHeader HttpHeaders headers) {
         logger.info("[addTravel][Add travel][trip id: {}, train type name: {}, form station {} to station {}, login id: {}]",
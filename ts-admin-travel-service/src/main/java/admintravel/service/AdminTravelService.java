@@ -17,6 +17,16 @@ public interface AdminTravelService {
      */
     Response getAllTravels(  HttpHeaders headers);
 
+    /**
+     * get one page of travels from each travel service
+     *
+     * @param page page number, starting from 0
+     * @param size page size per travel service
+     * @param headers headers
+     * @return Response
+     */
+    Response getTravelsPage(int page, int size, HttpHeaders headers);
+
     /**
      * add travel by traver information
      *
@@ -6,6 +6,7 @@ import edu.fudan.common.entity.TrainType;
 import edu.fudan.common.entity.TravelInfo;
 import edu.fudan.common.util.JsonUtils;
 import edu.fudan.common.util.Response;
+import org.apache.skywalking.apm.toolkit.trace.CallableWrapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,12 +16,17 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * @author fdse
@@ -34,56 +40,82 @@ public class AdminTravelServiceImpl implements AdminTravelService {
     private DiscoveryClient discoveryClient;
     private static final Logger LOGGER = LoggerFactory.getLogger(AdminTravelServiceImpl.class);
 
+    private static final ExecutorService executorService = Executors.newFixedThreadPool(4, new CustomizableThreadFactory("HttpClientThreadPool-"));
+
     private String getServiceUrl(String serviceName) {
         return "http://" + serviceName;
     }
 
     @Override
     public Response getAllTravels(HttpHeaders headers) {
-        Response<ArrayList<AdminTrip>> result;
+        AdminTravelServiceImpl.LOGGER.info("[getAllTravels][Get All Travels]");
+        return collectTravels("/admin_trip", headers);
+    }
+
+    @Override
+    public Response getTravelsPage(int page, int size, HttpHeaders headers) {
+        AdminTravelServiceImpl.LOGGER.info("[getTravelsPage][Get Travels Page][page: {}, size: {}]", page, size);
+        return collectTravels("/admin_trip/" + page + "/" + size, headers);
+    }
+
+    /**
+     * Query ts-travel-service and ts-travel2-service concurrently and merge their admin trips.
+     */
+    private Response collectTravels(String path, HttpHeaders headers) {
         ArrayList<AdminTrip> trips = new ArrayList<>();
 
-        AdminTravelServiceImpl.LOGGER.info("[getAllTravels][Get All Travels]");
-        HttpEntity requestEntity = new HttpEntity(headers);
         String travel_service_url = getServiceUrl("ts-travel-service");
-        ResponseEntity<Response<ArrayList<AdminTrip>>> re = restTemplate.exchange(
-                travel_service_url + "/api/v1/travelservice/admin_trip",
-                HttpMethod.GET,
-                requestEntity,
-                new ParameterizedTypeReference<Response<ArrayList<AdminTrip>>>() {
-                });
-        result = re.getBody();
+        String travel2_service_url = getServiceUrl("ts-travel2-service");
+        Future<Response<ArrayList<AdminTrip>>> travelFuture = executorService.submit(CallableWrapper.of(
+                () -> queryAdminTrips(travel_service_url + "/api/v1/travelservice" + path, headers)));
+        Future<Response<ArrayList<AdminTrip>>> travel2Future = executorService.submit(CallableWrapper.of(
+                () -> queryAdminTrips(travel2_service_url + "/api/v1/travel2service" + path, headers)));
 
+        Response<ArrayList<AdminTrip>> result = getQuietly(travelFuture, "ts-travel-service");
         if (result.getStatus() == 1) {
             ArrayList<AdminTrip> adminTrips = result.getData();
-            AdminTravelServiceImpl.LOGGER.info("[getAllTravels][Get Travel From ts-travel-service successfully!]");
+            AdminTravelServiceImpl.LOGGER.info("[collectTravels][Get Travel From ts-travel-service successfully!]");
             trips.addAll(adminTrips);
         } else {
-            AdminTravelServiceImpl.LOGGER.error("[getAllTravels][receive response][Get Travel From ts-travel-service fail!]");
+            AdminTravelServiceImpl.LOGGER.error("[collectTravels][receive response][Get Travel From ts-travel-service fail!]");
         }
 
-        HttpEntity requestEntity2 = new HttpEntity(headers);
-        String travel2_service_url = getServiceUrl("ts-travel2-service");
-        ResponseEntity<Response<ArrayList<AdminTrip>>> re2 = restTemplate.exchange(
-                travel2_service_url + "/api/v1/travel2service/admin_trip",
-                HttpMethod.GET,
-                requestEntity2,
-                new ParameterizedTypeReference<Response<ArrayList<AdminTrip>>>() {
-                });
-        result = re2.getBody();
-
+        result = getQuietly(travel2Future, "ts-travel2-service");
         if (result.getStatus() == 1) {
-            AdminTravelServiceImpl.LOGGER.info("[getAllTravels][Get Travel From ts-travel2-service successfully!]");
+            AdminTravelServiceImpl.LOGGER.info("[collectTravels][Get Travel From ts-travel2-service successfully!]");
             ArrayList<AdminTrip> adminTrips = result.getData();
             trips.addAll(adminTrips);
         } else {
-            AdminTravelServiceImpl.LOGGER.error("[getAllTravels][receive response][Get Travel From ts-travel2-service fail!]");
+            AdminTravelServiceImpl.LOGGER.error("[collectTravels][receive response][Get Travel From ts-travel2-service fail!]");
         }
         result.setData(trips);
 
         return result;
     }
 
+    private Response<ArrayList<AdminTrip>> queryAdminTrips(String url, HttpHeaders headers) {
+        HttpEntity requestEntity = new HttpEntity(headers);
+        ResponseEntity<Response<ArrayList<AdminTrip>>> re = restTemplate.exchange(
+                url,
+                HttpMethod.GET,
+                requestEntity,
+                new ParameterizedTypeReference<Response<ArrayList<AdminTrip>>>() {
+                });
+        return re.getBody();
+    }
+
+    private Response<ArrayList<AdminTrip>> getQuietly(Future<Response<ArrayList<AdminTrip>>> future, String serviceName) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            AdminTravelServiceImpl.LOGGER.error("[getQuietly][Interrupted while querying {}]", serviceName);
+        } catch (ExecutionException e) {
+            AdminTravelServiceImpl.LOGGER.error("[getQuietly][Query {} error][{}]", serviceName, e.getCause().toString());
+        }
+        return new Response<>(0, "Query " + serviceName + " failed", null);
+    }
+
     @Override
     public Response addTravel(TravelInfo request, HttpHeaders headers) {
         // check for travel info
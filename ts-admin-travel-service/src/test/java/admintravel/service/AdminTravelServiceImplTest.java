@@ -40,13 +40,13 @@ public class AdminTravelServiceImplTest {
         Response<ArrayList<AdminTrip>> response = new Response<>(0, null, null);
         ResponseEntity<Response<ArrayList<AdminTrip>>> re = new ResponseEntity<>(response, HttpStatus.OK);
         Mockito.when(restTemplate.exchange(
-                "http://ts-travel-service:12346/api/v1/travelservice/admin_trip",
+                "http://ts-travel-service/api/v1/travelservice/admin_trip",
                 HttpMethod.GET,
                 requestEntity,
                 new ParameterizedTypeReference<Response<ArrayList<AdminTrip>>>() {
                 })).thenReturn(re);
         Mockito.when(restTemplate.exchange(
-                "http://ts-travel2-service:16346/api/v1/travel2service/admin_trip",
+                "http://ts-travel2-service/api/v1/travel2service/admin_trip",
                 HttpMethod.GET,
                 requestEntity,
                 new ParameterizedTypeReference<Response<ArrayList<AdminTrip>>>() {
@@ -62,13 +62,13 @@ public class AdminTravelServiceImplTest {
         Response<ArrayList<AdminTrip>> response = new Response<>(1, null, adminTrips);
         ResponseEntity<Response<ArrayList<AdminTrip>>> re = new ResponseEntity<>(response, HttpStatus.OK);
         Mockito.when(restTemplate.exchange(
-                "http://ts-travel-service:12346/api/v1/travelservice/admin_trip",
+                "http://ts-travel-service/api/v1/travelservice/admin_trip",
                 HttpMethod.GET,
                 requestEntity,
                 new ParameterizedTypeReference<Response<ArrayList<AdminTrip>>>() {
                 })).thenReturn(re);
         Mockito.when(restTemplate.exchange(
-                "http://ts-travel2-service:16346/api/v1/travel2service/admin_trip",
+                "http://ts-travel2-service/api/v1/travel2service/admin_trip",
                 HttpMethod.GET,
                 requestEntity,
                 new ParameterizedTypeReference<Response<ArrayList<AdminTrip>>>() {
@@ -77,6 +77,28 @@ public class AdminTravelServiceImplTest {
         Assert.assertNotNull(result);
     }
 
+    @Test
+    public void testGetTravelsPage() {
+        ArrayList<AdminTrip> adminTrips = new ArrayList<>();
+        adminTrips.add(new AdminTrip());
+        Response<ArrayList<AdminTrip>> response = new Response<>(1, null, adminTrips);
+        ResponseEntity<Response<ArrayList<AdminTrip>>> re = new ResponseEntity<>(response, HttpStatus.OK);
+        Mockito.when(restTemplate.exchange(
+                "http://ts-travel-service/api/v1/travelservice/admin_trip/0/20",
+                HttpMethod.GET,
+                requestEntity,
+                new ParameterizedTypeReference<Response<ArrayList<AdminTrip>>>() {
+                })).thenReturn(re);
+        Mockito.when(restTemplate.exchange(
+                "http://ts-travel2-service/api/v1/travel2service/admin_trip/0/20",
+                HttpMethod.GET,
+                requestEntity,
+                new ParameterizedTypeReference<Response<ArrayList<AdminTrip>>>() {
+                })).thenReturn(re);
+        Response result = adminTravelServiceImpl.getTravelsPage(0, 20, headers);
+        Assert.assertEquals(2, ((ArrayList) result.getData()).size());
+    }
+
     @Test
     public void testAddTravel1() {
         TravelInfo request = new TravelInfo();
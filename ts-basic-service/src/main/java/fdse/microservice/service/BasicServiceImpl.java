@@ -1,14 +1,15 @@
 package fdse.microservice.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.fudan.common.entity.*;
+import edu.fudan.common.util.Amount;
 import edu.fudan.common.util.JsonUtils;
 import edu.fudan.common.util.Response;
+import edu.fudan.common.util.StationDictionaryClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -30,8 +31,19 @@ public class BasicServiceImpl implements BasicService {
     @Autowired
     private DiscoveryClient discoveryClient;
 
+    @Autowired
+    private StationDictionaryClient stationDictionaryClient;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(BasicServiceImpl.class);
 
+    private static final double DEFAULT_BASIC_PRICE_RATE = 0.75;
+
+    private static final double DEFAULT_FIRST_CLASS_PRICE_RATE = 1;
+
+    private static final Amount DEFAULT_ECONOMY_CLASS_PRICE = Amount.parse("95.0");
+
+    private static final Amount DEFAULT_CONFORT_CLASS_PRICE = Amount.parse("120.0");
+
     private String getServiceUrl(String serviceName) {
         return "http://" + serviceName;
     }
@@ -95,21 +107,13 @@ public class BasicServiceImpl implements BasicService {
             response.setMsg("Station not correct in Route");
             return response;
         }
-        PriceConfig priceConfig = queryPriceConfigByRouteIdAndTrainType(routeId, trainType.getName(), headers);
-        HashMap<String, String> prices = new HashMap<>();
-        try {
-            int distance = 0;
-            distance = route.getDistances().get(indexEnd) - route.getDistances().get(indexStart);
-            /**
-             * We need the price Rate and distance (starting station).
-             */
-            double priceForEconomyClass = distance * priceConfig.getBasicPriceRate();
-            double priceForConfortClass = distance * priceConfig.getFirstClassPriceRate();
-            prices.put("economyClass", "" + priceForEconomyClass);
-            prices.put("confortClass", "" + priceForConfortClass);
-        }catch (Exception e){
-                prices.put("economyClass", "95.0");
-                prices.put("confortClass", "120.0");
+        List<Map<String, Amount>> fares = queryFares(
+                Collections.singletonList(new FareQuery(routeId, trainType.getName(), start, end)), headers);
+        Map<String, Amount> prices = fares == null ? null : fares.get(0);
+        if (prices == null) {
+            prices = new HashMap<>();
+            prices.put("economyClass", DEFAULT_ECONOMY_CLASS_PRICE);
+            prices.put("confortClass", DEFAULT_CONFORT_CLASS_PRICE);
         }
         result.setRoute(route);
         result.setPrices(prices);
@@ -263,49 +267,29 @@ public class BasicServiceImpl implements BasicService {
             return response;
         }
 
-        List<String> routeIdAndTypes = new ArrayList<>();
-        for(String tripNumber: avaTrips){
-            String routeId = tripInfos.get(tripNumber).getTrip().getRouteId();
-            String trainType = tripInfos.get(tripNumber).getTrip().getTrainTypeName();
-            routeIdAndTypes.add(routeId+":"+trainType);
+        List<String> tripNumbers = new ArrayList<>(avaTrips);
+        List<FareQuery> fareQueries = new ArrayList<>();
+        for(String tripNumber: tripNumbers){
+            Travel info = tripInfos.get(tripNumber);
+            fareQueries.add(new FareQuery(info.getTrip().getRouteId(), info.getTrip().getTrainTypeName(),
+                    info.getStartPlace(), info.getEndPlace()));
         }
-        Map<String, PriceConfig> pcMap = queryPriceConfigByRouteIdsAndTrainTypes(routeIdAndTypes, headers);
+        List<Map<String, Amount>> fares = queryFares(fareQueries, headers);
 
         Map<String, TravelResult> trMap = new HashMap<>();
-        for(String tripNumber: avaTrips){
+        for(int i = 0; i < tripNumbers.size(); i++){
+            String tripNumber = tripNumbers.get(i);
             Travel info = tripInfos.get(tripNumber);
             String trainType = info.getTrip().getTrainTypeName();
             String routeId = info.getTrip().getRouteId();
             Route route = routeMap.get(routeId);
 
-            int indexStart = route.getStations().indexOf(info.getStartPlace());
-            int indexEnd = route.getStations().indexOf(info.getEndPlace());
-
-            double basicPriceRate = 0.75;
-            double firstPriceRate = 1;
-            PriceConfig priceConfig = pcMap.get(routeId+":"+trainType);
-            if(priceConfig != null){
-                basicPriceRate = priceConfig.getBasicPriceRate();
-                firstPriceRate = priceConfig.getFirstClassPriceRate();
+            Map<String, Amount> prices = fares == null ? null : fares.get(i);
+            if (prices == null) {
+                // no price config for the route and train type
+                prices = defaultPrices(route, info.getStartPlace(), info.getEndPlace());
             }
 
-            HashMap<String, String> prices = new HashMap<>();
-            try {
-                int distance = 0;
-                distance = route.getDistances().get(indexEnd) - route.getDistances().get(indexStart);
-                /**
-                 * We need the price Rate and distance (starting station).
-                 */
-                double priceForEconomyClass = distance * basicPriceRate;
-                double priceForConfortClass = distance * firstPriceRate;
-                prices.put("economyClass", "" + priceForEconomyClass);
-                prices.put("confortClass", "" + priceForConfortClass);
-            }catch (Exception e){
-                prices.put("economyClass", "95.0");
-                prices.put("confortClass", "120.0");
-            }
-
-
             TravelResult result = new TravelResult();
             result.setStatus(true);
             result.setTrainType(trainTypeMap.get(trainType));
@@ -323,50 +307,26 @@ public class BasicServiceImpl implements BasicService {
     @Override
     public Response queryForStationId(String stationName, HttpHeaders headers) {
         BasicServiceImpl.LOGGER.info("[queryForStationId][Query For Station Id][stationName: {}]", stationName);
-        HttpEntity requestEntity = new HttpEntity(null);
-        String station_service_url=getServiceUrl("ts-station-service");
-        ResponseEntity<Response> re = restTemplate.exchange(
-                station_service_url + "/api/v1/stationservice/stations/id/" + stationName,
-                HttpMethod.GET,
-                requestEntity,
-                Response.class);
-        if (re.getBody().getStatus() != 1) {
-            String msg = re.getBody().getMsg();
-            BasicServiceImpl.LOGGER.warn("[queryForStationId][Query for stationId error][stationName: {}, message: {}]", stationName, msg);
-            return new Response<>(0, msg, null);
+        String stationId = stationDictionaryClient.idOf(stationName);
+        if (stationId == null) {
+            BasicServiceImpl.LOGGER.warn("[queryForStationId][Query for stationId error][stationName: {}, message: {}]", stationName, "Not exists");
+            return new Response<>(0, "Not exists", null);
         }
-        return  re.getBody();
+        return new Response<>(1, "Success", stationId);
     }
 
     public Map<String,String> checkStationsExists(List<String> stationNames, HttpHeaders headers) {
         BasicServiceImpl.LOGGER.info("[checkStationsExists][Check Stations Exists][stationNames: {}]", stationNames);
-        HttpEntity requestEntity = new HttpEntity(stationNames, null);
-        String station_service_url=getServiceUrl("ts-station-service");
-        ResponseEntity<Response> re = restTemplate.exchange(
-                station_service_url + "/api/v1/stationservice/stations/idlist",
-                HttpMethod.POST,
-                requestEntity,
-                Response.class);
-        Response<Map<String, String>> r = re.getBody();
-        if(r.getStatus() == 0) {
+        Map<String, String> stationMap = stationDictionaryClient.idsOf(stationNames);
+        if (stationMap.isEmpty()) {
             return null;
         }
-        Map<String, String> stationMap = r.getData();
         return stationMap;
     }
 
     public boolean checkStationExists(String stationName, HttpHeaders headers) {
         BasicServiceImpl.LOGGER.info("[checkStationExists][Check Station Exists][stationName: {}]", stationName);
-        HttpEntity requestEntity = new HttpEntity(null);
-        String station_service_url=getServiceUrl("ts-station-service");
-        ResponseEntity<Response> re = restTemplate.exchange(
-                station_service_url + "/api/v1/stationservice/stations/id/" + stationName,
-                HttpMethod.GET,
-                requestEntity,
-                Response.class);
-        Response exist = re.getBody();
-
-        return exist.getStatus() == 1;
+        return stationDictionaryClient.exists(stationName);
     }
 
     public List<TrainType> queryTrainTypeByNames(List<String> trainTypeNames, HttpHeaders headers) {
@@ -439,47 +399,38 @@ public class BasicServiceImpl implements BasicService {
         }
     }
 
-    private PriceConfig queryPriceConfigByRouteIdAndTrainType(String routeId, String trainType, HttpHeaders headers) {
-        BasicServiceImpl.LOGGER.info("[queryPriceConfigByRouteIdAndTrainType][Query For Price Config][RouteId: {} ,TrainType: {}]", routeId, trainType);
-        HttpEntity requestEntity = new HttpEntity(null, null);
+    /**
+     * looks the fares up in the fare matrices of the price service, in one call
+     *
+     * @return the prices of each query in order, null for a query without price config;
+     *         null if the price service cannot answer
+     */
+    private List<Map<String, Amount>> queryFares(List<FareQuery> fareQueries, HttpHeaders headers) {
+        BasicServiceImpl.LOGGER.info("[queryFares][Query For Fares][queries: {}]", fareQueries.size());
+        HttpEntity requestEntity = new HttpEntity(fareQueries, null);
         String price_service_url=getServiceUrl("ts-price-service");
-        ResponseEntity<Response> re = restTemplate.exchange(
-                price_service_url + "/api/v1/priceservice/prices/" + routeId + "/" + trainType,
-                HttpMethod.GET,
-                requestEntity,
-                Response.class);
-        Response result = re.getBody();
-
-        BasicServiceImpl.LOGGER.info("[queryPriceConfigByRouteIdAndTrainType][Response Resutl to String][result: {}]", result.toString());
-        return  JsonUtils.conveterObject(result.getData(), PriceConfig.class);
-    }
-
-    private Map<String, PriceConfig> queryPriceConfigByRouteIdsAndTrainTypes(List<String> routeIdsTypes, HttpHeaders headers) {
-        BasicServiceImpl.LOGGER.info("[queryPriceConfigByRouteIdsAndTrainTypes][Query For Price Config][RouteId and TrainType: {}]", routeIdsTypes);
-        HttpEntity requestEntity = new HttpEntity(routeIdsTypes, null);
-        String price_service_url=getServiceUrl("ts-price-service");
-        ResponseEntity<Response> re = restTemplate.exchange(
-                price_service_url + "/api/v1/priceservice/prices/byRouteIdsAndTrainTypes",
+        ResponseEntity<Response<List<Map<String, Amount>>>> re = restTemplate.exchange(
+                price_service_url + "/api/v1/priceservice/prices/fares",
                 HttpMethod.POST,
                 requestEntity,
-                Response.class);
-        Response<Map<String, PriceConfig>> result = re.getBody();
-
-        Map<String, PriceConfig> pcMap;
-        if ( result.getStatus() == 0) {
-            BasicServiceImpl.LOGGER.warn("[queryPriceConfigByRouteIdsAndTrainTypes][Get Price Config by routeId and trainType Failed][Fail msg: {}]", result.getMsg());
+                new ParameterizedTypeReference<Response<List<Map<String, Amount>>>>() {
+                });
+        Response<List<Map<String, Amount>>> result = re.getBody();
+        if (result == null || result.getStatus() == null || result.getStatus() != 1 || result.getData() == null
+                || result.getData().size() != fareQueries.size()) {
+            BasicServiceImpl.LOGGER.warn("[queryFares][Query For Fares Failed][Fail msg: {}]", result == null ? null : result.getMsg());
             return null;
-        } else {
-            ObjectMapper mapper = new ObjectMapper();
-            try{
-                pcMap = mapper.readValue(JsonUtils.object2Json(result.getData()), new TypeReference<Map<String, PriceConfig>>(){});
-            }catch(Exception e) {
-                BasicServiceImpl.LOGGER.warn("[queryPriceConfigByRouteIdsAndTrainTypes][Get Price Config by routeId and trainType Failed][Fail msg: {}]", e.getMessage());
-                return null;
-            }
-            BasicServiceImpl.LOGGER.info("[queryPriceConfigByRouteIdsAndTrainTypes][Get Price Config by routeId and trainType][Success][priceConfigs: {}]", result.getData());
-            return pcMap;
         }
+        return result.getData();
+    }
+
+    private static Map<String, Amount> defaultPrices(Route route, String start, String end) {
+        int distance = route.getDistances().get(route.getStations().indexOf(end))
+                - route.getDistances().get(route.getStations().indexOf(start));
+        Map<String, Amount> prices = new HashMap<>();
+        prices.put("economyClass", Amount.of(distance * DEFAULT_BASIC_PRICE_RATE));
+        prices.put("confortClass", Amount.of(distance * DEFAULT_FIRST_CLASS_PRICE_RATE));
+        return prices;
     }
 
 }
@@ -1,7 +1,9 @@
 package fdse.microservice.service;
 
 import edu.fudan.common.entity.*;
+import edu.fudan.common.util.Amount;
 import edu.fudan.common.util.Response;
+import edu.fudan.common.util.StationDictionaryClient;
 import edu.fudan.common.util.StringUtils;
 import org.junit.Assert;
 import org.junit.Before;
@@ -12,10 +14,18 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RunWith(JUnit4.class)
@@ -27,6 +37,9 @@ public class BasicServiceImplTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Mock
+    private StationDictionaryClient stationDictionaryClient;
+
     private HttpHeaders headers = new HttpHeaders();
     private HttpEntity requestEntity = new HttpEntity(headers);
 
@@ -86,30 +99,76 @@ public class BasicServiceImplTest {
         Assert.assertEquals("Train type doesn't exist", result.getMsg());
     }
 
+    @Test
+    public void testQueryForTravels() {
+        Travel g = travel(new Trip(new TripId("G1234"), "GaoTieOne", "route_id"), "shanghai", "taiyuan");
+        Travel d = travel(new Trip(new TripId("D1345"), "DongCheOne", "route_id"), "nanjing", "taiyuan");
+        Map<String, String> stationIds = new LinkedHashMap<>();
+        stationIds.put("shanghai", "shanghai_id");
+        stationIds.put("taiyuan", "taiyuan_id");
+        stationIds.put("nanjing", "nanjing_id");
+        Mockito.when(stationDictionaryClient.idsOf(Mockito.anyList())).thenReturn(stationIds);
+        Mockito.when(restTemplate.exchange(Mockito.endsWith("/trains/byNames"), Mockito.eq(HttpMethod.POST),
+                Mockito.any(HttpEntity.class), Mockito.eq(Response.class)))
+                .thenReturn(new ResponseEntity<>(new Response<>(1, "Success",
+                        Arrays.asList(new TrainType("GaoTieOne", 10, 10, 250), new TrainType("DongCheOne", 10, 10, 200))), HttpStatus.OK));
+        Route route = new Route("route_id", Arrays.asList("shanghai", "nanjing", "taiyuan"), Arrays.asList(0, 350, 1300), "shanghai", "taiyuan");
+        Mockito.when(restTemplate.exchange(Mockito.contains("/routes/byIds"), Mockito.eq(HttpMethod.POST),
+                Mockito.any(HttpEntity.class), Mockito.eq(Response.class)))
+                .thenReturn(new ResponseEntity<>(new Response<>(1, "Success", Collections.singletonList(route)), HttpStatus.OK));
+        Map<String, Amount> gPrices = new HashMap<>();
+        gPrices.put("economyClass", Amount.parse("650.0"));
+        gPrices.put("confortClass", Amount.parse("1300.0"));
+        Mockito.when(restTemplate.exchange(Mockito.endsWith("/prices/fares"), Mockito.eq(HttpMethod.POST),
+                Mockito.any(HttpEntity.class), Mockito.any(ParameterizedTypeReference.class)))
+                .thenAnswer(invocation -> {
+                    List<FareQuery> queries = (List<FareQuery>) ((HttpEntity) invocation.getArgument(2)).getBody();
+                    List<Map<String, Amount>> fares = new ArrayList<>();
+                    for (FareQuery query : queries) {
+                        // no price config for DongCheOne
+                        fares.add("GaoTieOne".equals(query.getTrainType()) ? gPrices : null);
+                    }
+                    return new ResponseEntity<>(new Response<>(1, "Success", fares), HttpStatus.OK);
+                });
+
+        Response result = basicServiceImpl.queryForTravels(Arrays.asList(g, d), headers);
+        Map<String, TravelResult> results = (Map<String, TravelResult>) result.getData();
+        Assert.assertEquals(gPrices, results.get("G1234").getPrices());
+        Assert.assertEquals(Amount.parse("712.5"), results.get("D1345").getPrices().get("economyClass"));
+        Assert.assertEquals(Amount.parse("950.0"), results.get("D1345").getPrices().get("confortClass"));
+        Mockito.verify(restTemplate, Mockito.never()).exchange(Mockito.contains("/prices/byRouteIdsAndTrainTypes"),
+                Mockito.any(HttpMethod.class), Mockito.any(HttpEntity.class), Mockito.eq(Response.class));
+    }
+
+    private static Travel travel(Trip trip, String startPlace, String endPlace) {
+        Travel info = new Travel();
+        info.setTrip(trip);
+        info.setStartPlace(startPlace);
+        info.setEndPlace(endPlace);
+        info.setDepartureTime(StringUtils.Date2String(new Date()));
+        return info;
+    }
+
     @Test
     public void testQueryForStationId() {
-        Response response = new Response<>(1, null, null);
-        ResponseEntity<Response> re = new ResponseEntity<>(response, HttpStatus.OK);
-        Mockito.when(restTemplate.exchange(
-                "http://ts-station-service:12345/api/v1/stationservice/stations/id/" + "stationName",
-                HttpMethod.GET,
-                requestEntity,
-                Response.class)).thenReturn(re);
+        Mockito.when(stationDictionaryClient.idOf("stationName")).thenReturn("station_id");
+        Response result = basicServiceImpl.queryForStationId("stationName", headers);
+        Assert.assertEquals(new Response<>(1, "Success", "station_id"), result);
+    }
+
+    @Test
+    public void testQueryForStationIdNotExists() {
+        Mockito.when(stationDictionaryClient.idOf("stationName")).thenReturn(null);
         Response result = basicServiceImpl.queryForStationId("stationName", headers);
-        Assert.assertEquals(new Response<>(1, null, null), result);
+        Assert.assertEquals(new Response<>(0, "Not exists", null), result);
     }
 
     @Test
     public void testCheckStationExists() {
-        Response response = new Response<>(1, null, null);
-        ResponseEntity<Response> re = new ResponseEntity<>(response, HttpStatus.OK);
-        Mockito.when(restTemplate.exchange(
-                "http://ts-station-service:12345/api/v1/stationservice/stations/id/" + "stationName",
-                HttpMethod.GET,
-                requestEntity,
-                Response.class)).thenReturn(re);
+        Mockito.when(stationDictionaryClient.exists("stationName")).thenReturn(true);
         Boolean result = basicServiceImpl.checkStationExists("stationName", headers);
         Assert.assertTrue(result);
+        Mockito.verifyZeroInteractions(restTemplate);
     }
 
     @Test
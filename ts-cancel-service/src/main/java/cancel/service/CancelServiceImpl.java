@@ -19,7 +19,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
-import java.text.DecimalFormat;
 import java.util.Calendar;
 import java.util.Date;
 
@@ -79,7 +78,7 @@ public class CancelServiceImpl implements CancelService {
                         notifyInfo.setUsername(result.getData().getUserName());
                         notifyInfo.setSeatNumber(order.getSeatNumber());
                         notifyInfo.setOrderNumber(order.getId().toString());
-                        notifyInfo.setPrice(order.getPrice());
+                        notifyInfo.setPrice(order.getPrice().toString());
                         notifyInfo.setSeatClass(SeatClass.getNameByCode(order.getSeatClass()));
                         notifyInfo.setStartTime(order.getTravelTime().toString());
 
@@ -225,10 +224,7 @@ public class CancelServiceImpl implements CancelService {
             CancelServiceImpl.LOGGER.warn("[calculateRefund][Cancel Order, Ticket expire refund 0]");
             return "0";
         } else {
-            double totalPrice = Double.parseDouble(order.getPrice());
-            double price = totalPrice * 0.8;
-            DecimalFormat priceFormat = new java.text.DecimalFormat("0.00");
-            String str = priceFormat.format(price);
+            String str = order.getPrice().times(0.8).toFixedString();
             CancelServiceImpl.LOGGER.info("[calculateRefund][calculate refund][refund: {}]", str);
             return str;
         }
@@ -0,0 +1,141 @@
+package edu.fudan.common.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.access.AccessType;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hibernate second-level cache kept in the heap of each instance, for reference data
+ * that is read on most requests and rarely written. Enabled with
+ * hibernate.cache.region.factory_class=edu.fudan.common.cache.LocalRegionFactory.
+ *
+ * Every entity and query results region is bounded and expires its entries, set per
+ * region under hibernate.cache.local:
+ *
+ * <pre>
+ * hibernate.cache.local.default.maximum-size=10000
+ * hibernate.cache.local.default.ttl-seconds=300
+ * hibernate.cache.local.regions.station.maximum-size=2000
+ * hibernate.cache.local.regions.station.ttl-seconds=600
+ * </pre>
+ *
+ * Writes through this instance update the cache in their transaction; writes through
+ * other instances are seen once the entries expire. The update timestamps region
+ * holds one entry per table and is never bounded, as a dropped timestamp would let
+ * stale query results through.
+ *
+ * Each region reports hibernate.cache.local.{hits,misses,puts,evictions,size} tagged
+ * with its name, which actuator serves under /actuator/metrics.
+ *
+ * @author fdse
+ */
+public class LocalRegionFactory extends RegionFactoryTemplate {
+
+    public static final String PREFIX = "hibernate.cache.local.";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalRegionFactory.class);
+
+    private static final int DEFAULT_MAXIMUM_SIZE = 10000;
+
+    private static final long DEFAULT_TTL_SECONDS = 300;
+
+    private final Map<String, LocalStorageAccess> regions = new ConcurrentHashMap<>();
+
+    private Map<?, ?> settings = Collections.emptyMap();
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions options, Map configValues) {
+        settings = configValues;
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        for (LocalStorageAccess region : regions.values()) {
+            region.release();
+        }
+        regions.clear();
+    }
+
+    @Override
+    public AccessType getDefaultAccessType() {
+        return AccessType.READ_WRITE;
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return bounded(regionConfig.getRegionName());
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return bounded(regionName);
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return register(new LocalStorageAccess(regionName, 0, 0));
+    }
+
+    /**
+     * @return storage of every region built so far
+     */
+    public Collection<LocalStorageAccess> getRegions() {
+        return Collections.unmodifiableCollection(regions.values());
+    }
+
+    private LocalStorageAccess bounded(String regionName) {
+        int maximumSize = (int) setting(regionName, "maximum-size", DEFAULT_MAXIMUM_SIZE);
+        long ttlSeconds = setting(regionName, "ttl-seconds", DEFAULT_TTL_SECONDS);
+        LOGGER.info("[bounded][Build cache region][region: {}, maximum-size: {}, ttl-seconds: {}]", regionName, maximumSize, ttlSeconds);
+        return register(new LocalStorageAccess(regionName, maximumSize, ttlSeconds * 1000));
+    }
+
+    private LocalStorageAccess register(LocalStorageAccess region) {
+        regions.put(region.getRegionName(), region);
+        bindTo(Metrics.globalRegistry, region);
+        return region;
+    }
+
+    /**
+     * @return the region's setting, else the default setting, else defaultValue
+     */
+    private long setting(String regionName, String name, long defaultValue) {
+        Object value = settings.get(PREFIX + "regions." + regionName + "." + name);
+        if (value == null) {
+            value = settings.get(PREFIX + "default." + name);
+        }
+        return value == null ? defaultValue : Long.parseLong(value.toString().trim());
+    }
+
+    private static void bindTo(MeterRegistry registry, LocalStorageAccess region) {
+        String name = region.getRegionName();
+        FunctionCounter.builder("hibernate.cache.local.hits", region, LocalStorageAccess::getHits)
+                .tag("region", name).description("Lookups answered from the cache region").register(registry);
+        FunctionCounter.builder("hibernate.cache.local.misses", region, LocalStorageAccess::getMisses)
+                .tag("region", name).description("Lookups not found in the cache region").register(registry);
+        FunctionCounter.builder("hibernate.cache.local.puts", region, LocalStorageAccess::getPuts)
+                .tag("region", name).description("Entries put into the cache region").register(registry);
+        FunctionCounter.builder("hibernate.cache.local.evictions", region, LocalStorageAccess::getEvictions)
+                .tag("region", name).description("Entries dropped because the cache region was full").register(registry);
+        Gauge.builder("hibernate.cache.local.size", region, LocalStorageAccess::size)
+                .tag("region", name).description("Entries currently in the cache region").register(registry);
+    }
+
+}
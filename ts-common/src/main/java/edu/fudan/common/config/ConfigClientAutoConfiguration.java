@@ -0,0 +1,35 @@
+package edu.fudan.common.config;
+
+import edu.fudan.common.util.ConfigClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnSingleCandidate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Provides a {@link ConfigClient} to every service with a RestTemplate, loaded
+ * through spring.factories. The client only talks to the config service once a
+ * config is read. ts.config-client.poll-timeout-ms sets how long a watch request
+ * waits for a change, 30 seconds by default.
+ *
+ * @author fdse
+ */
+@Configuration
+@ConditionalOnClass(RestTemplate.class)
+@ConditionalOnProperty(name = "ts.config-client.enabled", matchIfMissing = true)
+public class ConfigClientAutoConfiguration {
+
+    @Bean
+    @ConditionalOnSingleCandidate(RestTemplate.class)
+    @ConditionalOnMissingBean
+    public ConfigClient configClient(RestTemplate restTemplate, Environment environment) {
+        return new ConfigClient(restTemplate,
+                environment.getProperty("ts.config-client.url", "http://ts-config-service"),
+                environment.getProperty("ts.config-client.poll-timeout-ms", Long.class, 30000L));
+    }
+
+}
@@ -0,0 +1,71 @@
+package edu.fudan.common.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Gzip for the JSON responses of every service, loaded through spring.factories.
+ *
+ * Responses of at least ts.compression.min-response-size are compressed when the
+ * caller accepts gzip, unless server.compression is configured by the service
+ * itself. RestTemplates built from RestTemplateBuilder accept and inflate gzip.
+ * ts.compression.enabled=false turns both off.
+ *
+ * @author fdse
+ */
+@Configuration
+@ConditionalOnProperty(name = "ts.compression.enabled", matchIfMissing = true)
+public class HttpCompressionAutoConfiguration {
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public WebServerFactoryCustomizer<ConfigurableServletWebServerFactory> compressionCustomizer(Environment environment) {
+        return new CompressionCustomizer(environment);
+    }
+
+    @Bean
+    @ConditionalOnClass(RestTemplate.class)
+    public RestTemplateCustomizer gzipRestTemplateCustomizer() {
+        return restTemplate -> restTemplate.getInterceptors().add(new GzipClientHttpRequestInterceptor());
+    }
+
+    static class CompressionCustomizer implements WebServerFactoryCustomizer<ConfigurableServletWebServerFactory>, Ordered {
+
+        private final Environment environment;
+
+        CompressionCustomizer(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public void customize(ConfigurableServletWebServerFactory factory) {
+            if (environment.containsProperty("server.compression.enabled")) {
+                return;
+            }
+            Compression compression = new Compression();
+            compression.setEnabled(true);
+            compression.setMimeTypes(new String[]{"application/json", "application/xml", "text/html", "text/plain"});
+            compression.setMinResponseSize(DataSize.ofBytes(
+                    environment.getProperty("ts.compression.min-response-size", Long.class, 2048L)));
+            factory.setCompression(compression);
+        }
+
+        @Override
+        public int getOrder() {
+            // after the customizer that applies server.* properties
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+
+}
@@ -0,0 +1,22 @@
+package edu.fudan.common.config;
+
+import edu.fudan.common.security.jwt.InternalIdentity;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Warns at the startup of a servlet service when the identity headers of
+ * ts-gateway-service are enabled but ignored for want of a shared secret, loaded
+ * through spring.factories. See {@link InternalIdentity}.
+ *
+ * @author fdse
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class InternalIdentityAutoConfiguration {
+
+    public InternalIdentityAutoConfiguration() {
+        InternalIdentity.checkConfigured();
+    }
+
+}
@@ -0,0 +1,34 @@
+package edu.fudan.common.config;
+
+import edu.fudan.common.util.StationDictionaryClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnSingleCandidate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Provides a {@link StationDictionaryClient} to every service with a RestTemplate,
+ * loaded through spring.factories. ts.station-dictionary.refresh-ms sets how often
+ * the local copy is checked against the station service, 30 seconds by default.
+ *
+ * @author fdse
+ */
+@Configuration
+@ConditionalOnClass(RestTemplate.class)
+@ConditionalOnProperty(name = "ts.station-dictionary.enabled", matchIfMissing = true)
+public class StationDictionaryAutoConfiguration {
+
+    @Bean
+    @ConditionalOnSingleCandidate(RestTemplate.class)
+    @ConditionalOnMissingBean
+    public StationDictionaryClient stationDictionaryClient(RestTemplate restTemplate, Environment environment) {
+        return new StationDictionaryClient(restTemplate,
+                environment.getProperty("ts.station-dictionary.url", "http://ts-station-service"),
+                environment.getProperty("ts.station-dictionary.refresh-ms", Long.class, 30000L));
+    }
+
+}
@@ -0,0 +1,29 @@
+package edu.fudan.common.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * All configs of ts-config-service as name to value, with a version that changes
+ * whenever a config is created, updated or deleted. configs is null when the caller
+ * already has this version.
+ *
+ * @author fdse
+ */
+@Data
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ConfigSnapshot {
+
+    private String version;
+
+    private Map<String, String> configs;
+
+    public ConfigSnapshot() {
+        //Default Constructor
+    }
+
+}
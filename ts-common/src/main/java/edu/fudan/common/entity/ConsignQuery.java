@@ -0,0 +1,21 @@
+package edu.fudan.common.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of the batch consign quote POST /api/v1/consignpriceservice/consignprice/quotes.
+ *
+ * @author fdse
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConsignQuery {
+
+    private double weight;
+
+    private boolean withinRegion;
+
+}
@@ -0,0 +1,43 @@
+package edu.fudan.common.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * The consignment tariff of ts-consign-price-service: a flat price up to the initial
+ * weight, and a price per extra weight that depends on whether the consignment stays
+ * within the region. Read from the service's price config, whose id and index are
+ * ignored.
+ *
+ * @author fdse
+ */
+@Data
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ConsignTariff {
+
+    private double initialWeight;
+
+    private double initialPrice;
+
+    private double withinPrice;
+
+    private double beyondPrice;
+
+    public ConsignTariff() {
+        //Default Constructor
+    }
+
+    /**
+     * @return the price of consigning weight
+     */
+    public double quote(double weight, boolean withinRegion) {
+        if (weight <= initialWeight) {
+            return initialPrice;
+        }
+        double extraWeight = weight - initialWeight;
+        return initialPrice + extraWeight * (withinRegion ? withinPrice : beyondPrice);
+    }
+
+}
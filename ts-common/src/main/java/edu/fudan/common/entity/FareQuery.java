@@ -0,0 +1,25 @@
+package edu.fudan.common.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of the batch fare lookup POST /api/v1/priceservice/prices/fares.
+ *
+ * @author fdse
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FareQuery {
+
+    private String routeId;
+
+    private String trainType;
+
+    private String startStation;
+
+    private String endStation;
+
+}
@@ -2,6 +2,7 @@ package edu.fudan.common.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import edu.fudan.common.entity.SeatClass;
+import edu.fudan.common.util.Amount;
 import edu.fudan.common.util.StringUtils;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -54,7 +55,7 @@ public class Order {
 
     private int status;
 
-    private String price;
+    private Amount price;
 
     private String differenceMoney;
 
@@ -68,7 +69,7 @@ public class Order {
         from = "shanghai";
         to = "taiyuan";
         status = OrderStatus.PAID.getCode();
-        price = "0.0";
+        price = Amount.ZERO;
         differenceMoney ="0.0";
     }
 
@@ -1,5 +1,6 @@
 package edu.fudan.common.entity;
 
+import edu.fudan.common.util.Amount;
 import edu.fudan.common.util.StringUtils;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -26,9 +27,9 @@ public class RoutePlanResultUnit {
 
     private List<String> stopStations;
 
-    private String priceForSecondClassSeat;
+    private Amount priceForSecondClassSeat;
 
-    private String priceForFirstClassSeat;
+    private Amount priceForFirstClassSeat;
 
     private String startTime;
 
@@ -0,0 +1,39 @@
+package edu.fudan.common.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The part of a route between two of its stations, as answered by
+ * GET /api/v1/routeservice/routes/segments/{start}/{end}.
+ *
+ * @author fdse
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RouteSegment {
+
+    private String routeId;
+
+    /**
+     * position of the start station on the route, starting at 0
+     */
+    private int startPosition;
+
+    /**
+     * position of the end station on the route, always after startPosition
+     */
+    private int endPosition;
+
+    /**
+     * distance travelled between the two stations
+     */
+    private int distance;
+
+    public int getStopCount() {
+        return endPosition - startPosition;
+    }
+
+}
@@ -0,0 +1,28 @@
+package edu.fudan.common.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * All stations as id to name, with a version that changes whenever a station is
+ * added, renamed or removed. stations is null when the caller already has this version.
+ *
+ * @author fdse
+ */
+@Data
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class StationDictionary {
+
+    private String version;
+
+    private Map<String, String> stations;
+
+    public StationDictionary() {
+        //Default Constructor
+    }
+
+}
@@ -1,8 +1,10 @@
 package edu.fudan.common.entity;
 
-import java.util.Map;
+import edu.fudan.common.util.Amount;
 import lombok.*;
 
+import java.util.Map;
+
 /**
  * @author fdse
  */
@@ -17,7 +19,7 @@ public class TravelResult {
 
     private Route route;
 
-    private Map<String,String> prices;
+    private Map<String, Amount> prices;
 
     public TravelResult(){
         //Default Constructor
@@ -1,5 +1,6 @@
 package edu.fudan.common.entity;
 
+import edu.fudan.common.util.Amount;
 import edu.fudan.common.util.StringUtils;
 import lombok.Data;
 
@@ -51,11 +52,11 @@ public class TripResponse {
 
     @Valid
     @NotNull
-    private String priceForEconomyClass;
+    private Amount priceForEconomyClass;
 
     @Valid
     @NotNull
-    private String priceForConfortClass;
+    private Amount priceForConfortClass;
 
     public TripResponse(){
         //Default Constructor
@@ -66,8 +67,8 @@ public class TripResponse {
         this.endTime = "";
         this.economyClass = 0;
         this.confortClass = 0;
-        this.priceForEconomyClass = "";
-        this.priceForConfortClass = "";
+        this.priceForEconomyClass = null;
+        this.priceForConfortClass = null;
     }
 
 //    public Date getStartTime(){
@@ -0,0 +1,170 @@
+package edu.fudan.common.security.jwt;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.servlet.http.HttpServletRequest;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Identity headers added by ts-gateway-service after it has verified the bearer token.
+ *
+ * The gateway signs the principal, roles, token expiry and the digest of the token
+ * with HMAC-SHA256 under a secret shared with the services, so a service that finds a
+ * valid signature for the token it received can trust the principal and roles without
+ * verifying the token again. Services forward incoming headers on their own calls, so
+ * the headers reach every hop of a request.
+ *
+ * The secret is read from INTERNAL_IDENTITY_SECRET and must match the gateway's. There
+ * is no default: without it the headers are ignored and every token is verified by the
+ * service itself, with a warning at startup, see {@link #checkConfigured()}.
+ * INTERNAL_IDENTITY_ENABLED=false makes services ignore the headers without a warning.
+ *
+ * @author fdse
+ */
+public final class InternalIdentity {
+
+    /**
+     * ts-gateway-service removes every header with this prefix sent by clients, so such
+     * a header reaching a service was set by another service
+     */
+    public static final String HEADER_PREFIX = "X-Internal-";
+
+    public static final String USER_HEADER = "X-Internal-User";
+
+    public static final String ROLES_HEADER = "X-Internal-Roles";
+
+    public static final String EXPIRES_HEADER = "X-Internal-Expires";
+
+    public static final String SIGNATURE_HEADER = "X-Internal-Signature";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InternalIdentity.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final boolean ENABLED = !"false".equalsIgnoreCase(System.getenv("INTERNAL_IDENTITY_ENABLED"));
+
+    private static final String SECRET_VARIABLE = "INTERNAL_IDENTITY_SECRET";
+
+    private static final byte[] SECRET = secret().getBytes(StandardCharsets.UTF_8);
+
+    private InternalIdentity() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @return the claims carried by the identity headers, or null if they are absent,
+     * not signed for this token, or past the token's expiry
+     */
+    public static VerifiedClaimsCache.VerifiedClaims fromRequest(HttpServletRequest request, String token) {
+        return ENABLED ? fromRequest(request, token, SECRET) : null;
+    }
+
+    /**
+     * @param secret the secret shared with ts-gateway-service
+     * @return the claims carried by the identity headers, or null if they are absent,
+     * not signed for this token under the secret, or past the token's expiry
+     */
+    public static VerifiedClaimsCache.VerifiedClaims fromRequest(HttpServletRequest request, String token, byte[] secret) {
+        if (secret.length == 0 || token == null) {
+            return null;
+        }
+        String user = request.getHeader(USER_HEADER);
+        String roles = request.getHeader(ROLES_HEADER);
+        String expires = request.getHeader(EXPIRES_HEADER);
+        String signature = request.getHeader(SIGNATURE_HEADER);
+        if (user == null || roles == null || expires == null || signature == null) {
+            return null;
+        }
+        long expiresAt;
+        try {
+            expiresAt = Long.parseLong(expires);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (expiresAt <= System.currentTimeMillis()) {
+            return null;
+        }
+        String expected = sign(secret, user, roles, expiresAt, VerifiedClaimsCache.digest(token));
+        if (!MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), signature.getBytes(StandardCharsets.UTF_8))) {
+            return null;
+        }
+        List<String> roleList = roles.isEmpty() ? Collections.<String>emptyList() : Arrays.asList(roles.split(","));
+        try {
+            return new VerifiedClaimsCache.VerifiedClaims(URLDecoder.decode(user, "UTF-8"), roleList, expiresAt);
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param user URL encoded principal, as sent in USER_HEADER
+     * @param roles comma separated roles, as sent in ROLES_HEADER
+     * @param expiresAt token expiry in milliseconds
+     * @param tokenDigest Base64 SHA-256 digest of the bearer token
+     * @return Base64 URL-safe HMAC-SHA256 signature
+     */
+    public static String sign(byte[] secret, String user, String roles, long expiresAt, String tokenDigest) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret, ALGORITHM));
+            String payload = user + "\n" + roles + "\n" + expiresAt + "\n" + tokenDigest;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    /**
+     * @return the Authorization and identity headers of the caller, for a call made on
+     * its behalf
+     */
+    public static HttpHeaders credentialsOf(HttpHeaders headers) {
+        HttpHeaders credentials = new HttpHeaders();
+        for (String name : Arrays.asList(HttpHeaders.AUTHORIZATION, USER_HEADER, ROLES_HEADER, EXPIRES_HEADER, SIGNATURE_HEADER)) {
+            List<String> values = headers.get(name);
+            if (values != null) {
+                credentials.put(name, values);
+            }
+        }
+        return credentials;
+    }
+
+    /**
+     * Logs a warning if the headers are enabled but INTERNAL_IDENTITY_SECRET is not set.
+     *
+     * @return whether the identity headers are accepted
+     */
+    public static boolean checkConfigured() {
+        return checkConfigured(ENABLED, secret());
+    }
+
+    static boolean checkConfigured(boolean enabled, String secret) {
+        if (!enabled) {
+            return false;
+        }
+        if (secret.isEmpty()) {
+            LOGGER.warn("[checkConfigured][Identity headers ignored, {} not set][set it to the secret of ts-gateway-service to accept them]", SECRET_VARIABLE);
+            return false;
+        }
+        return true;
+    }
+
+    private static String secret() {
+        String secret = System.getenv(SECRET_VARIABLE);
+        return secret == null ? "" : secret.trim();
+    }
+
+}
@@ -2,6 +2,7 @@ package edu.fudan.common.security.jwt;
 
 import edu.fudan.common.exception.TokenException;
 import io.jsonwebtoken.*;
+import io.micrometer.core.instrument.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -30,15 +31,34 @@ public class JWTUtil {
     private static final Logger LOGGER = LoggerFactory.getLogger(JWTUtil.class);
     private static String secretKey = Base64.getEncoder().encodeToString("secret".getBytes());
 
+    /**
+     * verified tokens kept per service, -Djwt.claims-cache.max-entries=0 disables the cache
+     */
+    private static final VerifiedClaimsCache CLAIMS_CACHE =
+            new VerifiedClaimsCache(Integer.getInteger("jwt.claims-cache.max-entries", 10000));
+
+    static {
+        CLAIMS_CACHE.bindTo(Metrics.globalRegistry);
+    }
+
 
     public static Authentication getJWTAuthentication(ServletRequest request) {
-        String token = getTokenFromHeader((HttpServletRequest) request);
-        if (token != null && validateToken(token)) {
+        HttpServletRequest httpServletRequest = (HttpServletRequest) request;
+        String token = getTokenFromHeader(httpServletRequest);
+        if (token != null) {
+            // fast path: the gateway has already verified this token and signed its claims
+            VerifiedClaimsCache.VerifiedClaims trusted = InternalIdentity.fromRequest(httpServletRequest, token);
+            VerifiedClaimsCache.VerifiedClaims claims = trusted != null ? trusted : getVerifiedClaims(token);
+            if (claims == null) {
+                return null;
+            }
+            List<SimpleGrantedAuthority> authorities =
+                    claims.getRoles().stream().map(SimpleGrantedAuthority::new).collect(Collectors.toList());
 
             UserDetails userDetails = new UserDetails() {
                 @Override
                 public Collection<? extends GrantedAuthority> getAuthorities() {
-                    return getRole(token).stream().map(SimpleGrantedAuthority::new).collect(Collectors.toList());
+                    return authorities;
                 }
 
                 @Override
@@ -48,7 +68,7 @@ public class JWTUtil {
 
                 @Override
                 public String getUsername() {
-                    return getUserName(token);
+                    return claims.getUsername();
                 }
 
                 @Override
@@ -72,18 +92,34 @@ public class JWTUtil {
                 }
             };
             // send to spring security
-            return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
+            return new UsernamePasswordAuthenticationToken(userDetails, "", authorities);
         }
         return null;
     }
 
-    private static String getUserName(String token) {
-        return getClaims(token).getBody().getSubject();
+    public static VerifiedClaimsCache getClaimsCache() {
+        return CLAIMS_CACHE;
     }
 
-    private static List<String> getRole(String token) {
-        Jws<Claims> claimsJws = getClaims(token);
-        return (List<String>) (claimsJws.getBody().get("roles", List.class));
+    /**
+     * Verify the token once and cache its claims until it expires.
+     *
+     * @return the claims, or null if the token carries no expiration
+     */
+    private static VerifiedClaimsCache.VerifiedClaims getVerifiedClaims(String token) {
+        String key = VerifiedClaimsCache.digest(token);
+        VerifiedClaimsCache.VerifiedClaims claims = CLAIMS_CACHE.get(key, System.currentTimeMillis());
+        if (claims != null) {
+            return claims;
+        }
+        Claims body = validateToken(token);
+        if (body == null) {
+            return null;
+        }
+        claims = new VerifiedClaimsCache.VerifiedClaims(body.getSubject(),
+                (List<String>) body.get("roles", List.class), body.getExpiration().getTime());
+        CLAIMS_CACHE.put(key, claims);
+        return claims;
     }
 
     private static String getTokenFromHeader(HttpServletRequest request) {
@@ -94,10 +130,13 @@ public class JWTUtil {
         return null;
     }
 
-    private static boolean validateToken(String token) {
+    private static Claims validateToken(String token) {
         try {
-            Jws<Claims> claimsJws = getClaims(token);
-            return !claimsJws.getBody().getExpiration().before(new Date());
+            Claims claims = getClaims(token).getBody();
+            if (claims.getExpiration() == null || claims.getExpiration().before(new Date())) {
+                return null;
+            }
+            return claims;
         } catch (ExpiredJwtException e) {
             LOGGER.error("[validateToken][getClaims][Token expired][ExpiredJwtException: {} ]" , e);
             throw new TokenException("Token expired");
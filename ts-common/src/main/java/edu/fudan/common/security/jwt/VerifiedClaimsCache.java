@@ -0,0 +1,170 @@
+package edu.fudan.common.security.jwt;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Claims of tokens whose signature has already been verified, so a bearer
+ * token that is sent again skips parsing and signature verification.
+ *
+ * Entries are keyed by the SHA-256 digest of the token rather than the token
+ * itself, and are dropped once the token's exp is reached, so an expired
+ * token is parsed again and rejected as before. The cache keeps at most
+ * maxEntries tokens, least recently used first out.
+ *
+ * @author fdse
+ */
+public final class VerifiedClaimsCache {
+
+    private final int maxEntries;
+
+    private final Map<String, VerifiedClaims> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    public VerifiedClaimsCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<String, VerifiedClaims>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedClaims> eldest) {
+                if (size() > VerifiedClaimsCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @param key digest of the token
+     * @param now current time in milliseconds
+     * @return the cached claims, or null if absent or expired
+     */
+    public VerifiedClaims get(String key, long now) {
+        VerifiedClaims claims;
+        synchronized (entries) {
+            claims = entries.get(key);
+            if (claims != null && claims.getExpiresAt() <= now) {
+                entries.remove(key);
+                claims = null;
+            }
+        }
+        if (claims == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return claims;
+    }
+
+    public void put(String key, VerifiedClaims claims) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, claims);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * @return share of lookups answered from the cache, 0 before the first lookup
+     */
+    public double hitRate() {
+        long hit = hits.get();
+        long total = hit + misses.get();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    /**
+     * expose hits, misses, evictions, size and hit rate as jwt.claims.cache.* meters
+     */
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("jwt.claims.cache.hits", this, VerifiedClaimsCache::getHits)
+                .description("Tokens authenticated from cached claims").register(registry);
+        FunctionCounter.builder("jwt.claims.cache.misses", this, VerifiedClaimsCache::getMisses)
+                .description("Tokens parsed and verified").register(registry);
+        FunctionCounter.builder("jwt.claims.cache.evictions", this, VerifiedClaimsCache::getEvictions)
+                .description("Verified tokens dropped because the cache was full").register(registry);
+        Gauge.builder("jwt.claims.cache.size", this, VerifiedClaimsCache::size)
+                .description("Verified tokens currently cached").register(registry);
+        Gauge.builder("jwt.claims.cache.hit.rate", this, VerifiedClaimsCache::hitRate)
+                .description("Share of tokens authenticated from cached claims").register(registry);
+    }
+
+    /**
+     * @return Base64 SHA-256 digest of the token
+     */
+    public static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * subject, roles and expiry of a verified token
+     */
+    public static final class VerifiedClaims {
+
+        private final String username;
+
+        private final List<String> roles;
+
+        private final long expiresAt;
+
+        public VerifiedClaims(String username, List<String> roles, long expiresAt) {
+            this.username = username;
+            this.roles = roles == null ? Collections.<String>emptyList() : Collections.unmodifiableList(roles);
+            this.expiresAt = expiresAt;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public List<String> getRoles() {
+            return roles;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+    }
+
+}
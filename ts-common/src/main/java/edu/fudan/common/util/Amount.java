@@ -0,0 +1,265 @@
+package edu.fudan.common.util;
+
+import com.alibaba.fastjson.annotation.JSONType;
+import com.alibaba.fastjson.parser.DefaultJSONParser;
+import com.alibaba.fastjson.parser.JSONToken;
+import com.alibaba.fastjson.parser.deserializer.ObjectDeserializer;
+import com.alibaba.fastjson.serializer.ToStringSerializer;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.io.Serializable;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money as a whole number of cents, for prices, refunds and balances.
+ *
+ * Amounts used to travel as strings and were parsed into doubles or BigDecimals
+ * wherever they were compared or added. An Amount is parsed once where it enters
+ * a service and after that compares and adds as a long.
+ *
+ * In JSON an Amount is still the string the services exchanged before, e.g.
+ * "650.0" or "712.5", so clients and services that expect strings keep working.
+ * It is read from a JSON string or number.
+ *
+ * @author fdse
+ */
+@JSONType(serializer = ToStringSerializer.class, deserializer = Amount.FastjsonDeserializer.class)
+public final class Amount implements Comparable<Amount>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int SCALE = 2;
+
+    private static final long UNIT = 100;
+
+    public static final Amount ZERO = new Amount(0);
+
+    private final long cents;
+
+    private Amount(long cents) {
+        this.cents = cents;
+    }
+
+    public static Amount ofCents(long cents) {
+        return cents == 0 ? ZERO : new Amount(cents);
+    }
+
+    /**
+     * @param value amount in yuan, rounded half up to cents
+     */
+    public static Amount of(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new NumberFormatException("Not an amount: " + value);
+        }
+        return ofCents(Math.round(value * UNIT));
+    }
+
+    /**
+     * Parses a decimal amount such as "650.0", "-12.345" or "1.0E7", rounding half up
+     * to cents.
+     *
+     * @throws NumberFormatException if the text is not a number
+     */
+    public static Amount parse(String text) {
+        if (text == null) {
+            throw new NumberFormatException("Not an amount: null");
+        }
+        String s = text.trim();
+        int length = s.length();
+        int i = 0;
+        boolean negative = false;
+        if (i < length && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+            negative = s.charAt(i) == '-';
+            i++;
+        }
+        long units = 0;
+        int digits = 0;
+        for (; i < length && Character.isDigit(s.charAt(i)); i++, digits++) {
+            if (digits >= 16) {
+                return parseSlow(s);
+            }
+            units = units * 10 + (s.charAt(i) - '0');
+        }
+        long fraction = 0;
+        if (i < length && s.charAt(i) == '.') {
+            i++;
+            int fractionDigits = 0;
+            boolean roundUp = false;
+            for (; i < length && Character.isDigit(s.charAt(i)); i++, fractionDigits++) {
+                if (fractionDigits < SCALE) {
+                    fraction = fraction * 10 + (s.charAt(i) - '0');
+                } else if (fractionDigits == SCALE) {
+                    roundUp = s.charAt(i) >= '5';
+                }
+                digits++;
+            }
+            for (int k = fractionDigits; k < SCALE; k++) {
+                fraction *= 10;
+            }
+            if (roundUp) {
+                fraction++;
+            }
+        }
+        if (i < length) {
+            // exponent or garbage, which BigDecimal tells apart
+            return parseSlow(s);
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Not an amount: " + text);
+        }
+        long cents = units * UNIT + fraction;
+        return ofCents(negative ? -cents : cents);
+    }
+
+    /**
+     * Reads an amount from a String or a Number, as found in JSON.
+     */
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Amount valueOf(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Amount) {
+            return (Amount) value;
+        }
+        if (value instanceof BigDecimal) {
+            return ofCents(((BigDecimal) value).setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+            return ofCents(((Number) value).longValue() * UNIT);
+        }
+        if (value instanceof Number) {
+            return of(((Number) value).doubleValue());
+        }
+        return parse(value.toString());
+    }
+
+    public static Amount fromBigDecimal(BigDecimal value) {
+        return valueOf(value);
+    }
+
+    public long getCents() {
+        return cents;
+    }
+
+    public Amount plus(Amount other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Amount minus(Amount other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    /**
+     * @param factor e.g. a price rate or refund ratio; the result is rounded half up to cents
+     */
+    public Amount times(double factor) {
+        return ofCents(Math.round(cents * factor));
+    }
+
+    public int signum() {
+        return Long.signum(cents);
+    }
+
+    public boolean isZero() {
+        return cents == 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    public double doubleValue() {
+        return cents / (double) UNIT;
+    }
+
+    /**
+     * @return the amount with exactly two decimals, e.g. "80.00"
+     */
+    public String toFixedString() {
+        StringBuilder sb = new StringBuilder(24);
+        appendUnits(sb);
+        long fraction = Math.abs(cents % UNIT);
+        sb.append('.');
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        return sb.append(fraction).toString();
+    }
+
+    /**
+     * @return the amount the way the services printed prices before, with at least
+     *         one decimal and no trailing zeros, e.g. "650.0", "712.5" or "0.35"
+     */
+    @JsonValue
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(24);
+        appendUnits(sb);
+        long fraction = Math.abs(cents % UNIT);
+        sb.append('.');
+        if (fraction == 0) {
+            sb.append('0');
+        } else if (fraction % 10 == 0) {
+            sb.append(fraction / 10);
+        } else {
+            if (fraction < 10) {
+                sb.append('0');
+            }
+            sb.append(fraction);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public int compareTo(Amount other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return this == obj || obj instanceof Amount && ((Amount) obj).cents == cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    private void appendUnits(StringBuilder sb) {
+        if (cents < 0) {
+            sb.append('-');
+        }
+        sb.append(Math.abs(cents / UNIT));
+    }
+
+    private static Amount parseSlow(String s) {
+        try {
+            return fromBigDecimal(new BigDecimal(s));
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: " + s);
+        }
+    }
+
+    /**
+     * Lets the fastjson based clients and tests read amounts from strings and numbers.
+     */
+    public static class FastjsonDeserializer implements ObjectDeserializer {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T deserialze(DefaultJSONParser parser, Type type, Object fieldName) {
+            return (T) valueOf(parser.parse());
+        }
+
+        @Override
+        public int getFastMatchToken() {
+            return JSONToken.LITERAL_STRING;
+        }
+
+    }
+
+}
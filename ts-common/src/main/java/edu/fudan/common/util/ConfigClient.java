@@ -0,0 +1,211 @@
+package edu.fudan.common.util;
+
+import edu.fudan.common.entity.ConfigSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Local copy of the configs of ts-config-service, so a config is read from memory
+ * instead of with a request per read.
+ *
+ * The copy is loaded on first use. After that a background thread keeps a watch
+ * request open against the config service, which answers as soon as a config
+ * changes or after poll-timeout-ms, so changes are seen within seconds. Listeners
+ * are told the names of the configs that changed. While the config service cannot
+ * be reached the last copy is used; before a first copy was loaded the request error
+ * is thrown to the caller.
+ *
+ * @author fdse
+ */
+public class ConfigClient implements AutoCloseable {
+
+    public static final String WATCH_PATH = "/api/v1/configservice/watch";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfigClient.class);
+
+    private static final long RETRY_MILLIS = 5000;
+
+    private final RestTemplate restTemplate;
+
+    private final String url;
+
+    private final long pollTimeoutMillis;
+
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile ConfigSnapshot snapshot;
+
+    private volatile boolean closed;
+
+    private Thread watcher;
+
+    public ConfigClient(RestTemplate restTemplate, String configServiceUrl, long pollTimeoutMillis) {
+        this.restTemplate = restTemplate;
+        this.url = configServiceUrl + WATCH_PATH;
+        this.pollTimeoutMillis = pollTimeoutMillis;
+    }
+
+    /**
+     * @return value of the config, or null if there is no such config
+     */
+    public String get(String name) {
+        return current().getConfigs().get(name);
+    }
+
+    public String get(String name, String defaultValue) {
+        String value = get(name);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * @return every config as name to value
+     */
+    public Map<String, String> getAll() {
+        return current().getConfigs();
+    }
+
+    public String getVersion() {
+        ConfigSnapshot seen = snapshot;
+        return seen == null ? null : seen.getVersion();
+    }
+
+    /**
+     * Starts watching the config service if nothing was read yet.
+     */
+    public void addListener(ChangeListener listener) {
+        listeners.add(listener);
+        startWatching();
+    }
+
+    public void removeListener(ChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+    }
+
+    private ConfigSnapshot current() {
+        ConfigSnapshot seen = snapshot;
+        return seen == null ? load() : seen;
+    }
+
+    private synchronized ConfigSnapshot load() {
+        if (snapshot == null) {
+            ConfigSnapshot loaded = fetch(null, 0);
+            if (loaded == null || loaded.getConfigs() == null) {
+                throw new RestClientException("Configs not available from " + url);
+            }
+            apply(loaded);
+        }
+        startWatching();
+        return snapshot;
+    }
+
+    private synchronized void startWatching() {
+        if (watcher == null && !closed) {
+            watcher = new Thread(this::watch, "config-watch");
+            watcher.setDaemon(true);
+            watcher.start();
+        }
+    }
+
+    private void watch() {
+        while (!closed) {
+            ConfigSnapshot seen = snapshot;
+            ConfigSnapshot polled = null;
+            try {
+                polled = fetch(seen == null ? null : seen.getVersion(), pollTimeoutMillis);
+            } catch (RestClientException e) {
+                LOGGER.warn("[watch][Config watch failed, using version {}][exception: {}]", getVersion(), e.toString());
+            }
+            if (polled == null) {
+                pause();
+            } else if (polled.getConfigs() != null) {
+                apply(polled);
+            }
+        }
+    }
+
+    /**
+     * @return the configs, with null configs if the caller's version is current;
+     *         null if the config service did not answer with configs
+     */
+    private ConfigSnapshot fetch(String version, long timeoutMillis) {
+        Response<ConfigSnapshot> response = restTemplate.exchange(
+                version == null ? url + "?timeoutMs=" + timeoutMillis : url + "?timeoutMs=" + timeoutMillis + "&version=" + version,
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<Response<ConfigSnapshot>>() {
+                }).getBody();
+        if (response == null || response.getData() == null || !Integer.valueOf(1).equals(response.getStatus())) {
+            LOGGER.warn("[fetch][Configs not available][response: {}]", response);
+            return null;
+        }
+        return response.getData();
+    }
+
+    private synchronized void apply(ConfigSnapshot loaded) {
+        ConfigSnapshot previous = snapshot;
+        if (previous != null && previous.getVersion().equals(loaded.getVersion())) {
+            return;
+        }
+        Map<String, String> configs = Collections.unmodifiableMap(loaded.getConfigs());
+        snapshot = new ConfigSnapshot(loaded.getVersion(), configs);
+        LOGGER.info("[apply][Configs loaded][version: {}, configs: {}]", loaded.getVersion(), configs.size());
+        if (previous == null) {
+            return;
+        }
+        Set<String> changed = new HashSet<>(previous.getConfigs().keySet());
+        changed.addAll(configs.keySet());
+        changed.removeIf(name -> Objects.equals(previous.getConfigs().get(name), configs.get(name)));
+        if (changed.isEmpty()) {
+            return;
+        }
+        Set<String> names = Collections.unmodifiableSet(changed);
+        for (ChangeListener listener : listeners) {
+            try {
+                listener.onChange(names);
+            } catch (RuntimeException e) {
+                LOGGER.error("[apply][Config listener failed][names: {}, exception: {}]", names, e.toString());
+            }
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(RETRY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            closed = true;
+        }
+    }
+
+    /**
+     * Called on the watch thread after configs were created, updated or deleted.
+     */
+    public interface ChangeListener {
+
+        /**
+         * @param names names of the changed configs; a deleted config now reads as null
+         */
+        void onChange(Set<String> names);
+    }
+
+}
@@ -0,0 +1,54 @@
+package edu.fudan.common.util;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Version of a data set, the MD5 of its rows. The version only depends on the
+ * content, so every instance of a service reports the same one for the same data
+ * and a client can ask any of them whether its copy is current.
+ *
+ * Rows must be added in a fixed order, for example sorted by key.
+ *
+ * @author fdse
+ */
+public final class ContentVersion {
+
+    private final StringBuilder content = new StringBuilder();
+
+    /**
+     * adds one row, its fields separated by tabs
+     */
+    public ContentVersion add(Object... fields) {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                content.append('\t');
+            }
+            content.append(fields[i]);
+        }
+        content.append('\n');
+        return this;
+    }
+
+    /**
+     * @return hex MD5 of the rows added so far
+     */
+    public String get() {
+        return DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param entries entries in a fixed order, such as a TreeMap
+     * @return version of the entries, one key and value row each
+     */
+    public static String of(Map<String, String> entries) {
+        ContentVersion version = new ContentVersion();
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            version.add(entry.getKey(), entry.getValue());
+        }
+        return version.get();
+    }
+
+}
@@ -0,0 +1,88 @@
+package edu.fudan.common.util;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+
+/**
+ * A list read page by page while it is being iterated, for list endpoints that
+ * would otherwise load every row before the response is written.
+ *
+ * Jackson writes an Iterable as a JSON array and pulls its elements one at a
+ * time, so a Response whose data is a PagedIterable has the same JSON as one
+ * holding the whole list, but only one page is held in memory while the body is
+ * written. The first page is read up front, so callers can still answer an
+ * empty result differently. Iteration stops after the first short page.
+ *
+ * @param <T> element type
+ * @author fdse
+ */
+@JsonSerialize(as = Iterable.class)
+public final class PagedIterable<T> implements Iterable<T> {
+
+    public static final int DEFAULT_PAGE_SIZE = 500;
+
+    private final List<T> firstPage;
+
+    private final int pageSize;
+
+    private final IntFunction<List<T>> pages;
+
+    private PagedIterable(List<T> firstPage, int pageSize, IntFunction<List<T>> pages) {
+        this.firstPage = firstPage;
+        this.pageSize = pageSize;
+        this.pages = pages;
+    }
+
+    /**
+     * @param pageSize rows per page
+     * @param pages reads the page with the given number, starting at 0
+     */
+    public static <T> PagedIterable<T> of(int pageSize, IntFunction<List<T>> pages) {
+        List<T> firstPage = pages.apply(0);
+        return new PagedIterable<>(firstPage == null ? Collections.<T>emptyList() : firstPage, pageSize, pages);
+    }
+
+    public boolean isEmpty() {
+        return firstPage.isEmpty();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+
+            private List<T> page = firstPage;
+
+            private int pageNumber;
+
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                if (index < page.size()) {
+                    return true;
+                }
+                if (page.size() < pageSize) {
+                    return false;
+                }
+                List<T> next = pages.apply(++pageNumber);
+                page = next == null ? Collections.<T>emptyList() : next;
+                index = 0;
+                return !page.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.get(index++);
+            }
+        };
+    }
+
+}
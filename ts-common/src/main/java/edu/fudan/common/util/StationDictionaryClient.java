@@ -0,0 +1,235 @@
+package edu.fudan.common.util;
+
+import edu.fudan.common.entity.StationDictionary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Local copy of the station dictionary of ts-station-service, so station names and
+ * ids are resolved with a map lookup instead of a request per station.
+ *
+ * The first copy is loaded by the first lookup. After that the copy is checked against
+ * the station service's version every refresh-ms on a background thread, while lookups
+ * keep using the copy they find. When a name or id is not found the copy is checked
+ * at once, at most every second, and the lookup waits for it, so new stations are
+ * seen at once. While the station service cannot be reached the last copy is used;
+ * before a first copy was loaded the request error is thrown to the caller.
+ *
+ * Names are matched the way ts-station-service stores them, without spaces and in
+ * lower case.
+ *
+ * @author fdse
+ */
+public class StationDictionaryClient {
+
+    public static final String DICTIONARY_PATH = "/api/v1/stationservice/stations/dictionary";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StationDictionaryClient.class);
+
+    private static final long MISS_REFRESH_MILLIS = 1000;
+
+    private final RestTemplate restTemplate;
+
+    private final String url;
+
+    private final long refreshMillis;
+
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "station-dictionary-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private volatile Snapshot snapshot = new Snapshot(null, Collections.emptyMap(), Long.MIN_VALUE / 2);
+
+    public StationDictionaryClient(RestTemplate restTemplate, String stationServiceUrl, long refreshMillis) {
+        this.restTemplate = restTemplate;
+        this.url = stationServiceUrl + DICTIONARY_PATH;
+        this.refreshMillis = refreshMillis;
+    }
+
+    /**
+     * @return id of the station, or null if there is no such station
+     */
+    public String idOf(String name) {
+        if (name == null) {
+            return null;
+        }
+        String key = normalize(name);
+        Snapshot seen = current();
+        String id = seen.ids.get(key);
+        if (id == null && refreshAfterMiss(seen)) {
+            id = snapshot.ids.get(key);
+        }
+        return id;
+    }
+
+    /**
+     * @return name of the station, or null if there is no such station
+     */
+    public String nameOf(String id) {
+        if (id == null) {
+            return null;
+        }
+        Snapshot seen = current();
+        String name = seen.names.get(id);
+        if (name == null && refreshAfterMiss(seen)) {
+            name = snapshot.names.get(id);
+        }
+        return name;
+    }
+
+    public boolean exists(String name) {
+        return idOf(name) != null;
+    }
+
+    /**
+     * @return every name mapped to its station id, or to null if there is no such station
+     */
+    public Map<String, String> idsOf(Collection<String> names) {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (String name : names) {
+            result.put(name, idOf(name));
+        }
+        return result;
+    }
+
+    public String getVersion() {
+        return snapshot.version;
+    }
+
+    /**
+     * Stops the background refresh.
+     */
+    public void close() {
+        refresher.shutdownNow();
+    }
+
+    private Snapshot current() {
+        Snapshot seen = snapshot;
+        if (System.currentTimeMillis() - seen.fetchedAt < refreshMillis) {
+            return seen;
+        }
+        if (seen.version == null) {
+            // nothing to answer with until the first copy is loaded
+            refresh(seen);
+            return snapshot;
+        }
+        if (refreshing.compareAndSet(false, true)) {
+            try {
+                refresher.execute(() -> refreshInBackground(seen));
+            } catch (RejectedExecutionException e) {
+                refreshing.set(false);
+            }
+        }
+        return seen;
+    }
+
+    private void refreshInBackground(Snapshot seen) {
+        try {
+            refresh(seen);
+        } catch (RuntimeException e) {
+            LOGGER.warn("[refreshInBackground][Station dictionary refresh failed][exception: {}]", e.toString());
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    private boolean refreshAfterMiss(Snapshot seen) {
+        if (snapshot != seen) {
+            // refreshed in the background meanwhile
+            return true;
+        }
+        if (System.currentTimeMillis() - seen.fetchedAt < MISS_REFRESH_MILLIS) {
+            return false;
+        }
+        refresh(seen);
+        return true;
+    }
+
+    private synchronized void refresh(Snapshot seen) {
+        if (snapshot != seen) {
+            // refreshed by another thread meanwhile
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try {
+            Response<StationDictionary> response = restTemplate.exchange(
+                    seen.version == null ? url : url + "?version=" + seen.version,
+                    HttpMethod.GET,
+                    null,
+                    new ParameterizedTypeReference<Response<StationDictionary>>() {
+                    }).getBody();
+            StationDictionary dictionary = response == null ? null : response.getData();
+            if (dictionary == null || !Integer.valueOf(1).equals(response.getStatus())) {
+                LOGGER.warn("[refresh][Station dictionary not available][response: {}]", response);
+                snapshot = seen.fetchedAt(now);
+            } else if (dictionary.getStations() == null) {
+                snapshot = seen.fetchedAt(now);
+            } else {
+                snapshot = new Snapshot(dictionary.getVersion(), dictionary.getStations(), now);
+                LOGGER.info("[refresh][Station dictionary loaded][version: {}, stations: {}]", dictionary.getVersion(), dictionary.getStations().size());
+            }
+        } catch (RestClientException e) {
+            if (seen.version == null) {
+                throw e;
+            }
+            LOGGER.warn("[refresh][Station dictionary refresh failed, using version {}][exception: {}]", seen.version, e.toString());
+            snapshot = seen.fetchedAt(now);
+        }
+    }
+
+    private static String normalize(String name) {
+        return name.replace(" ", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Snapshot {
+
+        final String version;
+
+        final Map<String, String> names;
+
+        final Map<String, String> ids;
+
+        final long fetchedAt;
+
+        Snapshot(String version, Map<String, String> names, long fetchedAt) {
+            this.version = version;
+            this.names = names;
+            this.ids = new HashMap<>();
+            for (Map.Entry<String, String> station : names.entrySet()) {
+                ids.put(normalize(station.getValue()), station.getKey());
+            }
+            this.fetchedAt = fetchedAt;
+        }
+
+        private Snapshot(Snapshot snapshot, long fetchedAt) {
+            this.version = snapshot.version;
+            this.names = snapshot.names;
+            this.ids = snapshot.ids;
+            this.fetchedAt = fetchedAt;
+        }
+
+        Snapshot fetchedAt(long fetchedAt) {
+            return new Snapshot(this, fetchedAt);
+        }
+    }
+
+}
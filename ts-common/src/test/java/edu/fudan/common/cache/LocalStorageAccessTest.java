@@ -0,0 +1,99 @@
+package edu.fudan.common.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class LocalStorageAccessTest {
+
+    @Test
+    public void testGetPut() {
+        LocalStorageAccess region = new LocalStorageAccess("region", 10, 60000);
+        Assert.assertNull(region.getFromCache("key", null));
+        region.putIntoCache("key", "value", null);
+        Assert.assertEquals("value", region.getFromCache("key", null));
+        Assert.assertTrue(region.contains("key"));
+        Assert.assertEquals(1, region.size());
+    }
+
+    @Test
+    public void testMaximumSize() {
+        LocalStorageAccess region = new LocalStorageAccess("region", 2, 60000);
+        region.putIntoCache("a", "1", null);
+        region.putIntoCache("b", "2", null);
+        // a is now the most recently used
+        region.getFromCache("a", null);
+        region.putIntoCache("c", "3", null);
+        Assert.assertEquals(2, region.size());
+        Assert.assertEquals("1", region.getFromCache("a", null));
+        Assert.assertNull(region.getFromCache("b", null));
+        Assert.assertEquals("3", region.getFromCache("c", null));
+        Assert.assertEquals(1, region.getEvictions());
+    }
+
+    @Test
+    public void testExpiry() throws InterruptedException {
+        LocalStorageAccess region = new LocalStorageAccess("region", 10, 50);
+        region.putIntoCache("key", "value", null);
+        Assert.assertEquals("value", region.getFromCache("key", null));
+        Thread.sleep(100);
+        Assert.assertNull(region.getFromCache("key", null));
+        Assert.assertFalse(region.contains("key"));
+        Assert.assertEquals(0, region.size());
+    }
+
+    @Test
+    public void testPutRestartsExpiry() throws InterruptedException {
+        LocalStorageAccess region = new LocalStorageAccess("region", 10, 200);
+        region.putIntoCache("key", "old", null);
+        Thread.sleep(120);
+        region.putIntoCache("key", "new", null);
+        Thread.sleep(120);
+        Assert.assertEquals("new", region.getFromCache("key", null));
+    }
+
+    @Test
+    public void testUnbounded() {
+        LocalStorageAccess region = new LocalStorageAccess("region", 0, 0);
+        for (int i = 0; i < 1000; i++) {
+            region.putIntoCache(i, i, null);
+        }
+        Assert.assertEquals(1000, region.size());
+        Assert.assertEquals(0, region.getFromCache(0, null));
+        Assert.assertEquals(0, region.getEvictions());
+    }
+
+    @Test
+    public void testCounters() {
+        LocalStorageAccess region = new LocalStorageAccess("region", 1, 60000);
+        Assert.assertEquals(0, region.hitRate(), 0);
+        region.putIntoCache("a", "1", null);
+        region.putIntoCache("b", "2", null);
+        region.getFromCache("a", null);
+        region.getFromCache("b", null);
+        region.getFromCache("b", null);
+        region.getFromCache("c", null);
+        Assert.assertEquals(2, region.getPuts());
+        Assert.assertEquals(2, region.getHits());
+        Assert.assertEquals(2, region.getMisses());
+        Assert.assertEquals(1, region.getEvictions());
+        Assert.assertEquals(0.5, region.hitRate(), 0);
+    }
+
+    @Test
+    public void testEvictData() {
+        LocalStorageAccess region = new LocalStorageAccess("region", 10, 60000);
+        region.putIntoCache("a", "1", null);
+        region.putIntoCache("b", "2", null);
+        region.evictData("a");
+        Assert.assertNull(region.getFromCache("a", null));
+        Assert.assertEquals(1, region.size());
+        region.evictData();
+        Assert.assertEquals(0, region.size());
+        // evicted on request, not for want of room
+        Assert.assertEquals(0, region.getEvictions());
+    }
+
+}
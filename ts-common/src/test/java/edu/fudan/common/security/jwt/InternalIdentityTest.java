@@ -0,0 +1,26 @@
+package edu.fudan.common.security.jwt;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class InternalIdentityTest {
+
+    @Test
+    public void testCheckConfiguredWithoutSecret() {
+        Assert.assertFalse(InternalIdentity.checkConfigured(true, ""));
+    }
+
+    @Test
+    public void testCheckConfiguredWithSecret() {
+        Assert.assertTrue(InternalIdentity.checkConfigured(true, "secret"));
+    }
+
+    @Test
+    public void testCheckConfiguredDisabled() {
+        Assert.assertFalse(InternalIdentity.checkConfigured(false, "secret"));
+    }
+
+}
@@ -0,0 +1,80 @@
+package edu.fudan.common.security.jwt;
+
+import edu.fudan.common.exception.TokenException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+
+@RunWith(JUnit4.class)
+public class JWTUtilTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString("secret".getBytes());
+
+    @Test
+    public void testMissVerifiesThenHit() {
+        String token = token("fdse_microservice", SECRET, System.currentTimeMillis() + 60000);
+        VerifiedClaimsCache cache = JWTUtil.getClaimsCache();
+        long misses = cache.getMisses();
+        long hits = cache.getHits();
+        Authentication first = JWTUtil.getJWTAuthentication(request(token));
+        Assert.assertEquals("fdse_microservice", ((UserDetails) first.getPrincipal()).getUsername());
+        Assert.assertEquals(misses + 1, cache.getMisses());
+        Authentication second = JWTUtil.getJWTAuthentication(request(token));
+        Assert.assertEquals("fdse_microservice", ((UserDetails) second.getPrincipal()).getUsername());
+        Assert.assertEquals(hits + 1, cache.getHits());
+        Assert.assertEquals(misses + 1, cache.getMisses());
+    }
+
+    @Test
+    public void testHitSkipsVerification() {
+        // signed with another key, so it would fail verification
+        String token = token("admin", Base64.getEncoder().encodeToString("other".getBytes()), System.currentTimeMillis() + 60000);
+        JWTUtil.getClaimsCache().put(VerifiedClaimsCache.digest(token), new VerifiedClaimsCache.VerifiedClaims(
+                "admin", Collections.singletonList("ROLE_ADMIN"), System.currentTimeMillis() + 60000));
+        Authentication authentication = JWTUtil.getJWTAuthentication(request(token));
+        Assert.assertEquals("admin", ((UserDetails) authentication.getPrincipal()).getUsername());
+    }
+
+    @Test(expected = TokenException.class)
+    public void testMissVerifiesSignature() {
+        String token = token("admin", Base64.getEncoder().encodeToString("forged".getBytes()), System.currentTimeMillis() + 60000);
+        JWTUtil.getJWTAuthentication(request(token));
+    }
+
+    @Test(expected = TokenException.class)
+    public void testExpiredTokenNotServedFromCache() {
+        long expiresAt = System.currentTimeMillis() - 1000;
+        String token = token("fdse_microservice", SECRET, expiresAt);
+        // cached while it was still valid
+        JWTUtil.getClaimsCache().put(VerifiedClaimsCache.digest(token), new VerifiedClaimsCache.VerifiedClaims(
+                "fdse_microservice", Collections.singletonList("ROLE_USER"), expiresAt));
+        JWTUtil.getJWTAuthentication(request(token));
+    }
+
+    @Test
+    public void testWithoutToken() {
+        Assert.assertNull(JWTUtil.getJWTAuthentication(new MockHttpServletRequest()));
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private static String token(String subject, String key, long expiresAt) {
+        return Jwts.builder().setSubject(subject).claim("roles", Collections.singletonList("ROLE_USER"))
+                .setExpiration(new Date(expiresAt)).signWith(SignatureAlgorithm.HS256, key).compact();
+    }
+
+}
@@ -0,0 +1,80 @@
+package edu.fudan.common.security.jwt;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Collections;
+
+@RunWith(JUnit4.class)
+public class VerifiedClaimsCacheTest {
+
+    @Test
+    public void testGetPut() {
+        VerifiedClaimsCache cache = new VerifiedClaimsCache(10);
+        Assert.assertNull(cache.get("key", 0));
+        VerifiedClaimsCache.VerifiedClaims claims = claims(1000);
+        cache.put("key", claims);
+        Assert.assertSame(claims, cache.get("key", 0));
+        Assert.assertEquals(1, cache.getHits());
+        Assert.assertEquals(1, cache.getMisses());
+        Assert.assertEquals(0.5, cache.hitRate(), 0);
+    }
+
+    @Test
+    public void testExpiredNeverServed() {
+        VerifiedClaimsCache cache = new VerifiedClaimsCache(10);
+        cache.put("key", claims(1000));
+        Assert.assertNotNull(cache.get("key", 999));
+        Assert.assertNull(cache.get("key", 1000));
+        Assert.assertEquals(0, cache.size());
+        // an expired entry is not served again once it was dropped
+        Assert.assertNull(cache.get("key", 0));
+    }
+
+    @Test
+    public void testPutExpired() {
+        VerifiedClaimsCache cache = new VerifiedClaimsCache(10);
+        cache.put("key", claims(1000));
+        Assert.assertNull(cache.get("key", 5000));
+    }
+
+    @Test
+    public void testSizeBound() {
+        VerifiedClaimsCache cache = new VerifiedClaimsCache(2);
+        cache.put("a", claims(1000));
+        cache.put("b", claims(1000));
+        // a is now the most recently used
+        cache.get("a", 0);
+        cache.put("c", claims(1000));
+        Assert.assertEquals(2, cache.size());
+        Assert.assertNotNull(cache.get("a", 0));
+        Assert.assertNull(cache.get("b", 0));
+        Assert.assertNotNull(cache.get("c", 0));
+        Assert.assertEquals(1, cache.getEvictions());
+        for (int i = 0; i < 100; i++) {
+            cache.put("key" + i, claims(1000));
+        }
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testDisabled() {
+        VerifiedClaimsCache cache = new VerifiedClaimsCache(0);
+        cache.put("key", claims(1000));
+        Assert.assertNull(cache.get("key", 0));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testDigest() {
+        Assert.assertEquals(VerifiedClaimsCache.digest("token"), VerifiedClaimsCache.digest("token"));
+        Assert.assertNotEquals(VerifiedClaimsCache.digest("token"), VerifiedClaimsCache.digest("token2"));
+    }
+
+    private static VerifiedClaimsCache.VerifiedClaims claims(long expiresAt) {
+        return new VerifiedClaimsCache.VerifiedClaims("fdse_microservice", Collections.singletonList("ROLE_USER"), expiresAt);
+    }
+
+}
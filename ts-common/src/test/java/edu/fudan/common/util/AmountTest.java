@@ -0,0 +1,182 @@
+package edu.fudan.common.util;
+
+import com.alibaba.fastjson.JSON;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+@RunWith(JUnit4.class)
+public class AmountTest {
+
+    @Test
+    public void testParse() {
+        Assert.assertEquals(65000, Amount.parse("650.0").getCents());
+        Assert.assertEquals(71250, Amount.parse("712.5").getCents());
+        Assert.assertEquals(35, Amount.parse("0.35").getCents());
+        Assert.assertEquals(800, Amount.parse("8").getCents());
+        Assert.assertEquals(50, Amount.parse(".5").getCents());
+        Assert.assertEquals(100, Amount.parse("1.").getCents());
+        Assert.assertEquals(150, Amount.parse(" +1.5 ").getCents());
+    }
+
+    @Test
+    public void testParseRoundsHalfUp() {
+        Assert.assertEquals(1234, Amount.parse("12.344").getCents());
+        Assert.assertEquals(1235, Amount.parse("12.345").getCents());
+        Assert.assertEquals(1234, Amount.parse("12.3449999").getCents());
+    }
+
+    @Test
+    public void testParseCarry() {
+        Assert.assertEquals(100, Amount.parse("0.995").getCents());
+        Assert.assertEquals("1.00", Amount.parse("0.995").toFixedString());
+        Assert.assertEquals(100000, Amount.parse("999.999").getCents());
+    }
+
+    @Test
+    public void testParseNegative() {
+        Assert.assertEquals(-1, Amount.parse("-0.005").getCents());
+        Assert.assertEquals(0, Amount.parse("-0.004").getCents());
+        Assert.assertEquals(-1235, Amount.parse("-12.345").getCents());
+        Assert.assertEquals(-50, Amount.parse("-.5").getCents());
+    }
+
+    @Test
+    public void testParseExponent() {
+        Assert.assertEquals(1000000000, Amount.parse("1.0E7").getCents());
+        Assert.assertEquals(123, Amount.parse("1.234e0").getCents());
+        Assert.assertEquals(-35, Amount.parse("-3.5E-1").getCents());
+    }
+
+    @Test
+    public void testParseManyDigits() {
+        Assert.assertEquals(1234567890123456789L, Amount.parse("12345678901234567.89").getCents());
+        Assert.assertEquals(1234567890123456789L, Amount.parse("0012345678901234567.885").getCents());
+        Assert.assertEquals(12, Amount.parse("0.12345678901234567890").getCents());
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testParseOutOfRange() {
+        Amount.parse("1e30");
+    }
+
+    @Test
+    public void testParseRejects() {
+        for (String text : new String[]{"", " ", ".", "-", "+", "-.", "1.2.3", "1e", "abc", "1,5", "0x10"}) {
+            try {
+                Amount.parse(text);
+                Assert.fail("parsed " + text);
+            } catch (NumberFormatException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testParseNull() {
+        Amount.parse(null);
+    }
+
+    @Test
+    public void testParseMatchesBigDecimal() {
+        Random random = new Random(45);
+        for (int i = 0; i < 10000; i++) {
+            BigDecimal value = BigDecimal.valueOf(random.nextLong() % 100000000000L, random.nextInt(6));
+            String text = value.toPlainString();
+            long expected = value.setScale(Amount.SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+            Assert.assertEquals(text, expected, Amount.parse(text).getCents());
+        }
+    }
+
+    @Test
+    public void testToStringMatchesOldStrings() {
+        // prices used to be printed as doubles
+        for (long cents = -100000; cents <= 100000; cents++) {
+            Assert.assertEquals(String.valueOf(cents / 100.0), Amount.ofCents(cents).toString());
+        }
+        Assert.assertEquals(String.valueOf(987654.32), Amount.ofCents(98765432).toString());
+    }
+
+    @Test
+    public void testToFixedString() {
+        for (long cents = -100000; cents <= 100000; cents++) {
+            Assert.assertEquals(BigDecimal.valueOf(cents, 2).toPlainString(), Amount.ofCents(cents).toFixedString());
+        }
+        Assert.assertEquals("80.00", Amount.parse("80").toFixedString());
+    }
+
+    @Test
+    public void testValueOf() {
+        Assert.assertNull(Amount.valueOf(null));
+        Assert.assertEquals(Amount.ofCents(65000), Amount.valueOf(650));
+        Assert.assertEquals(Amount.ofCents(65000), Amount.valueOf(650L));
+        Assert.assertEquals(Amount.ofCents(71250), Amount.valueOf(712.5));
+        Assert.assertEquals(Amount.ofCents(1235), Amount.valueOf(new BigDecimal("12.345")));
+        Assert.assertEquals(Amount.ofCents(35), Amount.valueOf("0.35"));
+    }
+
+    @Test
+    public void testArithmetic() {
+        Amount price = Amount.parse("650.0");
+        Assert.assertEquals(Amount.parse("712.5"), price.plus(Amount.parse("62.5")));
+        Assert.assertEquals(Amount.parse("-62.5"), price.minus(Amount.parse("712.5")));
+        Assert.assertEquals(Amount.parse("520.0"), price.times(0.8));
+        Assert.assertEquals(Amount.ofCents(1), Amount.ofCents(1).times(0.5));
+        Assert.assertEquals(0, price.compareTo(Amount.parse("650")));
+        Assert.assertTrue(Amount.ZERO.isZero());
+        Assert.assertEquals(-1, Amount.parse("-0.01").signum());
+    }
+
+    @Test
+    public void testJacksonRoundTrip() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        Amount amount = Amount.parse("712.5");
+        String json = mapper.writeValueAsString(amount);
+        Assert.assertEquals("\"712.5\"", json);
+        Assert.assertEquals(amount, mapper.readValue(json, Amount.class));
+        Assert.assertEquals(amount, mapper.readValue("712.5", Amount.class));
+        Assert.assertEquals(Amount.parse("650"), mapper.readValue("650", Amount.class));
+        Priced priced = mapper.readValue(mapper.writeValueAsString(new Priced(amount)), Priced.class);
+        Assert.assertEquals(amount, priced.getPrice());
+    }
+
+    @Test
+    public void testFastjsonRoundTrip() {
+        Amount amount = Amount.parse("712.5");
+        String json = JSON.toJSONString(amount);
+        Assert.assertEquals("\"712.5\"", json);
+        Assert.assertEquals(amount, JSON.parseObject(json, Amount.class));
+        Assert.assertEquals(amount, JSON.parseObject("712.5", Amount.class));
+        Priced priced = JSON.parseObject(JSON.toJSONString(new Priced(amount)), Priced.class);
+        Assert.assertEquals(amount, priced.getPrice());
+        Assert.assertEquals(amount, JSON.parseObject("{\"price\":712.5}", Priced.class).getPrice());
+    }
+
+    public static class Priced {
+
+        private Amount price;
+
+        public Priced() {
+            //Default Constructor
+        }
+
+        Priced(Amount price) {
+            this.price = price;
+        }
+
+        public Amount getPrice() {
+            return price;
+        }
+
+        public void setPrice(Amount price) {
+            this.price = price;
+        }
+    }
+
+}
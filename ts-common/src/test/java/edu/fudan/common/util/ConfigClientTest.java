@@ -0,0 +1,176 @@
+package edu.fudan.common.util;
+
+import edu.fudan.common.entity.ConfigSnapshot;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mockito;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(JUnit4.class)
+public class ConfigClientTest {
+
+    private static final String URL = "http://ts-config-service:15679" + ConfigClient.WATCH_PATH;
+
+    private static final Object FAILURE = new Object();
+
+    /**
+     * answers of the config service in order; the watch request waits for the next one
+     */
+    private final BlockingQueue<Object> answers = new LinkedBlockingQueue<>();
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    private final BlockingQueue<Set<String>> changes = new LinkedBlockingQueue<>();
+
+    private ConfigClient client;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        RestTemplate restTemplate = Mockito.mock(RestTemplate.class);
+        Mockito.when(restTemplate.exchange(Mockito.anyString(), Mockito.eq(HttpMethod.GET), Mockito.<HttpEntity<?>>isNull(),
+                Mockito.any(ParameterizedTypeReference.class))).thenAnswer(invocation -> {
+            requests.add(invocation.getArgument(0));
+            Object answer;
+            try {
+                answer = answers.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ResourceAccessException("interrupted");
+            }
+            if (answer == FAILURE) {
+                throw new ResourceAccessException("Connection refused");
+            }
+            return ResponseEntity.ok(answer);
+        });
+        client = new ConfigClient(restTemplate, "http://ts-config-service:15679", 30000);
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+    }
+
+    @Test
+    public void testFirstLoad() {
+        answers.add(snapshot("v1", "a", "1", "b", "2"));
+        Assert.assertEquals("1", client.get("a"));
+        Assert.assertEquals("2", client.get("b"));
+        Assert.assertNull(client.get("c"));
+        Assert.assertEquals("3", client.get("c", "3"));
+        Assert.assertEquals("v1", client.getVersion());
+        Assert.assertEquals(URL + "?timeoutMs=0", requests.get(0));
+    }
+
+    @Test(expected = RestClientException.class)
+    public void testFirstLoadFailed() {
+        answers.add(FAILURE);
+        client.get("a");
+    }
+
+    @Test
+    public void testChangeNotifiesChangedNames() throws InterruptedException {
+        answers.add(snapshot("v1", "a", "1", "b", "2", "c", "3"));
+        client.get("a");
+        client.addListener(changes::add);
+        answers.add(snapshot("v2", "a", "1", "b", "20", "d", "4"));
+        Assert.assertEquals(new HashSet<>(Arrays.asList("b", "c", "d")), changes.poll(5, TimeUnit.SECONDS));
+        Assert.assertEquals("20", client.get("b"));
+        Assert.assertNull(client.get("c"));
+        Assert.assertEquals("v2", client.getVersion());
+        Assert.assertEquals(URL + "?timeoutMs=30000&version=v1", requests.get(1));
+    }
+
+    @Test
+    public void testNotModified() throws InterruptedException {
+        answers.add(snapshot("v1", "a", "1"));
+        client.get("a");
+        client.addListener(changes::add);
+        answers.add(new Response<>(1, "Not modified", new ConfigSnapshot("v1", null)));
+        answers.add(snapshot("v2", "a", "2"));
+        Assert.assertEquals(new HashSet<>(Arrays.asList("a")), changes.poll(5, TimeUnit.SECONDS));
+        // the unchanged answer was not reported
+        Assert.assertTrue(changes.isEmpty());
+        Assert.assertEquals(URL + "?timeoutMs=30000&version=v1", requests.get(2));
+    }
+
+    @Test
+    public void testFailedWatchKeepsLastCopy() throws InterruptedException {
+        answers.add(snapshot("v1", "a", "1"));
+        client.get("a");
+        client.addListener(changes::add);
+        answers.add(FAILURE);
+        waitForRequests(3);
+        Assert.assertEquals("1", client.get("a"));
+        Assert.assertEquals("v1", client.getVersion());
+        Assert.assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    public void testFailedListenerDoesNotStopOthers() throws InterruptedException {
+        answers.add(snapshot("v1", "a", "1"));
+        client.get("a");
+        client.addListener(names -> {
+            throw new IllegalStateException("listener failed");
+        });
+        client.addListener(changes::add);
+        answers.add(snapshot("v2", "a", "2"));
+        Assert.assertEquals(new HashSet<>(Arrays.asList("a")), changes.poll(5, TimeUnit.SECONDS));
+        answers.add(snapshot("v3", "a", "3"));
+        // the watch goes on after the failed listener
+        Assert.assertEquals(new HashSet<>(Arrays.asList("a")), changes.poll(5, TimeUnit.SECONDS));
+        Assert.assertEquals("3", client.get("a"));
+    }
+
+    @Test
+    public void testClose() throws InterruptedException {
+        answers.add(snapshot("v1", "a", "1"));
+        client.get("a");
+        waitForRequests(2);
+        client.close();
+        Thread watcher = (Thread) ReflectionTestUtils.getField(client, "watcher");
+        watcher.join(5000);
+        Assert.assertFalse(watcher.isAlive());
+        answers.add(snapshot("v2", "a", "2"));
+        Assert.assertEquals(2, requests.size());
+        Assert.assertEquals("1", client.get("a"));
+    }
+
+    private void waitForRequests(int count) throws InterruptedException {
+        for (int i = 0; i < 500 && requests.size() < count; i++) {
+            Thread.sleep(10);
+        }
+        Assert.assertTrue(requests.size() >= count);
+    }
+
+    private static Response<ConfigSnapshot> snapshot(String version, String... namesAndValues) {
+        Map<String, String> configs = new HashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            configs.put(namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return new Response<>(1, "Success", new ConfigSnapshot(version, configs));
+    }
+
+}
@@ -0,0 +1,47 @@
+package edu.fudan.common.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+@RunWith(JUnit4.class)
+public class ContentVersionTest {
+
+    @Test
+    public void testRows() {
+        String expected = DigestUtils.md5DigestAsHex("1\tGaoTieOne\t10\n2\tnull\t20\n".getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals(expected, new ContentVersion().add("1", "GaoTieOne", 10).add(2, null, 20).get());
+    }
+
+    @Test
+    public void testEntries() {
+        Map<String, String> entries = new TreeMap<>();
+        entries.put("nanjing", "Nan Jing");
+        entries.put("shanghai", "Shang Hai");
+        Assert.assertEquals(new ContentVersion().add("nanjing", "Nan Jing").add("shanghai", "Shang Hai").get(),
+                ContentVersion.of(entries));
+        Map<String, String> same = new TreeMap<>(entries);
+        Assert.assertEquals(ContentVersion.of(entries), ContentVersion.of(same));
+        same.put("shanghai", "Shanghai Hongqiao");
+        Assert.assertNotEquals(ContentVersion.of(entries), ContentVersion.of(same));
+    }
+
+    @Test
+    public void testFieldsAreSeparated() {
+        Assert.assertNotEquals(new ContentVersion().add("ab", "c").get(), new ContentVersion().add("a", "bc").get());
+        Assert.assertNotEquals(new ContentVersion().add("a").add("b").get(), new ContentVersion().add("a", "b").get());
+    }
+
+    @Test
+    public void testEmpty() {
+        Assert.assertEquals(DigestUtils.md5DigestAsHex(new byte[0]), new ContentVersion().get());
+        Assert.assertEquals(new ContentVersion().get(), ContentVersion.of(new TreeMap<>()));
+    }
+
+}
@@ -0,0 +1,97 @@
+package edu.fudan.common.util;
+
+import edu.fudan.common.entity.StationDictionary;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mockito;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(JUnit4.class)
+public class StationDictionaryClientTest {
+
+    private static final String URL = "http://ts-station-service:12345" + StationDictionaryClient.DICTIONARY_PATH;
+
+    private RestTemplate restTemplate;
+
+    private StationDictionaryClient client;
+
+    @Before
+    public void setUp() {
+        restTemplate = Mockito.mock(RestTemplate.class);
+        client = new StationDictionaryClient(restTemplate, "http://ts-station-service:12345", 50);
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+    }
+
+    @Test
+    public void testFirstLoad() {
+        answer(URL, dictionary("v1", "shanghai", "Shang Hai"));
+        Assert.assertEquals("shanghai", client.idOf("Shang Hai"));
+        Assert.assertEquals("Shang Hai", client.nameOf("shanghai"));
+        Assert.assertEquals("v1", client.getVersion());
+    }
+
+    @Test
+    public void testStaleCopyServedWhileRefreshing() throws InterruptedException {
+        answer(URL, dictionary("v1", "shanghai", "Shang Hai"));
+        client.idOf("Shang Hai");
+        CountDownLatch requested = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(exchange(URL + "?version=v1")).thenAnswer(invocation -> {
+            requested.countDown();
+            release.await();
+            return ResponseEntity.ok(dictionary("v2", "shanghai", "Shanghai Hongqiao"));
+        });
+        Thread.sleep(100);
+        // the refresh is blocked, yet the lookup answers from the old copy
+        Assert.assertEquals("Shang Hai", client.nameOf("shanghai"));
+        Assert.assertTrue(requested.await(1, TimeUnit.SECONDS));
+        Assert.assertEquals("v1", client.getVersion());
+        release.countDown();
+        for (int i = 0; i < 100 && !"v2".equals(client.getVersion()); i++) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals("v2", client.getVersion());
+        Assert.assertEquals("Shanghai Hongqiao", client.nameOf("shanghai"));
+    }
+
+    @Test
+    public void testMissRefreshesAtOnce() throws InterruptedException {
+        answer(URL, dictionary("v1", "shanghai", "Shang Hai"));
+        client.idOf("Shang Hai");
+        answer(URL + "?version=v1", dictionary("v2", "nanjing", "Nan Jing"));
+        Thread.sleep(1100);
+        Assert.assertEquals("nanjing", client.idOf("Nan Jing"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ResponseEntity<Response<StationDictionary>> exchange(String url) {
+        return restTemplate.exchange(Mockito.eq(url), Mockito.eq(HttpMethod.GET), Mockito.<HttpEntity<?>>isNull(),
+                Mockito.any(ParameterizedTypeReference.class));
+    }
+
+    private void answer(String url, Response<StationDictionary> response) {
+        Mockito.when(exchange(url)).thenReturn(new ResponseEntity<>(response, HttpStatus.OK));
+    }
+
+    private static Response<StationDictionary> dictionary(String version, String id, String name) {
+        return new Response<>(1, "Success", new StationDictionary(version, Collections.singletonMap(id, name)));
+    }
+
+}
@@ -2,6 +2,7 @@ package config.controller;
 
 import config.entity.Config;
 import config.service.ConfigService;
+import edu.fudan.common.util.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +11,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 
 import static org.springframework.http.ResponseEntity.ok;
@@ -68,6 +70,15 @@ public class ConfigController {
         return ok(configService.query(configName, headers));
     }
 
+    @CrossOrigin(origins = "*")
+    @GetMapping(value = "/watch")
+    public DeferredResult<Response> watch(@RequestParam(required = false) String version,
+                                          @RequestParam(defaultValue = "0") long timeoutMs,
+                                          @RequestHeader HttpHeaders headers) {
+        logger.info("[watch][Watch configs][version: {}]", version);
+        return configService.watch(version, timeoutMs, headers);
+    }
+
 
 
 }
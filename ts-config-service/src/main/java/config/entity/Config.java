@@ -1,6 +1,9 @@
 package config.entity;
 
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import javax.persistence.Cacheable;
 import javax.persistence.Id;
 
 import javax.persistence.Entity;
@@ -12,6 +15,8 @@ import javax.validation.constraints.NotNull;
  */
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "config")
 public class Config {
     @Valid
     @Id
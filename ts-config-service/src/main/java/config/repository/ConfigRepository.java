@@ -1,10 +1,14 @@
 package config.repository;
 
 import config.entity.Config;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 /**
  * @author fdse
  */
@@ -16,6 +20,7 @@ public interface ConfigRepository extends CrudRepository<Config, String> {
      * @param name name
      * @return Config
      */
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Config findByName(String name);
 
     /**
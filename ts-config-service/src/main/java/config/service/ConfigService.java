@@ -3,6 +3,7 @@ package config.service;
 import config.entity.Config;
 import edu.fudan.common.util.Response;
 import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.async.DeferredResult;
 
 
 /**
@@ -53,4 +54,14 @@ public interface ConfigService {
      * @return Response
      */
     Response queryAll(HttpHeaders headers);
+
+    /**
+     * all configs once they differ from the caller's version
+     *
+     * @param version version the caller has, null for none
+     * @param timeoutMillis how long to wait for a change
+     * @param headers headers
+     * @return Response, answered when a config changes or the timeout passes
+     */
+    DeferredResult<Response> watch(String version, long timeoutMillis, HttpHeaders headers);
 }
@@ -9,6 +9,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.List;
 
@@ -22,6 +25,9 @@ public class ConfigServiceImpl implements ConfigService {
     @Autowired
     ConfigRepository repository;
 
+    @Autowired
+    private ConfigWatcher configWatcher;
+
     private static final Logger logger = LoggerFactory.getLogger(ConfigServiceImpl.class);
 
     String config0 = "Config ";
@@ -35,6 +41,7 @@ public class ConfigServiceImpl implements ConfigService {
         } else {
             Config config = new Config(info.getName(), info.getValue(), info.getDescription());
             repository.save(config);
+            configWatcher.reload();
             logger.info("[create][create success][Config: {}]", info);
             return new Response<>(1, "Create success", config);
         }
@@ -49,6 +56,7 @@ public class ConfigServiceImpl implements ConfigService {
         } else {
             Config config = new Config(info.getName(), info.getValue(), info.getDescription());
             repository.save(config);
+            configWatcher.reload();
             logger.info("[update][update success][Config: {}]", config);
             return new Response<>(1, "Update success", config);
         }
@@ -77,6 +85,7 @@ public class ConfigServiceImpl implements ConfigService {
             return new Response<>(0, result, null);
         } else {
             repository.deleteByName(name);
+            reloadAfterCommit();
             logger.info("[delete][Config delete success][config name: {}]", name);
             return new Response<>(1, "Delete success", config);
         }
@@ -94,4 +103,25 @@ public class ConfigServiceImpl implements ConfigService {
             return new Response<>(0, "No content", null);
         }
     }
+
+    @Override
+    public DeferredResult<Response> watch(String version, long timeoutMillis, HttpHeaders headers) {
+        return configWatcher.watch(version, timeoutMillis);
+    }
+
+    /**
+     * the watches are answered once the delete is visible to the reload
+     */
+    private void reloadAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    configWatcher.reload();
+                }
+            });
+        } else {
+            configWatcher.reload();
+        }
+    }
 }
@@ -0,0 +1,107 @@
+package config.service;
+
+import config.entity.Config;
+import config.repository.ConfigRepository;
+import edu.fudan.common.entity.ConfigSnapshot;
+import edu.fudan.common.util.ContentVersion;
+import edu.fudan.common.util.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers watch requests of {@link edu.fudan.common.util.ConfigClient}. A watch with
+ * an old version is answered at once with all configs; a watch with the current
+ * version is held until a config changes or the timeout passes.
+ *
+ * Changes made through this instance answer the held watches right away. While
+ * watches are held the configs are also reloaded every reload-ms, so changes made
+ * through other instances are seen too.
+ *
+ * @author fdse
+ */
+@Component
+public class ConfigWatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfigWatcher.class);
+
+    @Autowired
+    private ConfigRepository repository;
+
+    @Value("${config.watch.max-timeout-ms:60000}")
+    private long maxTimeoutMillis = 60000;
+
+    /**
+     * held watches and the version each caller has
+     */
+    private final Map<DeferredResult<Response>, String> watches = new ConcurrentHashMap<>();
+
+    private volatile ConfigSnapshot snapshot;
+
+    public DeferredResult<Response> watch(String version, long timeoutMillis) {
+        ConfigSnapshot current = snapshot == null ? reload() : snapshot;
+        long timeout = Math.max(0, Math.min(timeoutMillis, maxTimeoutMillis));
+        Response notModified = new Response<>(1, "Not modified", new ConfigSnapshot(current.getVersion(), null));
+        DeferredResult<Response> result = new DeferredResult<>(timeout, notModified);
+        if (!current.getVersion().equals(version)) {
+            result.setResult(new Response<>(1, "Success", current));
+        } else if (timeout == 0) {
+            result.setResult(notModified);
+        } else {
+            watches.put(result, version);
+            result.onCompletion(() -> watches.remove(result));
+            // a change may have been published before the watch was added
+            answer(result, version, snapshot);
+        }
+        return result;
+    }
+
+    /**
+     * Reads the configs again and answers the watches that hold an older version.
+     */
+    public synchronized ConfigSnapshot reload() {
+        Map<String, String> configs = new TreeMap<>();
+        for (Config config : repository.findAll()) {
+            configs.put(config.getName(), config.getValue());
+        }
+        String version = ContentVersion.of(configs);
+        ConfigSnapshot previous = snapshot;
+        if (previous != null && previous.getVersion().equals(version)) {
+            return previous;
+        }
+        ConfigSnapshot loaded = new ConfigSnapshot(version, Collections.unmodifiableMap(configs));
+        snapshot = loaded;
+        LOGGER.info("[reload][Configs changed][version: {}, configs: {}, watches: {}]", version, configs.size(), watches.size());
+        for (Map.Entry<DeferredResult<Response>, String> watch : watches.entrySet()) {
+            answer(watch.getKey(), watch.getValue(), loaded);
+        }
+        return loaded;
+    }
+
+    @Scheduled(fixedDelayString = "${config.watch.reload-ms:2000}")
+    public void reloadWhileWatched() {
+        if (!watches.isEmpty()) {
+            reload();
+        }
+    }
+
+    public int getWatchCount() {
+        return watches.size();
+    }
+
+    private static void answer(DeferredResult<Response> result, String version, ConfigSnapshot current) {
+        if (current != null && !current.getVersion().equals(version)) {
+            result.setResult(new Response<>(1, "Success", current));
+        }
+    }
+
+}
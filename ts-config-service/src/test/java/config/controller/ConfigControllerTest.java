@@ -14,7 +14,9 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.*;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -92,4 +94,18 @@ public class ConfigControllerTest {
         Assert.assertEquals(response, JSONObject.parseObject(result, Response.class));
     }
 
+    @Test
+    public void testWatch() throws Exception {
+        DeferredResult<Response> deferred = new DeferredResult<>();
+        Mockito.when(configService.watch(Mockito.eq("version"), Mockito.eq(30000L), Mockito.any(HttpHeaders.class))).thenReturn(deferred);
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/configservice/watch").param("version", "version").param("timeoutMs", "30000"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        deferred.setResult(response);
+        String result = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Assert.assertEquals(response, JSONObject.parseObject(result, Response.class));
+    }
+
 }
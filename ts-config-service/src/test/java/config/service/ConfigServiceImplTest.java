@@ -2,6 +2,7 @@ package config.service;
 
 import config.entity.Config;
 import config.repository.ConfigRepository;
+import edu.fudan.common.entity.ConfigSnapshot;
 import edu.fudan.common.util.Response;
 import org.junit.Assert;
 import org.junit.Before;
@@ -13,8 +14,11 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 @RunWith(JUnit4.class)
@@ -26,11 +30,16 @@ public class ConfigServiceImplTest {
     @Mock
     private ConfigRepository repository;
 
+    private ConfigWatcher configWatcher;
+
     private HttpHeaders headers = new HttpHeaders();
 
     @Before
     public void setUp() {
         MockitoAnnotations.initMocks(this);
+        configWatcher = new ConfigWatcher();
+        ReflectionTestUtils.setField(configWatcher, "repository", repository);
+        ReflectionTestUtils.setField(configServiceImpl, "configWatcher", configWatcher);
     }
 
     @Test
@@ -114,4 +123,33 @@ public class ConfigServiceImplTest {
         Assert.assertEquals(new Response<>(0, "No content", null), result);
     }
 
+    @Test
+    public void testWatch1() {
+        Mockito.when(repository.findAll()).thenReturn(Collections.singletonList(new Config("name", "0.5", "")));
+        DeferredResult<Response> result = configServiceImpl.watch(null, 30000, headers);
+        ConfigSnapshot snapshot = (ConfigSnapshot) ((Response) result.getResult()).getData();
+        Assert.assertEquals(Collections.singletonMap("name", "0.5"), snapshot.getConfigs());
+
+        // the caller's version is current
+        result = configServiceImpl.watch(snapshot.getVersion(), 0, headers);
+        Assert.assertEquals(new Response<>(1, "Not modified", new ConfigSnapshot(snapshot.getVersion(), null)), result.getResult());
+    }
+
+    @Test
+    public void testWatch2() {
+        Config info = new Config("name", "0.5", "");
+        Mockito.when(repository.findAll()).thenReturn(Collections.singletonList(info));
+        String version = ((ConfigSnapshot) ((Response) configServiceImpl.watch(null, 0, headers).getResult()).getData()).getVersion();
+        DeferredResult<Response> result = configServiceImpl.watch(version, 30000, headers);
+        Assert.assertFalse(result.hasResult());
+
+        // the held watch is answered by the update
+        Mockito.when(repository.findByName("name")).thenReturn(info);
+        Mockito.when(repository.findAll()).thenReturn(Collections.singletonList(new Config("name", "0.8", "")));
+        configServiceImpl.update(new Config("name", "0.8", ""), headers);
+        ConfigSnapshot snapshot = (ConfigSnapshot) ((Response) result.getResult()).getData();
+        Assert.assertEquals(Collections.singletonMap("name", "0.8"), snapshot.getConfigs());
+        Assert.assertNotEquals(version, snapshot.getVersion());
+    }
+
 }
@@ -2,6 +2,7 @@ package consignprice.controller;
 
 import consignprice.entity.ConsignPrice;
 import consignprice.service.ConsignPriceService;
+import edu.fudan.common.entity.ConsignQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +10,8 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 import static org.springframework.http.ResponseEntity.ok;
 
 /**
@@ -36,6 +39,13 @@ public class ConsignPriceController {
                 Boolean.parseBoolean(isWithinRegion), headers));
     }
 
+    @PostMapping(value = "/consignprice/quotes")
+    public HttpEntity getPricesByWeightAndRegion(@RequestBody List<ConsignQuery> queries,
+                                                 @RequestHeader HttpHeaders headers) {
+        logger.info("[getPricesByWeightAndRegion][Get prices by weight and region][queries: {}]", queries.size());
+        return ok(service.getPricesByWeightAndRegion(queries, headers));
+    }
+
     @GetMapping(value = "/consignprice/price")
     public HttpEntity getPriceInfo(@RequestHeader HttpHeaders headers) {
         logger.info("[getPriceInfo][Get price info]");
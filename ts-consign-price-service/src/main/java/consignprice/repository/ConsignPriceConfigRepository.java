@@ -1,9 +1,14 @@
 package consignprice.repository;
 
 import consignprice.entity.ConsignPrice;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 /**
  * @author fdse
  */
@@ -17,6 +22,7 @@ public interface ConsignPriceConfigRepository extends CrudRepository<ConsignPric
      * @return ConsignPrice
      */
 //    @Query("{ 'index': ?0 }")
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     ConsignPrice findByIndex(int index);
 
 }
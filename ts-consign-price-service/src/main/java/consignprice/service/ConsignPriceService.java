@@ -1,9 +1,12 @@
 package consignprice.service;
 
 import consignprice.entity.ConsignPrice;
+import edu.fudan.common.entity.ConsignQuery;
 import edu.fudan.common.util.Response;
 import org.springframework.http.HttpHeaders;
 
+import java.util.List;
+
 /**
  * @author fdse
  */
@@ -19,6 +22,15 @@ public interface ConsignPriceService {
      */
     Response getPriceByWeightAndRegion(double weight, boolean isWithinRegion, HttpHeaders headers);
 
+    /**
+     * get the prices of several consignments at once
+     *
+     * @param queries weight and region of each consignment
+     * @param headers headers
+     * @return Response with the prices in the order of the queries
+     */
+    Response getPricesByWeightAndRegion(List<ConsignQuery> queries, HttpHeaders headers);
+
     /**
      * query price information
      *
@@ -2,13 +2,19 @@ package consignprice.service;
 
 import consignprice.entity.ConsignPrice;
 import consignprice.repository.ConsignPriceConfigRepository;
+import edu.fudan.common.entity.ConsignQuery;
+import edu.fudan.common.entity.ConsignTariff;
 import edu.fudan.common.util.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * @author fdse
  */
@@ -18,32 +24,52 @@ public class ConsignPriceServiceImpl implements ConsignPriceService {
     @Autowired
     private ConsignPriceConfigRepository repository;
 
+    /**
+     * how long the cached price config is trusted before it is read again, so that
+     * changes made through other instances are picked up
+     */
+    @Value("${consignprice.tariff.ttl-ms:60000}")
+    private long tariffTtlMillis = 60000;
+
+    private volatile CachedTariff cachedTariff;
+
     String success = "Success";
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ConsignPriceServiceImpl.class);
 
     @Override
     public Response getPriceByWeightAndRegion(double weight, boolean isWithinRegion, HttpHeaders headers) {
-        ConsignPrice priceConfig = repository.findByIndex(0);
-        double price = 0;
-        double initialPrice = priceConfig.getInitialPrice();
-        if (weight <= priceConfig.getInitialWeight()) {
-            price = initialPrice;
-        } else {
-            double extraWeight = weight - priceConfig.getInitialWeight();
-            if (isWithinRegion) {
-                price = initialPrice + extraWeight * priceConfig.getWithinPrice();
-            }else {
-                price = initialPrice + extraWeight * priceConfig.getBeyondPrice();
-            }
+        CachedTariff cached = tariff();
+        if (cached == null) {
+            ConsignPriceServiceImpl.LOGGER.error("[getPriceByWeightAndRegion][Price config not found]");
+            return new Response<>(0, "Price config not found", null);
         }
-        return new Response<>(1, success, price);
+        return new Response<>(1, success, cached.tariff.quote(weight, isWithinRegion));
+    }
+
+    @Override
+    public Response getPricesByWeightAndRegion(List<ConsignQuery> queries, HttpHeaders headers) {
+        CachedTariff cached = tariff();
+        if (cached == null) {
+            ConsignPriceServiceImpl.LOGGER.error("[getPricesByWeightAndRegion][Price config not found][queries: {}]", queries.size());
+            return new Response<>(0, "Price config not found", null);
+        }
+        List<Double> prices = new ArrayList<>(queries.size());
+        for (ConsignQuery query : queries) {
+            prices.add(cached.tariff.quote(query.getWeight(), query.isWithinRegion()));
+        }
+        return new Response<>(1, success, prices);
     }
 
     @Override
     public Response queryPriceInformation(HttpHeaders headers) {
+        CachedTariff cached = tariff();
+        if (cached == null) {
+            ConsignPriceServiceImpl.LOGGER.error("[queryPriceInformation][Price config not found]");
+            return new Response<>(0, "Price config not found", null);
+        }
         StringBuilder sb = new StringBuilder();
-        ConsignPrice price = repository.findByIndex(0);
+        ConsignPrice price = cached.config;
         sb.append("The price of weight within ");
         sb.append(price.getInitialWeight());
         sb.append(" is ");
@@ -60,10 +86,8 @@ public class ConsignPriceServiceImpl implements ConsignPriceService {
     public Response createAndModifyPrice(ConsignPrice config, HttpHeaders headers) {
         ConsignPriceServiceImpl.LOGGER.info("[createAndModifyPrice][Create New Price Config]");
         //update price
-        ConsignPrice originalConfig;
-        if (repository.findByIndex(0) != null) {
-            originalConfig = repository.findByIndex(0);
-        } else {
+        ConsignPrice originalConfig = repository.findByIndex(0);
+        if (originalConfig == null) {
             originalConfig = new ConsignPrice();
         }
         originalConfig.setId(config.getId());
@@ -73,11 +97,52 @@ public class ConsignPriceServiceImpl implements ConsignPriceService {
         originalConfig.setWithinPrice(config.getWithinPrice());
         originalConfig.setBeyondPrice(config.getBeyondPrice());
         repository.save(originalConfig);
+        // write through, quotes on this instance use the new prices at once
+        cachedTariff = CachedTariff.of(originalConfig);
         return new Response<>(1, success, originalConfig);
     }
 
     @Override
     public Response getPriceConfig(HttpHeaders headers) {
-        return new Response<>(1, success, repository.findByIndex(0));
+        CachedTariff cached = tariff();
+        return new Response<>(1, success, cached == null ? null : cached.config);
+    }
+
+    /**
+     * @return the cached price config, read again once older than ttl-ms; null if there is none
+     */
+    private CachedTariff tariff() {
+        CachedTariff cached = cachedTariff;
+        if (cached == null || System.currentTimeMillis() - cached.loadedAt >= tariffTtlMillis) {
+            ConsignPrice config = repository.findByIndex(0);
+            cached = config == null ? null : CachedTariff.of(config);
+            cachedTariff = cached;
+        }
+        return cached;
+    }
+
+    private static final class CachedTariff {
+
+        /**
+         * copy of the price config, detached from the persistence context
+         */
+        final ConsignPrice config;
+
+        final ConsignTariff tariff;
+
+        final long loadedAt;
+
+        private CachedTariff(ConsignPrice config, ConsignTariff tariff) {
+            this.config = config;
+            this.tariff = tariff;
+            this.loadedAt = System.currentTimeMillis();
+        }
+
+        static CachedTariff of(ConsignPrice config) {
+            ConsignPrice copy = new ConsignPrice(config.getId(), config.getIndex(), config.getInitialWeight(),
+                    config.getInitialPrice(), config.getWithinPrice(), config.getBeyondPrice());
+            return new CachedTariff(copy, new ConsignTariff(copy.getInitialWeight(), copy.getInitialPrice(),
+                    copy.getWithinPrice(), copy.getBeyondPrice()));
+        }
     }
 }
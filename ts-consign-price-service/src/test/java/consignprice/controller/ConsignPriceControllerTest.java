@@ -3,6 +3,7 @@ package consignprice.controller;
 import com.alibaba.fastjson.JSONObject;
 import consignprice.entity.ConsignPrice;
 import consignprice.service.ConsignPriceService;
+import edu.fudan.common.entity.ConsignQuery;
 import edu.fudan.common.util.Response;
 import org.junit.Assert;
 import org.junit.Before;
@@ -19,6 +20,9 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.util.Arrays;
+import java.util.List;
+
 @RunWith(JUnit4.class)
 public class ConsignPriceControllerTest {
 
@@ -52,6 +56,17 @@ public class ConsignPriceControllerTest {
         Assert.assertEquals(response, JSONObject.parseObject(result, Response.class));
     }
 
+    @Test
+    public void testGetPricesByWeightAndRegion() throws Exception {
+        List<ConsignQuery> queries = Arrays.asList(new ConsignQuery(1.0, true), new ConsignQuery(3.0, false));
+        Mockito.when(service.getPricesByWeightAndRegion(Mockito.anyList(), Mockito.any(HttpHeaders.class))).thenReturn(response);
+        String requestJson = JSONObject.toJSONString(queries);
+        String result = mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/consignpriceservice/consignprice/quotes").contentType(MediaType.APPLICATION_JSON).content(requestJson))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Assert.assertEquals(response, JSONObject.parseObject(result, Response.class));
+    }
+
     @Test
     public void testGetPriceInfo() throws Exception {
         Mockito.when(service.queryPriceInformation(Mockito.any(HttpHeaders.class))).thenReturn(response);
@@ -2,6 +2,7 @@ package consignprice.service;
 
 import consignprice.entity.ConsignPrice;
 import consignprice.repository.ConsignPriceConfigRepository;
+import edu.fudan.common.entity.ConsignQuery;
 import edu.fudan.common.util.Response;
 import org.junit.Assert;
 import org.junit.Before;
@@ -14,6 +15,7 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpHeaders;
 
+import java.util.Arrays;
 import java.util.UUID;
 
 @RunWith(JUnit4.class)
@@ -91,4 +93,50 @@ public class ConsignPriceServiceImplTest {
         Assert.assertEquals(new Response<>(1, "Success", config), result);
     }
 
+    @Test
+    public void testGetPriceByWeightAndRegion4() {
+        Mockito.when(repository.findByIndex(0)).thenReturn(null);
+        Response result = consignPriceServiceImpl.getPriceByWeightAndRegion(3.0, false, headers);
+        Assert.assertEquals(new Response<>(0, "Price config not found", null), result);
+    }
+
+    @Test
+    public void testGetPriceByWeightAndRegionCached() {
+        ConsignPrice priceConfig = new ConsignPrice(UUID.randomUUID().toString(), 1, 2.0, 3.0, 3.5, 4.0);
+        Mockito.when(repository.findByIndex(0)).thenReturn(priceConfig);
+        consignPriceServiceImpl.getPriceByWeightAndRegion(1.0, true, headers);
+        consignPriceServiceImpl.getPriceByWeightAndRegion(3.0, false, headers);
+        consignPriceServiceImpl.queryPriceInformation(headers);
+        Mockito.verify(repository, Mockito.times(1)).findByIndex(0);
+    }
+
+    @Test
+    public void testGetPriceByWeightAndRegionAfterModify() {
+        ConsignPrice priceConfig = new ConsignPrice(UUID.randomUUID().toString(), 0, 2.0, 3.0, 3.5, 4.0);
+        Mockito.when(repository.findByIndex(0)).thenReturn(priceConfig);
+        consignPriceServiceImpl.getPriceByWeightAndRegion(3.0, true, headers);
+        ConsignPrice config = new ConsignPrice(priceConfig.getId(), 0, 2.0, 5.0, 3.5, 4.0);
+        consignPriceServiceImpl.createAndModifyPrice(config, headers);
+        Response result = consignPriceServiceImpl.getPriceByWeightAndRegion(3.0, true, headers);
+        Assert.assertEquals(new Response<>(1, "Success", 8.5), result);
+        Mockito.verify(repository, Mockito.times(2)).findByIndex(0);
+    }
+
+    @Test
+    public void testGetPricesByWeightAndRegion1() {
+        ConsignPrice priceConfig = new ConsignPrice(UUID.randomUUID().toString(), 1, 2.0, 3.0, 3.5, 4.0);
+        Mockito.when(repository.findByIndex(0)).thenReturn(priceConfig);
+        Response result = consignPriceServiceImpl.getPricesByWeightAndRegion(Arrays.asList(
+                new ConsignQuery(1.0, true), new ConsignQuery(3.0, true), new ConsignQuery(3.0, false)), headers);
+        Assert.assertEquals(new Response<>(1, "Success", Arrays.asList(3.0, 6.5, 7.0)), result);
+        Mockito.verify(repository, Mockito.times(1)).findByIndex(0);
+    }
+
+    @Test
+    public void testGetPricesByWeightAndRegion2() {
+        Mockito.when(repository.findByIndex(0)).thenReturn(null);
+        Response result = consignPriceServiceImpl.getPricesByWeightAndRegion(Arrays.asList(new ConsignQuery(1.0, true)), headers);
+        Assert.assertEquals(new Response<>(0, "Price config not found", null), result);
+    }
+
 }
@@ -7,16 +7,8 @@ import edu.fudan.common.util.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cloud.client.ServiceInstance;
-import org.springframework.cloud.client.discovery.DiscoveryClient;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.List;
 import java.util.Optional;
@@ -31,17 +23,10 @@ public class ConsignServiceImpl implements ConsignService {
     ConsignRepository repository;
 
     @Autowired
-    RestTemplate restTemplate;
-
-    @Autowired
-    private DiscoveryClient discoveryClient;
+    private ConsignTariffCache consignTariffCache;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ConsignServiceImpl.class);
 
-    private String getServiceUrl(String serviceName) {
-        return "http://" + serviceName;
-    }
-
 
     @Override
     public Response insertConsignRecord(Consign consignRequest, HttpHeaders headers) {
@@ -62,15 +47,7 @@ public class ConsignServiceImpl implements ConsignService {
         consignRecord.setWeight(consignRequest.getWeight());
 
         //get the price
-        HttpEntity requestEntity = new HttpEntity(null, headers);
-        String consign_price_service_url = getServiceUrl("ts-consign-price-service");
-        ResponseEntity<Response<Double>> re = restTemplate.exchange(
-                consign_price_service_url + "/api/v1/consignpriceservice/consignprice/" + consignRequest.getWeight() + "/" + consignRequest.isWithin(),
-                HttpMethod.GET,
-                requestEntity,
-                new ParameterizedTypeReference<Response<Double>>() {
-                });
-        consignRecord.setPrice(re.getBody().getData());
+        consignRecord.setPrice(consignTariffCache.quote(consignRequest.getWeight(), consignRequest.isWithin(), headers));
 
         LOGGER.info("[insertConsignRecord][SAVE consign info][consignRecord : {}]", consignRecord.toString());
         ConsignRecord result = repository.save(consignRecord);
@@ -95,16 +72,7 @@ public class ConsignServiceImpl implements ConsignService {
         originalRecord.setPhone(consignRequest.getPhone());
         //Recalculate price
         if (originalRecord.getWeight() != consignRequest.getWeight()) {
-            HttpEntity requestEntity = new HttpEntity<>(null, headers);
-            String consign_price_service_url = getServiceUrl("ts-consign-price-service");
-            ResponseEntity<Response<Double>> re = restTemplate.exchange(
-                    consign_price_service_url + "/api/v1/consignpriceservice/consignprice/" + consignRequest.getWeight() + "/" + consignRequest.isWithin(),
-                    HttpMethod.GET,
-                    requestEntity,
-                    new ParameterizedTypeReference<Response<Double>>() {
-                    });
-
-            originalRecord.setPrice(re.getBody().getData());
+            originalRecord.setPrice(consignTariffCache.quote(consignRequest.getWeight(), consignRequest.isWithin(), headers));
         } else {
             originalRecord.setPrice(originalRecord.getPrice());
         }
@@ -0,0 +1,92 @@
+package consign.service;
+
+import edu.fudan.common.entity.ConsignTariff;
+import edu.fudan.common.util.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Copy of the consignment tariff of ts-consign-price-service, so consignments are
+ * priced locally instead of with a request per price.
+ *
+ * The tariff is fetched again once it is older than ttl-ms. The price service only
+ * answers authenticated callers, so the fetch is made with the headers of the request
+ * being handled. If the price service cannot be reached the last tariff is used;
+ * before a first tariff was fetched the request error is thrown to the caller.
+ *
+ * @author fdse
+ */
+@Component
+public class ConsignTariffCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConsignTariffCache.class);
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Value("${consign.tariff.ttl-ms:30000}")
+    private long ttlMillis = 30000;
+
+    private volatile ConsignTariff tariff;
+
+    private volatile long loadedAt;
+
+    /**
+     * @return the price of consigning weight
+     */
+    public double quote(double weight, boolean withinRegion, HttpHeaders headers) {
+        return tariff(headers).quote(weight, withinRegion);
+    }
+
+    private ConsignTariff tariff(HttpHeaders headers) {
+        ConsignTariff cached = tariff;
+        if (cached != null && System.currentTimeMillis() - loadedAt < ttlMillis) {
+            return cached;
+        }
+        synchronized (this) {
+            if (tariff != null && System.currentTimeMillis() - loadedAt < ttlMillis) {
+                return tariff;
+            }
+            try {
+                ConsignTariff fetched = fetch(headers);
+                if (fetched != null) {
+                    tariff = fetched;
+                    loadedAt = System.currentTimeMillis();
+                } else if (tariff == null) {
+                    throw new RestClientException("Consign tariff not available");
+                }
+            } catch (RestClientException e) {
+                if (tariff == null) {
+                    throw e;
+                }
+                LOGGER.warn("[tariff][Consign tariff refresh failed, using the last one][exception: {}]", e.toString());
+            }
+            return tariff;
+        }
+    }
+
+    private ConsignTariff fetch(HttpHeaders headers) {
+        HttpEntity requestEntity = new HttpEntity<>(null, headers);
+        Response<ConsignTariff> response = restTemplate.exchange(
+                "http://ts-consign-price-service/api/v1/consignpriceservice/consignprice/config",
+                HttpMethod.GET,
+                requestEntity,
+                new ParameterizedTypeReference<Response<ConsignTariff>>() {
+                }).getBody();
+        if (response == null || response.getData() == null || !Integer.valueOf(1).equals(response.getStatus())) {
+            LOGGER.warn("[fetch][Consign tariff not available][response: {}]", response);
+            return null;
+        }
+        return response.getData();
+    }
+
+}
@@ -13,9 +13,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
-import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -31,7 +29,7 @@ public class ConsignServiceImplTest {
     private ConsignRepository repository;
 
     @Mock
-    private RestTemplate restTemplate;
+    private ConsignTariffCache consignTariffCache;
 
     private HttpHeaders headers = new HttpHeaders();
 
@@ -42,17 +40,9 @@ public class ConsignServiceImplTest {
 
     @Test
     public void testInsertConsignRecord() {
-        HttpEntity requestEntity = new HttpEntity(null, headers);
-        Response<Double> response = new Response<>(1, null, 3.0);
-        ResponseEntity<Response<Double>> re = new ResponseEntity<>(response, HttpStatus.OK);
         Consign consignRequest = new Consign(UUID.randomUUID().toString(), UUID.randomUUID().toString(), UUID.randomUUID().toString(), "handle_date", "target_date", "place_from", "place_to", "consignee", "10001", 1.0, true);
         ConsignRecord consignRecord = new ConsignRecord(UUID.randomUUID().toString(), UUID.randomUUID().toString(), UUID.randomUUID().toString(), "handle_date", "target_date", "place_from", "place_to", "consignee", "10001", 1.0, 3.0);
-        Mockito.when(restTemplate.exchange(
-                "http://ts-consign-price-service:16110/api/v1/consignpriceservice/consignprice/" + consignRequest.getWeight() + "/" + consignRequest.isWithin(),
-                HttpMethod.GET,
-                requestEntity,
-                new ParameterizedTypeReference<Response<Double>>() {
-                })).thenReturn(re);
+        Mockito.when(consignTariffCache.quote(1.0, true, headers)).thenReturn(3.0);
         Mockito.when(repository.save(Mockito.any(ConsignRecord.class))).thenReturn(consignRecord);
         Response result = consignServiceImpl.insertConsignRecord(consignRequest, headers);
         Assert.assertEquals(new Response<>(1, "You have consigned successfully! The price is 3.0", consignRecord), result);
@@ -60,18 +50,10 @@ public class ConsignServiceImplTest {
 
     @Test
     public void testUpdateConsignRecord1() {
-        HttpEntity requestEntity = new HttpEntity(null, headers);
-        Response<Double> response = new Response<>(1, null, 3.0);
-        ResponseEntity<Response<Double>> re = new ResponseEntity<>(response, HttpStatus.OK);
         Consign consignRequest = new Consign(UUID.randomUUID().toString(), UUID.randomUUID().toString(), UUID.randomUUID().toString(), "handle_date", "target_date", "place_from", "place_to", "consignee", "10001", 1.0, true);
         ConsignRecord consignRecord = new ConsignRecord(UUID.randomUUID().toString(), UUID.randomUUID().toString(), UUID.randomUUID().toString(), "handle_date", "target_date", "place_from", "place_to", "consignee", "10001", 2.0, 3.0);
         Mockito.when(repository.findById(Mockito.anyString())).thenReturn(java.util.Optional.of(consignRecord));
-        Mockito.when(restTemplate.exchange(
-                "http://ts-consign-price-service:16110/api/v1/consignpriceservice/consignprice/" + consignRequest.getWeight() + "/" + consignRequest.isWithin(),
-                HttpMethod.GET,
-                requestEntity,
-                new ParameterizedTypeReference<Response<Double>>() {
-                })).thenReturn(re);
+        Mockito.when(consignTariffCache.quote(1.0, true, headers)).thenReturn(3.0);
         Mockito.when(repository.save(Mockito.any(ConsignRecord.class))).thenReturn(null);
         Response result = consignServiceImpl.updateConsignRecord(consignRequest, headers);
         consignRecord.setWeight(1.0);
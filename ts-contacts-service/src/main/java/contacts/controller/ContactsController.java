@@ -9,6 +9,7 @@ import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 import contacts.service.ContactsService;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.springframework.http.ResponseEntity.ok;
@@ -77,6 +78,13 @@ public class ContactsController {
         return ok(contactsService.findContactsByAccountId(accountId, headers));
     }
 
+    @CrossOrigin(origins = "*")
+    @PostMapping(path = "/contacts/ids")
+    public HttpEntity findContactsByIds(@RequestBody List<String> ids, @RequestHeader HttpHeaders headers) {
+        ContactsController.LOGGER.info("[findContactsByIds][Find Contacts By Ids][ids: {}]", ids.size());
+        return ok(contactsService.findContactsByIds(ids, headers));
+    }
+
     @CrossOrigin(origins = "*")
     @GetMapping(path = "/contacts/{id}")
     public HttpEntity getContactsByContactsId(@PathVariable String id, @RequestHeader HttpHeaders headers) {
@@ -0,0 +1,102 @@
+package contacts.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import contacts.entity.Contacts;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contacts read through the service, per account and per contacts id, so booking and
+ * the contacts page do not query MySQL on every request. Loading an account also
+ * caches each of its contacts by id, so the contacts picked on the booking page are
+ * found without a query.
+ *
+ * Writes through this instance evict the account and the contacts at once; entries
+ * expire after ttl-seconds so writes through other instances show up as well. The
+ * cached contacts are copies detached from the persistence context and must not be
+ * modified.
+ *
+ * @author fdse
+ */
+@Component
+public class ContactsCache {
+
+    private final Cache<String, List<Contacts>> byAccount;
+
+    private final Cache<String, Contacts> byId;
+
+    public ContactsCache(@Value("${contacts.cache.ttl-seconds:60}") long ttlSeconds,
+                         @Value("${contacts.cache.maximum-size:10000}") long maximumSize) {
+        this.byAccount = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .build();
+        this.byId = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * @return contacts of the account, or null if the account is not cached
+     */
+    public List<Contacts> getByAccountId(String accountId) {
+        return accountId == null ? null : byAccount.getIfPresent(accountId);
+    }
+
+    /**
+     * @return the contacts, or null if not cached
+     */
+    public Contacts getById(String id) {
+        return id == null ? null : byId.getIfPresent(id);
+    }
+
+    public void putAccount(String accountId, List<Contacts> loaded) {
+        if (accountId == null) {
+            return;
+        }
+        List<Contacts> copies = new ArrayList<>(loaded.size());
+        for (Contacts contacts : loaded) {
+            Contacts copy = copyOf(contacts);
+            copies.add(copy);
+            if (copy.getId() != null) {
+                byId.put(copy.getId(), copy);
+            }
+        }
+        byAccount.put(accountId, Collections.unmodifiableList(copies));
+    }
+
+    public void put(Contacts contacts) {
+        if (contacts.getId() != null) {
+            byId.put(contacts.getId(), copyOf(contacts));
+        }
+    }
+
+    /**
+     * Evicts the contacts and every contacts of its account.
+     */
+    public void evict(Contacts contacts) {
+        if (contacts.getId() != null) {
+            byId.invalidate(contacts.getId());
+        }
+        if (contacts.getAccountId() != null) {
+            byAccount.invalidate(contacts.getAccountId());
+        }
+    }
+
+    public long size() {
+        return byId.size();
+    }
+
+    private static Contacts copyOf(Contacts contacts) {
+        return new Contacts(contacts.getId(), contacts.getAccountId(), contacts.getName(),
+                contacts.getDocumentType(), contacts.getDocumentNumber(), contacts.getPhoneNumber());
+    }
+
+}
@@ -4,6 +4,7 @@ import contacts.entity.*;
 import edu.fudan.common.util.Response;
 import org.springframework.http.HttpHeaders;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -64,6 +65,15 @@ public interface ContactsService {
      */
     Response findContactsById(String id, HttpHeaders headers);
 
+    /**
+     * find contacts by ids
+     *
+     * @param ids contacts ids
+     * @param headers headers
+     * @return Response with the contacts found, in the order of ids
+     */
+    Response findContactsByIds(List<String> ids, HttpHeaders headers);
+
     /**
      * find contacts by account id
      *
@@ -10,6 +10,9 @@ import org.springframework.stereotype.Service;
 import contacts.repository.ContactsRepository;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 
@@ -22,6 +25,9 @@ public class ContactsServiceImpl implements ContactsService {
     @Autowired
     private ContactsRepository contactsRepository;
 
+    @Autowired
+    private ContactsCache contactsCache;
+
     String success = "Success";
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ContactsServiceImpl.class);
@@ -29,8 +35,13 @@ public class ContactsServiceImpl implements ContactsService {
     @Override
     public Response findContactsById(String id, HttpHeaders headers) {
         LOGGER.info("FIND CONTACTS BY ID: " + id);
+        Contacts cached = contactsCache.getById(id);
+        if (cached != null) {
+            return new Response<>(1, success, cached);
+        }
         Contacts contacts = contactsRepository.findById(id).orElse(null);
         if (contacts != null) {
+            contactsCache.put(contacts);
             return new Response<>(1, success, contacts);
         } else {
             LOGGER.error("[findContactsById][contactsRepository.findById][No contacts according to contactsId][contactsId: {}]", id);
@@ -38,10 +49,39 @@ public class ContactsServiceImpl implements ContactsService {
         }
     }
 
+    @Override
+    public Response findContactsByIds(List<String> ids, HttpHeaders headers) {
+        List<Contacts> found = new ArrayList<>(ids.size());
+        Set<String> missing = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (contactsCache.getById(id) == null) {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Contacts contacts : contactsRepository.findAllById(missing)) {
+                contactsCache.put(contacts);
+            }
+        }
+        for (String id : new LinkedHashSet<>(ids)) {
+            Contacts contacts = contactsCache.getById(id);
+            if (contacts != null) {
+                found.add(contacts);
+            }
+        }
+        ContactsServiceImpl.LOGGER.info("[findContactsByIds][Query Contacts][ids: {}, queried: {}, found: {}]", ids.size(), missing.size(), found.size());
+        return new Response<>(1, success, found);
+    }
+
     @Override
     public Response findContactsByAccountId(String accountId, HttpHeaders headers) {
+        List<Contacts> cached = contactsCache.getByAccountId(accountId);
+        if (cached != null) {
+            return new Response<>(1, success, cached);
+        }
         ArrayList<Contacts> arr = contactsRepository.findByAccountId(accountId);
         ContactsServiceImpl.LOGGER.info("[findContactsByAccountId][Query Contacts][Result Size: {}]", arr.size());
+        contactsCache.putAccount(accountId, arr);
         return new Response<>(1, success, arr);
     }
 
@@ -53,6 +93,7 @@ public class ContactsServiceImpl implements ContactsService {
             return new Response<>(0, "Already Exists", contactsTemp);
         } else {
             contactsRepository.save(contacts);
+            contactsCache.evict(contacts);
             return new Response<>(1, "Create Success", null);
         }
     }
@@ -67,6 +108,7 @@ public class ContactsServiceImpl implements ContactsService {
             return new Response<>(0, "Contacts already exists", null);
         } else {
             Contacts contacts = contactsRepository.save(addContacts);
+            contactsCache.evict(addContacts);
             ContactsServiceImpl.LOGGER.info("[Contacts-Add&Delete-Service.create][AddContacts Success]");
             return new Response<>(1, "Create contacts success", contacts);
         }
@@ -74,7 +116,11 @@ public class ContactsServiceImpl implements ContactsService {
 
     @Override
     public Response delete(String contactsId, HttpHeaders headers) {
+        Contacts deleted = contactsRepository.findById(contactsId).orElse(null);
         contactsRepository.deleteById(contactsId);
+        if (deleted != null) {
+            contactsCache.evict(deleted);
+        }
         Contacts contacts = contactsRepository.findById(contactsId).orElse(null);
         if (contacts == null) {
             ContactsServiceImpl.LOGGER.info("[Contacts-Add&Delete-Service][DeleteContacts Success]");
@@ -87,10 +133,8 @@ public class ContactsServiceImpl implements ContactsService {
 
     @Override
     public Response modify(Contacts contacts, HttpHeaders headers) {
-        headers = null;
-        Response oldContactResponse = findContactsById(contacts.getId(), headers);
-        LOGGER.info(oldContactResponse.toString());
-        Contacts oldContacts = (Contacts) oldContactResponse.getData();
+        // read the entity itself, the cached contacts are shared and must not be modified
+        Contacts oldContacts = contactsRepository.findById(contacts.getId()).orElse(null);
         if (oldContacts == null) {
             ContactsServiceImpl.LOGGER.error("[Contacts-Modify-Service.modify][ModifyContacts][Fail.Contacts not found][contactId: {}]", contacts.getId());
             return new Response<>(0, "Contacts not found", null);
@@ -100,6 +144,7 @@ public class ContactsServiceImpl implements ContactsService {
             oldContacts.setDocumentNumber(contacts.getDocumentNumber());
             oldContacts.setPhoneNumber(contacts.getPhoneNumber());
             contactsRepository.save(oldContacts);
+            contactsCache.evict(oldContacts);
             ContactsServiceImpl.LOGGER.info("[Contacts-Modify-Service.modify][ModifyContacts Success]");
             return new Response<>(1, "Modify success", oldContacts);
         }
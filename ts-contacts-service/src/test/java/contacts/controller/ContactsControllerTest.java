@@ -19,6 +19,8 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 
 @RunWith(JUnit4.class)
@@ -107,6 +109,17 @@ public class ContactsControllerTest {
         Assert.assertEquals(response, JSONObject.parseObject(result, Response.class));
     }
 
+    @Test
+    public void testFindContactsByIds() throws Exception {
+        List<String> ids = Arrays.asList(UUID.randomUUID().toString(), UUID.randomUUID().toString());
+        Mockito.when(contactsService.findContactsByIds(Mockito.eq(ids), Mockito.any(HttpHeaders.class))).thenReturn(response);
+        String requestJson = JSONObject.toJSONString(ids);
+        String result = mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/contactservice/contacts/ids").contentType(MediaType.APPLICATION_JSON).content(requestJson))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Assert.assertEquals(response, JSONObject.parseObject(result, Response.class));
+    }
+
     @Test
     public void testGetContactsByContactsId() throws Exception {
         UUID id = UUID.randomUUID();
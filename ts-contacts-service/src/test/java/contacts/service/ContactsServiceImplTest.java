@@ -12,9 +12,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.HttpHeaders;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -27,6 +29,9 @@ public class ContactsServiceImplTest {
     @Mock
     private ContactsRepository contactsRepository;
 
+    @Spy
+    private ContactsCache contactsCache = new ContactsCache(60, 100);
+
     private HttpHeaders headers = new HttpHeaders();
 
     @Before
@@ -149,4 +154,49 @@ public class ContactsServiceImplTest {
         Assert.assertEquals(new Response<>(0, "No content", null), result);
     }
 
+    @Test
+    public void testFindContactsByIdCached() {
+        String accountId = UUID.randomUUID().toString();
+        Contacts contacts = new Contacts(UUID.randomUUID().toString(), accountId, "name", 1, "doc", "phone");
+        ArrayList<Contacts> accountContacts = new ArrayList<>();
+        accountContacts.add(contacts);
+        Mockito.when(contactsRepository.findByAccountId(accountId)).thenReturn(accountContacts);
+        contactsServiceImpl.findContactsByAccountId(accountId, headers);
+        Response byAccount = contactsServiceImpl.findContactsByAccountId(accountId, headers);
+        Response byId = contactsServiceImpl.findContactsById(contacts.getId(), headers);
+        Assert.assertEquals(new Response<>(1, "Success", accountContacts), byAccount);
+        Assert.assertEquals(new Response<>(1, "Success", contacts), byId);
+        Mockito.verify(contactsRepository, Mockito.times(1)).findByAccountId(accountId);
+        Mockito.verify(contactsRepository, Mockito.never()).findById(contacts.getId());
+    }
+
+    @Test
+    public void testFindContactsByAccountIdAfterModify() {
+        String accountId = UUID.randomUUID().toString();
+        Contacts contacts = new Contacts(UUID.randomUUID().toString(), accountId, "name", 1, "doc", "phone");
+        ArrayList<Contacts> accountContacts = new ArrayList<>();
+        accountContacts.add(contacts);
+        Mockito.when(contactsRepository.findByAccountId(accountId)).thenReturn(accountContacts);
+        Mockito.when(contactsRepository.findById(contacts.getId())).thenReturn(Optional.of(contacts));
+        contactsServiceImpl.findContactsByAccountId(accountId, headers);
+        Contacts modified = new Contacts(contacts.getId(), accountId, "other name", 1, "doc", "phone");
+        contactsServiceImpl.modify(modified, headers);
+        Response result = contactsServiceImpl.findContactsById(contacts.getId(), headers);
+        contactsServiceImpl.findContactsByAccountId(accountId, headers);
+        Assert.assertEquals(new Response<>(1, "Success", modified), result);
+        Mockito.verify(contactsRepository, Mockito.times(2)).findByAccountId(accountId);
+    }
+
+    @Test
+    public void testFindContactsByIds() {
+        Contacts cached = new Contacts(UUID.randomUUID().toString(), "account", "name1", 1, "doc1", "phone1");
+        Contacts loaded = new Contacts(UUID.randomUUID().toString(), "account", "name2", 1, "doc2", "phone2");
+        String unknown = UUID.randomUUID().toString();
+        contactsCache.put(cached);
+        Mockito.when(contactsRepository.findAllById(Mockito.anyIterable())).thenReturn(Arrays.asList(loaded));
+        Response result = contactsServiceImpl.findContactsByIds(Arrays.asList(loaded.getId(), unknown, cached.getId()), headers);
+        Assert.assertEquals(new Response<>(1, "Success", Arrays.asList(loaded, cached)), result);
+        Mockito.verify(contactsRepository).findAllById(new java.util.LinkedHashSet<>(Arrays.asList(loaded.getId(), unknown)));
+    }
+
 }
@@ -1,6 +1,10 @@
 package delivery.config;
 
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -9,8 +13,29 @@ public class Queues {
 
     public final static String queueName = "food_delivery";
 
+    public final static String batchListenerFactory = "batchListenerContainerFactory";
+
     @Bean
     public Queue emailQueue() {
         return new Queue(queueName);
     }
+
+    /**
+     * Listener containers that hand up to batch-size messages to the listener at once,
+     * or fewer once no message arrived for receive-timeout-ms. Prefetch and consumer
+     * counts come from spring.rabbitmq.listener.simple.
+     */
+    @Bean(name = batchListenerFactory)
+    public SimpleRabbitListenerContainerFactory batchListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            @Value("${delivery.mq.batch-size:100}") int batchSize,
+            @Value("${delivery.mq.receive-timeout-ms:200}") long receiveTimeout) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeout);
+        return factory;
+    }
 }
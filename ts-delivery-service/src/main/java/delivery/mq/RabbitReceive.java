@@ -17,7 +17,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.List;
 
 
 @Component
@@ -32,25 +33,40 @@ public class RabbitReceive {
     private DeliveryRepository deliveryRepository;
 
 
-    @RabbitListener(queues = Queues.queueName)
-    public void process(String payload) {
-        Delivery delivery = JsonUtils.json2Object(payload, Delivery.class);
+    @RabbitListener(queues = Queues.queueName, containerFactory = Queues.batchListenerFactory)
+    public void process(List<String> payloads) {
+        List<Delivery> deliveries = new ArrayList<>();
+        for (String payload : payloads) {
+            Delivery delivery = JsonUtils.json2Object(payload, Delivery.class);
 
-        if (delivery == null) {
-            logger.error("[process][json2Object][Receive delivery object is null error]");
-            return;
+            if (delivery == null) {
+                logger.error("[process][json2Object][Receive delivery object is null error]");
+                continue;
+            }
+            logger.info("[process][Receive delivery object][delivery object: {}]", delivery);
+            // a null id is assigned by the generator on insert
+            deliveries.add(delivery);
         }
-        logger.info("[process][Receive delivery object][delivery object: {}]" + delivery);
-
-        if (delivery.getId() == null) {
-            delivery.setId(UUID.randomUUID().toString());
+        if (deliveries.isEmpty()) {
+            return;
         }
 
         try {
-            deliveryRepository.save(delivery);
-            logger.info("[process][Save delivery object into database success]");
+            deliveryRepository.saveAll(deliveries);
+            logger.info("[process][Save delivery objects into database success][size: {}]", deliveries.size());
         } catch (Exception e) {
-            logger.error("[process][deliveryRepository.save][Save delivery object into database failed][exception: {}]", e.toString());
+            logger.error("[process][deliveryRepository.saveAll][Save delivery objects into database failed, saving one by one][exception: {}]", e.toString());
+            saveEach(deliveries);
+        }
+    }
+
+    private void saveEach(List<Delivery> deliveries) {
+        for (Delivery delivery : deliveries) {
+            try {
+                deliveryRepository.save(delivery);
+            } catch (Exception e) {
+                logger.error("[saveEach][deliveryRepository.save][Save delivery object into database failed][orderId: {}, exception: {}]", delivery.getOrderId(), e.toString());
+            }
         }
     }
 }
@@ -94,4 +94,16 @@ public class FoodController {
         return ok(foodService.getAllFood(date, startStation, endStation, tripId, headers));
     }
 
+    @DeleteMapping(path = "/foods")
+    public HttpEntity evictAllFood(@RequestHeader HttpHeaders headers) {
+        FoodController.LOGGER.info("[evictAllFood][Evict all cached food]");
+        return ok(foodService.evictAllFood(null, headers));
+    }
+
+    @DeleteMapping(path = "/foods/{tripId}")
+    public HttpEntity evictAllFood(@PathVariable String tripId, @RequestHeader HttpHeaders headers) {
+        FoodController.LOGGER.info("[evictAllFood][Evict cached food][tripId: {}]", tripId);
+        return ok(foodService.evictAllFood(tripId, headers));
+    }
+
 }
@@ -4,21 +4,86 @@ package foodsearch.mq;
 import foodsearch.config.Queues;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 
 @Component
 public class RabbitSend {
 
     @Autowired
-    private AmqpTemplate rabbitTemplate;
+    private RabbitTemplate rabbitTemplate;
     private static final Logger logger = LoggerFactory.getLogger(RabbitSend.class);
 
+    @Value("${food.delivery.publish-batch-size:100}")
+    private int publishBatchSize = 100;
+
+    @Value("${food.delivery.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs = 5000;
+
     public void send(String val) {
         logger.info("Send info to mq:" + val);
         this.rabbitTemplate.convertAndSend(Queues.queueName, val);
     }
 
+    /**
+     * Publishes the messages in batches of publish-batch-size, waiting for the broker's
+     * confirms once per batch instead of once per message.
+     *
+     * @return indexes of the messages the broker did not confirm
+     */
+    public List<Integer> sendAndConfirm(List<String> vals) {
+        boolean confirms = rabbitTemplate.getConnectionFactory().isPublisherConfirms();
+        List<Integer> unconfirmed = new ArrayList<>();
+        for (int from = 0; from < vals.size(); from += publishBatchSize) {
+            int to = Math.min(from + publishBatchSize, vals.size());
+            List<CorrelationData> correlations = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                CorrelationData correlation = new CorrelationData(String.valueOf(i));
+                try {
+                    this.rabbitTemplate.convertAndSend(Queues.queueName, (Object) vals.get(i), correlation);
+                    correlations.add(correlation);
+                } catch (AmqpException e) {
+                    logger.error("[sendAndConfirm][Send info to mq error][index: {}, exception: {}]", i, e.toString());
+                    correlations.add(null);
+                }
+            }
+            long deadline = System.currentTimeMillis() + confirmTimeoutMs;
+            for (int i = from; i < to; i++) {
+                CorrelationData correlation = correlations.get(i - from);
+                if (correlation == null || confirms && !confirmed(correlation, deadline)) {
+                    unconfirmed.add(i);
+                }
+            }
+            logger.info("[sendAndConfirm][Send info to mq][batch: {}, unconfirmed: {}]", to - from, unconfirmed.size());
+        }
+        return unconfirmed;
+    }
+
+    private static boolean confirmed(CorrelationData correlation, long deadline) {
+        try {
+            long timeout = Math.max(deadline - System.currentTimeMillis(), 0);
+            CorrelationData.Confirm confirm = correlation.getFuture().get(timeout, TimeUnit.MILLISECONDS);
+            if (!confirm.isAck()) {
+                logger.error("[confirmed][Message nacked by mq][index: {}, reason: {}]", correlation.getId(), confirm.getReason());
+            }
+            return confirm.isAck();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            logger.error("[confirmed][Message not confirmed by mq][index: {}, exception: {}]", correlation.getId(), e.toString());
+        }
+        return false;
+    }
+
 }
@@ -2,9 +2,11 @@ package foodsearch.repository;
 
 import foodsearch.entity.FoodOrder;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,9 +18,13 @@ public interface FoodOrderRepository extends CrudRepository<FoodOrder, String> {
 
     FoodOrder findByOrderId(String orderId);
 
+    List<FoodOrder> findByOrderIdIn(Collection<String> orderIds);
+
     @Override
     List<FoodOrder> findAll();
 
+    List<FoodOrder> findAllBy(Pageable pageable);
+
     void deleteById(UUID id);
 
     void deleteFoodOrderByOrderId(String id);
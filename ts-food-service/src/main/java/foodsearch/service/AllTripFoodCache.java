@@ -0,0 +1,59 @@
+package foodsearch.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import foodsearch.entity.AllTripFood;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assembled menus of the booking page, per trip and section. Entries expire after
+ * ttl-seconds so menu and store changes show up without a restart, and can be
+ * evicted at once through DELETE /api/v1/foodservice/foods.
+ *
+ * @author fdse
+ */
+@Component
+public class AllTripFoodCache {
+
+    private final Cache<String, AllTripFood> cache;
+
+    public AllTripFoodCache(@Value("${food.menu-cache.ttl-seconds:60}") long ttlSeconds,
+                            @Value("${food.menu-cache.maximum-size:10000}") long maximumSize) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    public AllTripFood get(String tripId, String startStation, String endStation) {
+        return cache.getIfPresent(keyOf(tripId, startStation, endStation));
+    }
+
+    public void put(String tripId, String startStation, String endStation, AllTripFood allTripFood) {
+        cache.put(keyOf(tripId, startStation, endStation), allTripFood);
+    }
+
+    /**
+     * Evicts every section of the trip.
+     */
+    public void evict(String tripId) {
+        String prefix = tripId + "\n";
+        cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    private static String keyOf(String tripId, String startStation, String endStation) {
+        return tripId + "\n" + startStation + "\n" + endStation;
+    }
+
+}
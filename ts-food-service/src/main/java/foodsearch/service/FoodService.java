@@ -23,4 +23,6 @@ public interface FoodService {
 
     Response getAllFood(String date, String startStation, String endStation, String tripId, HttpHeaders headers);
 
+    Response evictAllFood(String tripId, HttpHeaders headers);
+
 }
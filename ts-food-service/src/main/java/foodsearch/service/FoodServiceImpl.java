@@ -4,20 +4,25 @@ import edu.fudan.common.entity.Food;
 import edu.fudan.common.entity.StationFoodStore;
 import edu.fudan.common.entity.TrainFood;
 import edu.fudan.common.util.JsonUtils;
+import edu.fudan.common.util.PagedIterable;
 import edu.fudan.common.util.Response;
 import edu.fudan.common.entity.Route;
 import foodsearch.entity.*;
 import foodsearch.mq.RabbitSend;
 import foodsearch.repository.FoodOrderRepository;
+import org.apache.skywalking.apm.toolkit.trace.CallableWrapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.client.discovery.DiscoveryClient;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
@@ -27,6 +32,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 @Service
@@ -44,8 +53,13 @@ public class FoodServiceImpl implements FoodService {
     @Autowired
     private DiscoveryClient discoveryClient;
 
+    @Autowired
+    private AllTripFoodCache allTripFoodCache;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(FoodServiceImpl.class);
 
+    private static final ExecutorService executorService = Executors.newFixedThreadPool(20, new CustomizableThreadFactory("HttpClientThreadPool-"));
+
     private String getServiceUrl(String serviceName) {
         return "http://" + serviceName;
     }
@@ -55,27 +69,20 @@ public class FoodServiceImpl implements FoodService {
 
     @Override
     public Response createFoodOrdersInBatch(List<FoodOrder> orders, HttpHeaders headers) {
-        boolean error = false;
-        String errorOrderId = "";
-
-        // Check if foodOrder exists
-        for (FoodOrder addFoodOrder : orders) {
-            FoodOrder fo = foodOrderRepository.findByOrderId(addFoodOrder.getOrderId());
-            if (fo != null) {
-                LOGGER.error("[createFoodOrdersInBatch][AddFoodOrder][Order Id Has Existed][OrderId: {}]", addFoodOrder.getOrderId());
-                error = true;
-                errorOrderId = addFoodOrder.getOrderId().toString();
-                break;
-            }
-        }
-        if (error) {
+        // Check if foodOrder exists, one query for the whole batch
+        List<String> orderIds = orders.stream().map(FoodOrder::getOrderId).collect(Collectors.toList());
+        List<FoodOrder> existed = foodOrderRepository.findByOrderIdIn(orderIds);
+        if (existed != null && !existed.isEmpty()) {
+            String errorOrderId = existed.get(0).getOrderId();
+            LOGGER.error("[createFoodOrdersInBatch][AddFoodOrder][Order Id Has Existed][OrderId: {}]", errorOrderId);
             return new Response<>(0, "Order Id " + errorOrderId + "Existed", null);
         }
 
+        List<FoodOrder> foodOrders = new ArrayList<>();
         List<String> deliveryJsons = new ArrayList<>();
         for (FoodOrder addFoodOrder : orders) {
+            // id left to the generator, so saveAll inserts without selecting each order first
             FoodOrder fo = new FoodOrder();
-            fo.setId(UUID.randomUUID().toString());
             fo.setOrderId(addFoodOrder.getOrderId());
             fo.setFoodType(addFoodOrder.getFoodType());
             if (addFoodOrder.getFoodType() == 2) {
@@ -84,8 +91,7 @@ public class FoodServiceImpl implements FoodService {
             }
             fo.setFoodName(addFoodOrder.getFoodName());
             fo.setPrice(addFoodOrder.getPrice());
-            foodOrderRepository.save(fo);
-            LOGGER.info("[createFoodOrdersInBatch][AddFoodOrderBatch][Success Save One Order][FoodOrderId: {}]", fo.getOrderId());
+            foodOrders.add(fo);
 
             Delivery delivery = new Delivery();
             delivery.setFoodName(addFoodOrder.getFoodName());
@@ -96,17 +102,18 @@ public class FoodServiceImpl implements FoodService {
             String deliveryJson = JsonUtils.object2Json(delivery);
             deliveryJsons.add(deliveryJson);
         }
+        foodOrderRepository.saveAll(foodOrders);
+        LOGGER.info("[createFoodOrdersInBatch][AddFoodOrderBatch][Success Save Orders][size: {}]", foodOrders.size());
 
         // 批量发送消息
-        for(String deliveryJson: deliveryJsons) {
-            LOGGER.info("[createFoodOrdersInBatch][AddFoodOrder][delivery info send to mq][delivery info: {}]", deliveryJson);
-            try {
-                sender.send(deliveryJson);
-            } catch (Exception e) {
-                LOGGER.error("[createFoodOrdersInBatch][AddFoodOrder][send delivery info to mq error][exception: {}]", e.toString());
-            }
+        List<String> unsentOrderIds = new ArrayList<>();
+        for (int index : sender.sendAndConfirm(deliveryJsons)) {
+            LOGGER.error("[createFoodOrdersInBatch][AddFoodOrder][send delivery info to mq error][OrderId: {}]", orderIds.get(index));
+            unsentOrderIds.add(orderIds.get(index));
+        }
+        if (!unsentOrderIds.isEmpty()) {
+            return new Response<>(1, "Delivery Not Sent For Some Orders", unsentOrderIds);
         }
-
         return new Response<>(1, success, null);
     }
 
@@ -166,8 +173,10 @@ public class FoodServiceImpl implements FoodService {
 
     @Override
     public Response findAllFoodOrder(HttpHeaders headers) {
-        List<FoodOrder> foodOrders = foodOrderRepository.findAll();
-        if (foodOrders != null && !foodOrders.isEmpty()) {
+        // read while the response is written, one page at a time
+        PagedIterable<FoodOrder> foodOrders = PagedIterable.of(PagedIterable.DEFAULT_PAGE_SIZE, page ->
+                foodOrderRepository.findAllBy(PageRequest.of(page, PagedIterable.DEFAULT_PAGE_SIZE, Sort.by("id"))));
+        if (!foodOrders.isEmpty()) {
             return new Response<>(1, success, foodOrders);
         } else {
             FoodServiceImpl.LOGGER.error("[findAllFoodOrder][Find all food order error: {}]", "No Content");
@@ -219,11 +228,77 @@ public class FoodServiceImpl implements FoodService {
             return new Response<>(0, "Trip id is not suitable", null);
         }
 
-        // need return this tow element
-        List<Food> trainFoodList = null;
+        AllTripFood cached = allTripFoodCache.get(tripId, startStation, endStation);
+        if (cached != null) {
+            return new Response<>(1, "Get All Food Success", cached);
+        }
+
+        // train food and the route do not depend on each other
+        Future<List<Food>> trainFoodFuture = executorService.submit(CallableWrapper.of(() -> getTrainFoodList(tripId)));
+        Future<Response<Route>> routeFuture = executorService.submit(CallableWrapper.of(() -> getRoute(tripId)));
+
+        List<Food> trainFoodList = getResult(trainFoodFuture);
+        if (trainFoodList != null) {
+            FoodServiceImpl.LOGGER.info("[getAllFood][Get Train Food List!]");
+        } else {
+            routeFuture.cancel(true);
+            FoodServiceImpl.LOGGER.error("[getAllFood][reGetTrainFoodListResult][Get the Get Food Request Failed!][date: {}, tripId: {}]", date, tripId);
+            return new Response<>(0, "Get the Get Food Request Failed!", null);
+        }
+
+        //车次途经的车站
+        Response<Route> stationResult = getResult(routeFuture);
+        if (stationResult == null || stationResult.getStatus() != 1) {
+            FoodServiceImpl.LOGGER.error("[getAllFood][Get the Get Food Request Failed!][station status error][date: {}, tripId: {}]", date, tripId);
+            return new Response<>(0, "Get All Food Failed", allTripFood);
+        }
+        //去除不经过的站，如果起点终点有的话
+        List<String> stations = section(stationResult.getData().getStations(), startStation, endStation);
+
+        HttpEntity requestEntityFoodStoresListResult = new HttpEntity(stations, null);
+        String station_food_service_url = getServiceUrl("ts-station-food-service");
+        ResponseEntity<Response<List<StationFoodStore>>> reFoodStoresListResult = restTemplate.exchange(
+                 station_food_service_url + "/api/v1/stationfoodservice/stationfoodstores",
+                HttpMethod.POST,
+                requestEntityFoodStoresListResult,
+                new ParameterizedTypeReference<Response<List<StationFoodStore>>>() {
+                });
+        List<StationFoodStore> stationFoodStoresListResult = reFoodStoresListResult.getBody().getData();
+        if (stationFoodStoresListResult == null || stationFoodStoresListResult.isEmpty()) {
+            FoodServiceImpl.LOGGER.error("[getAllFood][Get the Get Food Request Failed!][foodStoresListResult is null][date: {}, tripId: {}]", date, tripId);
+            return new Response<>(0, "Get All Food Failed", allTripFood);
+        }
+
+        // group the stores by station in one pass, every station of the section gets an entry
         Map<String, List<StationFoodStore>> foodStoreListMap = new HashMap<>();
+        for (String station : stations) {
+            foodStoreListMap.put(station, new ArrayList<>());
+        }
+        for (StationFoodStore stationFoodStore : stationFoodStoresListResult) {
+            List<StationFoodStore> stores = foodStoreListMap.get(stationFoodStore.getStationName());
+            if (stores != null) {
+                stores.add(stationFoodStore);
+            }
+        }
 
-        /**--------------------------------------------------------------------------------------*/
+        allTripFood.setTrainFoodList(trainFoodList);
+        allTripFood.setFoodStoreListMap(foodStoreListMap);
+        allTripFoodCache.put(tripId, startStation, endStation, allTripFood);
+        return new Response<>(1, "Get All Food Success", allTripFood);
+    }
+
+    @Override
+    public Response evictAllFood(String tripId, HttpHeaders headers) {
+        if (tripId == null) {
+            allTripFoodCache.evictAll();
+        } else {
+            allTripFoodCache.evict(tripId);
+        }
+        FoodServiceImpl.LOGGER.info("[evictAllFood][Cached food evicted][tripId: {}]", tripId);
+        return new Response<>(1, success, null);
+    }
+
+    private List<Food> getTrainFoodList(String tripId) {
         HttpEntity requestEntityGetTrainFoodListResult = new HttpEntity(null);
         String train_food_service_url = getServiceUrl("ts-train-food-service");
         ResponseEntity<Response<List<Food>>> reGetTrainFoodListResult = restTemplate.exchange(
@@ -232,20 +307,10 @@ public class FoodServiceImpl implements FoodService {
                 requestEntityGetTrainFoodListResult,
                 new ParameterizedTypeReference<Response<List<Food>>>() {
                 });
+        return reGetTrainFoodListResult.getBody().getData();
+    }
 
-
-
-        List<Food> trainFoodListResult = reGetTrainFoodListResult.getBody().getData();
-
-        if (trainFoodListResult != null) {
-            trainFoodList = trainFoodListResult;
-            FoodServiceImpl.LOGGER.info("[getAllFood][Get Train Food List!]");
-        } else {
-            FoodServiceImpl.LOGGER.error("[getAllFood][reGetTrainFoodListResult][Get the Get Food Request Failed!][date: {}, tripId: {}]", date, tripId);
-            return new Response<>(0, "Get the Get Food Request Failed!", null);
-        }
-        //车次途经的车站
-        /**--------------------------------------------------------------------------------------*/
+    private Response<Route> getRoute(String tripId) {
         HttpEntity requestEntityGetRouteResult = new HttpEntity(null, null);
         String travel_service_url = getServiceUrl("ts-travel-service");
         ResponseEntity<Response<Route>> reGetRouteResult = restTemplate.exchange(
@@ -254,59 +319,27 @@ public class FoodServiceImpl implements FoodService {
                 requestEntityGetRouteResult,
                 new ParameterizedTypeReference<Response<Route>>() {
                 });
-        Response<Route> stationResult = reGetRouteResult.getBody();
-
-        if (stationResult.getStatus() == 1) {
-            Route route = stationResult.getData();
-            List<String> stations = route.getStations();
-            //去除不经过的站，如果起点终点有的话
-            if (null != startStation && !"".equals(startStation)) {
-                /**--------------------------------------------------------------------------------------*/
-                for (int i = 0; i < stations.size(); i++) {
-                    if (stations.get(i).equals(startStation)) {
-                        break;
-                    } else {
-                        stations.remove(i);
-                    }
-                }
-            }
-            if (null != endStation && !"".equals(endStation)) {
-                /**--------------------------------------------------------------------------------------*/
-                for (int i = stations.size() - 1; i >= 0; i--) {
-                    if (stations.get(i).equals(endStation)) {
-                        break;
-                    } else {
-                        stations.remove(i);
-                    }
-                }
-            }
+        return reGetRouteResult.getBody();
+    }
 
-            HttpEntity requestEntityFoodStoresListResult = new HttpEntity(stations, null);
-            String station_food_service_url = getServiceUrl("ts-station-food-service");
-            ResponseEntity<Response<List<StationFoodStore>>> reFoodStoresListResult = restTemplate.exchange(
-                     station_food_service_url + "/api/v1/stationfoodservice/stationfoodstores",
-                    HttpMethod.POST,
-                    requestEntityFoodStoresListResult,
-                    new ParameterizedTypeReference<Response<List<StationFoodStore>>>() {
-                    });
-            List<StationFoodStore> stationFoodStoresListResult = reFoodStoresListResult.getBody().getData();
-            if (stationFoodStoresListResult != null && !stationFoodStoresListResult.isEmpty()) {
-                for (String station : stations) {
-                    List<StationFoodStore> res = stationFoodStoresListResult.stream()
-                            .filter(stationFoodStore -> (stationFoodStore.getStationName().equals(station)))
-                            .collect(Collectors.toList());
-                    foodStoreListMap.put(station, res);
-                }
-            } else {
-                FoodServiceImpl.LOGGER.error("[getAllFood][Get the Get Food Request Failed!][foodStoresListResult is null][date: {}, tripId: {}]", date, tripId);
-                return new Response<>(0, "Get All Food Failed", allTripFood);
-            }
-        } else {
-            FoodServiceImpl.LOGGER.error("[getAllFood][Get the Get Food Request Failed!][station status error][date: {}, tripId: {}]", date, tripId);
-            return new Response<>(0, "Get All Food Failed", allTripFood);
+    /**
+     * @return the stations from startStation to endStation, either end left open if empty or not on the route
+     */
+    private static List<String> section(List<String> stations, String startStation, String endStation) {
+        int from = null == startStation || "".equals(startStation) ? -1 : stations.indexOf(startStation);
+        int to = null == endStation || "".equals(endStation) ? -1 : stations.lastIndexOf(endStation);
+        return new ArrayList<>(stations.subList(Math.max(from, 0), to < Math.max(from, 0) ? stations.size() : to + 1));
+    }
+
+    private <T> T getResult(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            FoodServiceImpl.LOGGER.error("[getResult][Interrupted while getting food]");
+        } catch (ExecutionException e) {
+            FoodServiceImpl.LOGGER.error("[getResult][Get food error][{}]", e.getCause().toString());
         }
-        allTripFood.setTrainFoodList(trainFoodList);
-        allTripFood.setFoodStoreListMap(foodStoreListMap);
-        return new Response<>(1, "Get All Food Success", allTripFood);
+        return null;
     }
 }
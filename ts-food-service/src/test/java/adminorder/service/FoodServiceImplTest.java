@@ -1,8 +1,14 @@
 package adminorder.service;
 
+import edu.fudan.common.entity.Food;
+import edu.fudan.common.entity.Route;
+import edu.fudan.common.entity.StationFoodStore;
 import edu.fudan.common.util.Response;
+import foodsearch.entity.AllTripFood;
 import foodsearch.entity.FoodOrder;
+import foodsearch.mq.RabbitSend;
 import foodsearch.repository.FoodOrderRepository;
+import foodsearch.service.AllTripFoodCache;
 import foodsearch.service.FoodServiceImpl;
 import org.junit.Assert;
 import org.junit.Before;
@@ -13,9 +19,19 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -29,6 +45,15 @@ public class FoodServiceImplTest {
     @Mock
     private FoodOrderRepository foodOrderRepository;
 
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Mock
+    private RabbitSend sender;
+
+    @Spy
+    private AllTripFoodCache allTripFoodCache = new AllTripFoodCache(60, 100);
+
     private HttpHeaders headers = new HttpHeaders();
 
     @Before
@@ -71,18 +96,50 @@ public class FoodServiceImplTest {
         Assert.assertEquals(new Response<>(1, "Success.", null), result);
     }
 
+    @Test
+    public void testCreateFoodOrdersInBatch1() {
+        FoodOrder existed = new FoodOrder();
+        existed.setOrderId(UUID.randomUUID().toString());
+        Mockito.when(foodOrderRepository.findByOrderIdIn(Mockito.anyCollection())).thenReturn(Collections.singletonList(existed));
+        Response result = foodServiceImpl.createFoodOrdersInBatch(Collections.singletonList(existed), headers);
+        Assert.assertEquals(new Response<>(0, "Order Id " + existed.getOrderId() + "Existed", null), result);
+        Mockito.verify(foodOrderRepository, Mockito.never()).saveAll(Mockito.anyIterable());
+    }
+
+    @Test
+    public void testCreateFoodOrdersInBatch2() {
+        List<FoodOrder> orders = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            FoodOrder fo = new FoodOrder();
+            fo.setOrderId(UUID.randomUUID().toString());
+            fo.setFoodType(1);
+            orders.add(fo);
+        }
+        Mockito.when(foodOrderRepository.findByOrderIdIn(Mockito.anyCollection())).thenReturn(new ArrayList<>());
+        Mockito.when(sender.sendAndConfirm(Mockito.anyList())).thenReturn(Collections.singletonList(1));
+        Response result = foodServiceImpl.createFoodOrdersInBatch(orders, headers);
+        Assert.assertEquals(new Response<>(1, "Delivery Not Sent For Some Orders",
+                Collections.singletonList(orders.get(1).getOrderId())), result);
+        Mockito.verify(foodOrderRepository, Mockito.times(1)).findByOrderIdIn(Mockito.anyCollection());
+        Mockito.verify(foodOrderRepository, Mockito.times(1)).saveAll(Mockito.anyIterable());
+        Mockito.verify(sender, Mockito.times(1)).sendAndConfirm(Mockito.anyList());
+    }
+
     @Test
     public void testFindAllFoodOrder1() {
         List<FoodOrder> foodOrders = new ArrayList<>();
         foodOrders.add(new FoodOrder());
-        Mockito.when(foodOrderRepository.findAll()).thenReturn(foodOrders);
+        Mockito.when(foodOrderRepository.findAllBy(Mockito.any(Pageable.class))).thenReturn(foodOrders);
         Response result = foodServiceImpl.findAllFoodOrder(headers);
-        Assert.assertEquals(new Response<>(1, "Success.", foodOrders), result);
+        Assert.assertEquals("Success.", result.getMsg());
+        List<FoodOrder> data = new ArrayList<>();
+        ((Iterable<FoodOrder>) result.getData()).forEach(data::add);
+        Assert.assertEquals(foodOrders, data);
     }
 
     @Test
     public void testFindAllFoodOrder2() {
-        Mockito.when(foodOrderRepository.findAll()).thenReturn(null);
+        Mockito.when(foodOrderRepository.findAllBy(Mockito.any(Pageable.class))).thenReturn(null);
         Response result = foodServiceImpl.findAllFoodOrder(headers);
         Assert.assertEquals(new Response<>(0, "No Content", null), result);
     }
@@ -123,7 +180,53 @@ public class FoodServiceImplTest {
 
     @Test
     public void testGetAllFood() {
+        List<Food> trainFoods = new ArrayList<>();
+        Food food = new Food();
+        food.setFoodName("rice");
+        trainFoods.add(food);
+        Route route = new Route();
+        route.setStations(new ArrayList<>(Arrays.asList("shanghai", "suzhou", "nanjing", "beijing")));
+        StationFoodStore suzhouStore = new StationFoodStore();
+        suzhouStore.setStationName("suzhou");
+        StationFoodStore nanjingStore = new StationFoodStore();
+        nanjingStore.setStationName("nanjing");
+        mockExchange("http://ts-train-food-service/api/v1/trainfoodservice/trainfoods/G1234", HttpMethod.GET,
+                new Response<>(1, "Success", trainFoods));
+        mockExchange("http://ts-travel-service/api/v1/travelservice/routes/G1234", HttpMethod.GET,
+                new Response<>(1, "Success", route));
+        mockExchange("http://ts-station-food-service/api/v1/stationfoodservice/stationfoodstores", HttpMethod.POST,
+                new Response<>(1, "Success", Arrays.asList(suzhouStore, nanjingStore)));
+
+        Response result = foodServiceImpl.getAllFood("2023-01-01", "suzhou", "nanjing", "G1234", headers);
+        Assert.assertEquals(new Integer(1), result.getStatus());
+        AllTripFood allTripFood = (AllTripFood) result.getData();
+        Assert.assertEquals(trainFoods, allTripFood.getTrainFoodList());
+        Assert.assertEquals(2, allTripFood.getFoodStoreListMap().size());
+        Assert.assertEquals(Collections.singletonList(suzhouStore), allTripFood.getFoodStoreListMap().get("suzhou"));
+        Assert.assertEquals(Collections.singletonList(nanjingStore), allTripFood.getFoodStoreListMap().get("nanjing"));
+
+        // served from the menu cache until evicted
+        Assert.assertSame(allTripFood, foodServiceImpl.getAllFood("2023-01-02", "suzhou", "nanjing", "G1234", headers).getData());
+        Mockito.verify(restTemplate, Mockito.times(3)).exchange(Mockito.anyString(), Mockito.any(HttpMethod.class),
+                Mockito.any(HttpEntity.class), Mockito.any(ParameterizedTypeReference.class));
+        foodServiceImpl.evictAllFood("G1234", headers);
+        Assert.assertNotSame(allTripFood, foodServiceImpl.getAllFood("2023-01-02", "suzhou", "nanjing", "G1234", headers).getData());
+    }
+
+    @Test
+    public void testGetAllFoodTrainFoodFailed() {
+        mockExchange("http://ts-train-food-service/api/v1/trainfoodservice/trainfoods/G1234", HttpMethod.GET,
+                new Response<>(0, "No Content", null));
+        mockExchange("http://ts-travel-service/api/v1/travelservice/routes/G1234", HttpMethod.GET,
+                new Response<>(1, "Success", new Route()));
+        Response result = foodServiceImpl.getAllFood("2023-01-01", "suzhou", "nanjing", "G1234", headers);
+        Assert.assertEquals(new Response<>(0, "Get the Get Food Request Failed!", null), result);
+        Assert.assertEquals(0, allTripFoodCache.size());
+    }
 
+    private void mockExchange(String url, HttpMethod method, Response<?> body) {
+        Mockito.when(restTemplate.exchange(Mockito.eq(url), Mockito.eq(method), Mockito.any(HttpEntity.class),
+                Mockito.any(ParameterizedTypeReference.class))).thenReturn(new ResponseEntity<>(body, HttpStatus.OK));
     }
 
 }
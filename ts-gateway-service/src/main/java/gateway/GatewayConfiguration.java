@@ -1,12 +1,9 @@
 package gateway;
 
-import com.alibaba.csp.sentinel.adapter.gateway.common.rule.GatewayFlowRule;
-import com.alibaba.csp.sentinel.adapter.gateway.common.rule.GatewayRuleManager;
 import com.alibaba.csp.sentinel.adapter.gateway.sc.SentinelGatewayFilter;
 import com.alibaba.csp.sentinel.adapter.gateway.sc.callback.BlockRequestHandler;
 import com.alibaba.csp.sentinel.adapter.gateway.sc.callback.GatewayCallbackManager;
 import com.alibaba.csp.sentinel.adapter.gateway.sc.exception.SentinelGatewayBlockExceptionHandler;
-import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.context.annotation.Bean;
@@ -20,13 +17,13 @@ import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.server.ServerResponse;
 import org.springframework.web.reactive.result.view.ViewResolver;
 
-import javax.annotation.PostConstruct;
 import java.util.*;
 
 /**
  * 网关配置类
  *
  * <p>主要是<a href="https://sentinelguard.io/zh-cn/docs/api-gateway-flow-control.html">基于sentinel的网关限流策略配置</a></p>
+ * <p>限流规则由 application.yml 中的 gateway.flow 配置，见 {@link gateway.flow.FlowRuleLoader}</p>
  *
  * @author Akasaka Isami
  * @since 2022-06-30 15:13:58
@@ -35,6 +32,11 @@ import java.util.*;
 @Configuration
 public class GatewayConfiguration {
 
+    /**
+     * 限流过滤器的顺序，先于其他全局过滤器，被限流的请求不会再做身份校验、查响应缓存或占用并发名额
+     */
+    public static final int SENTINEL_FILTER_ORDER = Ordered.HIGHEST_PRECEDENCE;
+
     private final List<ViewResolver> viewResolvers;
     private final ServerCodecConfigurer serverCodecConfigurer;
 
@@ -63,21 +65,10 @@ public class GatewayConfiguration {
      * @return 限流过滤器
      */
     @Bean
-    @Order(-1)
+    @Order(SENTINEL_FILTER_ORDER)
     public GlobalFilter sentinelGatewayFilter() {
-        return new SentinelGatewayFilter();
-    }
-
-    /**
-     * 配置初始化的限流参数
-     */
-    @PostConstruct
-    public void doInit() {
-        initGatewayRules();
-//        initBlockHandlers();
-
-        System.out.println("===== begin to do flow control");
-        System.out.println("only 20 requests per second can pass");
+        // the gateway orders global filters by Ordered.getOrder(), not by @Order, so pass the order in
+        return new SentinelGatewayFilter(SENTINEL_FILTER_ORDER);
     }
 
     /**
@@ -96,25 +87,4 @@ public class GatewayConfiguration {
         };
         GatewayCallbackManager.setBlockHandler(blockRequestHandler);
     }
-
-
-    /**
-     * 初始化流量控制规则
-     *
-     * <p>Sentinal 的流量控制只能基于 route 或自定义 api 分组，这里的限流还是基于 application.yml 中定义的路由（即每个服务）采用 QPS 流量控制策略。
-     * 当前是简单的对转发到 admin-basic-info-service 服务的流量做了QPS限制，每秒不超过20个请求。</p>
-     */
-    private void initGatewayRules() {
-        Set<GatewayFlowRule> rules = new HashSet<>();
-
-        // 对于转发到 admin-basic-info 的请求 set limit qps to 20
-        // qps 超过 20 直接拒绝
-        rules.add(new GatewayFlowRule("admin-basic-info") //资源名称，对应路由 id
-                .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_DEFAULT)
-                .setCount(20) // 限流qps阈值
-                .setIntervalSec(1) // 统计时间窗口，单位是秒，默认是 1 秒
-        );
-
-        GatewayRuleManager.loadRules(rules);
-    }
 }
@@ -0,0 +1,183 @@
+package gateway;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Verifies the bearer token once at the edge and forwards the verified principal and
+ * roles in signed internal headers, which JWTFilter in ts-common accepts without
+ * verifying the token again. The header format and signature must stay in line with
+ * edu.fudan.common.security.jwt.InternalIdentity.
+ *
+ * Internal headers sent by clients, any header starting with X-Internal-, are always
+ * removed, so the services can trust such headers as set by one another. Requests without a valid token
+ * are forwarded unchanged, so the services still decide how to answer them.
+ *
+ * The signing secret has no default; without it the filter only removes the internal
+ * headers sent by clients, and logs a warning at startup.
+ *
+ * @author fdse
+ */
+@Component
+public class IdentityPropagationFilter implements GlobalFilter, Ordered {
+
+    public static final String HEADER_PREFIX = "X-Internal-";
+
+    public static final String USER_HEADER = "X-Internal-User";
+
+    public static final String ROLES_HEADER = "X-Internal-Roles";
+
+    public static final String EXPIRES_HEADER = "X-Internal-Expires";
+
+    public static final String SIGNATURE_HEADER = "X-Internal-Signature";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IdentityPropagationFilter.class);
+
+    private final boolean enabled;
+
+    private final String jwtSecret;
+
+    private final byte[] identitySecret;
+
+    public IdentityPropagationFilter(@Value("${gateway.identity.enabled:true}") boolean enabled,
+                                     @Value("${gateway.identity.jwt-secret:secret}") String jwtSecret,
+                                     @Value("${gateway.identity.secret:}") String identitySecret) {
+        boolean configured = !identitySecret.trim().isEmpty();
+        if (enabled && !configured) {
+            LOGGER.warn("[IdentityPropagationFilter][Identity headers not sent, INTERNAL_IDENTITY_SECRET not set][set it to the secret shared with the services to send them]");
+        }
+        this.enabled = enabled && configured;
+        this.jwtSecret = Base64.getEncoder().encodeToString(jwtSecret.getBytes());
+        this.identitySecret = identitySecret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        HttpHeaders headers = request.getHeaders();
+        String token = getToken(headers);
+        List<String> spoofed = internalHeaders(headers);
+        if (spoofed.isEmpty() && (!enabled || token == null)) {
+            return chain.filter(exchange);
+        }
+        Claims claims = enabled && token != null ? verify(token) : null;
+        ServerHttpRequest mutated = request.mutate().headers(h -> {
+            for (String name : spoofed) {
+                h.remove(name);
+            }
+            if (claims != null) {
+                sign(h, claims, token);
+            }
+        }).build();
+        return chain.filter(exchange.mutate().request(mutated).build());
+    }
+
+    @Override
+    public int getOrder() {
+        // after the sentinel filter (GatewayConfiguration.SENTINEL_FILTER_ORDER), so blocked
+        // requests are not verified, and before the response cache, which partitions entries
+        // by verified roles
+        return -4;
+    }
+
+    private Claims verify(String token) {
+        try {
+            Claims claims = Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token).getBody();
+            Date expiration = claims.getExpiration();
+            return expiration == null || expiration.before(new Date()) ? null : claims;
+        } catch (JwtException | IllegalArgumentException e) {
+            LOGGER.info("[verify][Token not verified at gateway][reason: {}]", e.getMessage());
+            return null;
+        }
+    }
+
+    private void sign(HttpHeaders headers, Claims claims, String token) {
+        String user;
+        try {
+            user = URLEncoder.encode(claims.getSubject() == null ? "" : claims.getSubject(), "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            return;
+        }
+        List<?> roleList = claims.get("roles", List.class);
+        StringBuilder roles = new StringBuilder();
+        if (roleList != null) {
+            for (Object role : roleList) {
+                if (roles.length() > 0) {
+                    roles.append(',');
+                }
+                roles.append(role);
+            }
+        }
+        long expiresAt = claims.getExpiration().getTime();
+        String payload = user + "\n" + roles + "\n" + expiresAt + "\n" + digest(token);
+        headers.set(USER_HEADER, user);
+        headers.set(ROLES_HEADER, roles.toString());
+        headers.set(EXPIRES_HEADER, String.valueOf(expiresAt));
+        headers.set(SIGNATURE_HEADER, hmac(payload));
+    }
+
+    private String hmac(String payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(identitySecret, ALGORITHM));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static List<String> internalHeaders(HttpHeaders headers) {
+        List<String> names = new ArrayList<>();
+        for (String name : headers.keySet()) {
+            if (name.regionMatches(true, 0, HEADER_PREFIX, 0, HEADER_PREFIX.length())) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    private static String getToken(HttpHeaders headers) {
+        String bearerToken = headers.getFirst(HttpHeaders.AUTHORIZATION);
+        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
+            return bearerToken.substring(7);
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,208 @@
+package gateway.cache;
+
+import gateway.IdentityPropagationFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves repeated GETs of configured routes from memory. Successful responses are
+ * kept for the route's ttl with an ETag computed from the body, and a request whose
+ * If-None-Match carries that ETag gets 304 without a body.
+ *
+ * Entries are partitioned by caller: anonymous requests share one partition and
+ * requests whose token was verified by {@link IdentityPropagationFilter} are
+ * partitioned by their roles, so a cached response is only served to callers the
+ * service would have answered the same way. Requests with a token the gateway could
+ * not verify bypass the cache.
+ *
+ * @author fdse
+ */
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    static final String CACHE_HEADER = "X-Gateway-Cache";
+
+    private final ResponseCacheProperties properties;
+
+    private final ResponseCache cache;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final Map<String, ResponseCacheProperties.RouteCache> routes = new HashMap<>();
+
+    public ResponseCacheFilter(ResponseCacheProperties properties, ObjectProvider<MeterRegistry> registry) {
+        this.properties = properties;
+        this.cache = new ResponseCache(properties.getMaxBytes());
+        for (ResponseCacheProperties.RouteCache route : properties.getRoutes()) {
+            routes.put(route.getId(), route);
+        }
+        registry.ifAvailable(this::bindTo);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || request.getMethod() != HttpMethod.GET || route == null) {
+            return chain.filter(exchange);
+        }
+        ResponseCacheProperties.RouteCache routeCache = routes.get(route.getId());
+        String partition = partitionOf(request.getHeaders());
+        if (routeCache == null || partition == null || !matches(routeCache.getPaths(), request.getPath().value())) {
+            return chain.filter(exchange);
+        }
+
+        String key = route.getId() + "|" + partition + "|" + request.getURI().getRawPath()
+                + "?" + request.getURI().getRawQuery();
+        long now = System.currentTimeMillis();
+        ResponseCache.Entry entry = cache.get(key, now);
+        if (entry != null) {
+            return write(exchange, entry, "HIT");
+        }
+        long expiresAt = now + routeCache.getTtlSeconds() * 1000;
+        // cache the identity encoding; the gateway compresses on the way out for every hit
+        ServerHttpRequest identity = request.mutate().headers(h -> h.remove(HttpHeaders.ACCEPT_ENCODING)).build();
+        return chain.filter(exchange.mutate().request(identity)
+                .response(new CachingResponse(exchange, key, expiresAt)).build());
+    }
+
+    @Override
+    public int getOrder() {
+        // after the sentinel filter, so cache hits are still held to the QPS rules, after identity
+        // verification, and before NettyWriteResponseFilter (-1) so the body can be captured
+        return -3;
+    }
+
+    private void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("gateway.response.cache.hits", cache, ResponseCache::getHits).register(registry);
+        FunctionCounter.builder("gateway.response.cache.misses", cache, ResponseCache::getMisses).register(registry);
+        Gauge.builder("gateway.response.cache.bytes", cache, ResponseCache::getBytes).register(registry);
+        Gauge.builder("gateway.response.cache.size", cache, ResponseCache::size).register(registry);
+    }
+
+    /**
+     * @return the cache partition of the caller, or null if the request must bypass the cache
+     */
+    private static String partitionOf(HttpHeaders headers) {
+        if (!headers.containsKey(HttpHeaders.AUTHORIZATION)) {
+            return "anonymous";
+        }
+        String roles = headers.getFirst(IdentityPropagationFilter.ROLES_HEADER);
+        return roles == null ? null : "roles:" + roles;
+    }
+
+    private boolean matches(List<String> patterns, String path) {
+        if (patterns.isEmpty()) {
+            return true;
+        }
+        for (String pattern : patterns) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Mono<Void> write(ServerWebExchange exchange, ResponseCache.Entry entry, String state) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().setETag(entry.etag);
+        response.getHeaders().set(CACHE_HEADER, state);
+        if (notModified(exchange.getRequest().getHeaders(), entry.etag)) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            response.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        if (entry.contentType != null) {
+            response.getHeaders().set(HttpHeaders.CONTENT_TYPE, entry.contentType);
+        }
+        response.getHeaders().setContentLength(entry.body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(entry.body)));
+    }
+
+    private static boolean notModified(HttpHeaders headers, String etag) {
+        for (String candidate : headers.getIfNoneMatch()) {
+            if ("*".equals(candidate) || etag.equals(candidate) || ("W/" + etag).equals(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String etagOf(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Collects the body of a successful response, caches it and answers the
+     * request from the cached entry, so a miss also gets its ETag or 304.
+     */
+    private final class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+
+        private final String key;
+
+        private final long expiresAt;
+
+        CachingResponse(ServerWebExchange exchange, String key, long expiresAt) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.key = key;
+            this.expiresAt = expiresAt;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (getStatusCode() != HttpStatus.OK || getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+                return super.writeWith(body);
+            }
+            return DataBufferUtils.join(Flux.from(body)).defaultIfEmpty(bufferFactory().wrap(new byte[0])).flatMap(joined -> {
+                byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+                ResponseCache.Entry entry = new ResponseCache.Entry(bytes,
+                        getHeaders().getFirst(HttpHeaders.CONTENT_TYPE), etagOf(bytes), expiresAt);
+                if (bytes.length <= properties.getMaxEntryBytes()) {
+                    cache.put(key, entry);
+                }
+                getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+                return write(exchange, entry, "MISS");
+            });
+        }
+    }
+
+}
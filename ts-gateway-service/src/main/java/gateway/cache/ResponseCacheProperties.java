@@ -0,0 +1,50 @@
+package gateway.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response cache settings of the gateway, bound from gateway.cache in application.yml.
+ *
+ * @author fdse
+ */
+@Data
+@Component
+@ConfigurationProperties("gateway.cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * bytes of response bodies kept in total, least recently used evicted first
+     */
+    private long maxBytes = 64L * 1024 * 1024;
+
+    /**
+     * larger responses are passed through without being cached
+     */
+    private int maxEntryBytes = 1024 * 1024;
+
+    private List<RouteCache> routes = new ArrayList<>();
+
+    @Data
+    public static class RouteCache {
+
+        /**
+         * route id in spring.cloud.gateway.routes
+         */
+        private String id;
+
+        /**
+         * ant patterns of the cached GET paths, all GET paths of the route if empty
+         */
+        private List<String> paths = new ArrayList<>();
+
+        private long ttlSeconds = 60;
+    }
+
+}
@@ -0,0 +1,115 @@
+package gateway.flow;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows the latency of the backend.
+ *
+ * Latencies are averaged over a window of completed requests and compared with a
+ * slowly moving baseline. While the window average stays within tolerance of the
+ * baseline the limit grows by about its square root per window; when requests queue
+ * up in the backend and latency rises, the limit shrinks in proportion. A request of
+ * a priority class is admitted only while the requests in flight are below that class's
+ * share of the limit, so low priority traffic is shed before high priority traffic.
+ *
+ * @author fdse
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    private volatile FlowControlProperties.Adaptive config;
+
+    private volatile double limit;
+
+    private double baselineRtt;
+
+    private long windowRttSum;
+
+    private int windowCount;
+
+    private int windowMaxInflight;
+
+    public AdaptiveConcurrencyLimiter(FlowControlProperties.Adaptive config) {
+        this.config = config;
+        this.limit = config.getInitialLimit();
+    }
+
+    /**
+     * apply new settings, keeping the current limit within the new bounds
+     */
+    public synchronized void configure(FlowControlProperties.Adaptive config) {
+        this.config = config;
+        this.limit = clamp(limit, config);
+    }
+
+    /**
+     * @param limitFraction share of the limit the request's priority class may fill
+     * @return true if the request may proceed, it must then be released exactly once
+     */
+    public boolean tryAcquire(double limitFraction) {
+        int allowed = Math.max(1, (int) (limit * limitFraction));
+        while (true) {
+            int current = inflight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param rttNanos latency of the request, or a negative value if it did not complete normally
+     */
+    public void release(long rttNanos) {
+        int current = inflight.getAndDecrement();
+        if (rttNanos >= 0) {
+            sample(rttNanos, current);
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    private synchronized void sample(long rttNanos, int inflightAtCompletion) {
+        windowRttSum += rttNanos;
+        windowCount++;
+        windowMaxInflight = Math.max(windowMaxInflight, inflightAtCompletion);
+        FlowControlProperties.Adaptive current = config;
+        if (windowCount < current.getWindowSize()) {
+            return;
+        }
+        double rtt = (double) windowRttSum / windowCount;
+        int maxInflight = windowMaxInflight;
+        windowRttSum = 0;
+        windowCount = 0;
+        windowMaxInflight = 0;
+
+        if (baselineRtt == 0) {
+            baselineRtt = rtt;
+        } else {
+            // follow slow shifts of the baseline, and let it recover after overload
+            baselineRtt = baselineRtt * 0.95 + Math.min(rtt, baselineRtt * 2) * 0.05;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, current.getTolerance() * baselineRtt / rtt));
+        // do not grow a limit that is not being used
+        if (gradient == 1.0 && maxInflight < limit / 2) {
+            return;
+        }
+        double estimate = limit * gradient + Math.sqrt(limit);
+        limit = clamp(limit * (1 - current.getSmoothing()) + estimate * current.getSmoothing(), current);
+    }
+
+    private static double clamp(double value, FlowControlProperties.Adaptive config) {
+        return Math.max(config.getMinLimit(), Math.min(config.getMaxLimit(), value));
+    }
+
+}
@@ -0,0 +1,105 @@
+package gateway.flow;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Flow control settings of the gateway, bound from gateway.flow in application.yml.
+ *
+ * @author fdse
+ */
+@Data
+@Component
+@ConfigurationProperties("gateway.flow")
+public class FlowControlProperties {
+
+    /**
+     * sentinel QPS rules, one per route id
+     */
+    private List<RouteRule> routes = new ArrayList<>();
+
+    /**
+     * adaptive concurrency limit shared by all routes
+     */
+    private Adaptive adaptive = new Adaptive();
+
+    /**
+     * priority classes, checked in order; routes not listed get defaultPriority
+     */
+    private List<PriorityClass> priorities = new ArrayList<>();
+
+    private String defaultPriority = "normal";
+
+    @Data
+    public static class RouteRule {
+
+        /**
+         * route id in spring.cloud.gateway.routes
+         */
+        private String id;
+
+        /**
+         * requests allowed per interval
+         */
+        private double count;
+
+        private long intervalSec = 1;
+
+        /**
+         * extra requests allowed in a burst
+         */
+        private int burst;
+
+        /**
+         * reject (default) or throttle, which queues requests up to maxQueueingTimeoutMs
+         */
+        private String behavior = "reject";
+
+        private int maxQueueingTimeoutMs = 500;
+    }
+
+    @Data
+    public static class Adaptive {
+
+        private boolean enabled = true;
+
+        private int initialLimit = 200;
+
+        private int minLimit = 20;
+
+        private int maxLimit = 2000;
+
+        /**
+         * latencies averaged per limit update
+         */
+        private int windowSize = 100;
+
+        /**
+         * latency growth over the baseline tolerated before the limit shrinks
+         */
+        private double tolerance = 1.5;
+
+        /**
+         * weight of each new limit estimate
+         */
+        private double smoothing = 0.2;
+    }
+
+    @Data
+    public static class PriorityClass {
+
+        private String name;
+
+        /**
+         * share of the adaptive limit this class may fill, lower classes are shed first
+         */
+        private double limitFraction = 1.0;
+
+        private List<String> routes = new ArrayList<>();
+    }
+
+}
@@ -0,0 +1,117 @@
+package gateway.flow;
+
+import com.alibaba.csp.sentinel.adapter.gateway.common.rule.GatewayFlowRule;
+import com.alibaba.csp.sentinel.adapter.gateway.common.rule.GatewayRuleManager;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Loads the gateway.flow settings into sentinel and the adaptive limiter, at start up
+ * and again whenever the environment changes, e.g. after POST /actuator/refresh on the
+ * management port.
+ *
+ * @author fdse
+ */
+@Component
+public class FlowRuleLoader implements ApplicationListener<EnvironmentChangeEvent> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlowRuleLoader.class);
+
+    private static final String PREFIX = "gateway.flow";
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private FlowControlProperties initialProperties;
+
+    private volatile FlowControlProperties properties;
+
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @PostConstruct
+    public void init() {
+        limiter = new AdaptiveConcurrencyLimiter(initialProperties.getAdaptive());
+        load(initialProperties);
+    }
+
+    @Override
+    public void onApplicationEvent(EnvironmentChangeEvent event) {
+        boolean changed = false;
+        for (String key : event.getKeys()) {
+            changed |= key.startsWith(PREFIX);
+        }
+        if (changed) {
+            load(Binder.get(environment).bind(PREFIX, FlowControlProperties.class).orElseGet(FlowControlProperties::new));
+        }
+    }
+
+    synchronized void load(FlowControlProperties properties) {
+        Set<GatewayFlowRule> rules = new HashSet<>();
+        for (FlowControlProperties.RouteRule route : properties.getRoutes()) {
+            GatewayFlowRule rule = new GatewayFlowRule(route.getId())
+                    .setCount(route.getCount())
+                    .setIntervalSec(route.getIntervalSec())
+                    .setBurst(route.getBurst());
+            if ("throttle".equalsIgnoreCase(route.getBehavior())) {
+                rule.setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER)
+                        .setMaxQueueingTimeoutMs(route.getMaxQueueingTimeoutMs());
+            } else {
+                rule.setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_DEFAULT);
+            }
+            rules.add(rule);
+        }
+        GatewayRuleManager.loadRules(rules);
+        limiter.configure(properties.getAdaptive());
+        this.properties = properties;
+        LOGGER.info("[load][Flow rules loaded][routes: {}, priority classes: {}, adaptive: {}]",
+                rules.size(), properties.getPriorities().size(), properties.getAdaptive().isEnabled());
+    }
+
+    public AdaptiveConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+
+    public boolean isAdaptiveEnabled() {
+        return properties.getAdaptive().isEnabled();
+    }
+
+    /**
+     * @return share of the adaptive limit available to the route's priority class
+     */
+    public double limitFractionOf(String routeId) {
+        FlowControlProperties current = properties;
+        FlowControlProperties.PriorityClass defaultClass = null;
+        for (FlowControlProperties.PriorityClass priority : current.getPriorities()) {
+            if (routeId != null && matches(priority.getRoutes(), routeId)) {
+                return priority.getLimitFraction();
+            }
+            if (priority.getName() != null && priority.getName().equals(current.getDefaultPriority())) {
+                defaultClass = priority;
+            }
+        }
+        return defaultClass == null ? 1.0 : defaultClass.getLimitFraction();
+    }
+
+    private static boolean matches(List<String> patterns, String routeId) {
+        for (String pattern : patterns) {
+            if (pattern.endsWith("*") ? routeId.startsWith(pattern.substring(0, pattern.length() - 1)) : routeId.equals(pattern)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,74 @@
+package gateway.flow;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Admits a request only while the requests in flight are below its priority class's
+ * share of the adaptive limit, and answers the rest with 429 before they reach a
+ * service. Runs after the sentinel QPS rules, so requests over a route's QPS never
+ * take a slot, and after the response cache, so cache hits never take a slot either.
+ * It also runs after NettyWriteResponseFilter, so a request's latency sample ends when
+ * the service has answered, not when the client has read the body.
+ *
+ * @author fdse
+ */
+@Component
+public class LoadSheddingFilter implements GlobalFilter, Ordered {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadSheddingFilter.class);
+
+    private static final byte[] REJECTED =
+            "{\"status\":0,\"msg\":\"Too many requests, please retry later\",\"data\":null}".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private FlowRuleLoader flowRuleLoader;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!flowRuleLoader.isAdaptiveEnabled()) {
+            return chain.filter(exchange);
+        }
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route == null ? null : route.getId();
+        AdaptiveConcurrencyLimiter limiter = flowRuleLoader.getLimiter();
+        if (!limiter.tryAcquire(flowRuleLoader.limitFractionOf(routeId))) {
+            LOGGER.warn("[filter][Request shed][route: {}, limit: {}, inflight: {}]", routeId, limiter.getLimit(), limiter.getInflight());
+            return reject(exchange.getResponse());
+        }
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> limiter.release(signal != SignalType.CANCEL ? System.nanoTime() - start : -1));
+    }
+
+    @Override
+    public int getOrder() {
+        return 0;
+    }
+
+    private static Mono<Void> reject(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+        DataBuffer buffer = response.bufferFactory().wrap(REJECTED);
+        return response.writeWith(Mono.just(buffer));
+    }
+
+}
@@ -0,0 +1,64 @@
+package gateway;
+
+import gateway.cache.ResponseCacheFilter;
+import gateway.cache.ResponseCacheProperties;
+import gateway.flow.LoadSheddingFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.http.codec.ServerCodecConfigurer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(JUnit4.class)
+public class GlobalFilterOrderTest {
+
+    private GlobalFilter sentinel;
+
+    private GlobalFilter identity;
+
+    private GlobalFilter responseCache;
+
+    private GlobalFilter nettyWrite;
+
+    private GlobalFilter loadShedding;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        ObjectProvider viewResolvers = Mockito.mock(ObjectProvider.class);
+        Mockito.when(viewResolvers.getIfAvailable(Mockito.any())).thenReturn(Collections.emptyList());
+        ObjectProvider<MeterRegistry> registry = Mockito.mock(ObjectProvider.class);
+        sentinel = new GatewayConfiguration(viewResolvers, Mockito.mock(ServerCodecConfigurer.class)).sentinelGatewayFilter();
+        identity = new IdentityPropagationFilter(true, "secret", "identity-secret");
+        responseCache = new ResponseCacheFilter(new ResponseCacheProperties(), registry);
+        nettyWrite = new NettyWriteResponseFilter(Collections.emptyList());
+        loadShedding = new LoadSheddingFilter();
+    }
+
+    @Test
+    public void testGlobalFilterOrder() {
+        List<GlobalFilter> filters = new ArrayList<>(Arrays.asList(loadShedding, nettyWrite, responseCache, identity, sentinel));
+        // the gateway sorts global filters by Ordered.getOrder()
+        AnnotationAwareOrderComparator.sort(filters);
+        Assert.assertEquals(Arrays.asList(sentinel, identity, responseCache, nettyWrite, loadShedding), filters);
+    }
+
+    @Test
+    public void testSentinelFilterOrder() {
+        Assert.assertEquals(GatewayConfiguration.SENTINEL_FILTER_ORDER, ((Ordered) sentinel).getOrder());
+    }
+
+}
@@ -0,0 +1,160 @@
+package gateway;
+
+import edu.fudan.common.security.jwt.InternalIdentity;
+import edu.fudan.common.security.jwt.VerifiedClaimsCache;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+@RunWith(JUnit4.class)
+public class IdentityPropagationFilterTest {
+
+    private static final String JWT_SECRET = "secret";
+
+    private static final String IDENTITY_SECRET = "identity-secret";
+
+    private static final byte[] SECRET = IDENTITY_SECRET.getBytes(StandardCharsets.UTF_8);
+
+    private final IdentityPropagationFilter filter = new IdentityPropagationFilter(true, JWT_SECRET, IDENTITY_SECRET);
+
+    @Test
+    public void testSignedHeadersAccepted() {
+        String token = token("fdse microservice", "ROLE_USER", "ROLE_ADMIN");
+        HttpHeaders forwarded = forward(filter, MockServerHttpRequest.get("/api/v1/orderservice/order")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+        VerifiedClaimsCache.VerifiedClaims claims = InternalIdentity.fromRequest(servletRequest(forwarded), token, SECRET);
+        Assert.assertNotNull(claims);
+        Assert.assertEquals("fdse microservice", claims.getUsername());
+        Assert.assertEquals(Arrays.asList("ROLE_USER", "ROLE_ADMIN"), claims.getRoles());
+    }
+
+    @Test
+    public void testTamperedHeaderRejected() {
+        String token = token("fdse_microservice", "ROLE_USER");
+        HttpHeaders forwarded = forward(filter, MockServerHttpRequest.get("/api/v1/orderservice/order")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+        MockHttpServletRequest request = servletRequest(forwarded);
+        request.removeHeader(IdentityPropagationFilter.ROLES_HEADER);
+        request.addHeader(IdentityPropagationFilter.ROLES_HEADER, "ROLE_ADMIN");
+        Assert.assertNull(InternalIdentity.fromRequest(request, token, SECRET));
+    }
+
+    @Test
+    public void testHeadersOfAnotherTokenRejected() {
+        String token = token("fdse_microservice", "ROLE_USER");
+        HttpHeaders forwarded = forward(filter, MockServerHttpRequest.get("/api/v1/orderservice/order")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+        Assert.assertNull(InternalIdentity.fromRequest(servletRequest(forwarded), token("admin", "ROLE_ADMIN"), SECRET));
+    }
+
+    @Test
+    public void testHeadersUnderAnotherSecretRejected() {
+        String token = token("fdse_microservice", "ROLE_USER");
+        HttpHeaders forwarded = forward(filter, MockServerHttpRequest.get("/api/v1/orderservice/order")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+        Assert.assertNull(InternalIdentity.fromRequest(servletRequest(forwarded), token,
+                "another-secret".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testClientHeadersStripped() {
+        HttpHeaders forwarded = forward(filter, spoofed(MockServerHttpRequest.get("/api/v1/orderservice/order")));
+        assertNoIdentityHeaders(forwarded);
+    }
+
+    @Test
+    public void testClientHeadersReplaced() {
+        String token = token("fdse_microservice", "ROLE_USER");
+        HttpHeaders forwarded = forward(filter, spoofed(MockServerHttpRequest.get("/api/v1/orderservice/order")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)));
+        Assert.assertEquals("ROLE_USER", forwarded.getFirst(IdentityPropagationFilter.ROLES_HEADER));
+        Assert.assertFalse(forwarded.containsKey("X-Internal-Peer"));
+        VerifiedClaimsCache.VerifiedClaims claims = InternalIdentity.fromRequest(servletRequest(forwarded), token, SECRET);
+        Assert.assertNotNull(claims);
+        Assert.assertEquals(Arrays.asList("ROLE_USER"), claims.getRoles());
+    }
+
+    @Test
+    public void testInvalidTokenNotSigned() {
+        String token = Jwts.builder().setSubject("admin").claim("roles", Arrays.asList("ROLE_ADMIN"))
+                .setExpiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(SignatureAlgorithm.HS256, Base64.getEncoder().encodeToString("forged".getBytes())).compact();
+        HttpHeaders forwarded = forward(filter, spoofed(MockServerHttpRequest.get("/api/v1/orderservice/order")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)));
+        assertNoIdentityHeaders(forwarded);
+    }
+
+    @Test
+    public void testMissingSecret() {
+        IdentityPropagationFilter unconfigured = new IdentityPropagationFilter(true, JWT_SECRET, " ");
+        String token = token("fdse_microservice", "ROLE_USER");
+        HttpHeaders forwarded = forward(unconfigured, spoofed(MockServerHttpRequest.get("/api/v1/orderservice/order")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)));
+        assertNoIdentityHeaders(forwarded);
+        Assert.assertEquals("Bearer " + token, forwarded.getFirst(HttpHeaders.AUTHORIZATION));
+    }
+
+    @Test
+    public void testDisabledWithoutSecret() {
+        IdentityPropagationFilter disabled = new IdentityPropagationFilter(false, JWT_SECRET, "");
+        assertNoIdentityHeaders(forward(disabled, spoofed(MockServerHttpRequest.get("/api/v1/orderservice/order"))));
+    }
+
+    private static HttpHeaders forward(IdentityPropagationFilter filter, MockServerHttpRequest.BaseBuilder<?> request) {
+        AtomicReference<HttpHeaders> forwarded = new AtomicReference<>();
+        GatewayFilterChain chain = exchange -> {
+            forwarded.set(exchange.getRequest().getHeaders());
+            return Mono.empty();
+        };
+        filter.filter(MockServerWebExchange.from(request), chain).block();
+        return forwarded.get();
+    }
+
+    private static MockServerHttpRequest.BaseBuilder<?> spoofed(MockServerHttpRequest.BaseBuilder<?> request) {
+        return request.header(IdentityPropagationFilter.USER_HEADER, "admin")
+                .header(IdentityPropagationFilter.ROLES_HEADER, "ROLE_ADMIN")
+                .header(IdentityPropagationFilter.EXPIRES_HEADER, String.valueOf(System.currentTimeMillis() + 60000))
+                .header(IdentityPropagationFilter.SIGNATURE_HEADER, "forged")
+                .header("x-internal-peer", "true");
+    }
+
+    private static MockHttpServletRequest servletRequest(HttpHeaders headers) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            for (String value : header.getValue()) {
+                request.addHeader(header.getKey(), value);
+            }
+        }
+        return request;
+    }
+
+    private static void assertNoIdentityHeaders(HttpHeaders headers) {
+        for (String name : headers.keySet()) {
+            Assert.assertFalse(name, name.toLowerCase().startsWith(IdentityPropagationFilter.HEADER_PREFIX.toLowerCase()));
+        }
+    }
+
+    private static String token(String subject, String... roles) {
+        return Jwts.builder().setSubject(subject).claim("roles", Arrays.asList(roles))
+                .setExpiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(SignatureAlgorithm.HS256, Base64.getEncoder().encodeToString(JWT_SECRET.getBytes())).compact();
+    }
+
+}
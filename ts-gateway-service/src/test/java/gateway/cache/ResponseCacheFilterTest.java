@@ -0,0 +1,206 @@
+package gateway.cache;
+
+import gateway.IdentityPropagationFilter;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(JUnit4.class)
+public class ResponseCacheFilterTest {
+
+    private static final String PATH = "/api/v1/priceservice/prices";
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private ResponseCacheProperties properties;
+
+    private ResponseCacheProperties.RouteCache routeCache;
+
+    private String contentEncoding;
+
+    private String body;
+
+    @Before
+    public void setUp() {
+        routeCache = new ResponseCacheProperties.RouteCache();
+        routeCache.setId("price");
+        routeCache.setPaths(Collections.singletonList("/api/v1/priceservice/prices/**"));
+        properties = new ResponseCacheProperties();
+        properties.setRoutes(Collections.singletonList(routeCache));
+    }
+
+    @Test
+    public void testMissThenHit() {
+        ResponseCacheFilter filter = filter();
+        MockServerHttpResponse miss = get(filter, MockServerHttpRequest.get(PATH));
+        Assert.assertEquals(HttpStatus.OK, miss.getStatusCode());
+        Assert.assertEquals("MISS", miss.getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER));
+        Assert.assertEquals("prices for anonymous", miss.getBodyAsString().block());
+        MockServerHttpResponse hit = get(filter, MockServerHttpRequest.get(PATH));
+        Assert.assertEquals("HIT", hit.getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER));
+        Assert.assertEquals("prices for anonymous", hit.getBodyAsString().block());
+        Assert.assertEquals(MediaType.APPLICATION_JSON, hit.getHeaders().getContentType());
+        Assert.assertEquals(miss.getHeaders().getETag(), hit.getHeaders().getETag());
+        Assert.assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testNotModified() {
+        ResponseCacheFilter filter = filter();
+        String etag = get(filter, MockServerHttpRequest.get(PATH)).getHeaders().getETag();
+        Assert.assertNotNull(etag);
+        MockServerHttpResponse response = get(filter, MockServerHttpRequest.get(PATH).ifNoneMatch(etag));
+        Assert.assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        Assert.assertEquals(etag, response.getHeaders().getETag());
+        Assert.assertEquals("", response.getBodyAsString().defaultIfEmpty("").block());
+        MockServerHttpResponse changed = get(filter, MockServerHttpRequest.get(PATH).ifNoneMatch("\"other\""));
+        Assert.assertEquals(HttpStatus.OK, changed.getStatusCode());
+        Assert.assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testNotModifiedOnMiss() {
+        ResponseCacheFilter filter = filter();
+        String etag = get(filter, MockServerHttpRequest.get(PATH)).getHeaders().getETag();
+        // a client that kept the body longer than the gateway
+        MockServerHttpResponse response = get(filter(), MockServerHttpRequest.get(PATH).ifNoneMatch(etag));
+        Assert.assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        Assert.assertEquals("MISS", response.getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER));
+    }
+
+    @Test
+    public void testExpiry() {
+        routeCache.setTtlSeconds(0);
+        ResponseCacheFilter filter = filter();
+        get(filter, MockServerHttpRequest.get(PATH));
+        MockServerHttpResponse response = get(filter, MockServerHttpRequest.get(PATH));
+        Assert.assertEquals("MISS", response.getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER));
+        Assert.assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testEvictionByBytes() {
+        body = "0123456789";
+        properties.setMaxBytes(25);
+        ResponseCacheFilter filter = filter();
+        get(filter, MockServerHttpRequest.get(PATH + "/a"));
+        get(filter, MockServerHttpRequest.get(PATH + "/b"));
+        get(filter, MockServerHttpRequest.get(PATH + "/c"));
+        Assert.assertEquals(3, calls.get());
+        // a was the least recently used of the three
+        Assert.assertEquals("HIT", get(filter, MockServerHttpRequest.get(PATH + "/c")).getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER));
+        Assert.assertEquals("HIT", get(filter, MockServerHttpRequest.get(PATH + "/b")).getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER));
+        Assert.assertEquals("MISS", get(filter, MockServerHttpRequest.get(PATH + "/a")).getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER));
+    }
+
+    @Test
+    public void testLargeResponseNotCached() {
+        body = "0123456789";
+        properties.setMaxEntryBytes(9);
+        ResponseCacheFilter filter = filter();
+        get(filter, MockServerHttpRequest.get(PATH));
+        MockServerHttpResponse response = get(filter, MockServerHttpRequest.get(PATH));
+        Assert.assertEquals("MISS", response.getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER));
+        Assert.assertEquals("0123456789", response.getBodyAsString().block());
+        Assert.assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testPartitions() {
+        ResponseCacheFilter filter = filter();
+        Assert.assertEquals("prices for anonymous", get(filter, MockServerHttpRequest.get(PATH)).getBodyAsString().block());
+        Assert.assertEquals("prices for ROLE_USER", get(filter, verified("ROLE_USER")).getBodyAsString().block());
+        Assert.assertEquals("prices for ROLE_ADMIN", get(filter, verified("ROLE_ADMIN")).getBodyAsString().block());
+        Assert.assertEquals(3, calls.get());
+        // every partition is answered from its own entry
+        MockServerHttpResponse user = get(filter, verified("ROLE_USER"));
+        Assert.assertEquals("HIT", user.getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER));
+        Assert.assertEquals("prices for ROLE_USER", user.getBodyAsString().block());
+        Assert.assertEquals("prices for ROLE_ADMIN", get(filter, verified("ROLE_ADMIN")).getBodyAsString().block());
+        Assert.assertEquals("prices for anonymous", get(filter, MockServerHttpRequest.get(PATH)).getBodyAsString().block());
+        Assert.assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testUnverifiedTokenBypassesCache() {
+        ResponseCacheFilter filter = filter();
+        get(filter, verified("ROLE_ADMIN"));
+        // a token the gateway could not verify carries no roles header
+        MockServerHttpResponse response = get(filter, MockServerHttpRequest.get(PATH).header(HttpHeaders.AUTHORIZATION, "Bearer forged"));
+        Assert.assertNull(response.getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER));
+        Assert.assertEquals("prices for null", response.getBodyAsString().block());
+        Assert.assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testEncodedResponseNotCached() {
+        contentEncoding = "gzip";
+        ResponseCacheFilter filter = filter();
+        get(filter, MockServerHttpRequest.get(PATH));
+        MockServerHttpResponse response = get(filter, MockServerHttpRequest.get(PATH));
+        Assert.assertNull(response.getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER));
+        Assert.assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        Assert.assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testOtherMethodsAndPathsBypassCache() {
+        ResponseCacheFilter filter = filter();
+        get(filter, MockServerHttpRequest.post(PATH));
+        get(filter, MockServerHttpRequest.post(PATH));
+        get(filter, MockServerHttpRequest.get("/api/v1/priceservice/welcome"));
+        get(filter, MockServerHttpRequest.get("/api/v1/priceservice/welcome"));
+        Assert.assertEquals(4, calls.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    private ResponseCacheFilter filter() {
+        return new ResponseCacheFilter(properties, Mockito.mock(ObjectProvider.class));
+    }
+
+    private static MockServerHttpRequest.BaseBuilder<?> verified(String roles) {
+        return MockServerHttpRequest.get(PATH).header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                .header(IdentityPropagationFilter.ROLES_HEADER, roles);
+    }
+
+    private MockServerHttpResponse get(ResponseCacheFilter filter, MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR,
+                Route.async().id("price").uri("lb://ts-price-service").predicate(e -> true).build());
+        GatewayFilterChain chain = forwarded -> {
+            calls.incrementAndGet();
+            String roles = forwarded.getRequest().getHeaders().containsKey(HttpHeaders.AUTHORIZATION)
+                    ? forwarded.getRequest().getHeaders().getFirst(IdentityPropagationFilter.ROLES_HEADER) : "anonymous";
+            ServerHttpResponse response = forwarded.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            if (contentEncoding != null) {
+                response.getHeaders().set(HttpHeaders.CONTENT_ENCODING, contentEncoding);
+            }
+            byte[] bytes = (body != null ? body : "prices for " + roles).getBytes(StandardCharsets.UTF_8);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+        };
+        filter.filter(exchange, chain).block();
+        return exchange.getResponse();
+    }
+
+}
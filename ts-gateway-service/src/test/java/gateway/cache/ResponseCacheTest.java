@@ -0,0 +1,71 @@
+package gateway.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ResponseCacheTest {
+
+    @Test
+    public void testGetPut() {
+        ResponseCache cache = new ResponseCache(1024);
+        Assert.assertNull(cache.get("key", 0));
+        ResponseCache.Entry entry = entry(10, 1000);
+        cache.put("key", entry);
+        Assert.assertSame(entry, cache.get("key", 0));
+        Assert.assertEquals(10, cache.getBytes());
+        Assert.assertEquals(1, cache.getHits());
+        Assert.assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testExpiry() {
+        ResponseCache cache = new ResponseCache(1024);
+        cache.put("key", entry(10, 1000));
+        Assert.assertNotNull(cache.get("key", 999));
+        Assert.assertNull(cache.get("key", 1000));
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(0, cache.getBytes());
+    }
+
+    @Test
+    public void testEvictionByBytes() {
+        ResponseCache cache = new ResponseCache(100);
+        cache.put("a", entry(40, 1000));
+        cache.put("b", entry(40, 1000));
+        // a is now the most recently used
+        cache.get("a", 0);
+        cache.put("c", entry(40, 1000));
+        Assert.assertEquals(80, cache.getBytes());
+        Assert.assertNotNull(cache.get("a", 0));
+        Assert.assertNull(cache.get("b", 0));
+        Assert.assertNotNull(cache.get("c", 0));
+    }
+
+    @Test
+    public void testReplaceCountsBytesOnce() {
+        ResponseCache cache = new ResponseCache(100);
+        cache.put("a", entry(40, 1000));
+        cache.put("a", entry(60, 1000));
+        Assert.assertEquals(60, cache.getBytes());
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testEntryLargerThanCache() {
+        ResponseCache cache = new ResponseCache(100);
+        cache.put("a", entry(40, 1000));
+        cache.put("b", entry(101, 1000));
+        Assert.assertNull(cache.get("b", 0));
+        // the entries already cached are kept
+        Assert.assertNotNull(cache.get("a", 0));
+        Assert.assertEquals(40, cache.getBytes());
+    }
+
+    private static ResponseCache.Entry entry(int bytes, long expiresAt) {
+        return new ResponseCache.Entry(new byte[bytes], "application/json", "\"etag\"", expiresAt);
+    }
+
+}
@@ -0,0 +1,46 @@
+package inside_payment.entity;
+
+import lombok.Data;
+
+import javax.persistence.*;
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import java.math.BigDecimal;
+
+/**
+ * Materialized balance of one account. It always equals the sum of the user's
+ * {@link Money} rows minus the sum of the user's {@link Payment} rows and is
+ * updated in the same transaction as the history row that changes it.
+ *
+ * @author fdse
+ */
+@Data
+@Entity
+@Table(name = "inside_balance")
+public class AccountBalance {
+
+    @Valid
+    @NotNull
+    @Id
+    @Column(length = 36)
+    private String userId;
+
+    @Valid
+    @NotNull
+    @Column(precision = 19, scale = 4)
+    private BigDecimal balance;
+
+    @Version
+    private Long version;
+
+    public AccountBalance() {
+        this.userId = "";
+        this.balance = BigDecimal.ZERO;
+    }
+
+    public AccountBalance(String userId, BigDecimal balance) {
+        this.userId = userId;
+        this.balance = balance;
+    }
+
+}
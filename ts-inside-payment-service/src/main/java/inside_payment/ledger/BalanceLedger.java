@@ -0,0 +1,220 @@
+package inside_payment.ledger;
+
+import inside_payment.entity.AccountBalance;
+import inside_payment.entity.Money;
+import inside_payment.entity.Payment;
+import inside_payment.repository.AccountBalanceRepository;
+import inside_payment.repository.AddMoneyRepository;
+import inside_payment.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Per-user balance ledger. Every history row ({@link Money} or {@link Payment})
+ * is written in the same transaction as the {@link AccountBalance} row it
+ * changes, so the balance never has to be recomputed from the history on the
+ * payment path.
+ *
+ * Writers for the same user are serialized by a striped lock inside this
+ * instance; the optimistic version on {@link AccountBalance} catches writers
+ * from other instances, and those conflicts are retried. So is a ledger row
+ * created by two instances at once: the second insert violates the key and
+ * the retry finds the row of the first.
+ *
+ * @author fdse
+ */
+@Component
+public class BalanceLedger {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BalanceLedger.class);
+
+    private static final int STRIPES = 64;
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final Object[] locks = new Object[STRIPES];
+
+    @Autowired
+    private AccountBalanceRepository balanceRepository;
+
+    @Autowired
+    private AddMoneyRepository addMoneyRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    public BalanceLedger() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * current balance of the user; users that have no ledger row yet get one
+     * created from their history
+     *
+     * @param userId user id
+     * @return BigDecimal
+     */
+    public BigDecimal balanceOf(String userId) {
+        Optional<AccountBalance> account = balanceRepository.findById(userId);
+        if (account.isPresent()) {
+            return account.get().getBalance();
+        }
+        return inTransaction(userId, status -> balanceRepository.save(load(userId))).getBalance();
+    }
+
+    /**
+     * record added or drawn back money and raise the balance
+     *
+     * @param money money row to save
+     * @return false if the amount is not a number
+     */
+    public boolean credit(Money money) {
+        BigDecimal amount = parse(money.getMoney());
+        if (amount == null) {
+            LOGGER.error("[credit][Invalid amount][userId: {}, money: {}]", money.getUserId(), money.getMoney());
+            return false;
+        }
+        inTransaction(money.getUserId(), status -> {
+            AccountBalance account = load(money.getUserId());
+            addMoneyRepository.save(money);
+            account.setBalance(account.getBalance().add(amount));
+            return balanceRepository.save(account);
+        });
+        return true;
+    }
+
+    /**
+     * record the payment only if the balance covers it
+     *
+     * @param payment payment row to save
+     * @return false if the balance is insufficient or the price is not a number
+     */
+    public boolean tryDebit(Payment payment) {
+        BigDecimal amount = parse(payment.getPrice());
+        if (amount == null) {
+            LOGGER.error("[tryDebit][Invalid price][orderId: {}, price: {}]", payment.getOrderId(), payment.getPrice());
+            return false;
+        }
+        return inTransaction(payment.getUserId(), status -> {
+            AccountBalance account = load(payment.getUserId());
+            if (account.getBalance().compareTo(amount) < 0) {
+                return false;
+            }
+            paymentRepository.save(payment);
+            account.setBalance(account.getBalance().subtract(amount));
+            balanceRepository.save(account);
+            return true;
+        });
+    }
+
+    /**
+     * record a payment unconditionally, e.g. one settled by the outside payment service
+     *
+     * @param payment payment row to save
+     */
+    public void debit(Payment payment) {
+        BigDecimal amount = parse(payment.getPrice());
+        inTransaction(payment.getUserId(), status -> {
+            AccountBalance account = load(payment.getUserId());
+            paymentRepository.save(payment);
+            if (amount != null) {
+                account.setBalance(account.getBalance().subtract(amount));
+            }
+            return balanceRepository.save(account);
+        });
+    }
+
+    /**
+     * compare the ledger row with the history and repair it if they differ
+     *
+     * @param userId user id
+     * @return true if the ledger row matched the history
+     */
+    public boolean reconcile(String userId) {
+        return inTransaction(userId, status -> {
+            BigDecimal expected = sumHistory(userId);
+            Optional<AccountBalance> account = balanceRepository.findById(userId);
+            if (account.isPresent() && account.get().getBalance().compareTo(expected) == 0) {
+                return true;
+            }
+            AccountBalance repaired = account.orElseGet(() -> new AccountBalance(userId, BigDecimal.ZERO));
+            LOGGER.warn("[reconcile][Ledger differs from history][userId: {}, ledger: {}, history: {}]",
+                    userId, account.isPresent() ? repaired.getBalance() : null, expected);
+            repaired.setBalance(expected);
+            balanceRepository.save(repaired);
+            return false;
+        });
+    }
+
+    private AccountBalance load(String userId) {
+        Optional<AccountBalance> account = balanceRepository.findById(userId);
+        if (account.isPresent()) {
+            return account.get();
+        }
+        AccountBalance created = new AccountBalance(userId, sumHistory(userId));
+        LOGGER.info("[load][Ledger row created from history][userId: {}, balance: {}]", userId, created.getBalance());
+        return created;
+    }
+
+    private BigDecimal sumHistory(String userId) {
+        BigDecimal total = BigDecimal.ZERO;
+        List<Money> monies = addMoneyRepository.findByUserId(userId);
+        if (monies != null) {
+            for (Money money : monies) {
+                BigDecimal amount = parse(money.getMoney());
+                if (amount != null) {
+                    total = total.add(amount);
+                }
+            }
+        }
+        List<Payment> payments = paymentRepository.findByUserId(userId);
+        if (payments != null) {
+            for (Payment payment : payments) {
+                BigDecimal amount = parse(payment.getPrice());
+                if (amount != null) {
+                    total = total.subtract(amount);
+                }
+            }
+        }
+        return total;
+    }
+
+    private <T> T inTransaction(String userId, TransactionCallback<T> action) {
+        synchronized (locks[(userId.hashCode() & 0x7fffffff) % STRIPES]) {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return transactionTemplate.execute(action);
+                } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                    if (attempt >= MAX_ATTEMPTS) {
+                        throw e;
+                    }
+                    LOGGER.warn("[inTransaction][Concurrent ledger update, retrying][userId: {}, attempt: {}]", userId, attempt);
+                }
+            }
+        }
+    }
+
+    private static BigDecimal parse(String amount) {
+        try {
+            return new BigDecimal(amount);
+        } catch (NumberFormatException | NullPointerException e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+package inside_payment.ledger;
+
+import inside_payment.repository.AccountBalanceRepository;
+import inside_payment.repository.AddMoneyRepository;
+import inside_payment.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Periodically checks every ledger row against the payment and money history.
+ * Accounts that only exist in the history get their ledger row here, and rows
+ * that drifted are repaired to the value implied by the history. Missing rows
+ * are also created once at startup, so the account list is complete before the
+ * first check.
+ *
+ * @author fdse
+ */
+@Component
+public class BalanceReconciler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BalanceReconciler.class);
+
+    @Autowired
+    private BalanceLedger ledger;
+
+    @Autowired
+    private AccountBalanceRepository balanceRepository;
+
+    @Autowired
+    private AddMoneyRepository addMoneyRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startupBackfill() {
+        try {
+            backfill();
+        } catch (Exception e) {
+            LOGGER.error("[startupBackfill][Backfill aborted][error: {}]", e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${inside-payment.ledger.reconcile-initial-delay:60000}",
+            fixedDelayString = "${inside-payment.ledger.reconcile-interval:3600000}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            LOGGER.error("[scheduledReconcile][Reconciliation aborted][error: {}]", e.getMessage());
+        }
+    }
+
+    /**
+     * reconcile all accounts
+     *
+     * @return number of accounts whose ledger row was missing or wrong
+     */
+    public int reconcile() {
+        Set<String> userIds = new LinkedHashSet<>(balanceRepository.findAllUserIds());
+        userIds.addAll(historyUserIds());
+        int repaired = 0;
+        for (String userId : userIds) {
+            if (!ledger.reconcile(userId)) {
+                repaired++;
+            }
+        }
+        LOGGER.info("[reconcile][Ledger reconciled][accounts: {}, repaired: {}]", userIds.size(), repaired);
+        return repaired;
+    }
+
+    /**
+     * create the ledger rows of accounts that only exist in the history
+     *
+     * @return number of ledger rows created
+     */
+    public int backfill() {
+        Set<String> missing = historyUserIds();
+        missing.removeAll(balanceRepository.findAllUserIds());
+        for (String userId : missing) {
+            ledger.reconcile(userId);
+        }
+        LOGGER.info("[backfill][Ledger rows created from history][accounts: {}]", missing.size());
+        return missing.size();
+    }
+
+    private Set<String> historyUserIds() {
+        Set<String> userIds = new HashSet<>(addMoneyRepository.findDistinctUserIds());
+        userIds.addAll(paymentRepository.findDistinctUserIds());
+        return userIds;
+    }
+
+}
@@ -0,0 +1,29 @@
+package inside_payment.repository;
+
+import inside_payment.entity.AccountBalance;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.List;
+
+/**
+ * @author fdse
+ */
+public interface AccountBalanceRepository extends CrudRepository<AccountBalance, String> {
+
+    /**
+     * find all
+     *
+     * @return List<AccountBalance>
+     */
+    @Override
+    List<AccountBalance> findAll();
+
+    /**
+     * find the user ids of all ledger rows
+     *
+     * @return List<String>
+     */
+    @Query("SELECT a.userId FROM AccountBalance a")
+    List<String> findAllUserIds();
+}
@@ -2,6 +2,7 @@ package inside_payment.repository;
 
 import inside_payment.entity.Money;
 //import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 
 import java.util.List;
@@ -26,4 +27,12 @@ public interface AddMoneyRepository extends CrudRepository<Money,String> {
      */
     @Override
     List<Money> findAll();
+
+    /**
+     * find the user ids that have money rows
+     *
+     * @return List<String>
+     */
+    @Query("SELECT DISTINCT m.userId FROM Money m")
+    List<String> findDistinctUserIds();
 }
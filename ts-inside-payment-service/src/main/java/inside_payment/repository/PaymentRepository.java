@@ -2,6 +2,7 @@ package inside_payment.repository;
 
 import inside_payment.entity.Payment;
 //import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 
 import java.util.List;
@@ -43,4 +44,12 @@ public interface PaymentRepository extends CrudRepository<Payment,String> {
      * @return List<Payment>
      */
     List<Payment> findByUserId(String userId);
+
+    /**
+     * find the user ids that have payment rows
+     *
+     * @return List<String>
+     */
+    @Query("SELECT DISTINCT p.userId FROM Payment p")
+    List<String> findDistinctUserIds();
 }
@@ -4,6 +4,8 @@ import edu.fudan.common.entity.OrderStatus;
 import edu.fudan.common.entity.Order;
 import edu.fudan.common.util.Response;
 import inside_payment.entity.*;
+import inside_payment.ledger.BalanceLedger;
+import inside_payment.repository.AccountBalanceRepository;
 import inside_payment.repository.AddMoneyRepository;
 import inside_payment.repository.PaymentRepository;
 import org.slf4j.Logger;
@@ -18,7 +20,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
-import java.math.BigDecimal;
 import java.util.*;
 
 /**
@@ -33,6 +34,12 @@ public class InsidePaymentServiceImpl implements InsidePaymentService {
     @Autowired
     public PaymentRepository paymentRepository;
 
+    @Autowired
+    public AccountBalanceRepository balanceRepository;
+
+    @Autowired
+    public BalanceLedger ledger;
+
     @Autowired
     public RestTemplate restTemplate;
 
@@ -74,34 +81,17 @@ public class InsidePaymentServiceImpl implements InsidePaymentService {
 
             Payment payment = new Payment();
             payment.setOrderId(info.getOrderId());
-            payment.setPrice(order.getPrice());
+            payment.setPrice(order.getPrice().toString());
             payment.setUserId(userId);
+            payment.setType(PaymentType.P);
 
             //判断一下账户余额够不够，不够要去站外支付
-            List<Payment> payments = paymentRepository.findByUserId(userId);
-            List<Money> addMonies = addMoneyRepository.findByUserId(userId);
-            Iterator<Payment> paymentsIterator = payments.iterator();
-            Iterator<Money> addMoniesIterator = addMonies.iterator();
-
-            BigDecimal totalExpand = new BigDecimal("0");
-            while (paymentsIterator.hasNext()) {
-                Payment p = paymentsIterator.next();
-                totalExpand = totalExpand.add(new BigDecimal(p.getPrice()));
-            }
-            totalExpand = totalExpand.add(new BigDecimal(order.getPrice()));
-
-            BigDecimal money = new BigDecimal("0");
-            while (addMoniesIterator.hasNext()) {
-                Money addMoney = addMoniesIterator.next();
-                money = money.add(new BigDecimal(addMoney.getMoney()));
-            }
-
-            if (totalExpand.compareTo(money) > 0) {
+            if (!ledger.tryDebit(payment)) {
                 //站外支付
                 Payment outsidePaymentInfo = new Payment();
                 outsidePaymentInfo.setOrderId(info.getOrderId());
                 outsidePaymentInfo.setUserId(userId);
-                outsidePaymentInfo.setPrice(order.getPrice());
+                outsidePaymentInfo.setPrice(order.getPrice().toString());
 
                 /****这里调用第三方支付***/
 
@@ -117,7 +107,7 @@ public class InsidePaymentServiceImpl implements InsidePaymentService {
                 InsidePaymentServiceImpl.LOGGER.info("[Inside Payment Service.pay][outside Pay][Out pay result: {}]", outsidePaySuccess.toString());
                 if (outsidePaySuccess.getStatus() == 1) {
                     payment.setType(PaymentType.O);
-                    paymentRepository.save(payment);
+                    ledger.debit(payment);
                     setOrderStatus(info.getTripId(), info.getOrderId(), headers);
                     return new Response<>(1, "Payment Success " +    outsidePaySuccess.getMsg(), null);
                 } else {
@@ -126,8 +116,6 @@ public class InsidePaymentServiceImpl implements InsidePaymentService {
                 }
             } else {
                 setOrderStatus(info.getTripId(), info.getOrderId(), headers);
-                payment.setType(PaymentType.P);
-                paymentRepository.save(payment);
             }
             LOGGER.info("[Inside Payment Service.pay][Payment success][orderId: {}]", info.getOrderId());
             return new Response<>(1, "Payment Success", null);
@@ -146,7 +134,7 @@ public class InsidePaymentServiceImpl implements InsidePaymentService {
             addMoney.setMoney(info.getMoney());
             addMoney.setUserId(info.getUserId());
             addMoney.setType(MoneyType.A);
-            addMoneyRepository.save(addMoney);
+            ledger.credit(addMoney);
             return new Response<>(1, "Create Account Success", null);
         } else {
             LOGGER.error("[createAccount][Create Account Failed][Account already Exists][userId: {}]", info.getUserId());
@@ -156,12 +144,11 @@ public class InsidePaymentServiceImpl implements InsidePaymentService {
 
     @Override
     public Response addMoney(String userId, String money, HttpHeaders headers) {
-        if (addMoneyRepository.findByUserId(userId) != null) {
-            Money addMoney = new Money();
-            addMoney.setUserId(userId);
-            addMoney.setMoney(money);
-            addMoney.setType(MoneyType.A);
-            addMoneyRepository.save(addMoney);
+        Money addMoney = new Money();
+        addMoney.setUserId(userId);
+        addMoney.setMoney(money);
+        addMoney.setType(MoneyType.A);
+        if (ledger.credit(addMoney)) {
             return new Response<>(1, "Add Money Success", null);
         } else {
             LOGGER.error("Add Money Failed, userId: {}", userId);
@@ -172,37 +159,10 @@ public class InsidePaymentServiceImpl implements InsidePaymentService {
     @Override
     public Response queryAccount(HttpHeaders headers) {
         List<Balance> result = new ArrayList<>();
-        List<Money> list = addMoneyRepository.findAll();
-        Iterator<Money> ite = list.iterator();
-        HashMap<String, String> map = new HashMap<>();
-        while (ite.hasNext()) {
-            Money addMoney = ite.next();
-            if (map.containsKey(addMoney.getUserId())) {
-                BigDecimal money = new BigDecimal(map.get(addMoney.getUserId()));
-                map.put(addMoney.getUserId(), money.add(new BigDecimal(addMoney.getMoney())).toString());
-            } else {
-                map.put(addMoney.getUserId(), addMoney.getMoney());
-            }
-        }
-
-        Iterator ite1 = map.entrySet().iterator();
-        while (ite1.hasNext()) {
-            Map.Entry entry = (Map.Entry) ite1.next();
-            String userId = (String) entry.getKey();
-            String money = (String) entry.getValue();
-
-            List<Payment> payments = paymentRepository.findByUserId(userId);
-            Iterator<Payment> iterator = payments.iterator();
-            String totalExpand = "0";
-            while (iterator.hasNext()) {
-                Payment p = iterator.next();
-                BigDecimal expand = new BigDecimal(totalExpand);
-                totalExpand = expand.add(new BigDecimal(p.getPrice())).toString();
-            }
-            String balanceMoney = new BigDecimal(money).subtract(new BigDecimal(totalExpand)).toString();
+        for (AccountBalance account : balanceRepository.findAll()) {
             Balance balance = new Balance();
-            balance.setUserId(userId);
-            balance.setBalance(balanceMoney);
+            balance.setUserId(account.getUserId());
+            balance.setBalance(account.getBalance().stripTrailingZeros().toPlainString());
             result.add(balance);
         }
 
@@ -210,24 +170,7 @@ public class InsidePaymentServiceImpl implements InsidePaymentService {
     }
 
     public String queryAccount(String userId, HttpHeaders headers) {
-        List<Payment> payments = paymentRepository.findByUserId(userId);
-        List<Money> addMonies = addMoneyRepository.findByUserId(userId);
-        Iterator<Payment> paymentsIterator = payments.iterator();
-        Iterator<Money> addMoniesIterator = addMonies.iterator();
-
-        BigDecimal totalExpand = new BigDecimal("0");
-        while (paymentsIterator.hasNext()) {
-            Payment p = paymentsIterator.next();
-            totalExpand.add(new BigDecimal(p.getPrice()));
-        }
-
-        BigDecimal money = new BigDecimal("0");
-        while (addMoniesIterator.hasNext()) {
-            Money addMoney = addMoniesIterator.next();
-            money.add(new BigDecimal(addMoney.getMoney()));
-        }
-
-        return money.subtract(totalExpand).toString();
+        return ledger.balanceOf(userId).stripTrailingZeros().toPlainString();
     }
 
     @Override
@@ -243,15 +186,14 @@ public class InsidePaymentServiceImpl implements InsidePaymentService {
 
     @Override
     public Response drawBack(String userId, String money, HttpHeaders headers) {
-        if (addMoneyRepository.findByUserId(userId) != null) {
-            Money addMoney = new Money();
-            addMoney.setUserId(userId);
-            addMoney.setMoney(money);
-            addMoney.setType(MoneyType.D);
-            addMoneyRepository.save(addMoney);
+        Money addMoney = new Money();
+        addMoney.setUserId(userId);
+        addMoney.setMoney(money);
+        addMoney.setType(MoneyType.D);
+        if (ledger.credit(addMoney)) {
             return new Response<>(1, "Draw Back Money Success", null);
         } else {
-            LOGGER.error("[drawBack][Draw Back Money Failed][addMoneyRepository.findByUserId null][userId: {}]", userId);
+            LOGGER.error("[drawBack][Draw Back Money Failed][invalid amount][userId: {}]", userId);
             return new Response<>(0, "Draw Back Money Failed", null);
         }
     }
@@ -265,27 +207,9 @@ public class InsidePaymentServiceImpl implements InsidePaymentService {
         payment.setOrderId(info.getOrderId());
         payment.setPrice(info.getPrice());
         payment.setUserId(info.getUserId());
+        payment.setType(PaymentType.E);
 
-
-        List<Payment> payments = paymentRepository.findByUserId(userId);
-        List<Money> addMonies = addMoneyRepository.findByUserId(userId);
-        Iterator<Payment> paymentsIterator = payments.iterator();
-        Iterator<Money> addMoniesIterator = addMonies.iterator();
-
-        BigDecimal totalExpand = new BigDecimal("0");
-        while (paymentsIterator.hasNext()) {
-            Payment p = paymentsIterator.next();
-            totalExpand.add(new BigDecimal(p.getPrice()));
-        }
-        totalExpand.add(new BigDecimal(info.getPrice()));
-
-        BigDecimal money = new BigDecimal("0");
-        while (addMoniesIterator.hasNext()) {
-            Money addMoney = addMoniesIterator.next();
-            money.add(new BigDecimal(addMoney.getMoney()));
-        }
-
-        if (totalExpand.compareTo(money) > 0) {
+        if (!ledger.tryDebit(payment)) {
             //站外支付
             Payment outsidePaymentInfo = new Payment();
             outsidePaymentInfo.setOrderId(info.getOrderId());
@@ -302,16 +226,12 @@ public class InsidePaymentServiceImpl implements InsidePaymentService {
             Response outsidePaySuccess = reOutsidePaySuccess.getBody();
 
             if (outsidePaySuccess.getStatus() == 1) {
-                payment.setType(PaymentType.E);
-                paymentRepository.save(payment);
+                ledger.debit(payment);
                 return new Response<>(1, "Pay Difference Success", null);
             } else {
                 LOGGER.error("[payDifference][Pay Difference Failed][outsidePaySuccess status not 1][orderId: {}]", info.getOrderId());
                 return new Response<>(0, "Pay Difference Failed", null);
             }
-        } else {
-            payment.setType(PaymentType.E);
-            paymentRepository.save(payment);
         }
         return new Response<>(1, "Pay Difference Success", null);
     }
@@ -0,0 +1,189 @@
+package inside_payment.ledger;
+
+import inside_payment.entity.AccountBalance;
+import inside_payment.entity.Money;
+import inside_payment.entity.Payment;
+import inside_payment.repository.AccountBalanceRepository;
+import inside_payment.repository.AddMoneyRepository;
+import inside_payment.repository.PaymentRepository;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.internal.verification.VerificationModeFactory.times;
+
+@RunWith(JUnit4.class)
+public class BalanceLedgerTest {
+
+    @InjectMocks
+    private BalanceLedger ledger;
+
+    @Mock
+    private AccountBalanceRepository balanceRepository;
+
+    @Mock
+    private AddMoneyRepository addMoneyRepository;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        Mockito.when(transactionTemplate.execute(Mockito.any()))
+                .thenAnswer(invocation -> ((TransactionCallback) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    @Test
+    public void testTryDebitSufficient() {
+        Mockito.when(balanceRepository.findById("user_id"))
+                .thenReturn(Optional.of(new AccountBalance("user_id", new BigDecimal("10"))));
+        Assert.assertTrue(ledger.tryDebit(payment("2.5")));
+        ArgumentCaptor<AccountBalance> saved = ArgumentCaptor.forClass(AccountBalance.class);
+        Mockito.verify(balanceRepository).save(saved.capture());
+        Assert.assertEquals(0, new BigDecimal("7.5").compareTo(saved.getValue().getBalance()));
+        Mockito.verify(paymentRepository, times(1)).save(Mockito.any(Payment.class));
+        Mockito.verify(paymentRepository, times(0)).findByUserId(Mockito.anyString());
+    }
+
+    @Test
+    public void testTryDebitInsufficient() {
+        Mockito.when(balanceRepository.findById("user_id"))
+                .thenReturn(Optional.of(new AccountBalance("user_id", new BigDecimal("1"))));
+        Assert.assertFalse(ledger.tryDebit(payment("2.5")));
+        Mockito.verify(paymentRepository, times(0)).save(Mockito.any(Payment.class));
+        Mockito.verify(balanceRepository, times(0)).save(Mockito.any(AccountBalance.class));
+    }
+
+    @Test
+    public void testCreditBuildsMissingRowFromHistory() {
+        Mockito.when(balanceRepository.findById("user_id")).thenReturn(Optional.empty());
+        List<Money> monies = new ArrayList<>();
+        monies.add(money("100"));
+        Mockito.when(addMoneyRepository.findByUserId("user_id")).thenReturn(monies);
+        List<Payment> payments = new ArrayList<>();
+        payments.add(payment("30"));
+        Mockito.when(paymentRepository.findByUserId("user_id")).thenReturn(payments);
+
+        Assert.assertTrue(ledger.credit(money("5")));
+        ArgumentCaptor<AccountBalance> saved = ArgumentCaptor.forClass(AccountBalance.class);
+        Mockito.verify(balanceRepository).save(saved.capture());
+        Assert.assertEquals(0, new BigDecimal("75").compareTo(saved.getValue().getBalance()));
+    }
+
+    @Test
+    public void testCreditInvalidAmount() {
+        Assert.assertFalse(ledger.credit(money("money")));
+        Mockito.verify(addMoneyRepository, times(0)).save(Mockito.any(Money.class));
+    }
+
+    @Test
+    public void testRetryOnOptimisticLockFailure() {
+        Mockito.when(balanceRepository.findById("user_id"))
+                .thenReturn(Optional.of(new AccountBalance("user_id", new BigDecimal("10"))));
+        Mockito.doThrow(new ObjectOptimisticLockingFailureException(AccountBalance.class, "user_id"))
+                .doAnswer(invocation -> ((TransactionCallback) invocation.getArgument(0)).doInTransaction(null))
+                .when(transactionTemplate).execute(Mockito.any());
+        Assert.assertTrue(ledger.tryDebit(payment("1")));
+        Mockito.verify(transactionTemplate, times(2)).execute(Mockito.any());
+    }
+
+    @Test
+    public void testRetryOnConcurrentRowCreation() {
+        Mockito.when(balanceRepository.findById("user_id"))
+                .thenReturn(Optional.of(new AccountBalance("user_id", new BigDecimal("10"))));
+        Mockito.doThrow(new DataIntegrityViolationException("Duplicate entry 'user_id' for key 'PRIMARY'"))
+                .doAnswer(invocation -> ((TransactionCallback) invocation.getArgument(0)).doInTransaction(null))
+                .when(transactionTemplate).execute(Mockito.any());
+        Assert.assertTrue(ledger.credit(money("1")));
+        Mockito.verify(transactionTemplate, times(2)).execute(Mockito.any());
+    }
+
+    @Test
+    public void testBalanceOfExistingRow() {
+        Mockito.when(balanceRepository.findById("user_id"))
+                .thenReturn(Optional.of(new AccountBalance("user_id", new BigDecimal("10"))));
+        Assert.assertEquals(0, new BigDecimal("10").compareTo(ledger.balanceOf("user_id")));
+        Mockito.verify(balanceRepository, times(0)).save(Mockito.any(AccountBalance.class));
+    }
+
+    @Test
+    public void testBalanceOfCreatesMissingRow() {
+        Mockito.when(balanceRepository.findById("user_id")).thenReturn(Optional.empty());
+        List<Money> monies = new ArrayList<>();
+        monies.add(money("100"));
+        Mockito.when(addMoneyRepository.findByUserId("user_id")).thenReturn(monies);
+        List<Payment> payments = new ArrayList<>();
+        payments.add(payment("30"));
+        Mockito.when(paymentRepository.findByUserId("user_id")).thenReturn(payments);
+        Mockito.when(balanceRepository.save(Mockito.any(AccountBalance.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Assert.assertEquals(0, new BigDecimal("70").compareTo(ledger.balanceOf("user_id")));
+        ArgumentCaptor<AccountBalance> saved = ArgumentCaptor.forClass(AccountBalance.class);
+        Mockito.verify(balanceRepository).save(saved.capture());
+        Assert.assertEquals("user_id", saved.getValue().getUserId());
+    }
+
+    @Test
+    public void testReconcileRepairsDrift() {
+        Mockito.when(balanceRepository.findById("user_id"))
+                .thenReturn(Optional.of(new AccountBalance("user_id", new BigDecimal("50"))));
+        List<Money> monies = new ArrayList<>();
+        monies.add(money("100"));
+        Mockito.when(addMoneyRepository.findByUserId("user_id")).thenReturn(monies);
+        Mockito.when(paymentRepository.findByUserId("user_id")).thenReturn(new ArrayList<>());
+
+        Assert.assertFalse(ledger.reconcile("user_id"));
+        ArgumentCaptor<AccountBalance> saved = ArgumentCaptor.forClass(AccountBalance.class);
+        Mockito.verify(balanceRepository).save(saved.capture());
+        Assert.assertEquals(0, new BigDecimal("100").compareTo(saved.getValue().getBalance()));
+    }
+
+    @Test
+    public void testReconcileMatching() {
+        Mockito.when(balanceRepository.findById("user_id"))
+                .thenReturn(Optional.of(new AccountBalance("user_id", new BigDecimal("100.00"))));
+        List<Money> monies = new ArrayList<>();
+        monies.add(money("100"));
+        Mockito.when(addMoneyRepository.findByUserId("user_id")).thenReturn(monies);
+        Mockito.when(paymentRepository.findByUserId("user_id")).thenReturn(new ArrayList<>());
+
+        Assert.assertTrue(ledger.reconcile("user_id"));
+        Mockito.verify(balanceRepository, times(0)).save(Mockito.any(AccountBalance.class));
+    }
+
+    private Payment payment(String price) {
+        Payment payment = new Payment();
+        payment.setUserId("user_id");
+        payment.setOrderId("order_id");
+        payment.setPrice(price);
+        return payment;
+    }
+
+    private Money money(String amount) {
+        Money money = new Money();
+        money.setUserId("user_id");
+        money.setMoney(amount);
+        return money;
+    }
+
+}
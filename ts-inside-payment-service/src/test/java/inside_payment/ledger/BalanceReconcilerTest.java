@@ -0,0 +1,65 @@
+package inside_payment.ledger;
+
+import inside_payment.repository.AccountBalanceRepository;
+import inside_payment.repository.AddMoneyRepository;
+import inside_payment.repository.PaymentRepository;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.mockito.internal.verification.VerificationModeFactory.times;
+
+@RunWith(JUnit4.class)
+public class BalanceReconcilerTest {
+
+    @InjectMocks
+    private BalanceReconciler reconciler;
+
+    @Mock
+    private BalanceLedger ledger;
+
+    @Mock
+    private AccountBalanceRepository balanceRepository;
+
+    @Mock
+    private AddMoneyRepository addMoneyRepository;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        Mockito.when(balanceRepository.findAllUserIds()).thenReturn(Arrays.asList("ledger_user", "both_user"));
+        Mockito.when(addMoneyRepository.findDistinctUserIds()).thenReturn(Arrays.asList("both_user", "money_user"));
+        Mockito.when(paymentRepository.findDistinctUserIds()).thenReturn(Collections.singletonList("payment_user"));
+    }
+
+    @Test
+    public void testReconcile() {
+        Mockito.when(ledger.reconcile(Mockito.anyString())).thenReturn(true);
+        Mockito.when(ledger.reconcile("money_user")).thenReturn(false);
+        Assert.assertEquals(1, reconciler.reconcile());
+        Mockito.verify(ledger, times(4)).reconcile(Mockito.anyString());
+        Mockito.verify(addMoneyRepository, times(0)).findAll();
+        Mockito.verify(balanceRepository, times(0)).findAll();
+    }
+
+    @Test
+    public void testBackfill() {
+        Assert.assertEquals(2, reconciler.backfill());
+        Mockito.verify(ledger).reconcile("money_user");
+        Mockito.verify(ledger).reconcile("payment_user");
+        Mockito.verify(ledger, times(2)).reconcile(Mockito.anyString());
+    }
+
+}
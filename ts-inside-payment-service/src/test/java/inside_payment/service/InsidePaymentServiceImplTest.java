@@ -1,8 +1,11 @@
 package inside_payment.service;
 
 import edu.fudan.common.entity.Order;
+import edu.fudan.common.util.Amount;
 import edu.fudan.common.util.Response;
 import inside_payment.entity.*;
+import inside_payment.ledger.BalanceLedger;
+import inside_payment.repository.AccountBalanceRepository;
 import inside_payment.repository.AddMoneyRepository;
 import inside_payment.repository.PaymentRepository;
 import org.junit.Assert;
@@ -18,6 +21,7 @@ import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.web.client.RestTemplate;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -35,6 +39,12 @@ public class InsidePaymentServiceImplTest {
     @Mock
     private PaymentRepository paymentRepository;
 
+    @Mock
+    private AccountBalanceRepository balanceRepository;
+
+    @Mock
+    private BalanceLedger ledger;
+
     @Mock
     private RestTemplate restTemplate;
 
@@ -51,34 +61,29 @@ public class InsidePaymentServiceImplTest {
         PaymentInfo info = new PaymentInfo("user_id", "order_id", "G", "1.0");
         Order order = new Order();
         order.setStatus(0);
-        order.setPrice("1.0");
+        order.setPrice(Amount.parse("1.0"));
         Response<Order> response = new Response<>(1, null, order);
         ResponseEntity<Response<Order>> re = new ResponseEntity<>(response, HttpStatus.OK);
         Mockito.when(restTemplate.exchange(
-                "http://ts-order-service:12031/api/v1/orderservice/order/order_id",
+                "http://ts-order-service/api/v1/orderservice/order/order_id",
                 HttpMethod.GET,
                 httpEntity,
                 new ParameterizedTypeReference<Response<Order>>() {
                 })).thenReturn(re);
 
-        List<Payment> payments = new ArrayList<>();
-        List<Money> monies = new ArrayList<>();
-        Money money = new Money();
-        money.setMoney("2.0");
-        monies.add(money);
-        Mockito.when(paymentRepository.findByUserId(Mockito.anyString())).thenReturn(payments);
-        Mockito.when(addMoneyRepository.findByUserId(Mockito.anyString())).thenReturn(monies);
+        Mockito.when(ledger.tryDebit(Mockito.any(Payment.class))).thenReturn(true);
         //mock setOrderStatus()
         Response response2 = new Response(1, "", null);
         ResponseEntity<Response> re2 = new ResponseEntity<>(response2, HttpStatus.OK);
         Mockito.when(restTemplate.exchange(
-                "http://ts-order-service:12031/api/v1/orderservice/order/status/" + "order_id" + "/" + 1,
+                "http://ts-order-service/api/v1/orderservice/order/status/" + "order_id" + "/" + 1,
                 HttpMethod.GET,
                 httpEntity,
                 Response.class)).thenReturn(re2);
-        Mockito.when(paymentRepository.save(Mockito.any(Payment.class))).thenReturn(null);
         Response result = insidePaymentServiceImpl.pay(info, headers);
         Assert.assertEquals(new Response<>(1, "Payment Success", null), result);
+        Mockito.verify(paymentRepository, times(0)).findByUserId(Mockito.anyString());
+        Mockito.verify(addMoneyRepository, times(0)).findByUserId(Mockito.anyString());
     }
 
     @Test
@@ -103,16 +108,14 @@ public class InsidePaymentServiceImplTest {
 
     @Test
     public void testAddMoney1() {
-        List<Money> list = new ArrayList<>();
-        Mockito.when(addMoneyRepository.findByUserId(Mockito.anyString())).thenReturn(list);
-        Mockito.when(addMoneyRepository.save(Mockito.any(Money.class))).thenReturn(null);
+        Mockito.when(ledger.credit(Mockito.any(Money.class))).thenReturn(true);
         Response result = insidePaymentServiceImpl.addMoney("user_id", "money", headers);
         Assert.assertEquals(new Response<>(1, "Add Money Success", null), result);
     }
 
     @Test
     public void testAddMoney2() {
-        Mockito.when(addMoneyRepository.findByUserId(Mockito.anyString())).thenReturn(null);
+        Mockito.when(ledger.credit(Mockito.any(Money.class))).thenReturn(false);
         Response result = insidePaymentServiceImpl.addMoney("user_id", "money", headers);
         Assert.assertEquals(new Response<>(0, "Add Money Failed", null), result);
     }
@@ -125,6 +128,18 @@ public class InsidePaymentServiceImplTest {
         Assert.assertEquals("Success", result.getMsg());
     }
 
+    @Test
+    public void testQueryAccountFromLedger() {
+        List<AccountBalance> accounts = new ArrayList<>();
+        accounts.add(new AccountBalance("user_id", new BigDecimal("9900.0000")));
+        Mockito.when(balanceRepository.findAll()).thenReturn(accounts);
+        Response result = insidePaymentServiceImpl.queryAccount(headers);
+        List<Balance> balances = (List<Balance>) result.getData();
+        Assert.assertEquals(1, balances.size());
+        Assert.assertEquals("9900", balances.get(0).getBalance());
+        Mockito.verify(paymentRepository, times(0)).findByUserId(Mockito.anyString());
+    }
+
     @Test
     public void testQueryPayment1() {
         List<Payment> payments = new ArrayList<>();
@@ -143,16 +158,14 @@ public class InsidePaymentServiceImplTest {
 
     @Test
     public void testDrawBack1() {
-        List<Money> list = new ArrayList<>();
-        Mockito.when(addMoneyRepository.findByUserId(Mockito.anyString())).thenReturn(list);
-        Mockito.when(addMoneyRepository.save(Mockito.any(Money.class))).thenReturn(null);
+        Mockito.when(ledger.credit(Mockito.any(Money.class))).thenReturn(true);
         Response result = insidePaymentServiceImpl.drawBack("user_id", "money", headers);
         Assert.assertEquals(new Response<>(1, "Draw Back Money Success", null), result);
     }
 
     @Test
     public void testDrawBack2() {
-        Mockito.when(addMoneyRepository.findByUserId(Mockito.anyString())).thenReturn(null);
+        Mockito.when(ledger.credit(Mockito.any(Money.class))).thenReturn(false);
         Response result = insidePaymentServiceImpl.drawBack("user_id", "money", headers);
         Assert.assertEquals(new Response<>(0, "Draw Back Money Failed", null), result);
     }
@@ -160,14 +173,7 @@ public class InsidePaymentServiceImplTest {
     @Test
     public void testPayDifference() {
         PaymentInfo info = new PaymentInfo("user_id", "order_id", "G", "1.0");
-        List<Payment> payments = new ArrayList<>();
-        List<Money> monies = new ArrayList<>();
-        Money money = new Money();
-        money.setMoney("2.0");
-        monies.add(money);
-        Mockito.when(paymentRepository.findByUserId(Mockito.anyString())).thenReturn(payments);
-        Mockito.when(addMoneyRepository.findByUserId(Mockito.anyString())).thenReturn(monies);
-        Mockito.when(paymentRepository.save(Mockito.any(Payment.class))).thenReturn(null);
+        Mockito.when(ledger.tryDebit(Mockito.any(Payment.class))).thenReturn(true);
         Response result = insidePaymentServiceImpl.payDifference(info, headers);
         Assert.assertEquals(new Response<>(1, "Pay Difference Success", null), result);
     }
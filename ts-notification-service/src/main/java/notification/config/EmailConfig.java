@@ -1,9 +1,14 @@
 package notification.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.ThreadPoolExecutor;
+
 /**
  * @author fdse
  */
@@ -14,7 +19,21 @@ public class EmailConfig {
     @Autowired
     EmailProperties emailProperties;
 
-
-
+    /**
+     * Bounded pool for sending mail. When the queue is full the listener thread sends
+     * the mail itself, so consumers slow down instead of buffering without bound.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor mailExecutor(@Value("${notification.mail.pool-size:8}") int poolSize,
+                                               @Value("${notification.mail.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("mail-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
 
 }
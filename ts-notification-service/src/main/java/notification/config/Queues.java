@@ -1,6 +1,10 @@
 package notification.config;
 
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -9,8 +13,28 @@ public class Queues {
 
     public final static String queueName = "email";
 
+    public final static String batchListenerFactory = "batchListenerContainerFactory";
+
     @Bean
     public Queue emailQueue() {
         return new Queue(queueName);
     }
+
+    /**
+     * Batch consumers for the email queue, see notification.mq in application.yml;
+     * prefetch and concurrency are set under spring.rabbitmq.listener.simple.
+     */
+    @Bean(name = batchListenerFactory)
+    public SimpleRabbitListenerContainerFactory batchListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            @Value("${notification.mq.batch-size:50}") int batchSize,
+            @Value("${notification.mq.receive-timeout-ms:200}") long receiveTimeout) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeout);
+        return factory;
+    }
 }
@@ -19,9 +19,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Component
 public class RabbitReceive {
@@ -48,17 +51,37 @@ public class RabbitReceive {
     String date = "date";
     String price = "price";
 
-    @RabbitListener(queues = Queues.queueName)
-    public void process(String payload) {
-        NotifyInfo info = JsonUtils.json2Object(payload, NotifyInfo.class);
-
-        if (info == null) {
-            logger.error("[process][json2Object][Receive email object is null, error]");
-            return;
+    @RabbitListener(queues = Queues.queueName, containerFactory = Queues.batchListenerFactory)
+    public void process(List<String> payloads) {
+        List<NotifyInfo> infos = new ArrayList<>();
+        List<CompletableFuture<Boolean>> sent = new ArrayList<>();
+        for (String payload : payloads) {
+            NotifyInfo info = JsonUtils.json2Object(payload, NotifyInfo.class);
+
+            if (info == null) {
+                logger.error("[process][json2Object][Receive email object is null, error]");
+                continue;
+            }
+
+            logger.info("[process][Receive email object][info: {}]", info);
+            infos.add(info);
+            sent.add(mailService.sendEmailAsync(toMail(info), "preserve_success.ftl"));
         }
 
-        logger.info("[process][Receive email object][info: {}]", info);
+        // the batch is acknowledged once its mails are sent and their status is stored
+        for (int i = 0; i < infos.size(); i++) {
+            NotifyInfo info = infos.get(i);
+            info.setSendStatus(sent.get(i).join());
+            info.setId(UUID.randomUUID().toString());
+            logger.info("[process][Send email to user {}][success: {}]", info.getUsername(), info.getSendStatus());
+        }
+        if (!infos.isEmpty()) {
+            logger.info("[process][Save notify info objects into database][size: {}]", infos.size());
+            notifyRepository.saveAll(infos);
+        }
+    }
 
+    private Mail toMail(NotifyInfo info) {
         Mail mail = new Mail();
         mail.setMailFrom(email);
         mail.setMailTo(info.getEmail());
@@ -74,19 +97,6 @@ public class RabbitReceive {
         model.put(seatNumber,info.getSeatNumber());
         model.put(price,info.getPrice());
         mail.setModel(model);
-
-        try {
-            mailService.sendEmail(mail, "preserve_success.ftl");
-            logger.info("[process][Send email to user {} success]", username);
-            info.setSendStatus(true);
-        } catch (Exception e) {
-            logger.error("[process][mailService.sendEmail][Send email error][Exception: {}]", e.getMessage());
-            info.setSendStatus(false);
-        }
-
-
-        info.setId(UUID.randomUUID().toString());
-        logger.info("[process][Save notify info object [{}] into database]", info.getId());
-        notifyRepository.save(info);
+        return mail;
     }
 }
@@ -1,8 +1,11 @@
 package notification.service;
 
+import javax.annotation.PostConstruct;
 import javax.mail.internet.MimeMessage;
 
 import notification.entity.Mail;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.mail.javamail.JavaMailSender;
@@ -13,12 +16,23 @@ import org.springframework.ui.freemarker.FreeMarkerTemplateUtils;
 import freemarker.template.Configuration;
 import freemarker.template.Template;
 
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
 /**
  * @author fdse
  */
 @Service
 public class MailService {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(MailService.class);
+
+    static final String[] TEMPLATES = {"preserve_success.ftl", "order_create_success.ftl",
+            "order_changed_success.ftl", "order_cancel_success.ftl"};
+
     @Autowired
     private JavaMailSender sender;
 
@@ -26,16 +40,33 @@ public class MailService {
     @Qualifier("freeMarkerConfiguration")
     private Configuration freemarkerConfig;
 
+    @Autowired
+    @Qualifier("mailExecutor")
+    private Executor mailExecutor;
 
-    public void sendEmail(Mail mail,String template) throws Exception {
-        MimeMessage message = sender.createMimeMessage();
-
-        MimeMessageHelper helper = new MimeMessageHelper(message);
+    /**
+     * parsed templates, a Template can be processed by several threads at once
+     */
+    private final Map<String, Template> templates = new ConcurrentHashMap<>();
 
+    @PostConstruct
+    public void init() throws IOException {
         // Using a subfolder such as /templates here
         freemarkerConfig.setClassForTemplateLoading(this.getClass(), "/templates");
+        for (String template : TEMPLATES) {
+            templates.put(template, freemarkerConfig.getTemplate(template));
+        }
+    }
+
+    public void sendEmail(Mail mail,String template) throws Exception {
+        MimeMessage message = sender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message);
 
-        Template t = freemarkerConfig.getTemplate(template);
+        Template t = templates.get(template);
+        if (t == null) {
+            t = freemarkerConfig.getTemplate(template);
+            templates.put(template, t);
+        }
         String text = FreeMarkerTemplateUtils.processTemplateIntoString(t, mail.getModel());
 
         helper.setTo(mail.getMailTo());
@@ -45,4 +76,22 @@ public class MailService {
 
         sender.send(message);
     }
+
+    /**
+     * Sends the mail on the mail pool.
+     *
+     * @return completes with whether the mail was sent
+     */
+    public CompletableFuture<Boolean> sendEmailAsync(Mail mail, String template) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                sendEmail(mail, template);
+                return true;
+            } catch (Exception e) {
+                LOGGER.error("[sendEmailAsync][Send email error][mailTo: {}, Exception: {}]", mail.getMailTo(), e.getMessage());
+                return false;
+            }
+        }, mailExecutor);
+    }
+
 }
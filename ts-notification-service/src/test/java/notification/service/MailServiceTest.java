@@ -0,0 +1,90 @@
+package notification.service;
+
+import freemarker.template.Configuration;
+import notification.entity.Mail;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@RunWith(JUnit4.class)
+public class MailServiceTest {
+
+    private LocalSmtpServer smtpServer;
+
+    private ExecutorService mailExecutor;
+
+    private MailService mailService;
+
+    @Before
+    public void setUp() throws Exception {
+        smtpServer = new LocalSmtpServer();
+        mailExecutor = Executors.newFixedThreadPool(4);
+
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("localhost");
+        sender.setPort(smtpServer.getPort());
+
+        mailService = new MailService();
+        ReflectionTestUtils.setField(mailService, "sender", sender);
+        ReflectionTestUtils.setField(mailService, "freemarkerConfig", new Configuration(Configuration.VERSION_2_3_30));
+        ReflectionTestUtils.setField(mailService, "mailExecutor", mailExecutor);
+        mailService.init();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mailExecutor.shutdownNow();
+        smtpServer.close();
+    }
+
+    @Test
+    public void testSendEmailAsync() {
+        List<CompletableFuture<Boolean>> sent = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            sent.add(mailService.sendEmailAsync(mail("user" + i), "preserve_success.ftl"));
+        }
+        for (CompletableFuture<Boolean> future : sent) {
+            Assert.assertTrue(future.join());
+        }
+        Assert.assertEquals(10, smtpServer.getMessages().size());
+        Assert.assertTrue(smtpServer.getMessages().stream().anyMatch(message -> message.contains("Dear user7")));
+    }
+
+    @Test
+    public void testSendEmailAsyncFailed() throws Exception {
+        smtpServer.close();
+        Assert.assertFalse(mailService.sendEmailAsync(mail("user"), "preserve_success.ftl").join());
+    }
+
+    private static Mail mail(String username) {
+        Mail mail = new Mail();
+        mail.setMailFrom("trainticket_notify@163.com");
+        mail.setMailTo(username + "@example.com");
+        mail.setMailSubject("Preserve Success");
+        Map<String, Object> model = new HashMap<>();
+        model.put("username", username);
+        model.put("startPlace", "shanghai");
+        model.put("endPlace", "beijing");
+        model.put("startTime", "09:00");
+        model.put("date", "2023-01-01");
+        model.put("seatClass", "2");
+        model.put("seatNumber", "5A");
+        model.put("price", "100.0");
+        mail.setModel(model);
+        return mail;
+    }
+
+}
@@ -1,6 +1,7 @@
 package order.service;
 
 import edu.fudan.common.entity.*;
+import edu.fudan.common.util.PagedIterable;
 import edu.fudan.common.util.Response;
 import edu.fudan.common.util.StringUtils;
 import order.entity.OrderAlterInfo;
@@ -14,6 +15,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.ServiceInstance;
 import org.springframework.cloud.client.discovery.DiscoveryClient;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -301,9 +304,11 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     public Response getAllOrders(HttpHeaders headers) {
-        ArrayList<Order> orders = orderRepository.findAll();
-        if (orders != null && !orders.isEmpty()) {
-            OrderServiceImpl.LOGGER.warn("[getAllOrders][Find all orders Success][size:{}]",orders.size());
+        // read while the response is written, one page at a time
+        PagedIterable<Order> orders = PagedIterable.of(PagedIterable.DEFAULT_PAGE_SIZE, page ->
+                orderRepository.findAll(PageRequest.of(page, PagedIterable.DEFAULT_PAGE_SIZE, Sort.by("id"))).getContent());
+        if (!orders.isEmpty()) {
+            OrderServiceImpl.LOGGER.warn("[getAllOrders][Find all orders Success]");
             return new Response<>(1, "Success.", orders);
         } else {
             OrderServiceImpl.LOGGER.warn("[getAllOrders][Find all orders Fail][{}]","No content");
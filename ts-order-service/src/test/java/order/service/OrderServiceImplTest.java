@@ -16,6 +16,9 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.*;
 import org.springframework.web.client.RestTemplate;
 
@@ -235,7 +238,7 @@ public class OrderServiceImplTest {
 
     @Test
     public void testGetAllOrders1() {
-        Mockito.when(orderRepository.findAll()).thenReturn(null);
+        Mockito.when(orderRepository.findAll(Mockito.any(Pageable.class))).thenReturn(Page.empty());
         Response result = orderServiceImpl.getAllOrders(headers);
         Assert.assertEquals(new Response<>(0, "No Content.", null), result);
     }
@@ -244,9 +247,12 @@ public class OrderServiceImplTest {
     public void testGetAllOrders2() {
         ArrayList<Order> orders = new ArrayList<>();
         orders.add(new Order());
-        Mockito.when(orderRepository.findAll()).thenReturn(orders);
+        Mockito.when(orderRepository.findAll(Mockito.any(Pageable.class))).thenReturn(new PageImpl<>(orders));
         Response result = orderServiceImpl.getAllOrders(headers);
-        Assert.assertEquals(new Response<>(1, "Success.", orders), result);
+        Assert.assertEquals("Success.", result.getMsg());
+        List<Order> data = new ArrayList<>();
+        ((Iterable<Order>) result.getData()).forEach(data::add);
+        Assert.assertEquals(orders, data);
     }
 
     @Test
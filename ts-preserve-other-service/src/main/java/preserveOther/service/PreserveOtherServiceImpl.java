@@ -3,6 +3,7 @@ package preserveOther.service;
 import edu.fudan.common.entity.*;
 import edu.fudan.common.util.JsonUtils;
 import edu.fudan.common.util.Response;
+import edu.fudan.common.util.StationDictionaryClient;
 import edu.fudan.common.util.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +37,9 @@ public class PreserveOtherServiceImpl implements PreserveOtherService {
     @Autowired
     private DiscoveryClient discoveryClient;
 
+    @Autowired
+    private StationDictionaryClient stationDictionaryClient;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(PreserveOtherServiceImpl.class);
 
     private String getServiceUrl(String serviceName) {
@@ -252,7 +256,7 @@ public class PreserveOtherServiceImpl implements PreserveOtherService {
         notifyInfo.setUsername(getUser.getUserName());
         notifyInfo.setSeatNumber(order.getSeatNumber());
         notifyInfo.setOrderNumber(order.getId().toString());
-        notifyInfo.setPrice(order.getPrice());
+        notifyInfo.setPrice(order.getPrice().toString());
         notifyInfo.setSeatClass(SeatClass.getNameByCode(order.getSeatClass()));
         notifyInfo.setStartTime(order.getTravelTime().toString());
 
@@ -331,17 +335,7 @@ public class PreserveOtherServiceImpl implements PreserveOtherService {
 
     private String queryForStationId(String stationName, HttpHeaders httpHeaders) {
         PreserveOtherServiceImpl.LOGGER.info("[queryForStationId][Preserve Other Service][Get Station By  Name]");
-
-
-        HttpEntity requestQueryForStationId = new HttpEntity(httpHeaders);
-        String station_service_url = getServiceUrl("ts-station-service");
-        ResponseEntity<Response<String>> reQueryForStationId = restTemplate.exchange(
-                station_service_url + "/api/v1/stationservice/stations/id/" + stationName,
-                HttpMethod.GET,
-                requestQueryForStationId,
-                new ParameterizedTypeReference<Response<String>>() {
-                });
-        return reQueryForStationId.getBody().getData();
+        return stationDictionaryClient.idOf(stationName);
     }
 
     private Response checkSecurity(String accountId, HttpHeaders httpHeaders) {
@@ -1,5 +1,6 @@
 package preserve.service;
 
+import edu.fudan.common.util.Amount;
 import edu.fudan.common.util.Response;
 import edu.fudan.common.util.StringUtils;
 import org.junit.Assert;
@@ -97,7 +98,7 @@ public class PreserveServiceImplTest {
 
         //response for travel result
         TravelResult travelResult = new TravelResult();
-        travelResult.setPrices( new HashMap<String, String>(){{ put("confortClass", "1.0"); }} );
+        travelResult.setPrices( new HashMap<String, Amount>(){{ put("confortClass", Amount.parse("1.0")); }} );
         Response<TravelResult> response5 = new Response<>(null, null, travelResult);
         ResponseEntity<Response<TravelResult>> re5 = new ResponseEntity<>(response5, HttpStatus.OK);
 
@@ -72,6 +72,8 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 .and()
                 .authorizeRequests()
+                // evicting fares rebuilds them on every instance, so not open like the queries
+                .antMatchers(HttpMethod.DELETE, prices + "/fares/**").hasAnyRole(admin)
                 .antMatchers("/api/v1/priceservice/**").permitAll()
                 .antMatchers(HttpMethod.POST, prices).hasAnyRole(admin)
                 .antMatchers(HttpMethod.DELETE, prices).hasAnyRole(admin)
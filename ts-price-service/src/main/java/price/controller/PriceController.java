@@ -1,5 +1,6 @@
 package price.controller;
 
+import edu.fudan.common.entity.FareQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +10,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import price.entity.PriceConfig;
+import price.service.FareMatrixPeers;
 import price.service.PriceService;
 
 import java.util.List;
@@ -47,6 +49,21 @@ public class PriceController {
         return ok(service.findByRouteIdsAndTrainTypes(ridsAndTts, headers));
     }
 
+    @PostMapping(value = "/prices/fares")
+    public HttpEntity queryFares(@RequestBody List<FareQuery> queries,
+                                 @RequestHeader HttpHeaders headers) {
+        PriceController.LOGGER.info("[queryFares][Query fares][queries: {}]", queries.size());
+        return ok(service.queryFares(queries, headers));
+    }
+
+    @DeleteMapping(value = "/prices/fares/{routeId}")
+    public HttpEntity evictFares(@PathVariable String routeId,
+                                 @RequestHeader(value = FareMatrixPeers.PEER_HEADER, defaultValue = "false") boolean peer,
+                                 @RequestHeader HttpHeaders headers) {
+        PriceController.LOGGER.info("[evictFares][Evict fares][RouteId: {}, peer: {}]", routeId, peer);
+        return ok(service.evictFares(routeId, peer, headers));
+    }
+
     @GetMapping(value = "/prices")
     public HttpEntity queryAll(@RequestHeader HttpHeaders headers) {
         PriceController.LOGGER.info("[findAllPriceConfig][Query all prices]");
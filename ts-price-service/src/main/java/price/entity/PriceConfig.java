@@ -3,6 +3,8 @@ package price.entity;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
@@ -14,6 +16,8 @@ import java.util.UUID;
 @Data
 @AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "price_config")
 @JsonIgnoreProperties(ignoreUnknown = true)
 @Table(indexes = {@Index(name = "route_type_idx", columnList = "train_type, route_id", unique = true)})
 public class PriceConfig {
@@ -1,12 +1,16 @@
 package price.repository;
 
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 import price.entity.PriceConfig;
+import javax.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 /**
  * @author fdse
  */
@@ -16,9 +20,10 @@ public interface PriceConfigRepository extends CrudRepository<PriceConfig, Strin
     @Override
     Optional<PriceConfig> findById(String id);
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     PriceConfig findByRouteIdAndTrainType(String routeId,String trainType);
 
-    @Query(value="SELECT * FROM price_config WHERE route_id IN ?1 AND train_type IN ?2", nativeQuery = true)
+    @Query("SELECT p FROM PriceConfig p WHERE p.routeId IN ?1 AND p.trainType IN ?2")
     List<PriceConfig> findByRouteIdsAndTrainTypes(List<String> routeIds, List<String> trainTypes);
 
     @Override
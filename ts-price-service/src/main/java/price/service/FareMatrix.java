@@ -0,0 +1,83 @@
+package price.service;
+
+import edu.fudan.common.entity.Route;
+import edu.fudan.common.util.Amount;
+import price.entity.PriceConfig;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The ticket prices between every ordered pair of stations of one route for one
+ * train type, computed once from the cumulative distances of the route and the
+ * rates of its price config. The prices are kept in the form the search results
+ * carry them, so a lookup returns a ready map.
+ *
+ * @author fdse
+ */
+public final class FareMatrix {
+
+    public static final String ECONOMY_CLASS = "economyClass";
+
+    public static final String CONFORT_CLASS = "confortClass";
+
+    private final Map<String, Integer> positions;
+
+    private final int stationCount;
+
+    /**
+     * prices of the pair (i, j) at i * stationCount + j, null unless i is before j
+     */
+    private final Map<String, Amount>[] prices;
+
+    private final long builtAt;
+
+    private FareMatrix(Map<String, Integer> positions, int stationCount, Map<String, Amount>[] prices) {
+        this.positions = positions;
+        this.stationCount = stationCount;
+        this.prices = prices;
+        this.builtAt = System.currentTimeMillis();
+    }
+
+    @SuppressWarnings("unchecked")
+    public static FareMatrix build(Route route, PriceConfig priceConfig) {
+        List<String> stations = route.getStations();
+        List<Integer> distances = route.getDistances();
+        int n = stations == null || distances == null ? 0 : Math.min(stations.size(), distances.size());
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            // the first stop wins, as with List.indexOf
+            positions.putIfAbsent(stations.get(i), i);
+        }
+        Map<String, Amount>[] prices = new Map[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                int distance = distances.get(j) - distances.get(i);
+                Map<String, Amount> pair = new HashMap<>(4);
+                pair.put(ECONOMY_CLASS, Amount.of(distance * priceConfig.getBasicPriceRate()));
+                pair.put(CONFORT_CLASS, Amount.of(distance * priceConfig.getFirstClassPriceRate()));
+                prices[i * n + j] = Collections.unmodifiableMap(pair);
+            }
+        }
+        return new FareMatrix(Collections.unmodifiableMap(positions), n, prices);
+    }
+
+    /**
+     * @return the prices from start to end, null if the route does not serve start before end
+     */
+    public Map<String, Amount> pricesOf(String startStation, String endStation) {
+        Integer start = positions.get(startStation);
+        Integer end = positions.get(endStation);
+        if (start == null || end == null || start >= end) {
+            return null;
+        }
+        return prices[start * stationCount + end];
+    }
+
+    public long getBuiltAt() {
+        return builtAt;
+    }
+
+}
@@ -0,0 +1,102 @@
+package price.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fare matrices by route id and train type. A matrix is dropped when the price
+ * config of its pair changes or its route is modified, and in any case after
+ * ttl-ms, in case a route change notice was missed.
+ *
+ * Every eviction moves the cache to a new generation. A matrix built from data read
+ * in an older generation is not kept, as an eviction may have raced with its build.
+ *
+ * @author fdse
+ */
+@Component
+public class FareMatrixCache {
+
+    private final Map<String, FareMatrix> matrices = new ConcurrentHashMap<>();
+
+    private final long ttlMillis;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    public FareMatrixCache(@Value("${price.fare-matrix.ttl-ms:600000}") long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * @return the live matrices of the given keys; missing keys are left out
+     */
+    public Map<String, FareMatrix> getAll(Collection<String> keys) {
+        long now = System.currentTimeMillis();
+        Map<String, FareMatrix> found = new HashMap<>();
+        for (String key : keys) {
+            FareMatrix matrix = matrices.get(key);
+            if (matrix != null && now - matrix.getBuiltAt() < ttlMillis) {
+                found.put(key, matrix);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return the current generation, to be read before the data of a matrix is read
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(String routeId, String trainType, FareMatrix matrix) {
+        matrices.put(keyOf(routeId, trainType), matrix);
+    }
+
+    /**
+     * Caches the matrix unless something was evicted since builtIn was read.
+     *
+     * @return whether the matrix was kept
+     */
+    public boolean putIfCurrent(String routeId, String trainType, FareMatrix matrix, long builtIn) {
+        String key = keyOf(routeId, trainType);
+        if (generation.get() != builtIn) {
+            return false;
+        }
+        matrices.put(key, matrix);
+        // an eviction between the check and the put may have missed the matrix
+        if (generation.get() != builtIn) {
+            matrices.remove(key, matrix);
+            return false;
+        }
+        return true;
+    }
+
+    public void evict(String routeId, String trainType) {
+        generation.incrementAndGet();
+        matrices.remove(keyOf(routeId, trainType));
+    }
+
+    /**
+     * Evicts the matrices of every train type on the route.
+     */
+    public void evictRoute(String routeId) {
+        String prefix = routeId + ":";
+        generation.incrementAndGet();
+        matrices.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    public int size() {
+        return matrices.size();
+    }
+
+    public static String keyOf(String routeId, String trainType) {
+        return routeId + ":" + trainType;
+    }
+
+}
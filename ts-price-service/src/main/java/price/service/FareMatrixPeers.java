@@ -0,0 +1,79 @@
+package price.service;
+
+import edu.fudan.common.security.jwt.InternalIdentity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Passes fare matrix evictions on to every instance of this service, so a route or
+ * price config change reaches the matrices cached by all replicas and not only by the
+ * one that handled the change.
+ *
+ * Each instance is called at its own address with the caller's credentials and
+ * PEER_HEADER, so it evicts its own matrices without passing the eviction on again.
+ * The gateway removes that header from client requests, so only another instance can
+ * stop the eviction from being passed on. A call that fails is only logged: the
+ * matrices of that instance expire on their own.
+ *
+ * @author fdse
+ */
+@Component
+public class FareMatrixPeers {
+
+    public static final String PEER_HEADER = InternalIdentity.HEADER_PREFIX + "Peer";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FareMatrixPeers.class);
+
+    private final DiscoveryClient discoveryClient;
+
+    private final RestTemplate restTemplate;
+
+    private final String serviceName;
+
+    @Autowired
+    public FareMatrixPeers(DiscoveryClient discoveryClient, RestTemplateBuilder builder,
+                           @Value("${spring.application.name:ts-price-service}") String serviceName,
+                           @Value("${price.fare-matrix.peer-timeout-ms:1000}") long timeoutMillis) {
+        this.discoveryClient = discoveryClient;
+        // instances are called by address, so not through the load balanced template
+        this.restTemplate = builder.setConnectTimeout(Duration.ofMillis(timeoutMillis))
+                .setReadTimeout(Duration.ofMillis(timeoutMillis)).build();
+        this.serviceName = serviceName;
+    }
+
+    /**
+     * Evicts the fare matrices of the route on every instance, this one included.
+     *
+     * @param headers headers of the request that changed the route or its prices
+     */
+    public void evictRoute(String routeId, HttpHeaders headers) {
+        HttpHeaders peerHeaders = InternalIdentity.credentialsOf(headers);
+        peerHeaders.set(PEER_HEADER, "true");
+        HttpEntity<Void> requestEntity = new HttpEntity<>(peerHeaders);
+        List<ServiceInstance> instances = discoveryClient.getInstances(serviceName);
+        for (ServiceInstance instance : instances) {
+            try {
+                restTemplate.exchange(instance.getUri() + "/api/v1/priceservice/prices/fares/" + routeId,
+                        HttpMethod.DELETE, requestEntity, Void.class);
+            } catch (Exception e) {
+                FareMatrixPeers.LOGGER.warn("[evictRoute][Evict fares on instance failed][RouteId: {}, instance: {}, exception: {}]",
+                        routeId, instance.getUri(), e.toString());
+            }
+        }
+        FareMatrixPeers.LOGGER.info("[evictRoute][Evict fares on instances][RouteId: {}, instances: {}]", routeId, instances.size());
+    }
+
+}
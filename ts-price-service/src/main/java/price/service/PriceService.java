@@ -1,5 +1,6 @@
 package price.service;
 
+import edu.fudan.common.entity.FareQuery;
 import edu.fudan.common.util.Response;
 import org.springframework.http.HttpHeaders;
 
@@ -28,4 +29,8 @@ public interface PriceService {
 
     Response updatePriceConfig(PriceConfig c, HttpHeaders headers);
 
+    Response queryFares(List<FareQuery> queries, HttpHeaders headers);
+
+    Response evictFares(String routeId, boolean peer, HttpHeaders headers);
+
 }
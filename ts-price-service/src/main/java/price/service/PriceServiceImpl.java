@@ -1,11 +1,19 @@
 package price.service;
 
+import edu.fudan.common.entity.FareQuery;
+import edu.fudan.common.entity.Route;
+import edu.fudan.common.util.Amount;
+import edu.fudan.common.util.JsonUtils;
 import edu.fudan.common.util.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
 import price.entity.PriceConfig;
 import price.repository.PriceConfigRepository;
 
@@ -21,10 +29,23 @@ public class PriceServiceImpl implements PriceService {
     @Autowired(required=true)
     private PriceConfigRepository priceConfigRepository;
 
+    @Autowired
+    private FareMatrixCache fareMatrixCache;
+
+    @Autowired
+    private FareMatrixPeers fareMatrixPeers;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(PriceServiceImpl.class);
 
     String noThatConfig = "No that config";
 
+    private String getServiceUrl(String serviceName) {
+        return "http://" + serviceName;
+    }
+
     @Override
     public Response createNewPriceConfig(PriceConfig createAndModifyPriceConfig, HttpHeaders headers) {
         PriceServiceImpl.LOGGER.info("[createNewPriceConfig]");
@@ -38,6 +59,7 @@ public class PriceServiceImpl implements PriceService {
             priceConfig.setRouteId(createAndModifyPriceConfig.getRouteId());
             priceConfig.setTrainType(createAndModifyPriceConfig.getTrainType());
             priceConfigRepository.save(priceConfig);
+            evictFareMatrix(priceConfig.getRouteId(), priceConfig.getTrainType(), headers);
         } else {
             // modify
             Optional<PriceConfig> op = priceConfigRepository.findById(createAndModifyPriceConfig.getId());
@@ -46,12 +68,14 @@ public class PriceServiceImpl implements PriceService {
                 priceConfig.setId(createAndModifyPriceConfig.getId());
             }else{
                 priceConfig = op.get();
+                evictFareMatrix(priceConfig.getRouteId(), priceConfig.getTrainType(), headers);
             }
             priceConfig.setBasicPriceRate(createAndModifyPriceConfig.getBasicPriceRate());
             priceConfig.setFirstClassPriceRate(createAndModifyPriceConfig.getFirstClassPriceRate());
             priceConfig.setRouteId(createAndModifyPriceConfig.getRouteId());
             priceConfig.setTrainType(createAndModifyPriceConfig.getTrainType());
             priceConfigRepository.save(priceConfig);
+            evictFareMatrix(priceConfig.getRouteId(), priceConfig.getTrainType(), headers);
         }
         return new Response<>(1, "Create success", priceConfig);
     }
@@ -131,6 +155,7 @@ public class PriceServiceImpl implements PriceService {
         } else {
             PriceConfig pc = op.get();
             priceConfigRepository.delete(pc);
+            evictFareMatrix(pc.getRouteId(), pc.getTrainType(), headers);
             return new Response<>(1, "Delete success", pc);
         }
     }
@@ -143,13 +168,109 @@ public class PriceServiceImpl implements PriceService {
             return new Response<>(0, noThatConfig, null);
         } else {
             PriceConfig priceConfig = op.get();
+            evictFareMatrix(priceConfig.getRouteId(), priceConfig.getTrainType(), headers);
             priceConfig.setId(c.getId());
             priceConfig.setBasicPriceRate(c.getBasicPriceRate());
             priceConfig.setFirstClassPriceRate(c.getFirstClassPriceRate());
             priceConfig.setRouteId(c.getRouteId());
             priceConfig.setTrainType(c.getTrainType());
             priceConfigRepository.save(priceConfig);
+            evictFareMatrix(priceConfig.getRouteId(), priceConfig.getTrainType(), headers);
             return new Response<>(1, "Update success", priceConfig);
         }
     }
+
+    @Override
+    public Response queryFares(List<FareQuery> queries, HttpHeaders headers) {
+        Set<String> keys = new HashSet<>();
+        for (FareQuery query : queries) {
+            keys.add(FareMatrixCache.keyOf(query.getRouteId(), query.getTrainType()));
+        }
+        Map<String, FareMatrix> matrices = fareMatrixCache.getAll(keys);
+        keys.removeAll(matrices.keySet());
+        if (!keys.isEmpty()) {
+            matrices.putAll(buildFareMatrices(keys, headers));
+        }
+        List<Map<String, Amount>> fares = new ArrayList<>(queries.size());
+        for (FareQuery query : queries) {
+            FareMatrix matrix = matrices.get(FareMatrixCache.keyOf(query.getRouteId(), query.getTrainType()));
+            fares.add(matrix == null ? null : matrix.pricesOf(query.getStartStation(), query.getEndStation()));
+        }
+        PriceServiceImpl.LOGGER.info("[queryFares][Query fares][queries: {}, matrix misses: {}]", queries.size(), keys.size());
+        return new Response<>(1, "Success", fares);
+    }
+
+    @Override
+    public Response evictFares(String routeId, boolean peer, HttpHeaders headers) {
+        fareMatrixCache.evictRoute(routeId);
+        PriceServiceImpl.LOGGER.info("[evictFares][Evict fare matrices][RouteId: {}, peer: {}]", routeId, peer);
+        if (!peer) {
+            fareMatrixPeers.evictRoute(routeId, headers);
+        }
+        return new Response<>(1, "Evict success", routeId);
+    }
+
+    /**
+     * evicts the fare matrix of the pair here, and the matrices of its route on every
+     * instance
+     */
+    private void evictFareMatrix(String routeId, String trainType, HttpHeaders headers) {
+        fareMatrixCache.evict(routeId, trainType);
+        fareMatrixPeers.evictRoute(routeId, headers);
+    }
+
+    /**
+     * builds and caches the fare matrices of the given keys, reading their price configs
+     * and routes in one call each
+     */
+    private Map<String, FareMatrix> buildFareMatrices(Set<String> keys, HttpHeaders headers) {
+        Set<String> routeIds = new HashSet<>();
+        Set<String> trainTypes = new HashSet<>();
+        for (String key : keys) {
+            String[] routeAndType = key.split(":", 2);
+            routeIds.add(routeAndType[0]);
+            trainTypes.add(routeAndType[1]);
+        }
+        Map<String, FareMatrix> built = new HashMap<>();
+        long generation = fareMatrixCache.generation();
+        List<PriceConfig> priceConfigs = new ArrayList<>();
+        for (PriceConfig pc : priceConfigRepository.findByRouteIdsAndTrainTypes(new ArrayList<>(routeIds), new ArrayList<>(trainTypes))) {
+            if (keys.contains(FareMatrixCache.keyOf(pc.getRouteId(), pc.getTrainType()))) {
+                priceConfigs.add(pc);
+            }
+        }
+        if (priceConfigs.isEmpty()) {
+            return built;
+        }
+        Map<String, Route> routes = queryRoutes(routeIds, headers);
+        for (PriceConfig pc : priceConfigs) {
+            Route route = routes.get(pc.getRouteId());
+            if (route != null) {
+                FareMatrix matrix = FareMatrix.build(route, pc);
+                fareMatrixCache.putIfCurrent(pc.getRouteId(), pc.getTrainType(), matrix, generation);
+                built.put(FareMatrixCache.keyOf(pc.getRouteId(), pc.getTrainType()), matrix);
+            }
+        }
+        PriceServiceImpl.LOGGER.info("[buildFareMatrices][Build fare matrices][requested: {}, built: {}]", keys.size(), built.size());
+        return built;
+    }
+
+    private Map<String, Route> queryRoutes(Set<String> routeIds, HttpHeaders headers) {
+        Map<String, Route> routes = new HashMap<>();
+        HttpEntity requestEntity = new HttpEntity(new ArrayList<>(routeIds), null);
+        ResponseEntity<Response> re = restTemplate.exchange(
+                getServiceUrl("ts-route-service") + "/api/v1/routeservice/routes/byIds",
+                HttpMethod.POST,
+                requestEntity,
+                Response.class);
+        Response result = re.getBody();
+        if (result == null || result.getStatus() == null || result.getStatus() != 1 || result.getData() == null) {
+            PriceServiceImpl.LOGGER.warn("[queryRoutes][Get routes by ids failed][RouteIds: {}]", routeIds);
+            return routes;
+        }
+        for (Route route : JsonUtils.conveterObject(result.getData(), Route[].class)) {
+            routes.put(route.getId(), route);
+        }
+        return routes;
+    }
 }
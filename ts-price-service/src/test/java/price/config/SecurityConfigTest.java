@@ -0,0 +1,85 @@
+package price.config;
+
+import edu.fudan.common.util.Response;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.client.AutoConfigureWebClient;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import price.controller.PriceController;
+import price.service.FareMatrixPeers;
+import price.service.PriceService;
+
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+
+@RunWith(SpringRunner.class)
+@WebMvcTest(PriceController.class)
+@AutoConfigureWebClient
+public class SecurityConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private PriceService service;
+
+    @Test
+    public void testEvictFaresAnonymous() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/v1/priceservice/prices/fares/route_id"))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+        Mockito.verifyZeroInteractions(service);
+    }
+
+    @Test
+    public void testEvictFaresAsUser() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/v1/priceservice/prices/fares/route_id")
+                .header(HttpHeaders.AUTHORIZATION, bearer("ROLE_USER")))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+        Mockito.verifyZeroInteractions(service);
+    }
+
+    @Test
+    public void testEvictFaresAsAdmin() throws Exception {
+        Mockito.when(service.evictFares(Mockito.eq("route_id"), Mockito.eq(false), Mockito.any()))
+                .thenReturn(new Response<>(1, "Evict success", "route_id"));
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/v1/priceservice/prices/fares/route_id")
+                .header(HttpHeaders.AUTHORIZATION, bearer("ROLE_ADMIN")))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    public void testEvictFaresFromPeer() throws Exception {
+        Mockito.when(service.evictFares(Mockito.eq("route_id"), Mockito.eq(true), Mockito.any()))
+                .thenReturn(new Response<>(1, "Evict success", "route_id"));
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/v1/priceservice/prices/fares/route_id")
+                .header(HttpHeaders.AUTHORIZATION, bearer("ROLE_ADMIN"))
+                .header(FareMatrixPeers.PEER_HEADER, "true"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        Mockito.verify(service).evictFares(Mockito.eq("route_id"), Mockito.eq(true), Mockito.any());
+    }
+
+    @Test
+    public void testQueryFaresAnonymous() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/priceservice/prices/fares")
+                .contentType("application/json").content("[]"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    private static String bearer(String role) {
+        return "Bearer " + Jwts.builder().setSubject("fdse_microservice").claim("roles", Collections.singletonList(role))
+                .setExpiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(SignatureAlgorithm.HS256, Base64.getEncoder().encodeToString("secret".getBytes())).compact();
+    }
+
+}
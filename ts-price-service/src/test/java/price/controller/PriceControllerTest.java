@@ -1,6 +1,7 @@
 package price.controller;
 
 import com.alibaba.fastjson.JSONObject;
+import edu.fudan.common.entity.FareQuery;
 import edu.fudan.common.util.Response;
 import org.junit.Assert;
 import org.junit.Before;
@@ -19,6 +20,9 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import price.entity.PriceConfig;
 import price.service.PriceService;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @RunWith(JUnit4.class)
 public class PriceControllerTest {
 
@@ -94,4 +98,15 @@ public class PriceControllerTest {
         Assert.assertEquals(response, JSONObject.parseObject(result, Response.class));
     }
 
+    @Test
+    public void testQueryFares() throws Exception {
+        List<FareQuery> queries = new ArrayList<>();
+        Mockito.when(service.queryFares(Mockito.anyList(), Mockito.any(HttpHeaders.class))).thenReturn(response);
+        String requestJson = JSONObject.toJSONString(queries);
+        String result = mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/priceservice/prices/fares").contentType(MediaType.APPLICATION_JSON).content(requestJson))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Assert.assertEquals(response, JSONObject.parseObject(result, Response.class));
+    }
+
 }
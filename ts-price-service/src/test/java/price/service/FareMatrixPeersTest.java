@@ -0,0 +1,75 @@
+package price.service;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mockito;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.match.MockRestRequestMatchers;
+import org.springframework.test.web.client.response.MockRestResponseCreators;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+@RunWith(JUnit4.class)
+public class FareMatrixPeersTest {
+
+    private DiscoveryClient discoveryClient;
+
+    private FareMatrixPeers fareMatrixPeers;
+
+    private MockRestServiceServer server;
+
+    @Before
+    public void setUp() {
+        discoveryClient = Mockito.mock(DiscoveryClient.class);
+        fareMatrixPeers = new FareMatrixPeers(discoveryClient, new RestTemplateBuilder(), "ts-price-service", 1000);
+        server = MockRestServiceServer.bindTo((RestTemplate) ReflectionTestUtils.getField(fareMatrixPeers, "restTemplate")).build();
+    }
+
+    @Test
+    public void testEvictRoute() {
+        List<ServiceInstance> instances = Arrays.asList(
+                new DefaultServiceInstance("price-1", "ts-price-service", "10.0.0.1", 16579, false),
+                new DefaultServiceInstance("price-2", "ts-price-service", "10.0.0.2", 16579, false));
+        Mockito.when(discoveryClient.getInstances("ts-price-service")).thenReturn(instances);
+        for (String host : Arrays.asList("10.0.0.1", "10.0.0.2")) {
+            server.expect(MockRestRequestMatchers.requestTo("http://" + host + ":16579/api/v1/priceservice/prices/fares/route_id"))
+                    .andExpect(MockRestRequestMatchers.method(HttpMethod.DELETE))
+                    .andExpect(MockRestRequestMatchers.header(FareMatrixPeers.PEER_HEADER, "true"))
+                    .andExpect(MockRestRequestMatchers.header(HttpHeaders.AUTHORIZATION, "Bearer admin_token"))
+                    .andRespond(MockRestResponseCreators.withSuccess());
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.AUTHORIZATION, "Bearer admin_token");
+        headers.set(HttpHeaders.CONTENT_TYPE, "application/json");
+        fareMatrixPeers.evictRoute("route_id", headers);
+        server.verify();
+    }
+
+    @Test
+    public void testEvictRouteInstanceDown() {
+        List<ServiceInstance> instances = Arrays.asList(
+                new DefaultServiceInstance("price-1", "ts-price-service", "10.0.0.1", 16579, false),
+                new DefaultServiceInstance("price-2", "ts-price-service", "10.0.0.2", 16579, false));
+        Mockito.when(discoveryClient.getInstances("ts-price-service")).thenReturn(instances);
+        server.expect(MockRestRequestMatchers.requestTo("http://10.0.0.1:16579/api/v1/priceservice/prices/fares/route_id"))
+                .andRespond(MockRestResponseCreators.withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+        server.expect(MockRestRequestMatchers.requestTo("http://10.0.0.2:16579/api/v1/priceservice/prices/fares/route_id"))
+                .andRespond(MockRestResponseCreators.withSuccess());
+        // a failed instance does not keep the others from evicting
+        fareMatrixPeers.evictRoute("route_id", new HttpHeaders());
+        server.verify();
+    }
+
+}
@@ -1,6 +1,10 @@
 package price.service;
 
+import edu.fudan.common.entity.FareQuery;
+import edu.fudan.common.entity.Route;
+import edu.fudan.common.util.Amount;
 import edu.fudan.common.util.Response;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -10,12 +14,22 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
 import price.entity.PriceConfig;
 import price.repository.PriceConfigRepository;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @RunWith(JUnit4.class)
@@ -27,6 +41,15 @@ public class PriceServiceImplTest {
     @Mock
     private PriceConfigRepository priceConfigRepository;
 
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Mock
+    private FareMatrixPeers fareMatrixPeers;
+
+    @Spy
+    private FareMatrixCache fareMatrixCache = new FareMatrixCache(600000);
+
     private HttpHeaders headers = new HttpHeaders();
 
     @Before
@@ -34,6 +57,12 @@ public class PriceServiceImplTest {
         MockitoAnnotations.initMocks(this);
     }
 
+    @After
+    public void tearDown() {
+        // report matchers left over by a failed stubbing on the test that left them
+        Mockito.validateMockitoUsage();
+    }
+
     @Test
     public void testCreateNewPriceConfig1() {
         PriceConfig createAndModifyPriceConfig = new PriceConfig();
@@ -92,7 +121,7 @@ public class PriceServiceImplTest {
     @Test
     public void testDeletePriceConfig1() {
         PriceConfig c = new PriceConfig();
-        Mockito.when(priceConfigRepository.findById(Mockito.any(UUID.class).toString())).thenReturn(null);
+        Mockito.when(priceConfigRepository.findById(Mockito.any())).thenReturn(Optional.empty());
         Response result = priceServiceImpl.deletePriceConfig(c.getId(), headers);
         Assert.assertEquals(new Response<>(0, "No that config", null), result);
     }
@@ -109,7 +138,7 @@ public class PriceServiceImplTest {
     @Test
     public void testUpdatePriceConfig1() {
         PriceConfig c = new PriceConfig();
-        Mockito.when(priceConfigRepository.findById(Mockito.any(UUID.class).toString())).thenReturn(null);
+        Mockito.when(priceConfigRepository.findById(Mockito.any())).thenReturn(Optional.empty());
         Response result = priceServiceImpl.updatePriceConfig(c, headers);
         Assert.assertEquals(new Response<>(0, "No that config", null), result);
     }
@@ -123,4 +152,101 @@ public class PriceServiceImplTest {
         Assert.assertEquals(new Response<>(1, "Update success", c), result);
     }
 
+    @Test
+    public void testQueryFares() {
+        Route route = new Route("route_id", Arrays.asList("shanghai", "nanjing", "taiyuan"), Arrays.asList(0, 350, 1300), "shanghai", "taiyuan");
+        Mockito.when(priceConfigRepository.findByRouteIdsAndTrainTypes(Mockito.anyList(), Mockito.anyList()))
+                .thenReturn(Collections.singletonList(new PriceConfig("pc_id", "GaoTieOne", "route_id", 0.5, 1.0)));
+        mockRoutes(route);
+        List<FareQuery> queries = Arrays.asList(
+                new FareQuery("route_id", "GaoTieOne", "shanghai", "taiyuan"),
+                new FareQuery("route_id", "GaoTieOne", "nanjing", "taiyuan"),
+                new FareQuery("route_id", "GaoTieOne", "taiyuan", "shanghai"),
+                new FareQuery("route_id", "DongCheOne", "shanghai", "taiyuan"));
+        Response result = priceServiceImpl.queryFares(queries, headers);
+        List<Map<String, Amount>> fares = (List<Map<String, Amount>>) result.getData();
+        Assert.assertEquals(Amount.parse("650.0"), fares.get(0).get("economyClass"));
+        Assert.assertEquals(Amount.parse("1300.0"), fares.get(0).get("confortClass"));
+        Assert.assertEquals(Amount.parse("475.0"), fares.get(1).get("economyClass"));
+        Assert.assertNull(fares.get(2));
+        Assert.assertNull(fares.get(3));
+
+        // the matrix is reused, only the train type without price config is looked up again
+        priceServiceImpl.queryFares(queries.subList(0, 2), headers);
+        Mockito.verify(priceConfigRepository, Mockito.times(1)).findByRouteIdsAndTrainTypes(Mockito.anyList(), Mockito.anyList());
+        Mockito.verify(restTemplate, Mockito.times(1)).exchange(Mockito.anyString(), Mockito.any(HttpMethod.class),
+                Mockito.any(HttpEntity.class), Mockito.eq(Response.class));
+    }
+
+    @Test
+    public void testQueryFaresAfterPriceConfigUpdate() {
+        Route route = new Route("route_id", Arrays.asList("shanghai", "taiyuan"), Arrays.asList(0, 1000), "shanghai", "taiyuan");
+        PriceConfig pc = new PriceConfig("pc_id", "GaoTieOne", "route_id", 0.5, 1.0);
+        Mockito.when(priceConfigRepository.findByRouteIdsAndTrainTypes(Mockito.anyList(), Mockito.anyList()))
+                .thenReturn(Collections.singletonList(pc));
+        Mockito.when(priceConfigRepository.findById("pc_id")).thenReturn(Optional.of(pc));
+        mockRoutes(route);
+        List<FareQuery> queries = Collections.singletonList(new FareQuery("route_id", "GaoTieOne", "shanghai", "taiyuan"));
+        priceServiceImpl.queryFares(queries, headers);
+
+        priceServiceImpl.updatePriceConfig(new PriceConfig("pc_id", "GaoTieOne", "route_id", 0.8, 1.0), headers);
+        Response result = priceServiceImpl.queryFares(queries, headers);
+        Assert.assertEquals(Amount.parse("800.0"), ((List<Map<String, Amount>>) result.getData()).get(0).get("economyClass"));
+    }
+
+    @Test
+    public void testEvictFares() {
+        FareMatrix matrix = FareMatrix.build(new Route("route_id", Arrays.asList("shanghai", "taiyuan"), Arrays.asList(0, 1000), "shanghai", "taiyuan"),
+                new PriceConfig("pc_id", "GaoTieOne", "route_id", 0.5, 1.0));
+        fareMatrixCache.put("route_id", "GaoTieOne", matrix);
+        fareMatrixCache.put("route_id", "DongCheOne", matrix);
+        fareMatrixCache.put("other_route_id", "GaoTieOne", matrix);
+        Response result = priceServiceImpl.evictFares("route_id", false, headers);
+        Assert.assertEquals(new Response<>(1, "Evict success", "route_id"), result);
+        Assert.assertEquals(1, fareMatrixCache.size());
+        Mockito.verify(fareMatrixPeers).evictRoute("route_id", headers);
+    }
+
+    @Test
+    public void testEvictFaresFromPeer() {
+        Response result = priceServiceImpl.evictFares("route_id", true, headers);
+        Assert.assertEquals(new Response<>(1, "Evict success", "route_id"), result);
+        Mockito.verify(fareMatrixPeers, Mockito.never()).evictRoute(Mockito.anyString(), Mockito.any(HttpHeaders.class));
+    }
+
+    @Test
+    public void testPriceConfigUpdateEvictsOnPeers() {
+        PriceConfig pc = new PriceConfig("pc_id", "GaoTieOne", "route_id", 0.5, 1.0);
+        Mockito.when(priceConfigRepository.findById("pc_id")).thenReturn(Optional.of(pc));
+        priceServiceImpl.updatePriceConfig(new PriceConfig("pc_id", "GaoTieOne", "other_route_id", 0.8, 1.0), headers);
+        Mockito.verify(fareMatrixPeers).evictRoute("route_id", headers);
+        Mockito.verify(fareMatrixPeers).evictRoute("other_route_id", headers);
+    }
+
+    @Test
+    public void testQueryFaresRacingEviction() {
+        Route route = new Route("route_id", Arrays.asList("shanghai", "taiyuan"), Arrays.asList(0, 1000), "shanghai", "taiyuan");
+        Mockito.when(priceConfigRepository.findByRouteIdsAndTrainTypes(Mockito.anyList(), Mockito.anyList()))
+                .thenReturn(Collections.singletonList(new PriceConfig("pc_id", "GaoTieOne", "route_id", 0.5, 1.0)));
+        // the route changes while its matrix is being built
+        Mockito.when(restTemplate.exchange(Mockito.anyString(), Mockito.eq(HttpMethod.POST), Mockito.any(HttpEntity.class), Mockito.eq(Response.class)))
+                .thenAnswer(invocation -> {
+                    priceServiceImpl.evictFares("route_id", true, headers);
+                    return new ResponseEntity<>(new Response<>(1, "Success", Collections.singletonList(route)), HttpStatus.OK);
+                });
+        List<FareQuery> queries = Collections.singletonList(new FareQuery("route_id", "GaoTieOne", "shanghai", "taiyuan"));
+        Response result = priceServiceImpl.queryFares(queries, headers);
+        Assert.assertEquals(Amount.parse("500.0"), ((List<Map<String, Amount>>) result.getData()).get(0).get("economyClass"));
+        Assert.assertEquals(0, fareMatrixCache.size());
+    }
+
+    private void mockRoutes(Route... routes) {
+        Mockito.when(restTemplate.exchange(
+                Mockito.eq("http://ts-route-service/api/v1/routeservice/routes/byIds"),
+                Mockito.eq(HttpMethod.POST),
+                Mockito.any(HttpEntity.class),
+                Mockito.eq(Response.class)))
+                .thenReturn(new ResponseEntity<>(new Response<>(1, "Success", Arrays.asList(routes)), HttpStatus.OK));
+    }
+
 }
@@ -4,6 +4,7 @@ import edu.fudan.common.entity.Trip;
 import edu.fudan.common.entity.TripAllDetail;
 import edu.fudan.common.entity.TripAllDetailInfo;
 import edu.fudan.common.entity.TripResponse;
+import edu.fudan.common.util.Amount;
 import edu.fudan.common.util.JsonUtils;
 import edu.fudan.common.util.Response;
 import edu.fudan.common.util.StringUtils;
@@ -22,7 +23,6 @@ import org.springframework.web.client.RestTemplate;
 import edu.fudan.common.entity.*;
 import rebook.entity.*;
 
-import java.math.BigDecimal;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
@@ -112,18 +112,17 @@ public class RebookServiceImpl implements RebookService {
         //Deal with the difference, more refund less compensation
         //Return the original ticket so that someone else can book the corresponding seat
 
-        String ticketPrice = "0";
+        Amount ticketPrice = Amount.ZERO;
         if (info.getSeatType() == SeatClass.FIRSTCLASS.getCode()) {
             ticketPrice = ((TripAllDetail) gtdr.getData()).getTripResponse().getPriceForConfortClass();
         } else if (info.getSeatType() == SeatClass.SECONDCLASS.getCode()) {
             ticketPrice = ((TripAllDetail) gtdr.getData()).getTripResponse().getPriceForEconomyClass();
         }
-        String oldPrice = order.getPrice();
-        BigDecimal priceOld = new BigDecimal(oldPrice);
-        BigDecimal priceNew = new BigDecimal(ticketPrice);
+        Amount priceOld = order.getPrice();
+        Amount priceNew = ticketPrice;
         if (priceOld.compareTo(priceNew) > 0) {
             //Refund the difference
-            String difference = priceOld.subtract(priceNew).toString();
+            String difference = priceOld.minus(priceNew).toString();
             if (!drawBackMoney(info.getLoginId(), difference, httpHeaders)) {
                 RebookServiceImpl.LOGGER.warn("[rebook][Rebook warn][Can't draw back the difference money][OrderId: {},LoginId: {},difference: {}]",info.getOrderId(),info.getLoginId(),difference);
                 return new Response<>(0, "Can't draw back the difference money, please try again!", null);
@@ -135,7 +134,7 @@ public class RebookServiceImpl implements RebookService {
             return updateOrder(order, info, (TripAllDetail) gtdr.getData(), ticketPrice, httpHeaders);
         } else {
             //make up the difference
-            String difference = priceNew.subtract(priceOld).toString();
+            String difference = priceNew.minus(priceOld).toString();
             Order orderMoneyDifference = new Order();
             orderMoneyDifference.setDifferenceMoney(difference);
             return new Response<>(2, "Please pay the different money!", orderMoneyDifference);
@@ -163,17 +162,16 @@ public class RebookServiceImpl implements RebookService {
         TripAllDetail gtdr = (TripAllDetail) gtdrResposne.getData();
 
 
-        String ticketPrice = "0";
+        Amount ticketPrice = Amount.ZERO;
         if (info.getSeatType() == SeatClass.FIRSTCLASS.getCode()) {
             ticketPrice = gtdr.getTripResponse().getPriceForConfortClass();
         } else if (info.getSeatType() == SeatClass.SECONDCLASS.getCode()) {
             ticketPrice = gtdr.getTripResponse().getPriceForEconomyClass();
         }
-        String oldPrice = order.getPrice();
-        BigDecimal priceOld = new BigDecimal(oldPrice);
-        BigDecimal priceNew = new BigDecimal(ticketPrice);
+        Amount priceOld = order.getPrice();
+        Amount priceNew = ticketPrice;
 
-        if (payDifferentMoney(info.getOrderId(), info.getTripId(), info.getLoginId(), priceNew.subtract(priceOld).toString(), httpHeaders)) {
+        if (payDifferentMoney(info.getOrderId(), info.getTripId(), info.getLoginId(), priceNew.minus(priceOld).toString(), httpHeaders)) {
             return updateOrder(order, info, gtdr, ticketPrice, httpHeaders);
         } else {
             RebookServiceImpl.LOGGER.warn("[payDifference][Pay difference warn][Can't pay the difference money][OrderId: {},LoginId: {},TripId: {}]",info.getOrderId(),info.getLoginId(),info.getTripId());
@@ -181,7 +179,7 @@ public class RebookServiceImpl implements RebookService {
         }
     }
 
-    private Response updateOrder(Order order, RebookInfo info, TripAllDetail gtdr, String ticketPrice, HttpHeaders httpHeaders) {
+    private Response updateOrder(Order order, RebookInfo info, TripAllDetail gtdr, Amount ticketPrice, HttpHeaders httpHeaders) {
 
         //4.Modify the original order and set the information of the order
         Trip trip = gtdr.getTrip();
@@ -4,6 +4,7 @@ import edu.fudan.common.entity.Seat;
 import edu.fudan.common.entity.Ticket;
 import edu.fudan.common.entity.TripAllDetail;
 import edu.fudan.common.entity.TripResponse;
+import edu.fudan.common.util.Amount;
 import edu.fudan.common.util.Response;
 import edu.fudan.common.util.StringUtils;
 import org.junit.Assert;
@@ -50,7 +51,7 @@ public class RebookServiceImplTest {
         order.setStatus(1);
         order.setFrom("from_station");
         order.setTo("to_station");
-        order.setPrice("1.0");
+        order.setPrice(Amount.parse("1.0"));
         String date = StringUtils.Date2String(new Date());
         order.setTravelDate(date);
         order.setTravelTime(date);
@@ -61,7 +62,7 @@ public class RebookServiceImplTest {
         TripAllDetail tripAllDetail = new TripAllDetail();
         TripResponse tripResponse = new TripResponse();
         tripResponse.setConfortClass(1);
-        tripResponse.setPriceForConfortClass("2.0");
+        tripResponse.setPriceForConfortClass(Amount.parse("2.0"));
         tripAllDetail.setTripResponse(tripResponse);
         Response<TripAllDetail> response2 = new Response<>(1, null, tripAllDetail);
         ResponseEntity<Response<TripAllDetail>> re2 = new ResponseEntity<>(response2, HttpStatus.OK);
@@ -100,7 +101,7 @@ public class RebookServiceImplTest {
         Order order = new Order();
         order.setFrom("from_station");
         order.setTo("to_station");
-        order.setPrice("0");
+        order.setPrice(Amount.ZERO);
         Response<Order> response = new Response<>(1, null, order);
         ResponseEntity<Response<Order>> re = new ResponseEntity<>(response, HttpStatus.OK);
 
@@ -7,6 +7,7 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
 import edu.fudan.common.entity.RoutePlanInfo;
+import plan.entity.JourneyCriterion;
 import plan.service.RoutePlanService;
 
 import static org.springframework.http.ResponseEntity.ok;
@@ -45,4 +46,22 @@ public class RoutePlanController {
         return ok(routePlanService.searchMinStopStations(info, headers));
     }
 
+    @PostMapping(value = "/routePlan/journeys/cheapest")
+    public HttpEntity getCheapestJourneys(@RequestBody RoutePlanInfo info, @RequestHeader HttpHeaders headers) {
+        RoutePlanController.LOGGER.info("[searchJourneys][Get Cheapest Journeys][From: {}, To: {}, Date: {}]", info.getStartStation(), info.getEndStation(), info.getTravelDate());
+        return ok(routePlanService.searchJourneys(info, JourneyCriterion.CHEAPEST, headers));
+    }
+
+    @PostMapping(value = "/routePlan/journeys/quickest")
+    public HttpEntity getQuickestJourneys(@RequestBody RoutePlanInfo info, @RequestHeader HttpHeaders headers) {
+        RoutePlanController.LOGGER.info("[searchJourneys][Get Quickest Journeys][From: {}, To: {}, Date: {}]", info.getStartStation(), info.getEndStation(), info.getTravelDate());
+        return ok(routePlanService.searchJourneys(info, JourneyCriterion.QUICKEST, headers));
+    }
+
+    @PostMapping(value = "/routePlan/journeys/minStops")
+    public HttpEntity getMinStopJourneys(@RequestBody RoutePlanInfo info, @RequestHeader HttpHeaders headers) {
+        RoutePlanController.LOGGER.info("[searchJourneys][Get Min Stop Journeys][From: {}, To: {}, Date: {}]", info.getStartStation(), info.getEndStation(), info.getTravelDate());
+        return ok(routePlanService.searchJourneys(info, JourneyCriterion.MIN_STOPS, headers));
+    }
+
 }
@@ -0,0 +1,40 @@
+package plan.entity;
+
+import edu.fudan.common.entity.RoutePlanResultUnit;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A planned journey, one leg per trip taken.
+ *
+ * @author fdse
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Journey {
+
+    private String startStation;
+
+    private String endStation;
+
+    private String startTime;
+
+    private String endTime;
+
+    private int durationMinutes;
+
+    private int stopCount;
+
+    private int transferCount;
+
+    private String priceForSecondClassSeat;
+
+    private String priceForFirstClassSeat;
+
+    private List<RoutePlanResultUnit> legs;
+
+}
@@ -0,0 +1,21 @@
+package plan.entity;
+
+/**
+ * @author fdse
+ */
+public enum JourneyCriterion {
+
+    /**
+     * lowest second class price
+     */
+    CHEAPEST,
+    /**
+     * shortest time from first departure to last arrival
+     */
+    QUICKEST,
+    /**
+     * fewest stations passed
+     */
+    MIN_STOPS
+
+}
@@ -3,6 +3,7 @@ package plan.service;
 import edu.fudan.common.util.Response;
 import org.springframework.http.HttpHeaders;
 import edu.fudan.common.entity.RoutePlanInfo;
+import plan.entity.JourneyCriterion;
 
 /**
  * @author fdse
@@ -36,4 +37,14 @@ public interface RoutePlanService {
      */
     Response searchMinStopStations(RoutePlanInfo info, HttpHeaders headers);
 
+    /**
+     * plan journeys, including transfers, on the in-memory timetable
+     *
+     * @param info route plan info
+     * @param criterion ranking criterion
+     * @param headers headers
+     * @return Response
+     */
+    Response searchJourneys(RoutePlanInfo info, JourneyCriterion criterion, HttpHeaders headers);
+
 }
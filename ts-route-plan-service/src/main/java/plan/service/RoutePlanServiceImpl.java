@@ -3,6 +3,7 @@ package plan.service;
 import edu.fudan.common.entity.*;
 import edu.fudan.common.util.Response;
 import edu.fudan.common.util.StringUtils;
+import org.apache.skywalking.apm.toolkit.trace.CallableWrapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,11 +14,23 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.web.client.RestTemplate;
+import plan.entity.Journey;
+import plan.entity.JourneyCriterion;
+import plan.timetable.JourneyPlanner;
+import plan.timetable.Timetable;
+import plan.timetable.TimetableLoader;
+import plan.util.TopK;
 
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.ToDoubleFunction;
 
 /**
  * @author fdse
@@ -29,7 +42,12 @@ public class RoutePlanServiceImpl implements RoutePlanService {
     private RestTemplate restTemplate;
     @Autowired
     private DiscoveryClient discoveryClient;
+    @Autowired
+    private TimetableLoader timetableLoader;
+    @Autowired
+    private JourneyPlanner journeyPlanner;
     private static final Logger LOGGER = LoggerFactory.getLogger(RoutePlanServiceImpl.class);
+    private static final ExecutorService executorService = Executors.newFixedThreadPool(20, new CustomizableThreadFactory("HttpClientThreadPool-"));
 
     private String getServiceUrl(String serviceName) {
         return "http://" + serviceName;
@@ -37,124 +55,71 @@ public class RoutePlanServiceImpl implements RoutePlanService {
 
     @Override
     public Response searchCheapestResult(RoutePlanInfo info, HttpHeaders headers) {
-
-        //1.Violence pulls out all the results of travel-service and travle2-service
-        TripInfo queryInfo = new TripInfo();
-        queryInfo.setStartPlace(info.getStartStation());
-        queryInfo.setEndPlace(info.getEndStation());
-        queryInfo.setDepartureTime(info.getTravelDate());
-
-        ArrayList<TripResponse> highSpeed = getTripFromHighSpeedTravelServive(queryInfo, headers);
-        ArrayList<TripResponse> normalTrain = getTripFromNormalTrainTravelService(queryInfo, headers);
-
-        //2.Sort by second-class seats
-        ArrayList<TripResponse> finalResult = new ArrayList<>();
-        finalResult.addAll(highSpeed);
-        finalResult.addAll(normalTrain);
-
-        float minPrice;
-        int minIndex = -1;
-        int size = Math.min(5, finalResult.size());
-        ArrayList<TripResponse> returnResult = new ArrayList<>();
-        for (int i = 0; i < size; i++) {
-
-            minPrice = Float.MAX_VALUE;
-            for (int j = 0; j < finalResult.size(); j++) {
-                TripResponse thisRes = finalResult.get(j);
-                if (Float.parseFloat(thisRes.getPriceForEconomyClass()) < minPrice) {
-                    minPrice = Float.parseFloat(finalResult.get(j).getPriceForEconomyClass());
-                    minIndex = j;
-                }
-            }
-            returnResult.add(finalResult.get(minIndex));
-            finalResult.remove(minIndex);
-        }
-
-
-        ArrayList<RoutePlanResultUnit> units = new ArrayList<>();
-        for (int i = 0; i < returnResult.size(); i++) {
-            TripResponse tempResponse = returnResult.get(i);
-
-            RoutePlanResultUnit tempUnit = new RoutePlanResultUnit();
-            tempUnit.setTripId(tempResponse.getTripId().toString());
-            tempUnit.setTrainTypeName(tempResponse.getTrainTypeName());
-            tempUnit.setStartStation(tempResponse.getStartStation());
-            tempUnit.setEndStation(tempResponse.getTerminalStation());
-            tempUnit.setStopStations(getStationList(tempResponse.getTripId().toString(), headers));
-            tempUnit.setPriceForSecondClassSeat(tempResponse.getPriceForEconomyClass());
-            tempUnit.setPriceForFirstClassSeat(tempResponse.getPriceForConfortClass());
-            tempUnit.setEndTime(tempResponse.getEndTime());
-            tempUnit.setStartTime(tempResponse.getStartTime());
-
-            units.add(tempUnit);
-        }
-
-        return new Response<>(1, "Success", units);
+        //1.Pull the results of travel-service and travel2-service concurrently, keeping the 5 cheapest by second-class seat
+        List<TripResponse> returnResult = searchTopTrips(info,
+                tripResponse -> tripResponse.getPriceForEconomyClass().getCents(), headers);
+        //2.Fill in the stop stations
+        return new Response<>(1, "Success", toResultUnits(returnResult, headers));
     }
 
     @Override
     public Response searchQuickestResult(RoutePlanInfo info, HttpHeaders headers) {
+        //1.Pull the results of travel-service and travel2-service concurrently, keeping the 5 quickest
+        List<TripResponse> returnResult = searchTopTrips(info,
+                tripResponse -> StringUtils.String2Date(tripResponse.getEndTime()).getTime()
+                        - StringUtils.String2Date(tripResponse.getStartTime()).getTime(), headers);
+        //2.Fill in the stop stations
+        return new Response<>(1, "Success", toResultUnits(returnResult, headers));
+    }
 
-        //1.Violence pulls out all the results of travel-service and travle2-service
+    private List<TripResponse> searchTopTrips(RoutePlanInfo info, ToDoubleFunction<TripResponse> key, HttpHeaders headers) {
         TripInfo queryInfo = new TripInfo();
         queryInfo.setStartPlace(info.getStartStation());
         queryInfo.setEndPlace(info.getEndStation());
         queryInfo.setDepartureTime(info.getTravelDate());
 
-        ArrayList<TripResponse> highSpeed = getTripFromHighSpeedTravelServive(queryInfo, headers);
-        ArrayList<TripResponse> normalTrain = getTripFromNormalTrainTravelService(queryInfo, headers);
-
-        //2.Sort by time
-        ArrayList<TripResponse> finalResult = new ArrayList<>();
-
-        for (TripResponse tr : highSpeed) {
-            finalResult.add(tr);
-        }
-        for (TripResponse tr : normalTrain) {
-            finalResult.add(tr);
-        }
-
-        long minTime;
-        int minIndex = -1;
-        int size = Math.min(finalResult.size(), 5);
-        ArrayList<TripResponse> returnResult = new ArrayList<>();
-        for (int i = 0; i < size; i++) {
-
-            minTime = Long.MAX_VALUE;
-            for (int j = 0; j < finalResult.size(); j++) {
-                TripResponse thisRes = finalResult.get(j);
-                Date endTime = StringUtils.String2Date(thisRes.getEndTime());
-                Date startTime = StringUtils.String2Date(thisRes.getStartTime());
-                if (endTime.getTime() - startTime.getTime() < minTime) {
-                    minTime = endTime.getTime() - startTime.getTime();
-                    minIndex = j;
-                }
-            }
-            returnResult.add(finalResult.get(minIndex));
-            finalResult.remove(minIndex);
+        //Each travel service merges its results into the top 5 as soon as it responds
+        TopK<TripResponse> topK = new TopK<>(5, key);
+        Future<Void> highSpeed = executorService.submit(CallableWrapper.of(() -> {
+            topK.offerAll(0, getTripFromHighSpeedTravelServive(queryInfo, headers));
+            return null;
+        }));
+        Future<Void> normalTrain = executorService.submit(CallableWrapper.of(() -> {
+            topK.offerAll(1, getTripFromNormalTrainTravelService(queryInfo, headers));
+            return null;
+        }));
+        awaitTrips(highSpeed, "ts-travel-service");
+        awaitTrips(normalTrain, "ts-travel2-service");
+        return topK.toList();
+    }
 
+    private void awaitTrips(Future<Void> future, String serviceName) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            RoutePlanServiceImpl.LOGGER.error("[awaitTrips][Interrupted while querying trips][service: {}]", serviceName);
+        } catch (ExecutionException e) {
+            RoutePlanServiceImpl.LOGGER.error("[awaitTrips][Query trips error][service: {}, error: {}]", serviceName, e.getCause().toString());
         }
+    }
 
-
+    private ArrayList<RoutePlanResultUnit> toResultUnits(List<TripResponse> returnResult, HttpHeaders headers) {
         ArrayList<RoutePlanResultUnit> units = new ArrayList<>();
-        for (int i = 0; i < returnResult.size(); i++) {
-            TripResponse tempResponse = returnResult.get(i);
-
+        for (TripResponse tempResponse : returnResult) {
             RoutePlanResultUnit tempUnit = new RoutePlanResultUnit();
             tempUnit.setTripId(tempResponse.getTripId().toString());
             tempUnit.setTrainTypeName(tempResponse.getTrainTypeName());
             tempUnit.setStartStation(tempResponse.getStartStation());
             tempUnit.setEndStation(tempResponse.getTerminalStation());
-
             tempUnit.setStopStations(getStationList(tempResponse.getTripId().toString(), headers));
-
             tempUnit.setPriceForSecondClassSeat(tempResponse.getPriceForEconomyClass());
             tempUnit.setPriceForFirstClassSeat(tempResponse.getPriceForConfortClass());
             tempUnit.setStartTime(tempResponse.getStartTime());
             tempUnit.setEndTime(tempResponse.getEndTime());
             units.add(tempUnit);
         }
-        return new Response<>(1, "Success", units);
+        return units;
     }
 
     @Override
@@ -162,44 +127,28 @@ public class RoutePlanServiceImpl implements RoutePlanService {
         String fromStationId = info.getStartStation();
         String toStationId = info.getEndStation();
         RoutePlanServiceImpl.LOGGER.info("[searchMinStopStations][Start and Finish][From Id: {} To: {}]", fromStationId , toStationId);
-        //1.Get the route through the two stations
+        //1.Get the routes serving the two stations, with the positions of the stations on each route
 
         HttpEntity requestEntity = new HttpEntity(null);
         String route_service_url = getServiceUrl("ts-route-service");
-        ResponseEntity<Response<ArrayList<Route>>> re = restTemplate.exchange(
-                route_service_url + "/api/v1/routeservice/routes/" + info.getStartStation() + "/" + info.getEndStation(),
+        ResponseEntity<Response<ArrayList<RouteSegment>>> re = restTemplate.exchange(
+                route_service_url + "/api/v1/routeservice/routes/segments/" + fromStationId + "/" + toStationId,
                 HttpMethod.GET,
                 requestEntity,
-                new ParameterizedTypeReference<Response<ArrayList<Route>>>() {
+                new ParameterizedTypeReference<Response<ArrayList<RouteSegment>>>() {
                 });
 
 
-        ArrayList<Route> routeList = re.getBody().getData();
-        RoutePlanServiceImpl.LOGGER.info("[searchMinStopStations][Get the route][Candidate Route Number: {}]", routeList.size());
-        //2.Calculate how many stops there are between the two stations
-        ArrayList<Integer> gapList = new ArrayList<>();
-        for (int i = 0; i < routeList.size(); i++) {
-            int indexStart = routeList.get(i).getStations().indexOf(fromStationId);
-            int indexEnd = routeList.get(i).getStations().indexOf(toStationId);
-            gapList.add(indexEnd - indexStart);
-        }
-        //3.Pick the routes with the fewest stops
+        ArrayList<RouteSegment> segmentList = re.getBody().getData();
+        RoutePlanServiceImpl.LOGGER.info("[searchMinStopStations][Get the route][Candidate Route Number: {}]", segmentList == null ? 0 : segmentList.size());
+        //2.Pick the routes with the fewest stops between the two stations
+        TopK<RouteSegment> fewestStops = new TopK<>(5, RouteSegment::getStopCount);
+        fewestStops.offerAll(0, segmentList);
         ArrayList<String> resultRoutes = new ArrayList<>();
-        int size = Math.min(5, routeList.size());
-        for (int i = 0; i < size; i++) {
-            int minIndex = 0;
-            int tempMinGap = Integer.MAX_VALUE;
-            for (int j = 0; j < gapList.size(); j++) {
-                if (gapList.get(j) < tempMinGap) {
-                    tempMinGap = gapList.get(j);
-                    minIndex = j;
-                }
-            }
-            resultRoutes.add(routeList.get(minIndex).getId());
-            routeList.remove(minIndex);
-            gapList.remove(minIndex);
+        for (RouteSegment segment : fewestStops.toList()) {
+            resultRoutes.add(segment.getRouteId());
         }
-        //4.Depending on the route, go to travel-service or travel2service to get the train information
+        //3.Depending on the route, go to travel-service or travel2service to get the train information
         requestEntity = new HttpEntity(resultRoutes, null);
         String travel_service_url=getServiceUrl("ts-travel-service");
         ResponseEntity<Response<ArrayList<ArrayList<Trip>>>> re2 = restTemplate.exchange(
@@ -228,7 +177,7 @@ public class RoutePlanServiceImpl implements RoutePlanService {
             finalTripResult.add(tempList);
         }
         RoutePlanServiceImpl.LOGGER.info("[searchMinStopStations][Get train Information][Trips Num: {}]", finalTripResult.size());
-        //5.Then, get the price and the station information according to the train information
+        //4.Then, get the price and the station information according to the train information
         ArrayList<Trip> trips = new ArrayList<>();
         for (ArrayList<Trip> tempTrips : finalTripResult) {
             trips.addAll(tempTrips);
@@ -283,6 +232,25 @@ public class RoutePlanServiceImpl implements RoutePlanService {
         return new Response<>(1, "Success.", tripResponses);
     }
 
+    @Override
+    public Response searchJourneys(RoutePlanInfo info, JourneyCriterion criterion, HttpHeaders headers) {
+        Timetable timetable = timetableLoader.current();
+        if (timetable == null) {
+            RoutePlanServiceImpl.LOGGER.error("[searchJourneys][Timetable not available]");
+            return new Response<>(0, "Timetable not available", null);
+        }
+        if (info.getTravelDate() == null || info.getTravelDate().length() < 10) {
+            RoutePlanServiceImpl.LOGGER.error("[searchJourneys][Invalid travel date][travelDate: {}]", info.getTravelDate());
+            return new Response<>(0, "Invalid travel date", null);
+        }
+        Date travelDate = StringUtils.String2Date(info.getTravelDate().substring(0, 10));
+        List<Journey> journeys = journeyPlanner.plan(timetable, info.getStartStation(), info.getEndStation(),
+                criterion, 5, travelDate);
+        RoutePlanServiceImpl.LOGGER.info("[searchJourneys][Journeys planned][criterion: {}, timetable version: {}, journeys: {}]",
+                criterion, timetable.getVersion(), journeys.size());
+        return new Response<>(1, "Success", journeys);
+    }
+
     private Route getRouteByRouteId(String routeId, HttpHeaders headers) {
         HttpEntity requestEntity = new HttpEntity(null);
         String route_service_url = getServiceUrl("ts-route-service");
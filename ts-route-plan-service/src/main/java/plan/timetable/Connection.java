@@ -0,0 +1,31 @@
+package plan.timetable;
+
+/**
+ * A train running from one stop of a trip to the next one without stopping.
+ *
+ * @author fdse
+ */
+public final class Connection {
+
+    final int trip;
+
+    final int fromStop;
+
+    final int fromStation;
+
+    final int toStation;
+
+    final int departure;
+
+    final int arrival;
+
+    Connection(int trip, int fromStop, int fromStation, int toStation, int departure, int arrival) {
+        this.trip = trip;
+        this.fromStop = fromStop;
+        this.fromStation = fromStation;
+        this.toStation = toStation;
+        this.departure = departure;
+        this.arrival = arrival;
+    }
+
+}
@@ -0,0 +1,238 @@
+package plan.timetable;
+
+import edu.fudan.common.entity.RoutePlanResultUnit;
+import edu.fudan.common.util.Amount;
+import edu.fudan.common.util.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import plan.entity.Journey;
+import plan.entity.JourneyCriterion;
+
+import java.util.*;
+
+/**
+ * Connection scan over a {@link Timetable}. The sorted connections are scanned
+ * once; every partial journey that reaches a station is kept as a label there,
+ * labels board the trips that leave the station late enough, and every trip
+ * carries the labels riding it until they alight. At intermediate stations
+ * only labels that are not dominated on departure, arrival, price, stops and
+ * number of legs are kept, so a single scan yields every sensible journey for
+ * all three criteria.
+ *
+ * @author fdse
+ */
+@Component
+public class JourneyPlanner {
+
+    private final int maxTransfers;
+
+    private final int minTransferMinutes;
+
+    @Autowired
+    public JourneyPlanner(@Value("${route-plan.journey.max-transfers:2}") int maxTransfers,
+                          @Value("${route-plan.journey.min-transfer-minutes:10}") int minTransferMinutes) {
+        this.maxTransfers = maxTransfers;
+        this.minTransferMinutes = minTransferMinutes;
+    }
+
+    /**
+     * plan journeys between two stations
+     *
+     * @param timetable timetable snapshot
+     * @param from start station name
+     * @param to end station name
+     * @param criterion ranking criterion
+     * @param limit max number of journeys
+     * @param travelDate midnight of the travel date
+     * @return journeys, best first
+     */
+    public List<Journey> plan(Timetable timetable, String from, String to, JourneyCriterion criterion,
+                              int limit, Date travelDate) {
+        int origin = timetable.stationIndex(from);
+        int destination = timetable.stationIndex(to);
+        if (origin < 0 || destination < 0 || origin == destination) {
+            return new ArrayList<>();
+        }
+
+        List<Label> arrivals = scan(timetable, origin, destination);
+        arrivals.sort(comparator(criterion));
+        List<Journey> journeys = new ArrayList<>(Math.min(limit, arrivals.size()));
+        for (int i = 0; i < arrivals.size() && i < limit; i++) {
+            journeys.add(toJourney(timetable, arrivals.get(i), travelDate));
+        }
+        return journeys;
+    }
+
+    private List<Label> scan(Timetable timetable, int origin, int destination) {
+        int maxLegs = maxTransfers + 1;
+        List<Label>[] atStation = newLists(timetable.stationCount());
+        List<Label>[] riding = newLists(timetable.tripCount());
+        atStation[origin] = new ArrayList<>();
+        atStation[origin].add(Label.ORIGIN);
+        List<Label> arrivals = new ArrayList<>();
+
+        for (Connection c : timetable.connections()) {
+            List<Label> waiting = atStation[c.fromStation];
+            if (waiting != null && c.fromStation != destination) {
+                for (Label label : waiting) {
+                    if (label.legs >= maxLegs || label.trip == c.trip) {
+                        continue;
+                    }
+                    int ready = label == Label.ORIGIN ? Integer.MIN_VALUE : label.arrival + minTransferMinutes;
+                    if (ready > c.departure) {
+                        continue;
+                    }
+                    if (riding[c.trip] == null) {
+                        riding[c.trip] = new ArrayList<>();
+                    }
+                    riding[c.trip].add(new Label(label, c.trip, c.fromStop, c.fromStop,
+                            label == Label.ORIGIN ? c.departure : label.departure, c.departure, 0, 0, label.stops, label.legs + 1));
+                }
+            }
+
+            List<Label> riders = riding[c.trip];
+            if (riders == null) {
+                continue;
+            }
+            TimetableTrip trip = timetable.trip(c.trip);
+            for (Iterator<Label> it = riders.iterator(); it.hasNext(); ) {
+                Label rider = it.next();
+                int toStop = c.fromStop + 1;
+                Label alighted = new Label(rider.parent, c.trip, rider.boardStop, toStop, rider.departure, c.arrival,
+                        rider.parent.economyPrice + trip.economyPrice(rider.boardStop, toStop),
+                        rider.parent.confortPrice + trip.confortPrice(rider.boardStop, toStop),
+                        rider.parent.stops + toStop - rider.boardStop, rider.legs);
+                if (c.toStation == destination) {
+                    arrivals.add(alighted);
+                    it.remove();
+                } else if (c.toStation != origin && alighted.legs < maxLegs) {
+                    if (atStation[c.toStation] == null) {
+                        atStation[c.toStation] = new ArrayList<>();
+                    }
+                    addIfNotDominated(atStation[c.toStation], alighted);
+                }
+            }
+        }
+        return arrivals;
+    }
+
+    private static void addIfNotDominated(List<Label> labels, Label candidate) {
+        for (Label label : labels) {
+            if (label.dominates(candidate)) {
+                return;
+            }
+        }
+        labels.removeIf(candidate::dominates);
+        labels.add(candidate);
+    }
+
+    private static Comparator<Label> comparator(JourneyCriterion criterion) {
+        Comparator<Label> byPrice = Comparator.comparingDouble(l -> l.economyPrice);
+        Comparator<Label> byDuration = Comparator.comparingInt(l -> l.arrival - l.departure);
+        Comparator<Label> byStops = Comparator.comparingInt(l -> l.stops);
+        Comparator<Label> byDeparture = Comparator.comparingInt(l -> l.departure);
+        switch (criterion) {
+            case CHEAPEST:
+                return byPrice.thenComparing(byDuration).thenComparing(byDeparture);
+            case MIN_STOPS:
+                return byStops.thenComparingInt((Label l) -> l.legs).thenComparing(byDuration).thenComparing(byDeparture);
+            case QUICKEST:
+            default:
+                return byDuration.thenComparing(byPrice).thenComparing(byDeparture);
+        }
+    }
+
+    private static Journey toJourney(Timetable timetable, Label arrival, Date travelDate) {
+        LinkedList<RoutePlanResultUnit> legs = new LinkedList<>();
+        for (Label leg = arrival; leg != Label.ORIGIN; leg = leg.parent) {
+            TimetableTrip trip = timetable.trip(leg.trip);
+            List<String> stopStations = new ArrayList<>(leg.alightStop - leg.boardStop + 1);
+            for (int stop = leg.boardStop; stop <= leg.alightStop; stop++) {
+                stopStations.add(timetable.stationName(trip.stationAt(stop)));
+            }
+            RoutePlanResultUnit unit = new RoutePlanResultUnit();
+            unit.setTripId(trip.getTripId());
+            unit.setTrainTypeName(trip.getTrainTypeName());
+            unit.setStartStation(stopStations.get(0));
+            unit.setEndStation(stopStations.get(stopStations.size() - 1));
+            unit.setStopStations(stopStations);
+            unit.setPriceForSecondClassSeat(Amount.of(trip.economyPrice(leg.boardStop, leg.alightStop)));
+            unit.setPriceForFirstClassSeat(Amount.of(trip.confortPrice(leg.boardStop, leg.alightStop)));
+            unit.setStartTime(format(travelDate, trip.minuteAt(leg.boardStop)));
+            unit.setEndTime(format(travelDate, trip.minuteAt(leg.alightStop)));
+            legs.addFirst(unit);
+        }
+
+        Journey journey = new Journey();
+        journey.setStartStation(legs.getFirst().getStartStation());
+        journey.setEndStation(legs.getLast().getEndStation());
+        journey.setStartTime(legs.getFirst().getStartTime());
+        journey.setEndTime(legs.getLast().getEndTime());
+        journey.setDurationMinutes(arrival.arrival - arrival.departure);
+        journey.setStopCount(arrival.stops);
+        journey.setTransferCount(arrival.legs - 1);
+        journey.setPriceForSecondClassSeat(String.valueOf(arrival.economyPrice));
+        journey.setPriceForFirstClassSeat(String.valueOf(arrival.confortPrice));
+        journey.setLegs(new ArrayList<>(legs));
+        return journey;
+    }
+
+    private static String format(Date travelDate, int minute) {
+        return StringUtils.Date2String(new Date(travelDate.getTime() + minute * 60_000L));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Label>[] newLists(int size) {
+        return new List[size];
+    }
+
+    /**
+     * A partial journey. For a label riding a trip, the price, stops and
+     * arrival are still those of the parent; they are filled in on alighting.
+     */
+    private static final class Label {
+
+        static final Label ORIGIN = new Label(null, -1, -1, -1, 0, 0, 0, 0, 0, 0);
+
+        final Label parent;
+
+        final int trip;
+
+        final int boardStop;
+
+        final int alightStop;
+
+        final int departure;
+
+        final int arrival;
+
+        final double economyPrice;
+
+        final double confortPrice;
+
+        final int stops;
+
+        final int legs;
+
+        Label(Label parent, int trip, int boardStop, int alightStop, int departure, int arrival,
+              double economyPrice, double confortPrice, int stops, int legs) {
+            this.parent = parent;
+            this.trip = trip;
+            this.boardStop = boardStop;
+            this.alightStop = alightStop;
+            this.departure = departure;
+            this.arrival = arrival;
+            this.economyPrice = economyPrice;
+            this.confortPrice = confortPrice;
+            this.stops = stops;
+            this.legs = legs;
+        }
+
+        boolean dominates(Label other) {
+            return departure >= other.departure && arrival <= other.arrival
+                    && economyPrice <= other.economyPrice && stops <= other.stops && legs <= other.legs;
+        }
+    }
+
+}
@@ -0,0 +1,169 @@
+package plan.timetable;
+
+import edu.fudan.common.entity.PriceConfig;
+import edu.fudan.common.entity.Route;
+import edu.fudan.common.entity.TrainType;
+import edu.fudan.common.entity.Trip;
+import edu.fudan.common.util.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Immutable snapshot of every trip of both travel services, resolved against
+ * its route, train type and price config. Stations are interned to indexes and
+ * the stop-to-stop connections of all trips are kept in one array sorted by
+ * departure, which is the only input the {@link JourneyPlanner} scans.
+ *
+ * Trips are treated as running every day at the time of day of their start
+ * time, and stop times are derived from the route distances and the average
+ * speed of the train type in the same way the travel services compute them.
+ *
+ * @author fdse
+ */
+public final class Timetable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Timetable.class);
+
+    private static final double DEFAULT_BASIC_PRICE_RATE = 0.75;
+
+    private static final double DEFAULT_FIRST_CLASS_PRICE_RATE = 1;
+
+    private final long version;
+
+    private final Map<String, Integer> stationIndexes;
+
+    private final String[] stationNames;
+
+    private final TimetableTrip[] trips;
+
+    private final Connection[] connections;
+
+    private Timetable(long version, Map<String, Integer> stationIndexes, String[] stationNames,
+                      TimetableTrip[] trips, Connection[] connections) {
+        this.version = version;
+        this.stationIndexes = stationIndexes;
+        this.stationNames = stationNames;
+        this.trips = trips;
+        this.connections = connections;
+    }
+
+    /**
+     * build a timetable, skipping trips whose route or train type is unknown
+     *
+     * @param version version number of the snapshot
+     * @param trips trips of both travel services
+     * @param routes all routes
+     * @param trainTypes all train types
+     * @param priceConfigs all price configs
+     * @return Timetable
+     */
+    public static Timetable build(long version, List<Trip> trips, List<Route> routes,
+                                  List<TrainType> trainTypes, List<PriceConfig> priceConfigs) {
+        Map<String, Route> routeById = new HashMap<>();
+        for (Route route : routes) {
+            routeById.put(route.getId(), route);
+        }
+        Map<String, TrainType> trainTypeByName = new HashMap<>();
+        for (TrainType trainType : trainTypes) {
+            trainTypeByName.put(trainType.getName(), trainType);
+        }
+        Map<String, PriceConfig> priceByRouteAndTrainType = new HashMap<>();
+        for (PriceConfig priceConfig : priceConfigs) {
+            priceByRouteAndTrainType.put(priceConfig.getRouteId() + ":" + priceConfig.getTrainType(), priceConfig);
+        }
+
+        Map<String, Integer> stationIndexes = new HashMap<>();
+        List<String> stationNames = new ArrayList<>();
+        List<TimetableTrip> timetableTrips = new ArrayList<>(trips.size());
+        List<Connection> connections = new ArrayList<>();
+        for (Trip trip : trips) {
+            Route route = routeById.get(trip.getRouteId());
+            TrainType trainType = trainTypeByName.get(trip.getTrainTypeName());
+            if (route == null || trainType == null || trainType.getAverageSpeed() <= 0
+                    || route.getStations() == null || route.getDistances() == null
+                    || route.getStations().size() < 2 || route.getStations().size() != route.getDistances().size()
+                    || trip.getTripId() == null || trip.getStartTime() == null) {
+                Timetable.LOGGER.warn("[build][Trip skipped][tripId: {}, routeId: {}, trainType: {}]",
+                        trip.getTripId(), trip.getRouteId(), trip.getTrainTypeName());
+                continue;
+            }
+
+            int size = route.getStations().size();
+            int[] stations = new int[size];
+            int[] minutes = new int[size];
+            int[] distances = new int[size];
+            int startMinute = minuteOfDay(trip.getStartTime());
+            int firstDistance = route.getDistances().get(0);
+            for (int i = 0; i < size; i++) {
+                String station = route.getStations().get(i);
+                Integer index = stationIndexes.get(station);
+                if (index == null) {
+                    index = stationNames.size();
+                    stationIndexes.put(station, index);
+                    stationNames.add(station);
+                }
+                stations[i] = index;
+                distances[i] = route.getDistances().get(i);
+                minutes[i] = startMinute + 60 * (distances[i] - firstDistance) / trainType.getAverageSpeed();
+            }
+
+            PriceConfig priceConfig = priceByRouteAndTrainType.get(route.getId() + ":" + trainType.getName());
+            TimetableTrip timetableTrip = new TimetableTrip(trip.getTripId().toString(), trip.getTrainTypeName(),
+                    route.getId(), stations, minutes, distances,
+                    priceConfig == null ? DEFAULT_BASIC_PRICE_RATE : priceConfig.getBasicPriceRate(),
+                    priceConfig == null ? DEFAULT_FIRST_CLASS_PRICE_RATE : priceConfig.getFirstClassPriceRate());
+            int tripIndex = timetableTrips.size();
+            timetableTrips.add(timetableTrip);
+            for (int i = 0; i + 1 < size; i++) {
+                connections.add(new Connection(tripIndex, i, stations[i], stations[i + 1], minutes[i], minutes[i + 1]));
+            }
+        }
+
+        Connection[] sorted = connections.toArray(new Connection[0]);
+        Arrays.sort(sorted, Comparator.comparingInt((Connection c) -> c.departure).thenComparingInt(c -> c.arrival));
+        return new Timetable(version, stationIndexes, stationNames.toArray(new String[0]),
+                timetableTrips.toArray(new TimetableTrip[0]), sorted);
+    }
+
+    private static int minuteOfDay(String time) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(StringUtils.String2Date(time));
+        return calendar.get(Calendar.HOUR_OF_DAY) * 60 + calendar.get(Calendar.MINUTE);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @param stationName station name
+     * @return index of the station, or -1 if no trip stops there
+     */
+    public int stationIndex(String stationName) {
+        Integer index = stationIndexes.get(stationName);
+        return index == null ? -1 : index;
+    }
+
+    public String stationName(int station) {
+        return stationNames[station];
+    }
+
+    public int stationCount() {
+        return stationNames.length;
+    }
+
+    public TimetableTrip trip(int trip) {
+        return trips[trip];
+    }
+
+    public int tripCount() {
+        return trips.length;
+    }
+
+    Connection[] connections() {
+        return connections;
+    }
+
+}
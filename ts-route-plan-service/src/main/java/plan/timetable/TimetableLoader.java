@@ -0,0 +1,123 @@
+package plan.timetable;
+
+import edu.fudan.common.entity.PriceConfig;
+import edu.fudan.common.entity.Route;
+import edu.fudan.common.entity.TrainType;
+import edu.fudan.common.entity.Trip;
+import edu.fudan.common.util.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps the {@link Timetable} in memory. The trips, routes, train types and
+ * price configs are polled on a fixed delay and the timetable is only rebuilt
+ * when something changed; a failed poll keeps serving the previous snapshot.
+ *
+ * @author fdse
+ */
+@Component
+public class TimetableLoader {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimetableLoader.class);
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    private volatile Timetable timetable;
+
+    private List<List<?>> sources;
+
+    private String getServiceUrl(String serviceName) {
+        return "http://" + serviceName;
+    }
+
+    /**
+     * current timetable, loading it on first use
+     *
+     * @return Timetable, or null if it could never be loaded
+     */
+    public Timetable current() {
+        Timetable current = timetable;
+        if (current == null) {
+            try {
+                refresh();
+            } catch (Exception e) {
+                TimetableLoader.LOGGER.error("[current][Load timetable failed][error: {}]", e.getMessage());
+            }
+            current = timetable;
+        }
+        return current;
+    }
+
+    @Scheduled(initialDelayString = "${route-plan.timetable.poll-initial-delay:10000}",
+            fixedDelayString = "${route-plan.timetable.poll-interval:30000}")
+    public void poll() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            TimetableLoader.LOGGER.error("[poll][Poll timetable failed, keep version {}][error: {}]",
+                    timetable == null ? null : timetable.getVersion(), e.getMessage());
+        }
+    }
+
+    /**
+     * fetch the timetable sources and rebuild the timetable if they changed
+     *
+     * @return true if a new timetable was built
+     */
+    public synchronized boolean refresh() {
+        List<Trip> trips = new ArrayList<>();
+        trips.addAll(getList(getServiceUrl("ts-travel-service") + "/api/v1/travelservice/trips",
+                new ParameterizedTypeReference<Response<List<Trip>>>() {
+                }));
+        trips.addAll(getList(getServiceUrl("ts-travel2-service") + "/api/v1/travel2service/trips",
+                new ParameterizedTypeReference<Response<List<Trip>>>() {
+                }));
+        List<Route> routes = getList(getServiceUrl("ts-route-service") + "/api/v1/routeservice/routes",
+                new ParameterizedTypeReference<Response<List<Route>>>() {
+                });
+        List<TrainType> trainTypes = getList(getServiceUrl("ts-train-service") + "/api/v1/trainservice/trains",
+                new ParameterizedTypeReference<Response<List<TrainType>>>() {
+                });
+        List<PriceConfig> priceConfigs = getList(getServiceUrl("ts-price-service") + "/api/v1/priceservice/prices",
+                new ParameterizedTypeReference<Response<List<PriceConfig>>>() {
+                });
+
+        List<List<?>> polled = Arrays.asList(trips, routes, trainTypes, priceConfigs);
+        if (timetable != null && polled.equals(sources)) {
+            return false;
+        }
+        long version = timetable == null ? 1 : timetable.getVersion() + 1;
+        timetable = Timetable.build(version, trips, routes, trainTypes, priceConfigs);
+        sources = polled;
+        TimetableLoader.LOGGER.info("[refresh][Timetable rebuilt][version: {}, trips: {}, stations: {}]",
+                version, timetable.tripCount(), timetable.stationCount());
+        return true;
+    }
+
+    private <T> List<T> getList(String url, ParameterizedTypeReference<Response<List<T>>> type) {
+        ResponseEntity<Response<List<T>>> re = restTemplate.exchange(
+                url,
+                HttpMethod.GET,
+                new HttpEntity(null),
+                type);
+        Response<List<T>> response = re.getBody();
+        if (response == null || response.getData() == null) {
+            return new ArrayList<>();
+        }
+        return response.getData();
+    }
+
+}
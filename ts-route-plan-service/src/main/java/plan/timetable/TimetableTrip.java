@@ -0,0 +1,72 @@
+package plan.timetable;
+
+/**
+ * One daily trip of the timetable. Stations are timetable station indexes and
+ * times are minutes after midnight of the travel date, so values past 1440
+ * belong to the next day.
+ *
+ * @author fdse
+ */
+public final class TimetableTrip {
+
+    private final String tripId;
+
+    private final String trainTypeName;
+
+    private final String routeId;
+
+    private final int[] stations;
+
+    private final int[] minutes;
+
+    private final int[] distances;
+
+    private final double basicPriceRate;
+
+    private final double firstClassPriceRate;
+
+    TimetableTrip(String tripId, String trainTypeName, String routeId, int[] stations, int[] minutes,
+                  int[] distances, double basicPriceRate, double firstClassPriceRate) {
+        this.tripId = tripId;
+        this.trainTypeName = trainTypeName;
+        this.routeId = routeId;
+        this.stations = stations;
+        this.minutes = minutes;
+        this.distances = distances;
+        this.basicPriceRate = basicPriceRate;
+        this.firstClassPriceRate = firstClassPriceRate;
+    }
+
+    public String getTripId() {
+        return tripId;
+    }
+
+    public String getTrainTypeName() {
+        return trainTypeName;
+    }
+
+    public String getRouteId() {
+        return routeId;
+    }
+
+    public int stopCount() {
+        return stations.length;
+    }
+
+    public int stationAt(int stop) {
+        return stations[stop];
+    }
+
+    public int minuteAt(int stop) {
+        return minutes[stop];
+    }
+
+    public double economyPrice(int fromStop, int toStop) {
+        return (distances[toStop] - distances[fromStop]) * basicPriceRate;
+    }
+
+    public double confortPrice(int fromStop, int toStop) {
+        return (distances[toStop] - distances[fromStop]) * firstClassPriceRate;
+    }
+
+}
@@ -0,0 +1,95 @@
+package plan.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Keeps the k items with the smallest key out of any number of offered items.
+ * The key of every item is computed once when it is offered, and only k items
+ * are retained in a max-heap, so selecting from n items costs O(n log k).
+ *
+ * Items are offered per source, e.g. one list per travel service, and sources
+ * may be offered in any order and from several threads. Equal keys are broken
+ * by source number and then by position in the source, so the result does not
+ * depend on which source was offered first.
+ *
+ * @param <T> item type
+ * @author fdse
+ */
+public final class TopK<T> {
+
+    private final int k;
+
+    private final ToDoubleFunction<? super T> key;
+
+    private final Comparator<Ranked<T>> order;
+
+    private final PriorityQueue<Ranked<T>> heap;
+
+    public TopK(int k, ToDoubleFunction<? super T> key) {
+        this.k = k;
+        this.key = key;
+        this.order = Comparator.comparingDouble((Ranked<T> r) -> r.key).thenComparingLong(r -> r.sequence);
+        this.heap = new PriorityQueue<>(Math.max(1, k), order.reversed());
+    }
+
+    /**
+     * offer every item of one source
+     *
+     * @param source source number, lower wins ties
+     * @param items items of the source, may be null
+     */
+    public synchronized void offerAll(int source, List<? extends T> items) {
+        if (items == null || k <= 0) {
+            return;
+        }
+        for (int i = 0; i < items.size(); i++) {
+            T item = items.get(i);
+            offer(item, key.applyAsDouble(item), ((long) source << 32) | i);
+        }
+    }
+
+    private void offer(T item, double itemKey, long sequence) {
+        if (heap.size() < k) {
+            heap.add(new Ranked<>(item, itemKey, sequence));
+            return;
+        }
+        Ranked<T> worst = heap.peek();
+        if (itemKey < worst.key || (itemKey == worst.key && sequence < worst.sequence)) {
+            heap.poll();
+            heap.add(new Ranked<>(item, itemKey, sequence));
+        }
+    }
+
+    /**
+     * @return the retained items, smallest key first
+     */
+    public synchronized List<T> toList() {
+        List<Ranked<T>> ranked = new ArrayList<>(heap);
+        ranked.sort(order);
+        List<T> items = new ArrayList<>(ranked.size());
+        for (Ranked<T> r : ranked) {
+            items.add(r.item);
+        }
+        return items;
+    }
+
+    private static final class Ranked<T> {
+
+        final T item;
+
+        final double key;
+
+        final long sequence;
+
+        Ranked(T item, double key, long sequence) {
+            this.item = item;
+            this.key = key;
+            this.sequence = sequence;
+        }
+    }
+
+}
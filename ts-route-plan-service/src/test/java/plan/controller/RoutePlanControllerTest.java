@@ -18,6 +18,7 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import edu.fudan.common.entity.RoutePlanInfo;
+import plan.entity.JourneyCriterion;
 import plan.service.RoutePlanService;
 
 @RunWith(JUnit4.class)
@@ -77,4 +78,15 @@ public class RoutePlanControllerTest {
         Assert.assertEquals(response, JSONObject.parseObject(result, Response.class));
     }
 
+    @Test
+    public void testGetCheapestJourneys() throws Exception {
+        RoutePlanInfo info = new RoutePlanInfo();
+        Mockito.when(routePlanService.searchJourneys(Mockito.any(RoutePlanInfo.class), Mockito.eq(JourneyCriterion.CHEAPEST), Mockito.any(HttpHeaders.class))).thenReturn(response);
+        String requestJson = JSONObject.toJSONString(info);
+        String result = mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/routeplanservice/routePlan/journeys/cheapest").contentType(MediaType.APPLICATION_JSON).content(requestJson))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Assert.assertEquals(response, JSONObject.parseObject(result, Response.class));
+    }
+
 }
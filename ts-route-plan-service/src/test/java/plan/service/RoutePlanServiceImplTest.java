@@ -2,6 +2,7 @@ package plan.service;
 
 import edu.fudan.common.entity.Trip;
 import edu.fudan.common.entity.TripResponse;
+import edu.fudan.common.util.Amount;
 import edu.fudan.common.util.Response;
 import org.junit.Assert;
 import org.junit.Before;
@@ -12,13 +13,26 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.web.client.RestTemplate;
 import edu.fudan.common.entity.RoutePlanInfo;
 import edu.fudan.common.entity.Route;
+import edu.fudan.common.entity.RouteSegment;
+import edu.fudan.common.entity.RoutePlanResultUnit;
+import edu.fudan.common.entity.TrainType;
+import edu.fudan.common.entity.TripId;
+import plan.entity.Journey;
+import plan.entity.JourneyCriterion;
+import plan.timetable.JourneyPlanner;
+import plan.timetable.Timetable;
+import plan.timetable.TimetableLoader;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Date;
 
 @RunWith(JUnit4.class)
@@ -30,6 +44,12 @@ public class RoutePlanServiceImplTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Mock
+    private TimetableLoader timetableLoader;
+
+    @Spy
+    private JourneyPlanner journeyPlanner = new JourneyPlanner(2, 10);
+
     private HttpHeaders headers = new HttpHeaders();
 
     @Before
@@ -95,4 +115,114 @@ public class RoutePlanServiceImplTest {
         Assert.assertEquals("Success.", result.getMsg());
     }
 
+    @Test
+    public void testSearchMinStopStationsBySegments() {
+        RoutePlanInfo info = new RoutePlanInfo("form_station", "to_station", "", 1);
+        ArrayList<RouteSegment> segments = new ArrayList<>(Arrays.asList(
+                new RouteSegment("route_1", 0, 6, 600), new RouteSegment("route_2", 1, 2, 100),
+                new RouteSegment("route_3", 0, 4, 400), new RouteSegment("route_4", 2, 3, 100),
+                new RouteSegment("route_5", 0, 5, 500), new RouteSegment("route_6", 0, 3, 300)));
+        Mockito.when(restTemplate.exchange(
+                Mockito.eq("http://ts-route-service/api/v1/routeservice/routes/segments/form_station/to_station"),
+                Mockito.eq(HttpMethod.GET),
+                Mockito.any(HttpEntity.class),
+                Mockito.any(ParameterizedTypeReference.class)))
+                .thenReturn(new ResponseEntity<>(new Response<>(1, "Success", segments), HttpStatus.OK));
+        ArrayList<ArrayList<Trip>> tripLists = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tripLists.add(new ArrayList<>());
+        }
+        List<String> fewestStops = Arrays.asList("route_2", "route_4", "route_6", "route_3", "route_5");
+        Mockito.when(restTemplate.exchange(
+                Mockito.contains("/trips/routes"),
+                Mockito.eq(HttpMethod.POST),
+                Mockito.argThat((HttpEntity entity) -> fewestStops.equals(entity.getBody())),
+                Mockito.any(ParameterizedTypeReference.class)))
+                .thenReturn(new ResponseEntity<>(new Response<>(1, "Success", tripLists), HttpStatus.OK));
+        Response result = routePlanServiceImpl.searchMinStopStations(info, headers);
+        Assert.assertEquals(new Response<>(1, "Success.", new ArrayList<>()), result);
+        Mockito.verify(restTemplate, Mockito.never()).exchange(
+                Mockito.endsWith("/routes/form_station/to_station"),
+                Mockito.any(HttpMethod.class),
+                Mockito.any(HttpEntity.class),
+                Mockito.any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    public void testSearchJourneys() {
+        Trip trip = new Trip(new TripId("G1234"), "GaoTieOne", "route_id");
+        trip.setStartTime("2013-05-04 09:00:00");
+        Route route = new Route("route_id", Arrays.asList("form_station", "to_station"), Arrays.asList(0, 300), "form_station", "to_station");
+        Timetable timetable = Timetable.build(1, Collections.singletonList(trip), Collections.singletonList(route),
+                Collections.singletonList(new TrainType("GaoTieOne", 10, 10, 300)), new ArrayList<>());
+        Mockito.when(timetableLoader.current()).thenReturn(timetable);
+        RoutePlanInfo info = new RoutePlanInfo("form_station", "to_station", "2023-01-01", 1);
+        Response result = routePlanServiceImpl.searchJourneys(info, JourneyCriterion.QUICKEST, headers);
+        List<Journey> journeys = (List<Journey>) result.getData();
+        Assert.assertEquals(1, journeys.size());
+        Assert.assertEquals("2023-01-01 10:00:00", journeys.get(0).getEndTime());
+        Mockito.verify(restTemplate, Mockito.never()).exchange(
+                Mockito.anyString(),
+                Mockito.any(HttpMethod.class),
+                Mockito.any(HttpEntity.class),
+                Mockito.any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    public void testSearchJourneysWithoutTimetable() {
+        Mockito.when(timetableLoader.current()).thenReturn(null);
+        RoutePlanInfo info = new RoutePlanInfo("form_station", "to_station", "2023-01-01", 1);
+        Response result = routePlanServiceImpl.searchJourneys(info, JourneyCriterion.CHEAPEST, headers);
+        Assert.assertEquals(new Response<>(0, "Timetable not available", null), result);
+    }
+
+    @Test
+    public void testSearchCheapestResultMergesBothServices() {
+        RoutePlanInfo info = new RoutePlanInfo("form_station", "to_station", "", 1);
+        ArrayList<TripResponse> highSpeed = new ArrayList<>();
+        for (String price : Arrays.asList("90.0", "30.0", "70.0", "10.0")) {
+            highSpeed.add(tripResponse("G1234", price));
+        }
+        ArrayList<TripResponse> normalTrain = new ArrayList<>();
+        for (String price : Arrays.asList("20.0", "80.0", "40.0")) {
+            normalTrain.add(tripResponse("Z1234", price));
+        }
+        Mockito.when(restTemplate.exchange(
+                Mockito.contains("/travelservice/trips/left"),
+                Mockito.any(HttpMethod.class),
+                Mockito.any(HttpEntity.class),
+                Mockito.any(ParameterizedTypeReference.class)))
+                .thenReturn(new ResponseEntity<>(new Response<>(1, null, highSpeed), HttpStatus.OK));
+        Mockito.when(restTemplate.exchange(
+                Mockito.contains("/travel2service/trips/left"),
+                Mockito.any(HttpMethod.class),
+                Mockito.any(HttpEntity.class),
+                Mockito.any(ParameterizedTypeReference.class)))
+                .thenReturn(new ResponseEntity<>(new Response<>(1, null, normalTrain), HttpStatus.OK));
+        Route route = new Route("route_id", Arrays.asList("form_station", "to_station"), Arrays.asList(0, 100), "form_station", "to_station");
+        Mockito.when(restTemplate.exchange(
+                Mockito.contains("/routes/"),
+                Mockito.any(HttpMethod.class),
+                Mockito.any(HttpEntity.class),
+                Mockito.any(ParameterizedTypeReference.class)))
+                .thenReturn(new ResponseEntity<>(new Response<>(1, null, route), HttpStatus.OK));
+        Response result = routePlanServiceImpl.searchCheapestResult(info, headers);
+        List<RoutePlanResultUnit> units = (List<RoutePlanResultUnit>) result.getData();
+        Assert.assertEquals(5, units.size());
+        Assert.assertEquals(Arrays.asList(Amount.parse("10.0"), Amount.parse("20.0"), Amount.parse("30.0"), Amount.parse("40.0"), Amount.parse("70.0")),
+                Arrays.asList(units.get(0).getPriceForSecondClassSeat(), units.get(1).getPriceForSecondClassSeat(),
+                        units.get(2).getPriceForSecondClassSeat(), units.get(3).getPriceForSecondClassSeat(),
+                        units.get(4).getPriceForSecondClassSeat()));
+        Assert.assertEquals(4, highSpeed.size());
+    }
+
+    private TripResponse tripResponse(String tripId, String price) {
+        TripResponse tripResponse = new TripResponse();
+        tripResponse.setTripId(new TripId(tripId));
+        tripResponse.setPriceForEconomyClass(Amount.parse(price));
+        tripResponse.setStartTime("2013-05-04 09:00:00");
+        tripResponse.setEndTime("2013-05-04 10:00:00");
+        return tripResponse;
+    }
+
 }
@@ -0,0 +1,124 @@
+package plan.timetable;
+
+import edu.fudan.common.entity.*;
+import edu.fudan.common.util.StringUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import plan.entity.Journey;
+import plan.entity.JourneyCriterion;
+
+import java.util.*;
+
+@RunWith(JUnit4.class)
+public class JourneyPlannerTest {
+
+    private List<Route> routes = new ArrayList<>();
+
+    private List<TrainType> trainTypes = new ArrayList<>();
+
+    private List<PriceConfig> priceConfigs = new ArrayList<>();
+
+    private Date travelDate = StringUtils.String2Date("2023-01-01");
+
+    @Before
+    public void setUp() {
+        routes.add(new Route("r1", Arrays.asList("a", "b", "c"), Arrays.asList(0, 100, 200), "a", "c"));
+        routes.add(new Route("r2", Arrays.asList("c", "d"), Arrays.asList(0, 100), "c", "d"));
+        routes.add(new Route("r3", Arrays.asList("a", "d"), Arrays.asList(0, 500), "a", "d"));
+        trainTypes.add(new TrainType("GaoTieOne", 10, 10, 200));
+        trainTypes.add(new TrainType("KuaiSu", 10, 10, 100));
+        priceConfigs.add(new PriceConfig(UUID.randomUUID(), "GaoTieOne", "r1", 0.5, 1.0));
+    }
+
+    @Test
+    public void testTransferJourneyRankedByCriterion() {
+        Timetable timetable = timetable(trip("G1", "GaoTieOne", "r1", "08:00"),
+                trip("K2", "KuaiSu", "r2", "09:30"),
+                trip("K3", "KuaiSu", "r3", "07:00"));
+        JourneyPlanner planner = new JourneyPlanner(2, 10);
+
+        List<Journey> cheapest = planner.plan(timetable, "a", "d", JourneyCriterion.CHEAPEST, 5, travelDate);
+        Assert.assertEquals(2, cheapest.size());
+        Journey transfer = cheapest.get(0);
+        Assert.assertEquals(1, transfer.getTransferCount());
+        Assert.assertEquals("175.0", transfer.getPriceForSecondClassSeat());
+        Assert.assertEquals(150, transfer.getDurationMinutes());
+        Assert.assertEquals(3, transfer.getStopCount());
+        Assert.assertEquals("2023-01-01 08:00:00", transfer.getStartTime());
+        Assert.assertEquals("2023-01-01 10:30:00", transfer.getEndTime());
+        Assert.assertEquals("G1", transfer.getLegs().get(0).getTripId());
+        Assert.assertEquals(Arrays.asList("a", "b", "c"), transfer.getLegs().get(0).getStopStations());
+        Assert.assertEquals("K2", transfer.getLegs().get(1).getTripId());
+        Assert.assertEquals("2023-01-01 09:30:00", transfer.getLegs().get(1).getStartTime());
+
+        List<Journey> quickest = planner.plan(timetable, "a", "d", JourneyCriterion.QUICKEST, 5, travelDate);
+        Assert.assertEquals("G1", quickest.get(0).getLegs().get(0).getTripId());
+
+        List<Journey> minStops = planner.plan(timetable, "a", "d", JourneyCriterion.MIN_STOPS, 5, travelDate);
+        Assert.assertEquals("K3", minStops.get(0).getLegs().get(0).getTripId());
+        Assert.assertEquals(0, minStops.get(0).getTransferCount());
+        Assert.assertEquals("375.0", minStops.get(0).getPriceForSecondClassSeat());
+    }
+
+    @Test
+    public void testTransferTooShort() {
+        Timetable timetable = timetable(trip("G1", "GaoTieOne", "r1", "08:00"),
+                trip("K2", "KuaiSu", "r2", "09:05"),
+                trip("K3", "KuaiSu", "r3", "07:00"));
+        List<Journey> journeys = new JourneyPlanner(2, 10)
+                .plan(timetable, "a", "d", JourneyCriterion.QUICKEST, 5, travelDate);
+        Assert.assertEquals(1, journeys.size());
+        Assert.assertEquals("K3", journeys.get(0).getLegs().get(0).getTripId());
+    }
+
+    @Test
+    public void testDirectOnly() {
+        Timetable timetable = timetable(trip("G1", "GaoTieOne", "r1", "08:00"),
+                trip("K2", "KuaiSu", "r2", "09:30"),
+                trip("K3", "KuaiSu", "r3", "07:00"));
+        List<Journey> journeys = new JourneyPlanner(0, 10)
+                .plan(timetable, "a", "d", JourneyCriterion.CHEAPEST, 5, travelDate);
+        Assert.assertEquals(1, journeys.size());
+        Assert.assertEquals(0, journeys.get(0).getTransferCount());
+    }
+
+    @Test
+    public void testIntermediateStopAndLimit() {
+        Timetable timetable = timetable(trip("G1", "GaoTieOne", "r1", "08:00"),
+                trip("G2", "GaoTieOne", "r1", "09:00"),
+                trip("G3", "GaoTieOne", "r1", "10:00"));
+        List<Journey> journeys = new JourneyPlanner(2, 10)
+                .plan(timetable, "b", "c", JourneyCriterion.QUICKEST, 2, travelDate);
+        Assert.assertEquals(2, journeys.size());
+        Assert.assertEquals("2023-01-01 08:30:00", journeys.get(0).getStartTime());
+        Assert.assertEquals("50.0", journeys.get(0).getPriceForSecondClassSeat());
+    }
+
+    @Test
+    public void testUnknownStation() {
+        Timetable timetable = timetable(trip("G1", "GaoTieOne", "r1", "08:00"));
+        Assert.assertTrue(new JourneyPlanner(2, 10)
+                .plan(timetable, "a", "x", JourneyCriterion.CHEAPEST, 5, travelDate).isEmpty());
+    }
+
+    @Test
+    public void testTripWithUnknownRouteSkipped() {
+        Timetable timetable = timetable(trip("G1", "GaoTieOne", "r1", "08:00"),
+                trip("G9", "GaoTieOne", "missing", "08:00"));
+        Assert.assertEquals(1, timetable.tripCount());
+    }
+
+    private Timetable timetable(Trip... trips) {
+        return Timetable.build(1, Arrays.asList(trips), routes, trainTypes, priceConfigs);
+    }
+
+    private Trip trip(String tripId, String trainTypeName, String routeId, String time) {
+        Trip trip = new Trip(new TripId(tripId), trainTypeName, routeId);
+        trip.setStartTime("2013-05-04 " + time + ":00");
+        return trip;
+    }
+
+}
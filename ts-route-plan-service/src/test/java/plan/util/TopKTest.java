@@ -0,0 +1,61 @@
+package plan.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(JUnit4.class)
+public class TopKTest {
+
+    @Test
+    public void testKeepsSmallestAcrossSources() {
+        TopK<String> topK = new TopK<>(3, Double::parseDouble);
+        topK.offerAll(1, Arrays.asList("9", "2", "7"));
+        topK.offerAll(0, Arrays.asList("5", "1", "8", "3"));
+        Assert.assertEquals(Arrays.asList("1", "2", "3"), topK.toList());
+    }
+
+    @Test
+    public void testTiesDoNotDependOnOfferOrder() {
+        TopK<String> first = new TopK<>(2, s -> s.length());
+        first.offerAll(0, Arrays.asList("aa", "b"));
+        first.offerAll(1, Arrays.asList("c", "dd"));
+        TopK<String> second = new TopK<>(2, s -> s.length());
+        second.offerAll(1, Arrays.asList("c", "dd"));
+        second.offerAll(0, Arrays.asList("aa", "b"));
+        Assert.assertEquals(Arrays.asList("b", "c"), first.toList());
+        Assert.assertEquals(first.toList(), second.toList());
+    }
+
+    @Test
+    public void testKeyComputedOncePerItem() {
+        AtomicInteger calls = new AtomicInteger();
+        TopK<Integer> topK = new TopK<>(5, i -> {
+            calls.incrementAndGet();
+            return -i;
+        });
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            items.add(i);
+        }
+        topK.offerAll(0, items);
+        Assert.assertEquals(1000, calls.get());
+        Assert.assertEquals(Arrays.asList(999, 998, 997, 996, 995), topK.toList());
+        Assert.assertEquals(1000, items.size());
+    }
+
+    @Test
+    public void testFewerItemsThanK() {
+        TopK<String> topK = new TopK<>(5, Double::parseDouble);
+        topK.offerAll(0, null);
+        topK.offerAll(1, Arrays.asList("4", "3"));
+        Assert.assertEquals(Arrays.asList("3", "4"), topK.toList());
+    }
+
+}
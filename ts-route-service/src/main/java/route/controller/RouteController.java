@@ -68,4 +68,12 @@ public class RouteController {
         return ok(routeService.getRouteByStartAndEnd(start, end, headers));
     }
 
+    @GetMapping(path = "/routes/segments/{start}/{end}")
+    public HttpEntity querySegments(@PathVariable String start,
+                                    @PathVariable String end,
+                                    @RequestHeader HttpHeaders headers) {
+        RouteController.LOGGER.info("[getRouteSegments][Query route segments][start: {}, end: {}]", start, end);
+        return ok(routeService.getRouteSegments(start, end, headers));
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package route.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * One stop of a route: the station at a position of Route.stations together with
+ * its cumulative distance. The rows are kept in step with the routes and indexed
+ * by station, so the routes serving two stations in order are found with one
+ * indexed self-join instead of loading and scanning every route.
+ *
+ * @author fdse
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(RouteStation.Key.class)
+@Table(name = "route_station", indexes = {
+        @Index(name = "idx_route_station_station", columnList = "station_name, route_id, position")
+})
+public class RouteStation {
+
+    @Id
+    @Column(name = "route_id", length = 36)
+    private String routeId;
+
+    @Id
+    @Column(name = "position")
+    private int position;
+
+    @Column(name = "station_name")
+    private String stationName;
+
+    @Column(name = "distance")
+    private int distance;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private String routeId;
+
+        private int position;
+
+    }
+
+}
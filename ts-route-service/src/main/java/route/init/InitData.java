@@ -93,6 +93,9 @@ public class InitData implements CommandLineRunner {
         info.setDistanceList("0,50");
         routeService.createAndModify(info,null);
 
+        // index routes stored before the route station index existed
+        routeService.rebuildStationIndex();
+
     }
 
 }
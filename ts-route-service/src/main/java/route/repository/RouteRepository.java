@@ -1,13 +1,17 @@
 package route.repository;
 
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 import route.entity.Route;
+import javax.persistence.QueryHint;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 /**
  * @author fdse
  */
@@ -28,7 +32,7 @@ public interface RouteRepository extends CrudRepository<Route, String> {
      * @param ids ids
      * @return Route
      */
-    @Query(value="SELECT * from route where id in ?1", nativeQuery = true)
+    @Query("SELECT r FROM Route r WHERE r.id IN ?1")
     List<Route> findByIds(List<String> ids);
 
     /**
@@ -53,6 +57,7 @@ public interface RouteRepository extends CrudRepository<Route, String> {
      * @param endStation  end Station Name
      * @return ArrayList<Route>
      */
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     ArrayList<Route> findByStartStationAndEndStation(String startStation, String endStation);
 
 }
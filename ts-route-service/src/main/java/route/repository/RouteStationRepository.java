@@ -0,0 +1,40 @@
+package route.repository;
+
+import edu.fudan.common.entity.RouteSegment;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+import route.entity.RouteStation;
+
+import java.util.List;
+
+/**
+ * @author fdse
+ */
+@Repository
+public interface RouteStationRepository extends CrudRepository<RouteStation, RouteStation.Key> {
+
+    /**
+     * find the segments of every route that stops at the start station and later at the end station
+     *
+     * @param startStation start station name
+     * @param endStation end station name
+     * @return List<RouteSegment>
+     */
+    @Query("SELECT new edu.fudan.common.entity.RouteSegment(s.routeId, s.position, e.position, e.distance - s.distance) " +
+            "FROM RouteStation s, RouteStation e " +
+            "WHERE s.stationName = ?1 AND e.stationName = ?2 AND e.routeId = s.routeId AND e.position > s.position " +
+            "ORDER BY s.routeId")
+    List<RouteSegment> findSegments(String startStation, String endStation);
+
+    /**
+     * remove the stops of a route
+     *
+     * @param routeId route id
+     */
+    @Modifying
+    @Query("DELETE FROM RouteStation r WHERE r.routeId = ?1")
+    void deleteByRouteId(String routeId);
+
+}
@@ -22,6 +22,16 @@ public interface RouteService {
      */
     Response getRouteByStartAndEnd(String startId, String terminalId, HttpHeaders headers);
 
+    /**
+     * get the segment between the two stations of every route serving start before end
+     *
+     * @param startStation start station name
+     * @param endStation end station name
+     * @param headers headers
+     * @return Response
+     */
+    Response getRouteSegments(String startStation, String endStation, HttpHeaders headers);
+
     /**
      * get all routes
      *
@@ -66,4 +76,9 @@ public interface RouteService {
      */
     Response createAndModify(RouteInfo info, HttpHeaders headers);
 
+    /**
+     * rebuild the route station index from the stored routes
+     */
+    void rebuildStationIndex();
+
 }
@@ -1,17 +1,27 @@
 package route.service;
 
+import edu.fudan.common.entity.RouteSegment;
+import edu.fudan.common.security.jwt.InternalIdentity;
 import edu.fudan.common.util.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.RestTemplate;
 import route.entity.Route;
 import route.entity.RouteInfo;
+import route.entity.RouteStation;
 import route.repository.RouteRepository;
+import route.repository.RouteStationRepository;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -24,11 +34,18 @@ public class RouteServiceImpl implements RouteService {
 
     @Autowired
     private RouteRepository routeRepository;
+
+    @Autowired
+    private RouteStationRepository routeStationRepository;
+
+    @Autowired
+    private RestTemplate restTemplate;
     private static final Logger LOGGER = LoggerFactory.getLogger(RouteServiceImpl.class);
 
     String success = "Success";
 
     @Override
+    @Transactional
     public Response createAndModify(RouteInfo info, HttpHeaders headers) {
         RouteServiceImpl.LOGGER.info("[createAndModify][Create and modify start and end][Start: {} End: {}]", info.getStartStation(), info.getEndStation());
 
@@ -61,13 +78,72 @@ public class RouteServiceImpl implements RouteService {
         route.setStations(stationList);
         route.setDistances(distanceList);
         routeRepository.save(route);
+        indexStations(route);
+        notifyRouteChanged(route.getId(), headers);
         return new Response<>(1, "Save and Modify success", route);
     }
 
+    @Override
+    @Transactional
+    public void rebuildStationIndex() {
+        routeStationRepository.deleteAll();
+        int count = 0;
+        for (Route route : routeRepository.findAll()) {
+            routeStationRepository.saveAll(stopsOf(route));
+            count++;
+        }
+        RouteServiceImpl.LOGGER.info("[rebuildStationIndex][Rebuild route station index][routes: {}]", count);
+    }
+
+    private void indexStations(Route route) {
+        routeStationRepository.deleteByRouteId(route.getId());
+        routeStationRepository.saveAll(stopsOf(route));
+    }
+
+    /**
+     * Drops the fare matrices the price service built from the old stations and
+     * distances, once the change is committed. A failed notice is only logged: the
+     * matrices expire on their own. The notice carries the caller's credentials, as the
+     * price service only lets admins evict fares.
+     */
+    private void notifyRouteChanged(String routeId, HttpHeaders headers) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictFares(routeId, headers);
+                }
+            });
+        } else {
+            evictFares(routeId, headers);
+        }
+    }
+
+    private void evictFares(String routeId, HttpHeaders headers) {
+        try {
+            restTemplate.exchange("http://ts-price-service/api/v1/priceservice/prices/fares/" + routeId, HttpMethod.DELETE,
+                    new HttpEntity<>(InternalIdentity.credentialsOf(headers)), Response.class);
+        } catch (Exception e) {
+            RouteServiceImpl.LOGGER.warn("[evictFares][Evict fares of route failed][RouteId: {}, exception: {}]", routeId, e.toString());
+        }
+    }
+
+    private static List<RouteStation> stopsOf(Route route) {
+        List<RouteStation> stops = new ArrayList<>();
+        List<String> stations = route.getStations();
+        List<Integer> distances = route.getDistances();
+        for (int i = 0; i < stations.size(); i++) {
+            stops.add(new RouteStation(route.getId(), i, stations.get(i), distances.get(i)));
+        }
+        return stops;
+    }
+
     @Override
     @Transactional
     public Response deleteRoute(String routeId, HttpHeaders headers) {
+        routeStationRepository.deleteByRouteId(routeId);
         routeRepository.removeRouteById(routeId);
+        notifyRouteChanged(routeId, headers);
         Optional<Route> route = routeRepository.findById(routeId);
         if (!route.isPresent()) {
             return new Response<>(1, "Delete Success", routeId);
@@ -102,17 +178,17 @@ public class RouteServiceImpl implements RouteService {
 
     @Override
     public Response getRouteByStartAndEnd(String startId, String terminalId, HttpHeaders headers) {
-        ArrayList<Route> routes = routeRepository.findAll();
-        RouteServiceImpl.LOGGER.info("[getRouteByStartAndEnd][Find All][size:{}]", routes.size());
+        List<RouteSegment> segments = routeStationRepository.findSegments(startId, terminalId);
+        RouteServiceImpl.LOGGER.info("[getRouteByStartAndEnd][Find segments][size:{}]", segments.size());
         List<Route> resultList = new ArrayList<>();
-        for (Route route : routes) {
-            if (route.getStations().contains(startId) &&
-                    route.getStations().contains(terminalId) &&
-                    route.getStations().indexOf(startId) < route.getStations().indexOf(terminalId)) {
-                resultList.add(route);
+        if (!segments.isEmpty()) {
+            LinkedHashSet<String> routeIds = new LinkedHashSet<>();
+            for (RouteSegment segment : segments) {
+                routeIds.add(segment.getRouteId());
             }
+            resultList = routeRepository.findByIds(new ArrayList<>(routeIds));
         }
-        if (!resultList.isEmpty()) {
+        if (resultList != null && !resultList.isEmpty()) {
             return new Response<>(1, success, resultList);
         } else {
             RouteServiceImpl.LOGGER.warn("[getRouteByStartAndEnd][Find by start and terminal warn][Routes not found][startId: {},terminalId: {}]",startId,terminalId);
@@ -120,6 +196,17 @@ public class RouteServiceImpl implements RouteService {
         }
     }
 
+    @Override
+    public Response getRouteSegments(String startStation, String endStation, HttpHeaders headers) {
+        List<RouteSegment> segments = routeStationRepository.findSegments(startStation, endStation);
+        if (!segments.isEmpty()) {
+            return new Response<>(1, success, segments);
+        } else {
+            RouteServiceImpl.LOGGER.warn("[getRouteSegments][Find segments warn][Routes not found][start: {},end: {}]", startStation, endStation);
+            return new Response<>(0, "No routes with the startId and terminalId", null);
+        }
+    }
+
     @Override
     public Response getAllRoutes(HttpHeaders headers) {
         ArrayList<Route> routes = routeRepository.findAll();
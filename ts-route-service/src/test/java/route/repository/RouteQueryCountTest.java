@@ -0,0 +1,157 @@
+package route.repository;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.boot.orm.jpa.hibernate.SpringPhysicalNamingStrategy;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import route.entity.Route;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Counts the statements issued by the bulk route reads for growing numbers of routes,
+ * each read on a new session factory so the second-level cache starts empty. The
+ * repository runs on Hibernate as configured for the service, against an in-memory
+ * H2 database.
+ */
+@RunWith(JUnit4.class)
+public class RouteQueryCountTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RouteQueryCountTest.class);
+
+    private static final int[] ROUTE_COUNTS = {10, 100, 1000};
+
+    /**
+     * one query for the routes, one for all their stations, one for all their distances
+     */
+    private static final long EXPECTED_QUERIES = 3;
+
+    private static final List<String> STATIONS = Arrays.asList("shanghai", "nanjing", "shijiazhuang", "taiyuan");
+
+    private static final List<Integer> DISTANCES = Arrays.asList(0, 350, 1000, 1300);
+
+    private static final String URL = "jdbc:h2:mem:route_query_count;DB_CLOSE_DELAY=-1";
+
+    private SessionFactory sessionFactory;
+
+    @After
+    public void tearDown() {
+        if (sessionFactory != null && sessionFactory.isOpen()) {
+            sessionFactory.close();
+        }
+    }
+
+    @Test
+    public void testFindAllQueryCount() {
+        for (int count : ROUTE_COUNTS) {
+            storeRoutes(count);
+            sessionFactory = buildSessionFactory(true);
+            long queries = countQueries(RouteRepository::findAll);
+            LOGGER.info("[testFindAllQueryCount][routes: {}, queries: {}]", count, queries);
+            Assert.assertEquals(EXPECTED_QUERIES, queries);
+            sessionFactory.close();
+        }
+    }
+
+    @Test
+    public void testFindByIdsQueryCount() {
+        for (int count : ROUTE_COUNTS) {
+            storeRoutes(count);
+            sessionFactory = buildSessionFactory(true);
+            List<String> ids = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                ids.add(idOf(i));
+            }
+            long queries = countQueries(repository -> repository.findByIds(ids));
+            LOGGER.info("[testFindByIdsQueryCount][routes: {}, queries: {}]", count, queries);
+            Assert.assertEquals(EXPECTED_QUERIES, queries);
+            sessionFactory.close();
+        }
+    }
+
+    static SessionFactory buildSessionFactory(boolean secondLevelCache) {
+        return buildSessionFactory(secondLevelCache, "none");
+    }
+
+    private static SessionFactory buildSessionFactory(boolean secondLevelCache, String schema) {
+        StandardServiceRegistryBuilder registry = new StandardServiceRegistryBuilder()
+                .applySetting("hibernate.dialect", "org.hibernate.dialect.H2Dialect")
+                .applySetting("hibernate.connection.driver_class", "org.h2.Driver")
+                .applySetting("hibernate.connection.url", URL)
+                .applySetting("hibernate.hbm2ddl.auto", schema)
+                .applySetting("hibernate.jdbc.batch_size", "100")
+                .applySetting("hibernate.order_inserts", "true")
+                .applySetting("hibernate.physical_naming_strategy", SpringPhysicalNamingStrategy.class.getName())
+                .applySetting("hibernate.implicit_naming_strategy", SpringImplicitNamingStrategy.class.getName())
+                .applySetting("hibernate.generate_statistics", "true")
+                .applySetting("hibernate.cache.use_second_level_cache", String.valueOf(secondLevelCache))
+                .applySetting("hibernate.cache.use_query_cache", String.valueOf(secondLevelCache))
+                .applySetting("hibernate.cache.region.factory_class", "edu.fudan.common.cache.LocalRegionFactory");
+        return new MetadataSources(registry.build()).addAnnotatedClass(Route.class)
+                .buildMetadata().buildSessionFactory();
+    }
+
+    /**
+     * runs the read on a new persistence context and touches every list the way
+     * serializing the response does
+     *
+     * @return statements prepared by the read
+     */
+    static long countQueries(SessionFactory sessionFactory, Function<RouteRepository, List<Route>> read) {
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        EntityManager entityManager = sessionFactory.createEntityManager();
+        try {
+            RouteRepository repository = new JpaRepositoryFactory(entityManager).getRepository(RouteRepository.class);
+            List<Route> routes = read.apply(repository);
+            int stops = 0;
+            for (Route route : routes) {
+                stops += route.getStations().size() + route.getDistances().size();
+            }
+            Assert.assertEquals(routes.size() * (STATIONS.size() + DISTANCES.size()), stops);
+        } finally {
+            entityManager.close();
+        }
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long countQueries(Function<RouteRepository, List<Route>> read) {
+        return countQueries(sessionFactory, read);
+    }
+
+    /**
+     * recreates the schema and stores count routes, on a session factory of its own so
+     * no cache of the counted reads sees them being written
+     */
+    static void storeRoutes(int count) {
+        try (SessionFactory loader = buildSessionFactory(false, "create");
+             Session session = loader.openSession()) {
+            session.beginTransaction();
+            for (int i = 0; i < count; i++) {
+                session.persist(new Route(idOf(i), new ArrayList<>(STATIONS), new ArrayList<>(DISTANCES),
+                        STATIONS.get(0), STATIONS.get(STATIONS.size() - 1)));
+            }
+            session.getTransaction().commit();
+        }
+    }
+
+    static String idOf(int i) {
+        return String.format("00000000-0000-0000-0000-%012d", i);
+    }
+
+}
@@ -0,0 +1,58 @@
+package route.repository;
+
+import org.hibernate.SessionFactory;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import route.entity.Route;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Compares warm route reads with the second-level cache off and on. The routes are
+ * not cached queries, so they are selected again while their station and distance
+ * lists come from the collection regions.
+ */
+@RunWith(JUnit4.class)
+public class RouteSecondLevelCacheTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RouteSecondLevelCacheTest.class);
+
+    private static final int ROUTE_COUNT = 100;
+
+    @Test
+    public void testSecondLevelCacheQueryCount() throws InterruptedException {
+        RouteQueryCountTest.storeRoutes(ROUTE_COUNT);
+        String id = RouteQueryCountTest.idOf(0);
+        Function<RouteRepository, List<Route>> findById =
+                repository -> repository.findById(id).map(Collections::singletonList).orElse(Collections.emptyList());
+        long[] uncached = warmQueryCounts(false, findById);
+        long[] cached = warmQueryCounts(true, findById);
+        LOGGER.info("[testSecondLevelCacheQueryCount][uncached findAll: {}, findById: {}][cached findAll: {}, findById: {}]",
+                uncached[0], uncached[1], cached[0], cached[1]);
+        Assert.assertArrayEquals(new long[]{3, 3}, uncached);
+        // the routes are selected again, their lists come from the cache
+        Assert.assertEquals(1, cached[0]);
+        Assert.assertEquals(0, cached[1]);
+    }
+
+    /**
+     * @return statements of findAll and of findById once the routes were read before
+     */
+    private long[] warmQueryCounts(boolean secondLevelCache, Function<RouteRepository, List<Route>> findById)
+            throws InterruptedException {
+        try (SessionFactory sessionFactory = RouteQueryCountTest.buildSessionFactory(secondLevelCache)) {
+            RouteQueryCountTest.countQueries(sessionFactory, RouteRepository::findAll);
+            // read-write entries are only read by sessions started after they were put
+            Thread.sleep(10);
+            return new long[]{RouteQueryCountTest.countQueries(sessionFactory, RouteRepository::findAll),
+                    RouteQueryCountTest.countQueries(sessionFactory, findById)};
+        }
+    }
+
+}
@@ -1,21 +1,30 @@
 package route.service;
 
+import edu.fudan.common.entity.RouteSegment;
 import edu.fudan.common.util.Response;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.client.RestTemplate;
 import route.entity.Route;
 import route.entity.RouteInfo;
+import route.entity.RouteStation;
 import route.repository.RouteRepository;
+import route.repository.RouteStationRepository;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
@@ -28,6 +37,12 @@ public class RouteServiceImplTest {
     @Mock
     private RouteRepository routeRepository;
 
+    @Mock
+    private RouteStationRepository routeStationRepository;
+
+    @Mock
+    private RestTemplate restTemplate;
+
     private HttpHeaders headers = new HttpHeaders();
 
     @Before
@@ -102,17 +117,53 @@ public class RouteServiceImplTest {
         Route route = new Route(UUID.randomUUID().toString(), stations, distances, "shanghai", "nanjing");
         ArrayList<Route> routes = new ArrayList<>();
         routes.add(route);
-        Mockito.when(routeRepository.findAll()).thenReturn(routes);
+        Mockito.when(routeStationRepository.findSegments("shanghai", "nanjing"))
+                .thenReturn(Collections.singletonList(new RouteSegment(route.getId(), 0, 1, 5)));
+        Mockito.when(routeRepository.findByIds(Collections.singletonList(route.getId()))).thenReturn(routes);
         Response result = routeServiceImpl.getRouteByStartAndEnd("shanghai", "nanjing", headers);
         Assert.assertEquals("Success", result.getMsg());
+        Mockito.verify(routeRepository, Mockito.never()).findAll();
     }
 
     @Test
     public void testGetRouteByStartAndTerminal2() {
-        ArrayList<Route> routes = new ArrayList<>();
-        Mockito.when(routeRepository.findAll()).thenReturn(routes);
+        Mockito.when(routeStationRepository.findSegments("shanghai", "nanjing")).thenReturn(new ArrayList<>());
         Response result = routeServiceImpl.getRouteByStartAndEnd("shanghai", "nanjing", headers);
         Assert.assertEquals("No routes with the startId and terminalId", result.getMsg());
+        Mockito.verify(routeRepository, Mockito.never()).findByIds(Mockito.anyList());
+    }
+
+    @Test
+    public void testGetRouteSegments1() {
+        List<RouteSegment> segments = Arrays.asList(new RouteSegment("route_1", 0, 3, 1300), new RouteSegment("route_2", 1, 2, 650));
+        Mockito.when(routeStationRepository.findSegments("shanghai", "taiyuan")).thenReturn(segments);
+        Response result = routeServiceImpl.getRouteSegments("shanghai", "taiyuan", headers);
+        Assert.assertEquals(new Response<>(1, "Success", segments), result);
+    }
+
+    @Test
+    public void testGetRouteSegments2() {
+        Mockito.when(routeStationRepository.findSegments("shanghai", "taiyuan")).thenReturn(new ArrayList<>());
+        Response result = routeServiceImpl.getRouteSegments("shanghai", "taiyuan", headers);
+        Assert.assertEquals(new Response<>(0, "No routes with the startId and terminalId", null), result);
+    }
+
+    @Test
+    public void testCreateAndModifyIndexesStations() {
+        RouteInfo info = new RouteInfo("id", "shanghai", "taiyuan", "shanghai,nanjing,taiyuan", "0,350,1300");
+        headers.set(HttpHeaders.AUTHORIZATION, "Bearer admin_token");
+        Response result = routeServiceImpl.createAndModify(info, headers);
+        Route route = (Route) result.getData();
+        Mockito.verify(routeStationRepository).deleteByRouteId(route.getId());
+        Mockito.verify(routeStationRepository).saveAll(Arrays.asList(
+                new RouteStation(route.getId(), 0, "shanghai", 0),
+                new RouteStation(route.getId(), 1, "nanjing", 350),
+                new RouteStation(route.getId(), 2, "taiyuan", 1300)));
+        ArgumentCaptor<HttpEntity> request = ArgumentCaptor.forClass(HttpEntity.class);
+        Mockito.verify(restTemplate).exchange(Mockito.eq("http://ts-price-service/api/v1/priceservice/prices/fares/" + route.getId()),
+                Mockito.eq(HttpMethod.DELETE), request.capture(), Mockito.eq(Response.class));
+        // the price service only lets admins evict fares
+        Assert.assertEquals("Bearer admin_token", request.getValue().getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
     }
 
     @Test
@@ -9,6 +9,8 @@ import org.springframework.web.bind.annotation.*;
 import edu.fudan.common.entity.Seat;
 import seat.service.SeatService;
 
+import java.util.List;
+
 import static org.springframework.http.ResponseEntity.ok;
 
 /**
@@ -58,4 +60,18 @@ public class SeatController {
         return ok(seatService.getLeftTicketOfInterval(seatRequest, headers));
     }
 
+    /**
+     * get left tickets of several intervals in one request
+     *
+     * @param seatRequests seat requests
+     * @param headers headers
+     * @return HttpEntity, left ticket numbers in the order of the requests
+     */
+    @PostMapping(value = "/seats/left_tickets/batch")
+    public HttpEntity getLeftTicketsOfIntervals(@RequestBody List<Seat> seatRequests, @RequestHeader HttpHeaders headers) {
+        // List<Integer>
+        SeatController.LOGGER.info("[getLeftTicketsOfIntervals][Get left tickets of intervals][Requests: {}]", seatRequests.size());
+        return ok(seatService.getLeftTicketsOfIntervals(seatRequests, headers));
+    }
+
 }
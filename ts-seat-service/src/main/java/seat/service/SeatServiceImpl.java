@@ -1,5 +1,6 @@
 package seat.service;
 
+import edu.fudan.common.util.ConfigClient;
 import edu.fudan.common.util.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,7 +17,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import edu.fudan.common.entity.*;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 
@@ -31,6 +35,11 @@ public class SeatServiceImpl implements SeatService {
     @Autowired
     private DiscoveryClient discoveryClient;
 
+    @Autowired
+    private ConfigClient configClient;
+
+    private static final String DIRECT_PROPORTION_CONFIG = "DirectTicketAllocationProportion";
+
     private static final Logger LOGGER = LoggerFactory.getLogger(SeatServiceImpl.class);
 
     private String getServiceUrl(String serviceName) {
@@ -128,15 +137,36 @@ public class SeatServiceImpl implements SeatService {
 
     @Override
     public Response getLeftTicketOfInterval(Seat seatRequest, HttpHeaders headers) {
-        int numOfLeftTicket = 0;
-        LeftTicketInfo leftTicketInfo;
+        SeatServiceImpl.LOGGER.info("[getLeftTicketOfInterval][Seat request][request:{}]", seatRequest.toString());
+        LeftTicketInfo leftTicketInfo = getSoldTickets(seatRequest, headers);
+        int numOfLeftTicket = countLeftTickets(seatRequest, leftTicketInfo, getDirectProportion(headers));
+        return new Response<>(1, "Get Left Ticket of Internal Success", numOfLeftTicket);
+    }
+
+    @Override
+    public Response getLeftTicketsOfIntervals(List<Seat> seatRequests, HttpHeaders headers) {
+        //The sold tickets only depend on the train and the date, so every trip is queried once
+        Map<String, LeftTicketInfo> soldTicketsOfTrip = new HashMap<>();
+        double direstPart = getDirectProportion(headers);
+        List<Integer> leftTickets = new ArrayList<>(seatRequests.size());
+        for (Seat seatRequest : seatRequests) {
+            String tripKey = seatRequest.getTrainNumber() + ":" + seatRequest.getTravelDate();
+            if (!soldTicketsOfTrip.containsKey(tripKey)) {
+                soldTicketsOfTrip.put(tripKey, getSoldTickets(seatRequest, headers));
+            }
+            leftTickets.add(countLeftTickets(seatRequest, soldTicketsOfTrip.get(tripKey), direstPart));
+        }
+        SeatServiceImpl.LOGGER.info("[getLeftTicketsOfIntervals][Seat requests: {}, trips: {}]", seatRequests.size(), soldTicketsOfTrip.size());
+        return new Response<>(1, "Get Left Tickets of Intervals Success", leftTickets);
+    }
+
+    private LeftTicketInfo getSoldTickets(Seat seatRequest, HttpHeaders headers) {
         ResponseEntity<Response<LeftTicketInfo>> re3;
 
         //Distinguish G\D from other trains
         String trainNumber = seatRequest.getTrainNumber();
-        SeatServiceImpl.LOGGER.info("[getLeftTicketOfInterval][Seat request][request:{}]", seatRequest.toString());
         if (trainNumber.startsWith("G") || trainNumber.startsWith("D")) {
-            SeatServiceImpl.LOGGER.info("[getLeftTicketOfInterval][TrainNumber start with G|D][trainNumber:{}]", trainNumber);
+            SeatServiceImpl.LOGGER.info("[getSoldTickets][TrainNumber start with G|D][trainNumber:{}]", trainNumber);
 
             //Call the micro service to query all the station information for the trains
             HttpEntity requestEntity = new HttpEntity(seatRequest, null);
@@ -147,15 +177,10 @@ public class SeatServiceImpl implements SeatService {
                     requestEntity,
                     new ParameterizedTypeReference<Response<LeftTicketInfo>>() {
                     });
-
-            SeatServiceImpl.LOGGER.info("[getLeftTicketOfInterval][Get Order tickets result][result is {}]", re3);
-            leftTicketInfo = re3.getBody().getData();
         } else {
-            SeatServiceImpl.LOGGER.info("[getLeftTicketOfInterval][TrainNumber start with other capital][trainNumber:{}]", trainNumber);
-            //Call the micro service to query all the station information for the trains
-            HttpEntity requestEntity = new HttpEntity(null);
+            SeatServiceImpl.LOGGER.info("[getSoldTickets][TrainNumber start with other capital][trainNumber:{}]", trainNumber);
             //Call the micro service to query for residual Ticket information: the set of the Ticket sold for the specified seat type
-            requestEntity = new HttpEntity(seatRequest, null);
+            HttpEntity requestEntity = new HttpEntity(seatRequest, null);
             String order_other_service_url=getServiceUrl("ts-order-other-service");
             re3 = restTemplate.exchange(
                     order_other_service_url + "/api/v1/orderOtherService/orderOther/tickets",
@@ -163,10 +188,13 @@ public class SeatServiceImpl implements SeatService {
                     requestEntity,
                     new ParameterizedTypeReference<Response<LeftTicketInfo>>() {
                     });
-            SeatServiceImpl.LOGGER.info("[getLeftTicketOfInterval][Get Order tickets result][result is {}]", re3);
-            leftTicketInfo = re3.getBody().getData();
         }
+        SeatServiceImpl.LOGGER.info("[getSoldTickets][Get Order tickets result][result is {}]", re3);
+        return re3.getBody().getData();
+    }
 
+    private int countLeftTickets(Seat seatRequest, LeftTicketInfo leftTicketInfo, double direstPart) {
+        int numOfLeftTicket = 0;
         //Counting the seats remaining in certain sections
         List<String> stationList = seatRequest.getStations();
         int seatTotalNum = seatRequest.getTotalNum();
@@ -180,15 +208,13 @@ public class SeatServiceImpl implements SeatService {
                 String soldTicketDestStation = soldTicket.getDestStation();
                 //Tickets can be allocated if the sold ticket's end station before the start station of the request
                 if (stationList.indexOf(soldTicketDestStation) < stationList.indexOf(startStation)) {
-                    SeatServiceImpl.LOGGER.info("[getLeftTicketOfInterval][Ticket available or sold][The previous distributed seat number is usable][{}]", soldTicket.getSeatNo());
+                    SeatServiceImpl.LOGGER.info("[countLeftTickets][Ticket available or sold][The previous distributed seat number is usable][{}]", soldTicket.getSeatNo());
                     numOfLeftTicket++;
                 }
             }
         }
         //Count the unsold tickets
 
-        double direstPart = getDirectProportion(headers);
-
         if (stationList.get(0).equals(seatRequest.getStartStation()) &&
                 stationList.get(stationList.size() - 1).equals(seatRequest.getDestStation())) {
             //do nothing
@@ -198,23 +224,12 @@ public class SeatServiceImpl implements SeatService {
 
         int unusedNum = (int) (seatTotalNum * direstPart) - solidTicketSize;
         numOfLeftTicket += unusedNum;
-
-        return new Response<>(1, "Get Left Ticket of Internal Success", numOfLeftTicket);
+        return numOfLeftTicket;
     }
 
     private double getDirectProportion(HttpHeaders headers) {
-
-        String configName = "DirectTicketAllocationProportion";
-        HttpEntity requestEntity = new HttpEntity(null);
-        String config_service_url = getServiceUrl("ts-config-service");
-        ResponseEntity<Response<Config>> re = restTemplate.exchange(
-                config_service_url + "/api/v1/configservice/configs/" + configName,
-                HttpMethod.GET,
-                requestEntity,
-                new ParameterizedTypeReference<Response<Config>>() {
-                });
-        Response<Config> configValue = re.getBody();
-        SeatServiceImpl.LOGGER.info("[getDirectProportion][Configs is : {}]", configValue.getData().toString());
-        return Double.parseDouble(configValue.getData().getValue());
+        String value = configClient.get(DIRECT_PROPORTION_CONFIG);
+        SeatServiceImpl.LOGGER.info("[getDirectProportion][Config value: {}]", value);
+        return Double.parseDouble(value);
     }
-}
\ No newline at end of file
+}
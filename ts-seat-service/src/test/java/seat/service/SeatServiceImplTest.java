@@ -1,5 +1,6 @@
 package seat.service;
 
+import edu.fudan.common.util.ConfigClient;
 import edu.fudan.common.util.Response;
 import org.junit.Assert;
 import org.junit.Before;
@@ -16,6 +17,10 @@ import org.springframework.web.client.RestTemplate;
 import edu.fudan.common.entity.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 
 @RunWith(JUnit4.class)
 public class SeatServiceImplTest {
@@ -26,6 +31,9 @@ public class SeatServiceImplTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Mock
+    private ConfigClient configClient;
+
     private HttpHeaders headers = new HttpHeaders();
 
     @Before
@@ -114,16 +122,13 @@ public class SeatServiceImplTest {
         Response<TrainType> response3 = new Response<>(null, null, trainType);
         ResponseEntity<Response<TrainType>> re3 = new ResponseEntity<>(response3, HttpStatus.OK);
 
-        Config config = new Config();
-        config.setValue("0");
-        Response<Config> response4 = new Response<>(null, null, config);
-        ResponseEntity<Response<Config>> re4 = new ResponseEntity<>(response4, HttpStatus.OK);
+        Mockito.when(configClient.get("DirectTicketAllocationProportion")).thenReturn("0");
         Mockito.when(restTemplate.exchange(
                 Mockito.anyString(),
                 Mockito.any(HttpMethod.class),
                 Mockito.any(HttpEntity.class),
                 Mockito.any(ParameterizedTypeReference.class)))
-                .thenReturn(re1).thenReturn(re2).thenReturn(re3).thenReturn(re4);
+                .thenReturn(re1).thenReturn(re2).thenReturn(re3);
         Response result = seatServiceImpl.getLeftTicketOfInterval(seat, headers);
         Assert.assertEquals(new Response<>(1, "Get Left Ticket of Internal Success", 1), result);
     }
@@ -149,18 +154,54 @@ public class SeatServiceImplTest {
         Response<TrainType> response3 = new Response<>(null, null, trainType);
         ResponseEntity<Response<TrainType>> re3 = new ResponseEntity<>(response3, HttpStatus.OK);
 
-        Config config = new Config();
-        config.setValue("0");
-        Response<Config> response4 = new Response<>(null, null, config);
-        ResponseEntity<Response<Config>> re4 = new ResponseEntity<>(response4, HttpStatus.OK);
+        Mockito.when(configClient.get("DirectTicketAllocationProportion")).thenReturn("0");
         Mockito.when(restTemplate.exchange(
                 Mockito.anyString(),
                 Mockito.any(HttpMethod.class),
                 Mockito.any(HttpEntity.class),
                 Mockito.any(ParameterizedTypeReference.class)))
-                .thenReturn(re1).thenReturn(re2).thenReturn(re3).thenReturn(re4);
+                .thenReturn(re1).thenReturn(re2).thenReturn(re3);
         Response result = seatServiceImpl.getLeftTicketOfInterval(seat, headers);
         Assert.assertEquals(new Response<>(1, "Get Left Ticket of Internal Success", 1), result);
     }
 
+    @Test
+    public void testGetLeftTicketsOfIntervals() {
+        List<String> stations = Arrays.asList("start_station", "middle_station", "dest_station");
+        List<Seat> seats = new ArrayList<>();
+        seats.add(new Seat("2023-01-01", "G1234", "start_station", "dest_station", 2, 10, stations));
+        seats.add(new Seat("2023-01-01", "G1234", "middle_station", "dest_station", 3, 10, stations));
+        seats.add(new Seat("2023-01-01", "Z1234", "start_station", "dest_station", 3, 10, stations));
+
+        Mockito.when(configClient.get("DirectTicketAllocationProportion")).thenReturn("0.5");
+        LeftTicketInfo leftTicketInfo = new LeftTicketInfo();
+        leftTicketInfo.setSoldTickets(new HashSet<>(Collections.singletonList(new Ticket(1, "start_station", "start_station"))));
+        Mockito.when(restTemplate.exchange(
+                Mockito.contains("/orderservice/"),
+                Mockito.any(HttpMethod.class),
+                Mockito.any(HttpEntity.class),
+                Mockito.any(ParameterizedTypeReference.class)))
+                .thenReturn(new ResponseEntity<>(new Response<>(1, null, leftTicketInfo), HttpStatus.OK));
+        Mockito.when(restTemplate.exchange(
+                Mockito.contains("/orderOtherService/"),
+                Mockito.any(HttpMethod.class),
+                Mockito.any(HttpEntity.class),
+                Mockito.any(ParameterizedTypeReference.class)))
+                .thenReturn(new ResponseEntity<>(new Response<>(0, null, null), HttpStatus.OK));
+
+        Response result = seatServiceImpl.getLeftTicketsOfIntervals(seats, headers);
+        Assert.assertEquals(Arrays.asList(4, 5, 5), result.getData());
+        Mockito.verify(restTemplate, Mockito.times(1)).exchange(
+                Mockito.contains("/orderservice/"),
+                Mockito.any(HttpMethod.class),
+                Mockito.any(HttpEntity.class),
+                Mockito.any(ParameterizedTypeReference.class));
+        Mockito.verify(configClient, Mockito.times(1)).get("DirectTicketAllocationProportion");
+        Mockito.verify(restTemplate, Mockito.never()).exchange(
+                Mockito.contains("/configs/"),
+                Mockito.any(HttpMethod.class),
+                Mockito.any(HttpEntity.class),
+                Mockito.any(ParameterizedTypeReference.class));
+    }
+
 }
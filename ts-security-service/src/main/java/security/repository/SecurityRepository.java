@@ -1,12 +1,16 @@
 package security.repository;
 
 
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 import security.entity.SecurityConfig;
+import javax.persistence.QueryHint;
 import java.util.ArrayList;
 import java.util.Optional;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 /**
  * @author fdse
  */
@@ -14,12 +18,14 @@ import java.util.Optional;
 public interface SecurityRepository extends CrudRepository<SecurityConfig,String> {
 
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     SecurityConfig findByName(String name);
 
 
     Optional<SecurityConfig> findById(String id);
 
     @Override
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     ArrayList<SecurityConfig> findAll();
 
     void deleteById(String id);
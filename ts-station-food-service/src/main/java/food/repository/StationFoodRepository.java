@@ -1,20 +1,26 @@
 package food.repository;
 
 import food.entity.StationFoodStore;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 @Repository
 public interface StationFoodRepository extends CrudRepository<StationFoodStore, String> {
 
     @Override
     Optional<StationFoodStore> findById(String id);
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<StationFoodStore> findByStationName(String stationName);
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<StationFoodStore> findByStationNameIn(List<String> stationNames);
 
 
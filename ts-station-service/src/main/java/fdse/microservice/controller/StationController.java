@@ -90,4 +90,19 @@ public class StationController {
         return ok(stationService.queryByIdBatch(stationIdList, headers));
     }
 
+    // according to station id list  ---> query station name of every id
+    @CrossOrigin(origins = "*")
+    @PostMapping(value = "/stations/namemap")
+    public HttpEntity queryForNameMap(@RequestBody List<String> stationIdList, @RequestHeader HttpHeaders headers) {
+        StationController.LOGGER.info("[queryForNameMap][Query stations for name map][StationIdNumbers: {}]",stationIdList.size());
+        return ok(stationService.queryForNameMap(stationIdList, headers));
+    }
+
+    // all stations, data.stations is null when the caller already has the current version
+    @GetMapping(value = "/stations/dictionary")
+    public HttpEntity queryDictionary(@RequestParam(value = "version", required = false) String version,
+                                      @RequestHeader HttpHeaders headers) {
+        return ok(stationService.queryDictionary(version, headers));
+    }
+
 }
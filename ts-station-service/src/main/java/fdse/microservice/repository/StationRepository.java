@@ -2,18 +2,24 @@ package fdse.microservice.repository;
 
 import fdse.microservice.entity.Station;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 @Repository
 public interface StationRepository extends CrudRepository<Station,String> {
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Station findByName(String name);
 
-    @Query(value="SELECT * from station where name in ?1", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("SELECT s FROM Station s WHERE s.name IN ?1")
     List<Station> findByNames(List<String> names);
 
     Optional<Station> findById(String id);
@@ -26,4 +26,8 @@ public interface StationService {
 
     Response queryByIdBatch(List<String> stationIdList, HttpHeaders headers);
 
+    Response queryForNameMap(List<String> stationIdList, HttpHeaders headers);
+
+    Response queryDictionary(String version, HttpHeaders headers);
+
 }
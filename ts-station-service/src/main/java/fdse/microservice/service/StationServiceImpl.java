@@ -1,11 +1,14 @@
 package fdse.microservice.service;
 
+import edu.fudan.common.entity.StationDictionary;
+import edu.fudan.common.util.ContentVersion;
 import edu.fudan.common.util.Response;
 import fdse.microservice.entity.*;
 import fdse.microservice.repository.StationRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 
@@ -18,6 +21,16 @@ public class StationServiceImpl implements StationService {
     @Autowired
     private StationRepository repository;
 
+    @Value("${station.dictionary.refresh-ms:5000}")
+    private long dictionaryRefreshMillis = 5000;
+
+    /**
+     * all stations, reloaded after local changes and every refresh-ms for changes made through other instances
+     */
+    private volatile StationDictionary dictionary;
+
+    private volatile long dictionaryLoadedAt;
+
     String success = "Success";
 
     private static final Logger LOGGER = LoggerFactory.getLogger(StationServiceImpl.class);
@@ -31,6 +44,7 @@ public class StationServiceImpl implements StationService {
         if (repository.findByName(station.getName()) == null) {
             station.setStayTime(station.getStayTime());
             repository.save(station);
+            dictionary = null;
             return new Response<>(1, "Create success", station);
         }
         StationServiceImpl.LOGGER.error("[create][Create station error][Already exists][StationId: {}]",station.getId());
@@ -59,6 +73,7 @@ public class StationServiceImpl implements StationService {
             station.setName(info.getName());
             station.setStayTime(info.getStayTime());
             repository.save(station);
+            dictionary = null;
             return new Response<>(1, "Update success", station);
         }
     }
@@ -69,6 +84,7 @@ public class StationServiceImpl implements StationService {
         if (op.isPresent()) {
             Station station = op.get();
             repository.delete(station);
+            dictionary = null;
             return new Response<>(1, "Delete success", station);
         }
         StationServiceImpl.LOGGER.error("[delete][Delete station error][Station not found][StationId: {}]",stationsId);
@@ -134,12 +150,11 @@ public class StationServiceImpl implements StationService {
 
     @Override
     public Response queryByIdBatch(List<String> idList, HttpHeaders headers) {
+        Map<String, String> names = namesOf(idList);
         ArrayList<String> result = new ArrayList<>();
-        for (int i = 0; i < idList.size(); i++) {
-            Optional<Station> stationOld = repository.findById(idList.get(i));
-            if(stationOld.isPresent()){
-                Station station=stationOld.get();
-                result.add(station.getName());
+        for (String id : idList) {
+            if (names.containsKey(id)) {
+                result.add(names.get(id));
             }
         }
 
@@ -151,4 +166,54 @@ public class StationServiceImpl implements StationService {
         }
 
     }
+
+    @Override
+    public Response queryForNameMap(List<String> idList, HttpHeaders headers) {
+        Map<String, String> names = namesOf(idList);
+        Map<String, String> result = new HashMap<>();
+        for (String id : idList) {
+            result.put(id, names.get(id));
+        }
+
+        if (!result.isEmpty()) {
+            return new Response<>(1, success, result);
+        } else {
+            StationServiceImpl.LOGGER.warn("[queryForNameMap][Find station names warn][Stations not found][StationIdNumber: {}]",idList.size());
+            return new Response<>(0, "No content according to id list", null);
+        }
+    }
+
+    @Override
+    public Response queryDictionary(String version, HttpHeaders headers) {
+        StationDictionary current = dictionary;
+        if (current == null || System.currentTimeMillis() - dictionaryLoadedAt >= dictionaryRefreshMillis) {
+            current = loadDictionary();
+        }
+        if (current.getVersion().equals(version)) {
+            return new Response<>(1, "Not modified", new StationDictionary(version, null));
+        }
+        return new Response<>(1, success, current);
+    }
+
+    /**
+     * @return id to name of the stations found, with one query
+     */
+    private Map<String, String> namesOf(List<String> idList) {
+        Map<String, String> names = new HashMap<>();
+        for (Station station : repository.findAllById(new HashSet<>(idList))) {
+            names.put(station.getId(), station.getName());
+        }
+        return names;
+    }
+
+    private synchronized StationDictionary loadDictionary() {
+        Map<String, String> stations = new TreeMap<>();
+        for (Station station : repository.findAll()) {
+            stations.put(station.getId(), station.getName());
+        }
+        StationDictionary loaded = new StationDictionary(ContentVersion.of(stations), Collections.unmodifiableMap(stations));
+        dictionary = loaded;
+        dictionaryLoadedAt = System.currentTimeMillis();
+        return loaded;
+    }
 }
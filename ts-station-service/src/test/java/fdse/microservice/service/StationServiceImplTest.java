@@ -1,5 +1,6 @@
 package fdse.microservice.service;
 
+import edu.fudan.common.entity.StationDictionary;
 import edu.fudan.common.util.Response;
 import fdse.microservice.entity.Station;
 import fdse.microservice.repository.StationRepository;
@@ -15,7 +16,12 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpHeaders;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @RunWith(JUnit4.class)
 public class StationServiceImplTest {
@@ -171,9 +177,47 @@ public class StationServiceImplTest {
         Station station = new Station();
         List<String> idList = new ArrayList<>();
         idList.add("station_id");
-        Mockito.when(repository.findById(Mockito.anyString()).get()).thenReturn(station);
+        station.setId("station_id");
+        Mockito.when(repository.findAllById(Mockito.anyIterable())).thenReturn(Collections.singletonList(station));
         Response result = stationServiceImpl.queryByIdBatch(idList, headers);
         Assert.assertEquals("Success", result.getMsg());
+        Mockito.verify(repository, Mockito.never()).findById(Mockito.anyString());
+    }
+
+    @Test
+    public void testQueryForNameMap() {
+        Station station = new Station("shanghai");
+        station.setId("station_id");
+        Mockito.when(repository.findAllById(Mockito.anyIterable())).thenReturn(Collections.singletonList(station));
+        Response result = stationServiceImpl.queryForNameMap(Arrays.asList("station_id", "other_id"), headers);
+        Map<String, String> expected = new HashMap<>();
+        expected.put("station_id", "shanghai");
+        expected.put("other_id", null);
+        Assert.assertEquals(new Response<>(1, "Success", expected), result);
+    }
+
+    @Test
+    public void testQueryDictionary() {
+        Station station = new Station("shanghai");
+        station.setId("station_id");
+        Mockito.when(repository.findAll()).thenReturn(Collections.singletonList(station));
+        Response<StationDictionary> result = stationServiceImpl.queryDictionary(null, headers);
+        Assert.assertEquals("Success", result.getMsg());
+        Assert.assertEquals(Collections.singletonMap("station_id", "shanghai"), result.getData().getStations());
+
+        String version = result.getData().getVersion();
+        Response<StationDictionary> notModified = stationServiceImpl.queryDictionary(version, headers);
+        Assert.assertEquals(new Response<>(1, "Not modified", new StationDictionary(version, null)), notModified);
+        Mockito.verify(repository, Mockito.times(1)).findAll();
+
+        // a local change reloads the dictionary and changes its version
+        Mockito.when(repository.findById(Mockito.anyString())).thenReturn(Optional.of(station));
+        Station renamed = new Station("shanghaihongqiao");
+        renamed.setId("station_id");
+        stationServiceImpl.update(renamed, headers);
+        Response<StationDictionary> changed = stationServiceImpl.queryDictionary(version, headers);
+        Assert.assertNotEquals(version, changed.getData().getVersion());
+        Assert.assertEquals("shanghaihongqiao", changed.getData().getStations().get("station_id"));
     }
 
 }
@@ -3,6 +3,8 @@ package trainFood.entity;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import edu.fudan.common.entity.Food;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.GenericGenerator;
 
 import javax.persistence.*;
@@ -13,6 +15,8 @@ import java.util.UUID;
 
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "train_food")
 @GenericGenerator(name = "jpa-uuid", strategy = "org.hibernate.id.UUIDGenerator")
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class TrainFood {
@@ -27,6 +31,7 @@ public class TrainFood {
     private String tripId;
 
     @ElementCollection(targetClass = Food.class)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "train_food_list")
     @CollectionTable(name = "train_food_list", joinColumns = @JoinColumn(name = "trip_id"))
     private List<Food> foodList;
 
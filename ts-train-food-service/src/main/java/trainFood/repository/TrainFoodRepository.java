@@ -1,21 +1,27 @@
 package trainFood.repository;
 
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 import trainFood.entity.TrainFood;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 import java.util.UUID;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 @Repository
 public interface TrainFoodRepository extends CrudRepository<TrainFood, String> {
 
     TrainFood findById(UUID id);
 
     @Override
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<TrainFood> findAll();
 
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     TrainFood findByTripId(String tripId);
 
     void deleteById(UUID id);
@@ -8,7 +8,9 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
 import train.entity.TrainType;
+import train.entity.TrainTypeSnapshot;
 import train.service.TrainService;
+import train.service.TrainTypeCatalog;
 
 import java.util.List;
 
@@ -66,6 +68,22 @@ public class TrainController {
         }
     }
 
+    /**
+     * All train types for callers that keep their own copy. A caller passing the
+     * version it has gets "not modified" and no train types while nothing changed.
+     */
+    @CrossOrigin(origins = "*")
+    @GetMapping(value = "/trains/catalog")
+    public HttpEntity retrieveCatalog(@RequestParam(required = false) String version, @RequestHeader HttpHeaders headers) {
+        TrainController.LOGGER.info("[retrieveCatalog][Retrieve train catalog][version: {}]", version);
+        TrainTypeCatalog catalog = trainService.queryCatalog(headers);
+        if (catalog.getVersion().equals(version)) {
+            return ok(new Response(1, "not modified", new TrainTypeSnapshot(version, null)));
+        } else {
+            return ok(new Response(1, "success", new TrainTypeSnapshot(catalog.getVersion(), catalog.getTrainTypes())));
+        }
+    }
+
     @CrossOrigin(origins = "*")
     @PostMapping(value = "/trains/byNames")
     public HttpEntity retrieveByName(@RequestBody List<String> names, @RequestHeader HttpHeaders headers) {
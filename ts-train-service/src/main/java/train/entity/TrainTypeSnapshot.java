@@ -0,0 +1,26 @@
+package train.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * All train types with the version of the catalog they come from. trainTypes is
+ * null when the caller already has this version.
+ *
+ * @author fdse
+ */
+@Data
+@AllArgsConstructor
+public class TrainTypeSnapshot {
+
+    private String version;
+
+    private List<TrainType> trainTypes;
+
+    public TrainTypeSnapshot() {
+        //Default Constructor
+    }
+
+}
@@ -1,13 +1,17 @@
 package train.repository;
 
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 import train.entity.TrainType;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 @Repository
 public interface TrainTypeRepository extends CrudRepository<TrainType,String> {
 
@@ -15,8 +19,10 @@ public interface TrainTypeRepository extends CrudRepository<TrainType,String> {
     @Override
     List<TrainType> findAll();
     void deleteById(String id);
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     TrainType findByName(String name);
 
-    @Query(value="SELECT * from train_type where name in ?1", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("SELECT t FROM TrainType t WHERE t.name IN ?1")
     List<TrainType> findByNames(List<String> names);
 }
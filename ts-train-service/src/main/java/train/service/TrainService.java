@@ -20,4 +20,6 @@ public interface TrainService {
     boolean delete(String id,HttpHeaders headers);
 
     List<TrainType> query(HttpHeaders headers);
+
+    TrainTypeCatalog queryCatalog(HttpHeaders headers);
 }
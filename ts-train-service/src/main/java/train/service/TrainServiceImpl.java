@@ -3,9 +3,13 @@ package train.service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import train.entity.TrainType;
 import train.repository.TrainTypeRepository;
 
@@ -19,6 +23,11 @@ public class TrainServiceImpl implements TrainService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TrainServiceImpl.class);
 
+    /**
+     * every read is served from here; replaced after each write
+     */
+    private volatile TrainTypeCatalog catalog;
+
     @Override
     public boolean create(TrainType trainType, HttpHeaders headers) {
         boolean result = false;
@@ -30,6 +39,7 @@ public class TrainServiceImpl implements TrainService {
             TrainType type = new TrainType(trainType.getName(), trainType.getEconomyClass(), trainType.getConfortClass());
             type.setAverageSpeed(trainType.getAverageSpeed());
             repository.save(type);
+            reloadCatalog();
             result = true;
         }
         else {
@@ -40,17 +50,16 @@ public class TrainServiceImpl implements TrainService {
 
     @Override
     public TrainType retrieve(String id, HttpHeaders headers) {
-        if (!repository.findById(id).isPresent()) {
+        TrainType tt = catalog().byId(id);
+        if (tt == null) {
             TrainServiceImpl.LOGGER.error("[retrieve][Retrieve train error][Train not found][TrainTypeId: {}]",id);
-            return null;
-        } else {
-            return repository.findById(id).get();
         }
+        return tt;
     }
 
     @Override
     public TrainType retrieveByName(String name, HttpHeaders headers) {
-        TrainType tt = repository.findByName(name);
+        TrainType tt = catalog().byName(name);
         if (tt == null) {
             TrainServiceImpl.LOGGER.error("[retrieveByName][RetrieveByName error][Train not found][TrainTypeName: {}]", name);
             return null;
@@ -61,7 +70,7 @@ public class TrainServiceImpl implements TrainService {
 
     @Override
     public List<TrainType> retrieveByNames(List<String> names, HttpHeaders headers) {
-        List<TrainType> tt = repository.findByNames(names);
+        List<TrainType> tt = catalog().byNames(names);
         if (tt == null || tt.isEmpty()) {
             TrainServiceImpl.LOGGER.error("[retrieveByNames][RetrieveByNames error][Train not found][TrainTypeNames: {}]", names);
             return null;
@@ -78,6 +87,7 @@ public class TrainServiceImpl implements TrainService {
             TrainType type = new TrainType(trainType.getName(), trainType.getEconomyClass(), trainType.getConfortClass(), trainType.getAverageSpeed());
             type.setId(trainType.getId());
             repository.save(type);
+            reloadCatalogAfterCommit();
             result = true;
         }
         else {
@@ -91,6 +101,7 @@ public class TrainServiceImpl implements TrainService {
         boolean result = false;
         if (repository.findById(id).isPresent()) {
             repository.deleteById(id);
+            reloadCatalog();
             result = true;
         }
         else {
@@ -101,7 +112,56 @@ public class TrainServiceImpl implements TrainService {
 
     @Override
     public List<TrainType> query(HttpHeaders headers) {
-        return repository.findAll();
+        return catalog().getTrainTypes();
+    }
+
+    @Override
+    public TrainTypeCatalog queryCatalog(HttpHeaders headers) {
+        return catalog();
+    }
+
+    /**
+     * Picks up writes made through other instances. A failed reload keeps the
+     * current catalog.
+     */
+    @Scheduled(initialDelayString = "${train.catalog.refresh-ms:30000}", fixedDelayString = "${train.catalog.refresh-ms:30000}")
+    public void refreshCatalog() {
+        try {
+            reloadCatalog();
+        } catch (DataAccessException e) {
+            TrainServiceImpl.LOGGER.warn("[refreshCatalog][Reload train types failed, using version {}][exception: {}]",
+                    catalog == null ? null : catalog.getVersion(), e.toString());
+        }
+    }
+
+    private TrainTypeCatalog catalog() {
+        TrainTypeCatalog current = catalog;
+        return current == null ? reloadCatalog() : current;
+    }
+
+    private synchronized TrainTypeCatalog reloadCatalog() {
+        TrainTypeCatalog loaded = TrainTypeCatalog.of(repository.findAll());
+        if (catalog == null || !catalog.getVersion().equals(loaded.getVersion())) {
+            TrainServiceImpl.LOGGER.info("[reloadCatalog][Train types loaded][version: {}, trainTypes: {}]", loaded.getVersion(), loaded.size());
+        }
+        catalog = loaded;
+        return loaded;
+    }
+
+    /**
+     * the catalog is rebuilt once the update is visible to the reload
+     */
+    private void reloadCatalogAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reloadCatalog();
+                }
+            });
+        } else {
+            reloadCatalog();
+        }
     }
 
 }
@@ -0,0 +1,102 @@
+package train.service;
+
+import edu.fudan.common.util.ContentVersion;
+import train.entity.TrainType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All train types, indexed by id and by name. A catalog never changes; the service
+ * builds a new one after every write and swaps it in, so reads are map lookups that
+ * neither wait for the database nor see a half-applied write.
+ *
+ * The train types are copies detached from the persistence context. They are shared
+ * by every reader and must not be modified.
+ *
+ * @author fdse
+ */
+public final class TrainTypeCatalog {
+
+    private final String version;
+
+    private final List<TrainType> trainTypes;
+
+    private final Map<String, TrainType> byId;
+
+    private final Map<String, TrainType> byName;
+
+    private TrainTypeCatalog(String version, List<TrainType> trainTypes, Map<String, TrainType> byId, Map<String, TrainType> byName) {
+        this.version = version;
+        this.trainTypes = trainTypes;
+        this.byId = byId;
+        this.byName = byName;
+    }
+
+    public static TrainTypeCatalog of(Collection<TrainType> loaded) {
+        List<TrainType> trainTypes = new ArrayList<>();
+        if (loaded != null) {
+            for (TrainType trainType : loaded) {
+                TrainType copy = new TrainType(trainType.getName(), trainType.getEconomyClass(), trainType.getConfortClass(), trainType.getAverageSpeed());
+                copy.setId(trainType.getId());
+                trainTypes.add(copy);
+            }
+        }
+        trainTypes.sort(Comparator.comparing(TrainType::getName, Comparator.nullsFirst(Comparator.naturalOrder())));
+        Map<String, TrainType> byId = new HashMap<>();
+        Map<String, TrainType> byName = new HashMap<>();
+        ContentVersion version = new ContentVersion();
+        for (TrainType trainType : trainTypes) {
+            byId.put(trainType.getId(), trainType);
+            byName.put(trainType.getName(), trainType);
+            version.add(trainType.getId(), trainType.getName(), trainType.getEconomyClass(),
+                    trainType.getConfortClass(), trainType.getAverageSpeed());
+        }
+        return new TrainTypeCatalog(version.get(), Collections.unmodifiableList(trainTypes),
+                Collections.unmodifiableMap(byId), Collections.unmodifiableMap(byName));
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * @return all train types ordered by name
+     */
+    public List<TrainType> getTrainTypes() {
+        return trainTypes;
+    }
+
+    public TrainType byId(String id) {
+        return byId.get(id);
+    }
+
+    public TrainType byName(String name) {
+        return byName.get(name);
+    }
+
+    /**
+     * @return the train types found, in the order of their first name in names
+     */
+    public List<TrainType> byNames(Collection<String> names) {
+        Map<String, TrainType> found = new LinkedHashMap<>();
+        for (String name : names) {
+            TrainType trainType = byName.get(name);
+            if (trainType != null) {
+                found.putIfAbsent(name, trainType);
+            }
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    public int size() {
+        return trainTypes.size();
+    }
+
+}
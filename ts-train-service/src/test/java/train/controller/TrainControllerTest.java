@@ -18,8 +18,10 @@ import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import train.entity.TrainType;
 import train.service.TrainService;
+import train.service.TrainTypeCatalog;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 @RunWith(JUnit4.class)
@@ -147,4 +149,22 @@ public class TrainControllerTest {
         Assert.assertEquals("no content", JSONObject.parseObject(result, Response.class).getMsg());
     }
 
+    @Test
+    public void testRetrieveCatalog() throws Exception {
+        TrainTypeCatalog catalog = TrainTypeCatalog.of(Collections.singletonList(new TrainType("GaoTieOne", 10, 10, 250)));
+        Mockito.when(trainService.queryCatalog(Mockito.any(HttpHeaders.class))).thenReturn(catalog);
+        String result = mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/trainservice/trains/catalog"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JSONObject snapshot = JSONObject.parseObject(result).getJSONObject("data");
+        Assert.assertEquals(catalog.getVersion(), snapshot.getString("version"));
+        Assert.assertEquals("GaoTieOne", snapshot.getJSONArray("trainTypes").getJSONObject(0).getString("name"));
+
+        result = mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/trainservice/trains/catalog").param("version", catalog.getVersion()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Assert.assertEquals("not modified", JSONObject.parseObject(result, Response.class).getMsg());
+        Assert.assertNull(JSONObject.parseObject(result).getJSONObject("data").get("trainTypes"));
+    }
+
 }
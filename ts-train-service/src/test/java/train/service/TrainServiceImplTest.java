@@ -13,6 +13,9 @@ import org.springframework.http.HttpHeaders;
 import train.entity.TrainType;
 import train.repository.TrainTypeRepository;
 
+import java.util.Arrays;
+import java.util.Collections;
+
 @RunWith(JUnit4.class)
 public class TrainServiceImplTest {
 
@@ -48,17 +51,22 @@ public class TrainServiceImplTest {
 
     @Test
     public void testRetrieve1() {
-        Mockito.when(repository.findById(Mockito.anyString())).thenReturn(null);
+        Mockito.when(repository.findAll()).thenReturn(Collections.emptyList());
         TrainType result = trainServiceImpl.retrieve("id", headers);
         Assert.assertNull(result);
     }
 
     @Test
     public void testRetrieve2() {
-        TrainType trainType = new TrainType();
-        Mockito.when(repository.findById(Mockito.anyString()).get()).thenReturn(trainType);
+        TrainType trainType = new TrainType("GaoTieOne", 10, 10, 250);
+        trainType.setId("id");
+        Mockito.when(repository.findAll()).thenReturn(Collections.singletonList(trainType));
         TrainType result = trainServiceImpl.retrieve("id", headers);
-        Assert.assertNotNull(result);
+        Assert.assertEquals(trainType, result);
+        // served from the catalog, the database is read once
+        trainServiceImpl.retrieve("id", headers);
+        Mockito.verify(repository, Mockito.times(1)).findAll();
+        Mockito.verify(repository, Mockito.never()).findById(Mockito.anyString());
     }
 
     @Test
@@ -97,7 +105,31 @@ public class TrainServiceImplTest {
     @Test
     public void testQuery() {
         Mockito.when(repository.findAll()).thenReturn(null);
-        Assert.assertNull(trainServiceImpl.query(headers));
+        Assert.assertTrue(trainServiceImpl.query(headers).isEmpty());
+    }
+
+    @Test
+    public void testRetrieveByNames() {
+        Mockito.when(repository.findAll()).thenReturn(Arrays.asList(new TrainType("GaoTieOne", 10, 10, 250),
+                new TrainType("DongCheOne", 10, 10, 200), new TrainType("ZhiDa", 10, 10, 120)));
+        Assert.assertEquals(Arrays.asList(new TrainType("ZhiDa", 10, 10, 120), new TrainType("GaoTieOne", 10, 10, 250)),
+                trainServiceImpl.retrieveByNames(Arrays.asList("ZhiDa", "TeKuai", "GaoTieOne", "ZhiDa"), headers));
+        Assert.assertNull(trainServiceImpl.retrieveByNames(Collections.singletonList("TeKuai"), headers));
+        Mockito.verify(repository, Mockito.never()).findByNames(Mockito.anyList());
+    }
+
+    @Test
+    public void testCatalogReloadedAfterCreate() {
+        Mockito.when(repository.findAll()).thenReturn(Collections.emptyList());
+        String version = trainServiceImpl.queryCatalog(headers).getVersion();
+        Assert.assertNull(trainServiceImpl.retrieveByName("GaoTieOne", headers));
+
+        TrainType trainType = new TrainType("GaoTieOne", 10, 10, 250);
+        Mockito.when(repository.findByName("GaoTieOne")).thenReturn(null);
+        Mockito.when(repository.findAll()).thenReturn(Collections.singletonList(trainType));
+        Assert.assertTrue(trainServiceImpl.create(trainType, headers));
+        Assert.assertEquals(trainType, trainServiceImpl.retrieveByName("GaoTieOne", headers));
+        Assert.assertNotEquals(version, trainServiceImpl.queryCatalog(headers).getVersion());
     }
 
 }
@@ -35,6 +35,12 @@ public class TravelPlanController {
         return ok(travelPlanService.getTransferSearch(info, headers));
     }
 
+    @PostMapping(value="/travelPlan/transferItineraries" )
+    public HttpEntity getTransferItineraries(@RequestBody TransferTravelInfo info, @RequestHeader HttpHeaders headers) {
+        TravelPlanController.LOGGER.info("[getTransferItineraries][Search Transfer Itineraries][start: {},via: {},end: {}]",info.getStartStation(),info.getViaStation(),info.getEndStation());
+        return ok(travelPlanService.getTransferItineraries(info, headers));
+    }
+
     @PostMapping(value="/travelPlan/cheapest")
     public HttpEntity getByCheapest(@RequestBody TripInfo queryInfo, @RequestHeader HttpHeaders headers) {
         TravelPlanController.LOGGER.info("[getCheapest][Search Cheapest][start: {},end: {},time: {}]",queryInfo.getStartPlace(),queryInfo.getEndPlace(),queryInfo.getDepartureTime());
@@ -0,0 +1,38 @@
+package travelplan.entity;
+
+import edu.fudan.common.entity.TripResponse;
+import edu.fudan.common.util.Amount;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Two legs joined at the via station. The rest ticket numbers are the
+ * smaller of the two legs, since both seats are needed.
+ *
+ * @author fdse
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferItinerary {
+
+    private TripResponse firstSection;
+
+    private TripResponse secondSection;
+
+    private String viaStation;
+
+    private int connectionMinutes;
+
+    private int durationMinutes;
+
+    private Amount priceForEconomyClass;
+
+    private Amount priceForConfortClass;
+
+    private int economyClass;
+
+    private int confortClass;
+
+}
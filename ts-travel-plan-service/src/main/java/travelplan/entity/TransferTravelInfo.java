@@ -21,6 +21,14 @@ public class TransferTravelInfo {
 
     private String trainType;
 
+    /**
+     * connection window at the via station for transfer itineraries,
+     * the configured window is used when not set
+     */
+    private Integer minConnectionMinutes;
+
+    private Integer maxConnectionMinutes;
+
     public TransferTravelInfo() {
         //Empty Constructor
     }
@@ -1,5 +1,6 @@
 package travelplan.entity;
 
+import edu.fudan.common.util.Amount;
 import lombok.Data;
 
 import java.util.Date;
@@ -21,11 +22,11 @@ public class TravelAdvanceResultUnit {
 
     private List<String> stopStations;
 
-    private String priceForSecondClassSeat;
+    private Amount priceForSecondClassSeat;
 
     private int numberOfRestTicketSecondClass;
 
-    private String priceForFirstClassSeat;
+    private Amount priceForFirstClassSeat;
 
     private int numberOfRestTicketFirstClass;
 
@@ -0,0 +1,118 @@
+package travelplan.service;
+
+import edu.fudan.common.entity.TripResponse;
+import edu.fudan.common.util.Amount;
+import edu.fudan.common.util.StringUtils;
+import travelplan.entity.TransferItinerary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Joins first legs ending at the via station with second legs leaving it.
+ * Second legs are indexed by departure minute, so each first leg only visits
+ * the second legs inside its connection window.
+ *
+ * Times are compared as minutes of the day, because the travel services
+ * report trip times on the date the trip was created rather than the travel date.
+ *
+ * @author fdse
+ */
+final class TransferJoin {
+
+    private TransferJoin() {
+    }
+
+    static List<TransferItinerary> join(List<TripResponse> firstSection, List<TripResponse> secondSection,
+                                        String viaStation, int minConnectionMinutes, int maxConnectionMinutes, int limit) {
+        Leg[] departures = new Leg[secondSection.size()];
+        for (int i = 0; i < departures.length; i++) {
+            departures[i] = new Leg(secondSection.get(i));
+        }
+        Arrays.sort(departures, Comparator.comparingInt(leg -> leg.departure));
+        int[] departureMinutes = new int[departures.length];
+        for (int i = 0; i < departures.length; i++) {
+            departureMinutes[i] = departures[i].departure;
+        }
+
+        List<Leg[]> pairs = new ArrayList<>();
+        for (TripResponse first : firstSection) {
+            Leg arrival = new Leg(first);
+            int earliest = arrival.arrival + minConnectionMinutes;
+            int latest = arrival.arrival + maxConnectionMinutes;
+            for (int i = lowerBound(departureMinutes, earliest); i < departures.length && departureMinutes[i] <= latest; i++) {
+                pairs.add(new Leg[]{arrival, departures[i]});
+            }
+        }
+
+        pairs.sort(Comparator.comparingInt((Leg[] pair) -> pair[1].arrival - pair[0].departure)
+                .thenComparingLong(pair -> pair[0].economyPrice.getCents() + pair[1].economyPrice.getCents()));
+        List<TransferItinerary> itineraries = new ArrayList<>(Math.min(limit, pairs.size()));
+        for (int i = 0; i < pairs.size() && i < limit; i++) {
+            itineraries.add(itinerary(pairs.get(i)[0], pairs.get(i)[1], viaStation));
+        }
+        return itineraries;
+    }
+
+    private static TransferItinerary itinerary(Leg first, Leg second, String viaStation) {
+        TransferItinerary itinerary = new TransferItinerary();
+        itinerary.setFirstSection(first.trip);
+        itinerary.setSecondSection(second.trip);
+        itinerary.setViaStation(viaStation);
+        itinerary.setConnectionMinutes(second.departure - first.arrival);
+        itinerary.setDurationMinutes(second.arrival - first.departure);
+        itinerary.setPriceForEconomyClass(first.economyPrice.plus(second.economyPrice));
+        itinerary.setPriceForConfortClass(first.confortPrice.plus(second.confortPrice));
+        itinerary.setEconomyClass(Math.min(first.trip.getEconomyClass(), second.trip.getEconomyClass()));
+        itinerary.setConfortClass(Math.min(first.trip.getConfortClass(), second.trip.getConfortClass()));
+        return itinerary;
+    }
+
+    private static int lowerBound(int[] sorted, int key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static Amount priceOrZero(Amount price) {
+        return price == null ? Amount.ZERO : price;
+    }
+
+    private static final class Leg {
+
+        final TripResponse trip;
+
+        final int departure;
+
+        final int arrival;
+
+        final Amount economyPrice;
+
+        final Amount confortPrice;
+
+        Leg(TripResponse trip) {
+            this.trip = trip;
+            Date start = StringUtils.String2Date(trip.getStartTime());
+            Date end = StringUtils.String2Date(trip.getEndTime());
+            Calendar calendar = Calendar.getInstance();
+            calendar.setTime(start);
+            this.departure = calendar.get(Calendar.HOUR_OF_DAY) * 60 + calendar.get(Calendar.MINUTE);
+            this.arrival = departure + (int) ((end.getTime() - start.getTime()) / 60000);
+            this.economyPrice = priceOrZero(trip.getPriceForEconomyClass());
+            this.confortPrice = priceOrZero(trip.getPriceForConfortClass());
+        }
+    }
+
+}
@@ -12,6 +12,8 @@ public interface TravelPlanService {
 
     Response getTransferSearch(TransferTravelInfo info, HttpHeaders headers);
 
+    Response getTransferItineraries(TransferTravelInfo info, HttpHeaders headers);
+
     Response getCheapest(TripInfo info, HttpHeaders headers);
 
     Response getQuickest(TripInfo info, HttpHeaders headers);
@@ -1,6 +1,6 @@
 package travelplan.service;
 
-import edu.fudan.common.util.JsonUtils;
+import org.apache.skywalking.apm.toolkit.trace.CallableWrapper;
 import edu.fudan.common.util.Response;
 import edu.fudan.common.util.StringUtils;
 import org.slf4j.Logger;
@@ -15,8 +15,10 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.web.client.RestTemplate;
 import edu.fudan.common.entity.*;
+import travelplan.entity.TransferItinerary;
 import travelplan.entity.TransferTravelInfo;
 import travelplan.entity.TransferTravelResult;
 import travelplan.entity.TravelAdvanceResultUnit;
@@ -24,7 +26,15 @@ import travelplan.entity.TravelAdvanceResultUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * @author fdse
@@ -39,6 +49,17 @@ public class TravelPlanServiceImpl implements TravelPlanService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TravelPlanServiceImpl.class);
 
+    private static final ExecutorService executorService = Executors.newFixedThreadPool(20, new CustomizableThreadFactory("HttpClientThreadPool-"));
+
+    @Value("${travel-plan.transfer.min-connection-minutes:15}")
+    private int minConnectionMinutes;
+
+    @Value("${travel-plan.transfer.max-connection-minutes:240}")
+    private int maxConnectionMinutes;
+
+    @Value("${travel-plan.transfer.max-itineraries:10}")
+    private int maxItineraries;
+
     String success = "Success";
     String cannotFind = "Cannot Find";
 
@@ -48,40 +69,74 @@ public class TravelPlanServiceImpl implements TravelPlanService {
 
     @Override
     public Response getTransferSearch(TransferTravelInfo info, HttpHeaders headers) {
+        List<List<TripResponse>> sections = searchSections(info, headers);
+
+        TransferTravelResult result = new TransferTravelResult();
+        result.setFirstSectionResult(sections.get(0));
+        result.setSecondSectionResult(sections.get(1));
 
+        return new Response<>(1, "Success.", result);
+    }
+
+    @Override
+    public Response getTransferItineraries(TransferTravelInfo info, HttpHeaders headers) {
+        List<List<TripResponse>> sections = searchSections(info, headers);
+        int minMinutes = info.getMinConnectionMinutes() != null ? info.getMinConnectionMinutes() : minConnectionMinutes;
+        int maxMinutes = info.getMaxConnectionMinutes() != null ? info.getMaxConnectionMinutes() : maxConnectionMinutes;
+        List<TransferItinerary> itineraries = TransferJoin.join(sections.get(0), sections.get(1), info.getViaStation(),
+                minMinutes, maxMinutes, maxItineraries);
+        if (itineraries.isEmpty()) {
+            TravelPlanServiceImpl.LOGGER.warn("[getTransferItineraries][No itinerary][first section: {}, second section: {}]",
+                    sections.get(0).size(), sections.get(1).size());
+            return new Response<>(0, cannotFind, null);
+        }
+        return new Response<>(1, success, itineraries);
+    }
+
+    /**
+     * search start to via and via to end on both travel services at once
+     *
+     * @return the first section and the second section, high-speed trips first
+     */
+    private List<List<TripResponse>> searchSections(TransferTravelInfo info, HttpHeaders headers) {
         TripInfo queryInfoFirstSection = new TripInfo();
         queryInfoFirstSection.setDepartureTime(StringUtils.Date2String(info.getTravelDate()));
         queryInfoFirstSection.setStartPlace(info.getStartStation());
         queryInfoFirstSection.setEndPlace(info.getViaStation());
 
-        List<TripResponse> firstSectionFromHighSpeed;
-        List<TripResponse> firstSectionFromNormal;
-        firstSectionFromHighSpeed = tripsFromHighSpeed(queryInfoFirstSection, headers);
-        firstSectionFromNormal = tripsFromNormal(queryInfoFirstSection, headers);
-
-        TripInfo queryInfoSecondSectoin = new TripInfo();
-        queryInfoSecondSectoin.setDepartureTime(StringUtils.Date2String(info.getTravelDate()));
-        queryInfoSecondSectoin.setStartPlace(info.getViaStation());
-        queryInfoSecondSectoin.setEndPlace(info.getEndStation());
+        TripInfo queryInfoSecondSection = new TripInfo();
+        queryInfoSecondSection.setDepartureTime(StringUtils.Date2String(info.getTravelDate()));
+        queryInfoSecondSection.setStartPlace(info.getViaStation());
+        queryInfoSecondSection.setEndPlace(info.getEndStation());
 
-        List<TripResponse> secondSectionFromHighSpeed;
-        List<TripResponse> secondSectionFromNormal;
-        secondSectionFromHighSpeed = tripsFromHighSpeed(queryInfoSecondSectoin, headers);
-        secondSectionFromNormal = tripsFromNormal(queryInfoSecondSectoin, headers);
+        List<Future<List<TripResponse>>> futures = new ArrayList<>();
+        futures.add(executorService.submit(CallableWrapper.of(() -> tripsFromHighSpeed(queryInfoFirstSection, headers))));
+        futures.add(executorService.submit(CallableWrapper.of(() -> tripsFromNormal(queryInfoFirstSection, headers))));
+        futures.add(executorService.submit(CallableWrapper.of(() -> tripsFromHighSpeed(queryInfoSecondSection, headers))));
+        futures.add(executorService.submit(CallableWrapper.of(() -> tripsFromNormal(queryInfoSecondSection, headers))));
 
         List<TripResponse> firstSection = new ArrayList<>();
-        firstSection.addAll(firstSectionFromHighSpeed);
-        firstSection.addAll(firstSectionFromNormal);
+        firstSection.addAll(getTrips(futures.get(0)));
+        firstSection.addAll(getTrips(futures.get(1)));
 
         List<TripResponse> secondSection = new ArrayList<>();
-        secondSection.addAll(secondSectionFromHighSpeed);
-        secondSection.addAll(secondSectionFromNormal);
+        secondSection.addAll(getTrips(futures.get(2)));
+        secondSection.addAll(getTrips(futures.get(3)));
 
-        TransferTravelResult result = new TransferTravelResult();
-        result.setFirstSectionResult(firstSection);
-        result.setSecondSectionResult(secondSection);
+        return Arrays.asList(firstSection, secondSection);
+    }
 
-        return new Response<>(1, "Success.", result);
+    private List<TripResponse> getTrips(Future<? extends List<TripResponse>> future) {
+        try {
+            List<TripResponse> trips = future.get();
+            return trips == null ? new ArrayList<>() : trips;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            TravelPlanServiceImpl.LOGGER.error("[getTrips][Interrupted while searching trips]");
+        } catch (ExecutionException e) {
+            TravelPlanServiceImpl.LOGGER.error("[getTrips][Search trips error][{}]", e.getCause().toString());
+        }
+        return new ArrayList<>();
     }
 
     @Override
@@ -94,36 +149,7 @@ public class TravelPlanServiceImpl implements TravelPlanService {
         ArrayList<RoutePlanResultUnit> routePlanResultUnits = getRoutePlanResultCheapest(routePlanInfo, headers);
 
         if (!routePlanResultUnits.isEmpty()) {
-            ArrayList<TravelAdvanceResultUnit> lists = new ArrayList<>();
-            for (int i = 0; i < routePlanResultUnits.size(); i++) {
-                RoutePlanResultUnit tempUnit = routePlanResultUnits.get(i);
-                TravelAdvanceResultUnit newUnit = new TravelAdvanceResultUnit();
-                newUnit.setTripId(tempUnit.getTripId());
-                newUnit.setEndStation(tempUnit.getEndStation());
-                newUnit.setTrainTypeId(tempUnit.getTrainTypeName());
-                newUnit.setStartStation(tempUnit.getStartStation());
-
-                List<String> stops = tempUnit.getStopStations();
-                newUnit.setStopStations(stops);
-                newUnit.setPriceForFirstClassSeat(tempUnit.getPriceForFirstClassSeat());
-                newUnit.setPriceForSecondClassSeat(tempUnit.getPriceForSecondClassSeat());
-                newUnit.setStartTime(tempUnit.getStartTime());
-                newUnit.setEndTime(tempUnit.getEndTime());
-
-                TrainType trainType = queryTrainTypeByName(tempUnit.getTrainTypeName(), headers);
-                int firstClassTotalNum = trainType.getConfortClass();
-                int secondClassTotalNum = trainType.getEconomyClass();
-
-                int first = getRestTicketNumber(info.getDepartureTime(), tempUnit.getTripId(),
-                        tempUnit.getStartStation(), tempUnit.getEndStation(), SeatClass.FIRSTCLASS.getCode(), firstClassTotalNum, tempUnit.getStopStations(), headers);
-
-                int second = getRestTicketNumber(info.getDepartureTime(), tempUnit.getTripId(),
-                        tempUnit.getStartStation(), tempUnit.getEndStation(), SeatClass.SECONDCLASS.getCode(), secondClassTotalNum, tempUnit.getStopStations(), headers);
-                newUnit.setNumberOfRestTicketFirstClass(first);
-                newUnit.setNumberOfRestTicketSecondClass(second);
-                lists.add(newUnit);
-            }
-
+            ArrayList<TravelAdvanceResultUnit> lists = toAdvanceResultUnits(routePlanResultUnits, info.getDepartureTime(), headers);
             return new Response<>(1, success, lists);
         } else {
             TravelPlanServiceImpl.LOGGER.warn("[getCheapest][Get cheapest trip warn][Route Plan Result Units: {}]","No Content");
@@ -142,36 +168,7 @@ public class TravelPlanServiceImpl implements TravelPlanService {
 
 
         if (!routePlanResultUnits.isEmpty()) {
-
-            ArrayList<TravelAdvanceResultUnit> lists = new ArrayList<>();
-            for (int i = 0; i < routePlanResultUnits.size(); i++) {
-                RoutePlanResultUnit tempUnit = routePlanResultUnits.get(i);
-                TravelAdvanceResultUnit newUnit = new TravelAdvanceResultUnit();
-                newUnit.setTripId(tempUnit.getTripId());
-                newUnit.setTrainTypeId(tempUnit.getTrainTypeName());
-                newUnit.setEndStation(tempUnit.getEndStation());
-                newUnit.setStartStation(tempUnit.getStartStation());
-
-                List<String> stops = tempUnit.getStopStations();
-                newUnit.setStopStations(stops);
-
-                newUnit.setPriceForFirstClassSeat(tempUnit.getPriceForFirstClassSeat());
-                newUnit.setPriceForSecondClassSeat(tempUnit.getPriceForSecondClassSeat());
-                newUnit.setStartTime(tempUnit.getStartTime());
-                newUnit.setEndTime(tempUnit.getEndTime());
-
-                TrainType trainType = queryTrainTypeByName(tempUnit.getTrainTypeName(), headers);
-                int firstClassTotalNum = trainType.getConfortClass();
-                int secondClassTotalNum = trainType.getEconomyClass();
-                int first = getRestTicketNumber(info.getDepartureTime(), tempUnit.getTripId(),
-                        tempUnit.getStartStation(), tempUnit.getEndStation(), SeatClass.FIRSTCLASS.getCode(), firstClassTotalNum, tempUnit.getStopStations(), headers);
-
-                int second = getRestTicketNumber(info.getDepartureTime(), tempUnit.getTripId(),
-                        tempUnit.getStartStation(), tempUnit.getEndStation(), SeatClass.SECONDCLASS.getCode(), secondClassTotalNum, tempUnit.getStopStations(),headers);
-                newUnit.setNumberOfRestTicketFirstClass(first);
-                newUnit.setNumberOfRestTicketSecondClass(second);
-                lists.add(newUnit);
-            }
+            ArrayList<TravelAdvanceResultUnit> lists = toAdvanceResultUnits(routePlanResultUnits, info.getDepartureTime(), headers);
             return new Response<>(1, success, lists);
         } else {
             TravelPlanServiceImpl.LOGGER.warn("[getQuickest][Get quickest trip warn][Route Plan Result Units: {}]","No Content");
@@ -189,37 +186,7 @@ public class TravelPlanServiceImpl implements TravelPlanService {
         ArrayList<RoutePlanResultUnit> routePlanResultUnits = getRoutePlanResultMinStation(routePlanInfo, headers);
 
         if (!routePlanResultUnits.isEmpty()) {
-
-            ArrayList<TravelAdvanceResultUnit> lists = new ArrayList<>();
-            for (int i = 0; i < routePlanResultUnits.size(); i++) {
-                RoutePlanResultUnit tempUnit = routePlanResultUnits.get(i);
-                TravelAdvanceResultUnit newUnit = new TravelAdvanceResultUnit();
-                newUnit.setTripId(tempUnit.getTripId());
-                newUnit.setTrainTypeId(tempUnit.getTrainTypeName());
-                newUnit.setStartStation(tempUnit.getStartStation());
-                newUnit.setEndStation(tempUnit.getEndStation());
-
-                List<String> stops = tempUnit.getStopStations();
-                newUnit.setStopStations(stops);
-
-                newUnit.setPriceForFirstClassSeat(tempUnit.getPriceForFirstClassSeat());
-                newUnit.setPriceForSecondClassSeat(tempUnit.getPriceForSecondClassSeat());
-                newUnit.setEndTime(tempUnit.getEndTime());
-                newUnit.setStartTime(tempUnit.getStartTime());
-
-                TrainType trainType = queryTrainTypeByName(tempUnit.getTrainTypeName(), headers);
-                int firstClassTotalNum = trainType.getConfortClass();
-                int secondClassTotalNum = trainType.getEconomyClass();
-
-                int first = getRestTicketNumber(info.getDepartureTime(), tempUnit.getTripId(),
-                        tempUnit.getStartStation(), tempUnit.getEndStation(), SeatClass.FIRSTCLASS.getCode(), firstClassTotalNum, tempUnit.getStopStations(), headers);
-
-                int second = getRestTicketNumber(info.getDepartureTime(), tempUnit.getTripId(),
-                        tempUnit.getStartStation(), tempUnit.getEndStation(), SeatClass.SECONDCLASS.getCode(), secondClassTotalNum, tempUnit.getStopStations(), headers);
-                newUnit.setNumberOfRestTicketFirstClass(first);
-                newUnit.setNumberOfRestTicketSecondClass(second);
-                lists.add(newUnit);
-            }
+            ArrayList<TravelAdvanceResultUnit> lists = toAdvanceResultUnits(routePlanResultUnits, info.getDepartureTime(), headers);
             return new Response<>(1, success, lists);
         } else {
             TravelPlanServiceImpl.LOGGER.warn("[getMinStation][Get min stations trip warn][Route Plan Result Units: {}]","No Content");
@@ -227,25 +194,71 @@ public class TravelPlanServiceImpl implements TravelPlanService {
         }
     }
 
-    private int getRestTicketNumber(String travelDate, String trainNumber, String startStationName, String endStationName, int seatType, int totalNum, List<String> stations, HttpHeaders headers) {
-        Seat seatRequest = new Seat();
+    /**
+     * Resolve the train types and the rest tickets of all units with one
+     * batched request each, then assemble the result units.
+     */
+    private ArrayList<TravelAdvanceResultUnit> toAdvanceResultUnits(List<RoutePlanResultUnit> routePlanResultUnits, String travelDate, HttpHeaders headers) {
+        //1.Get all distinct train types at once
+        Set<String> trainTypeNames = new LinkedHashSet<>();
+        for (RoutePlanResultUnit tempUnit : routePlanResultUnits) {
+            trainTypeNames.add(tempUnit.getTrainTypeName());
+        }
+        Map<String, TrainType> trainTypes = queryTrainTypesByNames(new ArrayList<>(trainTypeNames), headers);
+
+        //2.Get the rest tickets of both seat classes of all units at once
+        List<Seat> seatRequests = new ArrayList<>(routePlanResultUnits.size() * 2);
+        for (RoutePlanResultUnit tempUnit : routePlanResultUnits) {
+            TrainType trainType = trainTypes.get(tempUnit.getTrainTypeName());
+            int firstClassTotalNum = trainType == null ? 0 : trainType.getConfortClass();
+            int secondClassTotalNum = trainType == null ? 0 : trainType.getEconomyClass();
+            seatRequests.add(seatRequest(travelDate, tempUnit, SeatClass.FIRSTCLASS.getCode(), firstClassTotalNum));
+            seatRequests.add(seatRequest(travelDate, tempUnit, SeatClass.SECONDCLASS.getCode(), secondClassTotalNum));
+        }
+        List<Integer> restTickets = getRestTicketNumbers(seatRequests, headers);
+
+        //3.Assemble the units
+        ArrayList<TravelAdvanceResultUnit> lists = new ArrayList<>(routePlanResultUnits.size());
+        for (int i = 0; i < routePlanResultUnits.size(); i++) {
+            RoutePlanResultUnit tempUnit = routePlanResultUnits.get(i);
+            TravelAdvanceResultUnit newUnit = new TravelAdvanceResultUnit();
+            newUnit.setTripId(tempUnit.getTripId());
+            newUnit.setTrainTypeId(tempUnit.getTrainTypeName());
+            newUnit.setStartStation(tempUnit.getStartStation());
+            newUnit.setEndStation(tempUnit.getEndStation());
+            newUnit.setStopStations(tempUnit.getStopStations());
+            newUnit.setPriceForFirstClassSeat(tempUnit.getPriceForFirstClassSeat());
+            newUnit.setPriceForSecondClassSeat(tempUnit.getPriceForSecondClassSeat());
+            newUnit.setStartTime(tempUnit.getStartTime());
+            newUnit.setEndTime(tempUnit.getEndTime());
+            newUnit.setNumberOfRestTicketFirstClass(restTickets.get(2 * i));
+            newUnit.setNumberOfRestTicketSecondClass(restTickets.get(2 * i + 1));
+            lists.add(newUnit);
+        }
+        return lists;
+    }
 
-        seatRequest.setDestStation(startStationName);
-        seatRequest.setStartStation(endStationName);
-        seatRequest.setTrainNumber(trainNumber);
+    private Seat seatRequest(String travelDate, RoutePlanResultUnit unit, int seatType, int totalNum) {
+        Seat seatRequest = new Seat();
+        seatRequest.setStartStation(unit.getStartStation());
+        seatRequest.setDestStation(unit.getEndStation());
+        seatRequest.setTrainNumber(unit.getTripId());
         seatRequest.setTravelDate(travelDate);
         seatRequest.setSeatType(seatType);
-        seatRequest.setStations(stations);
+        seatRequest.setStations(unit.getStopStations());
         seatRequest.setTotalNum(totalNum);
+        return seatRequest;
+    }
 
-        TravelPlanServiceImpl.LOGGER.info("[getRestTicketNumber][Seat Request][Seat Request is: {}]", seatRequest.toString());
-        HttpEntity requestEntity = new HttpEntity(seatRequest, null);
+    private List<Integer> getRestTicketNumbers(List<Seat> seatRequests, HttpHeaders headers) {
+        TravelPlanServiceImpl.LOGGER.info("[getRestTicketNumbers][Seat Requests][size: {}]", seatRequests.size());
+        HttpEntity requestEntity = new HttpEntity(seatRequests, null);
         String seat_service_url = getServiceUrl("ts-seat-service");
-        ResponseEntity<Response<Integer>> re = restTemplate.exchange(
-                seat_service_url + "/api/v1/seatservice/seats/left_tickets",
+        ResponseEntity<Response<List<Integer>>> re = restTemplate.exchange(
+                seat_service_url + "/api/v1/seatservice/seats/left_tickets/batch",
                 HttpMethod.POST,
                 requestEntity,
-                new ParameterizedTypeReference<Response<Integer>>() {
+                new ParameterizedTypeReference<Response<List<Integer>>>() {
                 });
 
         return re.getBody().getData();
@@ -314,17 +327,23 @@ public class TravelPlanServiceImpl implements TravelPlanService {
         return re.getBody().getData();
     }
 
-    public TrainType queryTrainTypeByName(String trainTypeName, HttpHeaders headers) {
-        HttpEntity requestEntity = new HttpEntity(null);
+    private Map<String, TrainType> queryTrainTypesByNames(List<String> trainTypeNames, HttpHeaders headers) {
+        HttpEntity requestEntity = new HttpEntity(trainTypeNames, null);
         String train_service_url=getServiceUrl("ts-train-service");
-        ResponseEntity<Response> re = restTemplate.exchange(
-                train_service_url + "/api/v1/trainservice/trains/byName/" + trainTypeName,
-                HttpMethod.GET,
+        ResponseEntity<Response<List<TrainType>>> re = restTemplate.exchange(
+                train_service_url + "/api/v1/trainservice/trains/byNames",
+                HttpMethod.POST,
                 requestEntity,
-                Response.class);
-        Response  response = re.getBody();
-
-        return JsonUtils.conveterObject(response.getData(), TrainType.class);
+                new ParameterizedTypeReference<Response<List<TrainType>>>() {
+                });
+        Map<String, TrainType> trainTypes = new HashMap<>();
+        List<TrainType> trainTypeList = re.getBody().getData();
+        if (trainTypeList != null) {
+            for (TrainType trainType : trainTypeList) {
+                trainTypes.put(trainType.getName(), trainType);
+            }
+        }
+        return trainTypes;
     }
 
 }
@@ -88,4 +88,15 @@ public class TravelPlanControllerTest {
         Assert.assertEquals(response, JSONObject.parseObject(result, Response.class));
     }
 
+    @Test
+    public void testGetTransferItineraries() throws Exception {
+        TransferTravelInfo info = new TransferTravelInfo("start_station", "via_station", "end_station", "2023-01-01", "G");
+        Mockito.when(travelPlanService.getTransferItineraries(Mockito.any(TransferTravelInfo.class), Mockito.any(HttpHeaders.class))).thenReturn(response);
+        String requestJson = JSONObject.toJSONString(info);
+        String result = mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/travelplanservice/travelPlan/transferItineraries").contentType(MediaType.APPLICATION_JSON).content(requestJson))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Assert.assertEquals(response, JSONObject.parseObject(result, Response.class));
+    }
+
 }
@@ -1,5 +1,6 @@
 package travelplan.service;
 
+import edu.fudan.common.util.Amount;
 import edu.fudan.common.util.Response;
 import org.junit.Assert;
 import org.junit.Before;
@@ -12,11 +13,15 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.RestTemplate;
 import edu.fudan.common.entity.*;
+import travelplan.entity.TransferItinerary;
 import travelplan.entity.TransferTravelInfo;
+import travelplan.entity.TravelAdvanceResultUnit;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -59,23 +64,20 @@ public class TravelPlanServiceImplTest {
         TripInfo info = new TripInfo("start_station", "end_station", "");
 
         //response for getRoutePlanResultCheapest()
-        RoutePlanResultUnit rpru = new RoutePlanResultUnit("trip_id", "type_id", "from_station", "to_station", new ArrayList<>(), "1.0", "2.0", "", "");
+        RoutePlanResultUnit rpru = new RoutePlanResultUnit("trip_id", "type_id", "from_station", "to_station", new ArrayList<>(), Amount.parse("1.0"), Amount.parse("2.0"), "", "");
         ArrayList<RoutePlanResultUnit> routePlanResultUnits = new ArrayList<RoutePlanResultUnit>(){{ add(rpru); }};
         Response<ArrayList<RoutePlanResultUnit>> response1 = new Response<>(null, null, routePlanResultUnits);
         ResponseEntity<Response<ArrayList<RoutePlanResultUnit>>> re1 = new ResponseEntity<>(response1, HttpStatus.OK);
 
-        //response for transferStationIdToStationName()
-        List<String> list = new ArrayList<>();
-        Response<List<String>> response2 = new Response<>(null, null, list);
-        ResponseEntity<Response<List<String>>> re2 = new ResponseEntity<>(response2, HttpStatus.OK);
+        //response for queryTrainTypesByNames()
+        List<TrainType> trainTypes = new ArrayList<>();
+        trainTypes.add(new TrainType("type_id", 10, 5));
+        Response<List<TrainType>> response2 = new Response<>(1, null, trainTypes);
+        ResponseEntity<Response<List<TrainType>>> re2 = new ResponseEntity<>(response2, HttpStatus.OK);
 
-        //response for queryForStationId()
-        Response<String> response3 = new Response<>(null, null, "");
-        ResponseEntity<Response<String>> re3 = new ResponseEntity<>(response3, HttpStatus.OK);
-
-        //response for getRestTicketNumber()
-        Response<Integer> response4 = new Response<>(null, null, 0);
-        ResponseEntity<Response<Integer>> re4 = new ResponseEntity<>(response4, HttpStatus.OK);
+        //response for getRestTicketNumbers()
+        Response<List<Integer>> response3 = new Response<>(1, null, Arrays.asList(3, 7));
+        ResponseEntity<Response<List<Integer>>> re3 = new ResponseEntity<>(response3, HttpStatus.OK);
         Mockito.when(restTemplate.exchange(
                 Mockito.anyString(),
                 Mockito.any(HttpMethod.class),
@@ -83,11 +85,18 @@ public class TravelPlanServiceImplTest {
                 Mockito.any(ParameterizedTypeReference.class)))
                 .thenReturn(re1)
                 .thenReturn(re2)
-                .thenReturn(re3).thenReturn(re3).thenReturn(re4)
-                .thenReturn(re3).thenReturn(re3).thenReturn(re4);
+                .thenReturn(re3);
 
         Response result = travelPlanServiceImpl.getCheapest(info, headers);
         Assert.assertEquals("Success", result.getMsg());
+        TravelAdvanceResultUnit unit = ((List<TravelAdvanceResultUnit>) result.getData()).get(0);
+        Assert.assertEquals(3, unit.getNumberOfRestTicketFirstClass());
+        Assert.assertEquals(7, unit.getNumberOfRestTicketSecondClass());
+        Mockito.verify(restTemplate, Mockito.times(3)).exchange(
+                Mockito.anyString(),
+                Mockito.any(HttpMethod.class),
+                Mockito.any(HttpEntity.class),
+                Mockito.any(ParameterizedTypeReference.class));
     }
 
     @Test
@@ -95,23 +104,20 @@ public class TravelPlanServiceImplTest {
         TripInfo info = new TripInfo("start_station", "end_station", "");
 
         //response for getRoutePlanResultQuickest()
-        RoutePlanResultUnit rpru = new RoutePlanResultUnit("trip_id", "type_id", "from_station", "to_station", new ArrayList<>(), "1.0", "2.0", "", "");
+        RoutePlanResultUnit rpru = new RoutePlanResultUnit("trip_id", "type_id", "from_station", "to_station", new ArrayList<>(), Amount.parse("1.0"), Amount.parse("2.0"), "", "");
         ArrayList<RoutePlanResultUnit> routePlanResultUnits = new ArrayList<RoutePlanResultUnit>(){{ add(rpru); }};
         Response<ArrayList<RoutePlanResultUnit>> response1 = new Response<>(null, null, routePlanResultUnits);
         ResponseEntity<Response<ArrayList<RoutePlanResultUnit>>> re1 = new ResponseEntity<>(response1, HttpStatus.OK);
 
-        //response for transferStationIdToStationName()
-        List<String> list = new ArrayList<>();
-        Response<List<String>> response2 = new Response<>(null, null, list);
-        ResponseEntity<Response<List<String>>> re2 = new ResponseEntity<>(response2, HttpStatus.OK);
+        //response for queryTrainTypesByNames()
+        List<TrainType> trainTypes = new ArrayList<>();
+        trainTypes.add(new TrainType("type_id", 10, 5));
+        Response<List<TrainType>> response2 = new Response<>(1, null, trainTypes);
+        ResponseEntity<Response<List<TrainType>>> re2 = new ResponseEntity<>(response2, HttpStatus.OK);
 
-        //response for queryForStationId()
-        Response<String> response3 = new Response<>(null, null, "");
-        ResponseEntity<Response<String>> re3 = new ResponseEntity<>(response3, HttpStatus.OK);
-
-        //response for getRestTicketNumber()
-        Response<Integer> response4 = new Response<>(null, null, 0);
-        ResponseEntity<Response<Integer>> re4 = new ResponseEntity<>(response4, HttpStatus.OK);
+        //response for getRestTicketNumbers()
+        Response<List<Integer>> response3 = new Response<>(1, null, Arrays.asList(3, 7));
+        ResponseEntity<Response<List<Integer>>> re3 = new ResponseEntity<>(response3, HttpStatus.OK);
         Mockito.when(restTemplate.exchange(
                 Mockito.anyString(),
                 Mockito.any(HttpMethod.class),
@@ -119,11 +125,18 @@ public class TravelPlanServiceImplTest {
                 Mockito.any(ParameterizedTypeReference.class)))
                 .thenReturn(re1)
                 .thenReturn(re2)
-                .thenReturn(re3).thenReturn(re3).thenReturn(re4)
-                .thenReturn(re3).thenReturn(re3).thenReturn(re4);
+                .thenReturn(re3);
 
         Response result = travelPlanServiceImpl.getQuickest(info, headers);
         Assert.assertEquals("Success", result.getMsg());
+        TravelAdvanceResultUnit unit = ((List<TravelAdvanceResultUnit>) result.getData()).get(0);
+        Assert.assertEquals(3, unit.getNumberOfRestTicketFirstClass());
+        Assert.assertEquals(7, unit.getNumberOfRestTicketSecondClass());
+        Mockito.verify(restTemplate, Mockito.times(3)).exchange(
+                Mockito.anyString(),
+                Mockito.any(HttpMethod.class),
+                Mockito.any(HttpEntity.class),
+                Mockito.any(ParameterizedTypeReference.class));
     }
 
     @Test
@@ -131,23 +144,20 @@ public class TravelPlanServiceImplTest {
         TripInfo info = new TripInfo("start_station", "end_station", "");
 
         //response for getRoutePlanResultMinStation()
-        RoutePlanResultUnit rpru = new RoutePlanResultUnit("trip_id", "type_id", "from_station", "to_station", new ArrayList<>(), "1.0", "2.0", "", "");
+        RoutePlanResultUnit rpru = new RoutePlanResultUnit("trip_id", "type_id", "from_station", "to_station", new ArrayList<>(), Amount.parse("1.0"), Amount.parse("2.0"), "", "");
         ArrayList<RoutePlanResultUnit> routePlanResultUnits = new ArrayList<RoutePlanResultUnit>(){{ add(rpru); }};
         Response<ArrayList<RoutePlanResultUnit>> response1 = new Response<>(null, null, routePlanResultUnits);
         ResponseEntity<Response<ArrayList<RoutePlanResultUnit>>> re1 = new ResponseEntity<>(response1, HttpStatus.OK);
 
-        //response for transferStationIdToStationName()
-        List<String> list = new ArrayList<>();
-        Response<List<String>> response2 = new Response<>(null, null, list);
-        ResponseEntity<Response<List<String>>> re2 = new ResponseEntity<>(response2, HttpStatus.OK);
-
-        //response for queryForStationId()
-        Response<String> response3 = new Response<>(null, null, "");
-        ResponseEntity<Response<String>> re3 = new ResponseEntity<>(response3, HttpStatus.OK);
+        //response for queryTrainTypesByNames()
+        List<TrainType> trainTypes = new ArrayList<>();
+        trainTypes.add(new TrainType("type_id", 10, 5));
+        Response<List<TrainType>> response2 = new Response<>(1, null, trainTypes);
+        ResponseEntity<Response<List<TrainType>>> re2 = new ResponseEntity<>(response2, HttpStatus.OK);
 
-        //response for getRestTicketNumber()
-        Response<Integer> response4 = new Response<>(null, null, 0);
-        ResponseEntity<Response<Integer>> re4 = new ResponseEntity<>(response4, HttpStatus.OK);
+        //response for getRestTicketNumbers()
+        Response<List<Integer>> response3 = new Response<>(1, null, Arrays.asList(3, 7));
+        ResponseEntity<Response<List<Integer>>> re3 = new ResponseEntity<>(response3, HttpStatus.OK);
         Mockito.when(restTemplate.exchange(
                 Mockito.anyString(),
                 Mockito.any(HttpMethod.class),
@@ -155,11 +165,82 @@ public class TravelPlanServiceImplTest {
                 Mockito.any(ParameterizedTypeReference.class)))
                 .thenReturn(re1)
                 .thenReturn(re2)
-                .thenReturn(re3).thenReturn(re3).thenReturn(re4)
-                .thenReturn(re3).thenReturn(re3).thenReturn(re4);
+                .thenReturn(re3);
 
         Response result = travelPlanServiceImpl.getMinStation(info, headers);
         Assert.assertEquals("Success", result.getMsg());
+        TravelAdvanceResultUnit unit = ((List<TravelAdvanceResultUnit>) result.getData()).get(0);
+        Assert.assertEquals(3, unit.getNumberOfRestTicketFirstClass());
+        Assert.assertEquals(7, unit.getNumberOfRestTicketSecondClass());
+        Mockito.verify(restTemplate, Mockito.times(3)).exchange(
+                Mockito.anyString(),
+                Mockito.any(HttpMethod.class),
+                Mockito.any(HttpEntity.class),
+                Mockito.any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    public void testGetTransferItineraries() {
+        ReflectionTestUtils.setField(travelPlanServiceImpl, "maxItineraries", 10);
+        TransferTravelInfo info = new TransferTravelInfo("start_station", "via_station", "end_station", "2023-01-01", "G");
+        info.setMinConnectionMinutes(15);
+        info.setMaxConnectionMinutes(240);
+
+        List<TripResponse> firstHighSpeed = new ArrayList<>();
+        firstHighSpeed.add(tripResponse("G1", "08:00", "10:00", "100.0", 5));
+        firstHighSpeed.add(tripResponse("G2", "09:00", "11:30", "80.0", 3));
+        List<TripResponse> secondHighSpeed = new ArrayList<>();
+        secondHighSpeed.add(tripResponse("G3", "10:20", "12:00", "50.0", 2));
+        secondHighSpeed.add(tripResponse("G4", "13:00", "14:00", "40.0", 9));
+        List<TripResponse> secondNormal = new ArrayList<>();
+        secondNormal.add(tripResponse("Z5", "10:05", "11:00", "20.0", 9));
+        Mockito.when(restTemplate.exchange(
+                Mockito.anyString(),
+                Mockito.any(HttpMethod.class),
+                Mockito.any(HttpEntity.class),
+                Mockito.any(ParameterizedTypeReference.class)))
+                .thenAnswer(invocation -> {
+                    String url = invocation.getArgument(0);
+                    TripInfo tripInfo = (TripInfo) ((HttpEntity) invocation.getArgument(2)).getBody();
+                    boolean first = "start_station".equals(tripInfo.getStartPlace());
+                    List<TripResponse> trips = new ArrayList<>();
+                    if (url.contains("/travelservice/")) {
+                        trips = first ? firstHighSpeed : secondHighSpeed;
+                    } else if (!first) {
+                        trips = secondNormal;
+                    }
+                    return new ResponseEntity<>(new Response<>(1, null, trips), HttpStatus.OK);
+                });
+
+        Response result = travelPlanServiceImpl.getTransferItineraries(info, headers);
+        List<TransferItinerary> itineraries = (List<TransferItinerary>) result.getData();
+        Assert.assertEquals(3, itineraries.size());
+        TransferItinerary best = itineraries.get(0);
+        Assert.assertEquals("G1", best.getFirstSection().getTripId().toString());
+        Assert.assertEquals("G3", best.getSecondSection().getTripId().toString());
+        Assert.assertEquals(20, best.getConnectionMinutes());
+        Assert.assertEquals(240, best.getDurationMinutes());
+        Assert.assertEquals(Amount.parse("150.0"), best.getPriceForEconomyClass());
+        Assert.assertEquals(2, best.getEconomyClass());
+        Assert.assertEquals("G4", itineraries.get(1).getSecondSection().getTripId().toString());
+        Assert.assertEquals("G2", itineraries.get(1).getFirstSection().getTripId().toString());
+        Mockito.verify(restTemplate, Mockito.times(4)).exchange(
+                Mockito.anyString(),
+                Mockito.any(HttpMethod.class),
+                Mockito.any(HttpEntity.class),
+                Mockito.any(ParameterizedTypeReference.class));
+    }
+
+    private TripResponse tripResponse(String tripId, String startTime, String endTime, String price, int seats) {
+        TripResponse tripResponse = new TripResponse();
+        tripResponse.setTripId(new TripId(tripId));
+        tripResponse.setStartTime("2013-05-04 " + startTime + ":00");
+        tripResponse.setEndTime("2013-05-04 " + endTime + ":00");
+        tripResponse.setPriceForEconomyClass(Amount.parse(price));
+        tripResponse.setPriceForConfortClass(Amount.parse(price));
+        tripResponse.setEconomyClass(seats);
+        tripResponse.setConfortClass(seats);
+        return tripResponse;
     }
 
 }
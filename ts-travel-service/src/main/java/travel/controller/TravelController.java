@@ -176,4 +176,12 @@ public class TravelController {
         return ok(travelService.adminQueryAll(headers));
     }
 
+    @GetMapping(value = "/admin_trip/{page}/{size}")
+    public HttpEntity adminQueryPage(@PathVariable int page, @PathVariable int size,
+                                     @RequestHeader HttpHeaders headers) {
+        // ArrayList<AdminTrip>
+        TravelController.LOGGER.info("[adminQueryPage][Admin query trips][page: {}, size: {}]", page, size);
+        return ok(travelService.adminQueryPage(page, size, headers));
+    }
+
 }
@@ -1,7 +1,7 @@
 package travel.repository;
 
 import edu.fudan.common.entity.TripId;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.stereotype.Repository;
 import travel.entity.Trip;
 
@@ -11,7 +11,7 @@ import java.util.ArrayList;
  * @author fdse
  */
 @Repository
-public interface TripRepository extends CrudRepository<Trip, TripId> {
+public interface TripRepository extends PagingAndSortingRepository<Trip, TripId> {
 
     Trip findByTripId(TripId tripId);
 
@@ -4,14 +4,19 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.fudan.common.entity.*;
 import edu.fudan.common.util.JsonUtils;
+import edu.fudan.common.util.PagedIterable;
 import edu.fudan.common.util.Response;
 import edu.fudan.common.util.StringUtils;
+import org.apache.skywalking.apm.toolkit.trace.CallableWrapper;
 import org.apache.skywalking.apm.toolkit.trace.TraceCrossThread;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.client.discovery.DiscoveryClient;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -466,8 +471,10 @@ public class TravelServiceImpl implements TravelService {
 
     @Override
     public Response queryAll(HttpHeaders headers) {
-        List<Trip> tripList = repository.findAll();
-        if (tripList != null && !tripList.isEmpty()) {
+        // read while the response is written, one page at a time
+        PagedIterable<Trip> tripList = PagedIterable.of(PagedIterable.DEFAULT_PAGE_SIZE, page ->
+                repository.findAll(PageRequest.of(page, PagedIterable.DEFAULT_PAGE_SIZE, Sort.by("id"))).getContent());
+        if (!tripList.isEmpty()) {
             TravelServiceImpl.LOGGER.info("[queryAll][Query all trips:][{}]", "tripList");
             return new Response<>(1, success, tripList);
         }
@@ -563,16 +570,7 @@ public class TravelServiceImpl implements TravelService {
     @Override
     public Response adminQueryAll(HttpHeaders headers) {
         List<Trip> trips = repository.findAll();
-        ArrayList<AdminTrip> adminTrips = new ArrayList<>();
-        if(trips != null){
-            for (Trip trip : trips) {
-                AdminTrip adminTrip = new AdminTrip();
-                adminTrip.setTrip(trip);
-                adminTrip.setRoute(getRouteByRouteId(trip.getRouteId(), headers));
-                adminTrip.setTrainType(getTrainTypeByName(trip.getTrainTypeName(), headers));
-                adminTrips.add(adminTrip);
-            }
-        }
+        ArrayList<AdminTrip> adminTrips = toAdminTrips(trips, headers);
 
         if (!adminTrips.isEmpty()) {
             return new Response<>(1, success, adminTrips);
@@ -581,4 +579,109 @@ public class TravelServiceImpl implements TravelService {
             return new Response<>(0, noContent, null);
         }
     }
+
+    @Override
+    public Response adminQueryPage(int page, int size, HttpHeaders headers) {
+        if (page < 0 || size <= 0) {
+            TravelServiceImpl.LOGGER.warn("[adminQueryPage][Invalid page][page: {}, size: {}]", page, size);
+            return new Response<>(0, "Invalid page or size", null);
+        }
+        Page<Trip> trips = repository.findAll(PageRequest.of(page, size, Sort.by("id")));
+        ArrayList<AdminTrip> adminTrips = toAdminTrips(trips.getContent(), headers);
+
+        if (!adminTrips.isEmpty()) {
+            return new Response<>(1, success, adminTrips);
+        } else {
+            TravelServiceImpl.LOGGER.warn("[adminQueryPage][Admin query trips warn][{}][page: {}, size: {}]", "No Content", page, size);
+            return new Response<>(0, noContent, null);
+        }
+    }
+
+    /**
+     * Attach route and train type to every trip. Distinct route ids and train type
+     * names are resolved with one batched request each, and both requests run
+     * concurrently, so the cost does not grow with the number of trips.
+     */
+    private ArrayList<AdminTrip> toAdminTrips(List<Trip> trips, HttpHeaders headers) {
+        ArrayList<AdminTrip> adminTrips = new ArrayList<>();
+        if (trips == null || trips.isEmpty()) {
+            return adminTrips;
+        }
+        Set<String> routeIds = new HashSet<>();
+        Set<String> trainTypeNames = new HashSet<>();
+        for (Trip trip : trips) {
+            routeIds.add(trip.getRouteId());
+            trainTypeNames.add(trip.getTrainTypeName());
+        }
+
+        Future<Map<String, Route>> routesFuture = executorService.submit(CallableWrapper.of(
+                () -> getRoutesByRouteIds(new ArrayList<>(routeIds), headers)));
+        Future<Map<String, TrainType>> trainTypesFuture = executorService.submit(CallableWrapper.of(
+                () -> getTrainTypesByNames(new ArrayList<>(trainTypeNames), headers)));
+
+        Map<String, Route> routes = new HashMap<>();
+        Map<String, TrainType> trainTypes = new HashMap<>();
+        try {
+            routes = routesFuture.get();
+            trainTypes = trainTypesFuture.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            TravelServiceImpl.LOGGER.error("[toAdminTrips][Interrupted while fetching trip details]");
+        } catch (ExecutionException e) {
+            TravelServiceImpl.LOGGER.error("[toAdminTrips][Fetch trip details error][{}]", e.getCause().toString());
+        }
+
+        for (Trip trip : trips) {
+            AdminTrip adminTrip = new AdminTrip();
+            adminTrip.setTrip(trip);
+            adminTrip.setRoute(routes.get(trip.getRouteId()));
+            adminTrip.setTrainType(trainTypes.get(trip.getTrainTypeName()));
+            adminTrips.add(adminTrip);
+        }
+        return adminTrips;
+    }
+
+    private Map<String, Route> getRoutesByRouteIds(List<String> routeIds, HttpHeaders headers) {
+        TravelServiceImpl.LOGGER.info("[getRoutesByRouteIds][Get Routes By Ids][Route IDs：{}]", routeIds);
+        HttpEntity requestEntity = new HttpEntity(routeIds, null);
+        String route_service_url = getServiceUrl("ts-route-service");
+        ResponseEntity<Response> re = restTemplate.exchange(
+                route_service_url + "/api/v1/routeservice/routes/byIds",
+                HttpMethod.POST,
+                requestEntity,
+                Response.class);
+        Response result = re.getBody();
+
+        Map<String, Route> routes = new HashMap<>();
+        if (result.getStatus() == 1) {
+            for (Route route : JsonUtils.conveterObject(result.getData(), Route[].class)) {
+                routes.put(route.getId(), route);
+            }
+        } else {
+            TravelServiceImpl.LOGGER.warn("[getRoutesByRouteIds][Get Routes By Ids Failed][Fail msg: {}]", result.getMsg());
+        }
+        return routes;
+    }
+
+    private Map<String, TrainType> getTrainTypesByNames(List<String> trainTypeNames, HttpHeaders headers) {
+        TravelServiceImpl.LOGGER.info("[getTrainTypesByNames][Get Train Types By Names][Train Type names：{}]", trainTypeNames);
+        HttpEntity requestEntity = new HttpEntity(trainTypeNames, null);
+        String train_service_url = getServiceUrl("ts-train-service");
+        ResponseEntity<Response> re = restTemplate.exchange(
+                train_service_url + "/api/v1/trainservice/trains/byNames",
+                HttpMethod.POST,
+                requestEntity,
+                Response.class);
+        Response result = re.getBody();
+
+        Map<String, TrainType> trainTypes = new HashMap<>();
+        if (result.getStatus() == 1) {
+            for (TrainType trainType : JsonUtils.conveterObject(result.getData(), TrainType[].class)) {
+                trainTypes.put(trainType.getName(), trainType);
+            }
+        } else {
+            TravelServiceImpl.LOGGER.warn("[getTrainTypesByNames][Get Train Types By Names Failed][Fail msg: {}]", result.getMsg());
+        }
+        return trainTypes;
+    }
 }
@@ -13,6 +13,9 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.*;
 import org.springframework.web.client.RestTemplate;
 import travel.entity.*;
@@ -21,6 +24,7 @@ import travel.repository.TripRepository;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 @RunWith(JUnit4.class)
 public class TravelServiceImplTest {
@@ -249,14 +253,17 @@ public class TravelServiceImplTest {
     public void testQueryAll1() {
         ArrayList<Trip> tripList = new ArrayList<>();
         tripList.add(new Trip());
-        Mockito.when(repository.findAll()).thenReturn(tripList);
+        Mockito.when(repository.findAll(Mockito.any(Pageable.class))).thenReturn(new PageImpl<>(tripList));
         Response result = travelServiceImpl.queryAll(headers);
-        Assert.assertEquals(new Response<>(1, success, tripList), result);
+        Assert.assertEquals(success, result.getMsg());
+        List<Trip> data = new ArrayList<>();
+        ((Iterable<Trip>) result.getData()).forEach(data::add);
+        Assert.assertEquals(tripList, data);
     }
 
     @Test
     public void testQueryAll2() {
-        Mockito.when(repository.findAll()).thenReturn(null);
+        Mockito.when(repository.findAll(Mockito.any(Pageable.class))).thenReturn(Page.empty());
         Response result = travelServiceImpl.queryAll(headers);
         Assert.assertEquals(new Response<>(0, noCnontent, null), result);
     }
@@ -301,5 +308,68 @@ public class TravelServiceImplTest {
         Assert.assertEquals(new Response<>(0, noCnontent, null), result);
     }
 
+    @Test
+    public void testAdminQueryAllBatched() {
+        ArrayList<Trip> tripList = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Trip trip = new Trip();
+            trip.setRouteId("route_id");
+            trip.setTrainTypeName("GaoTieOne");
+            tripList.add(trip);
+        }
+        Mockito.when(repository.findAll()).thenReturn(tripList);
+        mockTripDetails();
+        Response result = travelServiceImpl.adminQueryAll(headers);
+        Assert.assertEquals(10, ((ArrayList) result.getData()).size());
+        //one batched request for routes and one for train types, whatever the number of trips
+        Mockito.verify(restTemplate, Mockito.times(2)).exchange(
+                Mockito.anyString(),
+                Mockito.any(HttpMethod.class),
+                Mockito.any(HttpEntity.class),
+                Mockito.any(Class.class));
+    }
+
+    @Test
+    public void testAdminQueryPage() {
+        ArrayList<Trip> tripList = new ArrayList<>();
+        Trip trip = new Trip();
+        trip.setRouteId("route_id");
+        trip.setTrainTypeName("GaoTieOne");
+        tripList.add(trip);
+        Mockito.when(repository.findAll(Mockito.any(org.springframework.data.domain.Pageable.class)))
+                .thenReturn(new org.springframework.data.domain.PageImpl<>(tripList));
+        mockTripDetails();
+        Response result = travelServiceImpl.adminQueryPage(0, 20, headers);
+        Assert.assertEquals("Success", result.getMsg());
+    }
+
+    @Test
+    public void testAdminQueryPageInvalid() {
+        Response result = travelServiceImpl.adminQueryPage(-1, 20, headers);
+        Assert.assertEquals(new Response<>(0, "Invalid page or size", null), result);
+    }
+
+    private void mockTripDetails() {
+        ArrayList<Route> routes = new ArrayList<>();
+        Route route = new Route();
+        route.setId("route_id");
+        routes.add(route);
+        ArrayList<TrainType> trainTypes = new ArrayList<>();
+        TrainType trainType = new TrainType();
+        trainType.setName("GaoTieOne");
+        trainTypes.add(trainType);
+        Mockito.when(restTemplate.exchange(
+                Mockito.contains("/routes/byIds"),
+                Mockito.any(HttpMethod.class),
+                Mockito.any(HttpEntity.class),
+                Mockito.any(Class.class)))
+                .thenReturn(new ResponseEntity<>(new Response<>(1, null, routes), HttpStatus.OK));
+        Mockito.when(restTemplate.exchange(
+                Mockito.contains("/trains/byNames"),
+                Mockito.any(HttpMethod.class),
+                Mockito.any(HttpEntity.class),
+                Mockito.any(Class.class)))
+                .thenReturn(new ResponseEntity<>(new Response<>(1, null, trainTypes), HttpStatus.OK));
+    }
 
 }
@@ -146,4 +146,12 @@ public class Travel2Controller {
         return ok(service.adminQueryAll(headers));
     }
 
+    @GetMapping(value = "/admin_trip/{page}/{size}")
+    public HttpEntity adminQueryPage(@PathVariable int page, @PathVariable int size,
+                                     @RequestHeader HttpHeaders headers) {
+        // ArrayList<AdminTrip>
+        Travel2Controller.LOGGER.info("[adminQueryPage][Admin query trips][page: {}, size: {}]", page, size);
+        return ok(service.adminQueryPage(page, size, headers));
+    }
+
 }
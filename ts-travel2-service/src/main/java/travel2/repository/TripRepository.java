@@ -1,7 +1,7 @@
 package travel2.repository;
 
 import edu.fudan.common.entity.TripId;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.stereotype.Repository;
 
 import travel2.entity.Trip;
@@ -12,7 +12,7 @@ import java.util.ArrayList;
  * @author fdse
  */
 @Repository
-public interface TripRepository extends CrudRepository<Trip, TripId> {
+public interface TripRepository extends PagingAndSortingRepository<Trip, TripId> {
 
     Trip findByTripId(TripId tripId);
 
@@ -34,4 +34,6 @@ public interface TravelService {
     Response getTripByRoute(ArrayList<String> routeIds, HttpHeaders headers);
 
     Response adminQueryAll(HttpHeaders headers);
+
+    Response adminQueryPage(int page, int size, HttpHeaders headers);
 }
@@ -6,15 +6,20 @@ import edu.fudan.common.entity.*;
 import edu.fudan.common.util.JsonUtils;
 import edu.fudan.common.util.Response;
 import edu.fudan.common.util.StringUtils;
+import org.apache.skywalking.apm.toolkit.trace.CallableWrapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.client.discovery.DiscoveryClient;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import travel2.entity.AdminTrip;
@@ -25,6 +30,7 @@ import travel2.repository.TripRepository;
 
 import javax.transaction.Transactional;
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * @author fdse
@@ -43,6 +49,8 @@ public class TravelServiceImpl implements TravelService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TravelServiceImpl.class);
 
+    private static final ExecutorService executorService = Executors.newFixedThreadPool(20, new CustomizableThreadFactory("HttpClientThreadPool-"));
+
     private String getServiceUrl(String serviceName) {
         return "http://" + serviceName; }
 
@@ -474,16 +482,7 @@ public class TravelServiceImpl implements TravelService {
     @Override
     public Response adminQueryAll(HttpHeaders headers) {
         List<Trip> trips = repository.findAll();
-        ArrayList<AdminTrip> adminTrips = new ArrayList<>();
-        if(trips != null){
-            for (Trip trip : trips) {
-                AdminTrip adminTrip = new AdminTrip();
-                adminTrip.setRoute(getRouteByRouteId(trip.getRouteId(), headers));
-                adminTrip.setTrainType(getTrainTypeByName(trip.getTrainTypeName(), headers));
-                adminTrip.setTrip(trip);
-                adminTrips.add(adminTrip);
-            }
-        }
+        ArrayList<AdminTrip> adminTrips = toAdminTrips(trips, headers);
 
         if (!adminTrips.isEmpty()) {
             return new Response<>(1, "Travel Service Admin Query All Travel Success", adminTrips);
@@ -493,5 +492,109 @@ public class TravelServiceImpl implements TravelService {
         }
     }
 
-}
+    @Override
+    public Response adminQueryPage(int page, int size, HttpHeaders headers) {
+        if (page < 0 || size <= 0) {
+            TravelServiceImpl.LOGGER.warn("[adminQueryPage][Invalid page][page: {}, size: {}]", page, size);
+            return new Response<>(0, "Invalid page or size", null);
+        }
+        Page<Trip> trips = repository.findAll(PageRequest.of(page, size, Sort.by("id")));
+        ArrayList<AdminTrip> adminTrips = toAdminTrips(trips.getContent(), headers);
+
+        if (!adminTrips.isEmpty()) {
+            return new Response<>(1, "Travel Service Admin Query Travel Page Success", adminTrips);
+        } else {
+            TravelServiceImpl.LOGGER.warn("[adminQueryPage][Admin query trips warn][{}][page: {}, size: {}]", "No Content", page, size);
+            return new Response<>(0, noCnontent, null);
+        }
+    }
+
+    /**
+     * Attach route and train type to every trip. Distinct route ids and train type
+     * names are resolved with one batched request each, and both requests run
+     * concurrently, so the cost does not grow with the number of trips.
+     */
+    private ArrayList<AdminTrip> toAdminTrips(List<Trip> trips, HttpHeaders headers) {
+        ArrayList<AdminTrip> adminTrips = new ArrayList<>();
+        if (trips == null || trips.isEmpty()) {
+            return adminTrips;
+        }
+        Set<String> routeIds = new HashSet<>();
+        Set<String> trainTypeNames = new HashSet<>();
+        for (Trip trip : trips) {
+            routeIds.add(trip.getRouteId());
+            trainTypeNames.add(trip.getTrainTypeName());
+        }
+
+        Future<Map<String, Route>> routesFuture = executorService.submit(CallableWrapper.of(
+                () -> getRoutesByRouteIds(new ArrayList<>(routeIds), headers)));
+        Future<Map<String, TrainType>> trainTypesFuture = executorService.submit(CallableWrapper.of(
+                () -> getTrainTypesByNames(new ArrayList<>(trainTypeNames), headers)));
+
+        Map<String, Route> routes = new HashMap<>();
+        Map<String, TrainType> trainTypes = new HashMap<>();
+        try {
+            routes = routesFuture.get();
+            trainTypes = trainTypesFuture.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            TravelServiceImpl.LOGGER.error("[toAdminTrips][Interrupted while fetching trip details]");
+        } catch (ExecutionException e) {
+            TravelServiceImpl.LOGGER.error("[toAdminTrips][Fetch trip details error][{}]", e.getCause().toString());
+        }
+
+        for (Trip trip : trips) {
+            AdminTrip adminTrip = new AdminTrip();
+            adminTrip.setRoute(routes.get(trip.getRouteId()));
+            adminTrip.setTrainType(trainTypes.get(trip.getTrainTypeName()));
+            adminTrip.setTrip(trip);
+            adminTrips.add(adminTrip);
+        }
+        return adminTrips;
+    }
 
+    private Map<String, Route> getRoutesByRouteIds(List<String> routeIds, HttpHeaders headers) {
+        TravelServiceImpl.LOGGER.debug("[getRoutesByRouteIds][Get Routes By Ids][Route IDs：{}]", routeIds);
+        HttpEntity requestEntity = new HttpEntity(routeIds, null);
+        String route_service_url = getServiceUrl("ts-route-service");
+        ResponseEntity<Response> re = restTemplate.exchange(
+                route_service_url + "/api/v1/routeservice/routes/byIds",
+                HttpMethod.POST,
+                requestEntity,
+                Response.class);
+        Response result = re.getBody();
+
+        Map<String, Route> routes = new HashMap<>();
+        if (result.getStatus() == 1) {
+            for (Route route : JsonUtils.conveterObject(result.getData(), Route[].class)) {
+                routes.put(route.getId(), route);
+            }
+        } else {
+            TravelServiceImpl.LOGGER.error("[getRoutesByRouteIds][Get Routes By Ids Fail][Fail msg: {}]", result.getMsg());
+        }
+        return routes;
+    }
+
+    private Map<String, TrainType> getTrainTypesByNames(List<String> trainTypeNames, HttpHeaders headers) {
+        TravelServiceImpl.LOGGER.debug("[getTrainTypesByNames][Get Train Types By Names][Train Type names：{}]", trainTypeNames);
+        HttpEntity requestEntity = new HttpEntity(trainTypeNames, null);
+        String train_service_url = getServiceUrl("ts-train-service");
+        ResponseEntity<Response> re = restTemplate.exchange(
+                train_service_url + "/api/v1/trainservice/trains/byNames",
+                HttpMethod.POST,
+                requestEntity,
+                Response.class);
+        Response result = re.getBody();
+
+        Map<String, TrainType> trainTypes = new HashMap<>();
+        if (result.getStatus() == 1) {
+            for (TrainType trainType : JsonUtils.conveterObject(result.getData(), TrainType[].class)) {
+                trainTypes.put(trainType.getName(), trainType);
+            }
+        } else {
+            TravelServiceImpl.LOGGER.error("[getTrainTypesByNames][Get Train Types By Names Fail][Fail msg: {}]", result.getMsg());
+        }
+        return trainTypes;
+    }
+
+}
@@ -1,5 +1,7 @@
 package travel2.service;
 
+import edu.fudan.common.entity.Route;
+import edu.fudan.common.entity.TrainType;
 import edu.fudan.common.entity.TripId;
 import edu.fudan.common.entity.TripAllDetailInfo;
 import edu.fudan.common.entity.TripInfo;
@@ -302,4 +304,68 @@ public class TravelServiceImplTest {
         Assert.assertEquals(new Response<>(0, noCnontent, null), result);
     }
 
+    @Test
+    public void testAdminQueryAllBatched() {
+        ArrayList<Trip> tripList = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Trip trip = new Trip();
+            trip.setRouteId("route_id");
+            trip.setTrainTypeName("GaoTieOne");
+            tripList.add(trip);
+        }
+        Mockito.when(repository.findAll()).thenReturn(tripList);
+        mockTripDetails();
+        Response result = travel2ServiceImpl.adminQueryAll(headers);
+        Assert.assertEquals(10, ((ArrayList) result.getData()).size());
+        //one batched request for routes and one for train types, whatever the number of trips
+        Mockito.verify(restTemplate, Mockito.times(2)).exchange(
+                Mockito.anyString(),
+                Mockito.any(HttpMethod.class),
+                Mockito.any(HttpEntity.class),
+                Mockito.any(Class.class));
+    }
+
+    @Test
+    public void testAdminQueryPage() {
+        ArrayList<Trip> tripList = new ArrayList<>();
+        Trip trip = new Trip();
+        trip.setRouteId("route_id");
+        trip.setTrainTypeName("GaoTieOne");
+        tripList.add(trip);
+        Mockito.when(repository.findAll(Mockito.any(org.springframework.data.domain.Pageable.class)))
+                .thenReturn(new org.springframework.data.domain.PageImpl<>(tripList));
+        mockTripDetails();
+        Response result = travel2ServiceImpl.adminQueryPage(0, 20, headers);
+        Assert.assertEquals("Travel Service Admin Query Travel Page Success", result.getMsg());
+    }
+
+    @Test
+    public void testAdminQueryPageInvalid() {
+        Response result = travel2ServiceImpl.adminQueryPage(-1, 20, headers);
+        Assert.assertEquals(new Response<>(0, "Invalid page or size", null), result);
+    }
+
+    private void mockTripDetails() {
+        ArrayList<Route> routes = new ArrayList<>();
+        Route route = new Route();
+        route.setId("route_id");
+        routes.add(route);
+        ArrayList<TrainType> trainTypes = new ArrayList<>();
+        TrainType trainType = new TrainType();
+        trainType.setName("GaoTieOne");
+        trainTypes.add(trainType);
+        Mockito.when(restTemplate.exchange(
+                Mockito.contains("/routes/byIds"),
+                Mockito.any(HttpMethod.class),
+                Mockito.any(HttpEntity.class),
+                Mockito.any(Class.class)))
+                .thenReturn(new ResponseEntity<>(new Response<>(1, null, routes), HttpStatus.OK));
+        Mockito.when(restTemplate.exchange(
+                Mockito.contains("/trains/byNames"),
+                Mockito.any(HttpMethod.class),
+                Mockito.any(HttpEntity.class),
+                Mockito.any(Class.class)))
+                .thenReturn(new ResponseEntity<>(new Response<>(1, null, trainTypes), HttpStatus.OK));
+    }
+
 }
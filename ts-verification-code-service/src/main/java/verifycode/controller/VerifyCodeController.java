@@ -36,6 +36,12 @@ public class VerifyCodeController {
         String simpleCaptcha = "simpleCaptcha";
         request.getSession().setAttribute(simpleCaptcha, map.get("strEnsure").toString().toLowerCase());
         request.getSession().setAttribute("codeTime", System.currentTimeMillis());
+        byte[] imageBytes = (byte[]) map.get("imageBytes");
+        if (imageBytes != null) {
+            response.setContentLength(imageBytes.length);
+            os.write(imageBytes);
+            return;
+        }
         try {
             ImageIO.write((BufferedImage) map.get("image"), "JPEG", os);
         } catch (IOException e) {
@@ -0,0 +1,175 @@
+package verifycode.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Captchas of the default size rendered and JPEG encoded in the background,
+ * so a burst of login pages is served from memory instead of drawing every
+ * image on the request thread. Each captcha is handed out once; when the pool
+ * runs dry the captcha is rendered on the request thread as before.
+ *
+ * @author fdse
+ */
+@Component
+public class CaptchaPool {
+
+    public static final int DEFAULT_WIDTH = 60;
+
+    public static final int DEFAULT_HEIGHT = 20;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CaptchaPool.class);
+
+    private static char mapTable[] = {
+            'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I', 'J',
+            'K', 'L', 'M', 'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U', 'V', 'W',
+            'X', 'Y', 'Z', '0', '1', '2', '3', '4', '5', '6', '7', '8', '9'};
+
+    private final BlockingQueue<Captcha> pool;
+
+    private final int refillBatch;
+
+    @Autowired
+    public CaptchaPool(@Value("${verifycode.pool.size:2000}") int size,
+                       @Value("${verifycode.pool.refill-batch:200}") int refillBatch) {
+        this.pool = new ArrayBlockingQueue<>(Math.max(1, size));
+        this.refillBatch = refillBatch;
+    }
+
+    /**
+     * @return a captcha of the given size, from the pool when it has the default size
+     */
+    public Captcha take(int width, int height) {
+        if (width == DEFAULT_WIDTH && height == DEFAULT_HEIGHT) {
+            Captcha captcha = pool.poll();
+            if (captcha != null) {
+                return captcha;
+            }
+            LOGGER.warn("[take][Captcha pool empty][rendering on request thread]");
+        }
+        return render(width, height);
+    }
+
+    /**
+     * render up to refillBatch captchas into the pool
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${verifycode.pool.refill-interval:100}")
+    public void refill() {
+        for (int i = 0; i < refillBatch && pool.remainingCapacity() > 0; i++) {
+            if (!pool.offer(render(DEFAULT_WIDTH, DEFAULT_HEIGHT))) {
+                return;
+            }
+        }
+    }
+
+    public int size() {
+        return pool.size();
+    }
+
+    static Captcha render(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+
+        Graphics g = image.getGraphics();
+
+        Random random = new Random(); //NOSONAR
+
+        g.setColor(getRandColor(200, 250));
+        g.fillRect(0, 0, width, height);
+
+        g.setFont(new Font("Times New Roman", Font.PLAIN, 18));
+
+        g.setColor(getRandColor(160, 200));
+        for (int i = 0; i < 168; i++) {
+            int x = random.nextInt(width);
+            int y = random.nextInt(height);
+            int xl = random.nextInt(12);
+            int yl = random.nextInt(12);
+            g.drawLine(x, y, x + xl, y + yl);
+        }
+
+        StringBuilder strEnsure = new StringBuilder();
+
+        for (int i = 0; i < 4; ++i) {
+            char c = mapTable[random.nextInt(mapTable.length)];
+            strEnsure.append(c);
+
+            g.setColor(new Color(20 + random.nextInt(110), 20 + random.nextInt(110), 20 + random.nextInt(110)));
+
+            g.drawString(String.valueOf(c), 13 * i + 6, 16);
+        }
+
+        g.dispose();
+        byte[] jpeg = encode(image);
+        // keep the image only when it could not be encoded up front
+        return new Captcha(strEnsure.toString(), jpeg == null ? image : null, jpeg);
+    }
+
+    private static byte[] encode(BufferedImage image) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+        try {
+            ImageIO.write(image, "JPEG", out);
+        } catch (IOException e) {
+            LOGGER.error("[encode][Encode captcha error][message: {}]", e.getMessage());
+            return null;
+        }
+        return out.toByteArray();
+    }
+
+    static Color getRandColor(int fc, int bc) {
+        Random random = new Random(); //NOSONAR
+        if (fc > 255) {
+            fc = 255;
+        }
+        if (bc > 255) {
+            bc = 255;
+        }
+        int r = fc + random.nextInt(bc - fc);
+        int g = fc + random.nextInt(bc - fc);
+        int b = fc + random.nextInt(bc - fc);
+        return new Color(r, g, b);
+    }
+
+    /**
+     * a rendered captcha with its code and encoded JPEG bytes, or the image if encoding failed
+     */
+    public static final class Captcha {
+
+        private final String code;
+
+        private final BufferedImage image;
+
+        private final byte[] jpeg;
+
+        Captcha(String code, BufferedImage image, byte[] jpeg) {
+            this.code = code;
+            this.image = image;
+            this.jpeg = jpeg;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        public BufferedImage getImage() {
+            return image;
+        }
+
+        public byte[] getJpeg() {
+            return jpeg;
+        }
+    }
+
+}
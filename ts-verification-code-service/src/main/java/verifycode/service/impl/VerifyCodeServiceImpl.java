@@ -4,6 +4,7 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 import verifycode.service.VerifyCodeService;
@@ -12,12 +13,9 @@ import verifycode.util.CookieUtil;
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.awt.*;
-import java.awt.image.BufferedImage;
 import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
@@ -32,62 +30,37 @@ public class VerifyCodeServiceImpl implements VerifyCodeService {
 
     String ysbCaptcha = "YsbCaptcha";
 
+    private final CaptchaPool captchaPool;
+
     /**
-     * build local cache
+     * build local cache, codes expire after CAPTCHA_EXPIRED seconds
      */
-    public Cache<String, String> cacheCode = CacheBuilder.newBuilder()
-            // max  size
-            .maximumSize(CAPTCHA_EXPIRED)
-            .expireAfterAccess(CAPTCHA_EXPIRED, TimeUnit.SECONDS)
-            .build();
-
-    private static char mapTable[] = {
-            'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I', 'J',
-            'K', 'L', 'M', 'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U', 'V', 'W',
-            'X', 'Y', 'Z', '0', '1', '2', '3', '4', '5', '6', '7', '8', '9'};
+    public final Cache<String, String> cacheCode;
+
+    public VerifyCodeServiceImpl(CaptchaPool captchaPool,
+                                 @Value("${verifycode.cache.maximum-size:100000}") long cacheMaximumSize) {
+        this.captchaPool = captchaPool;
+        this.cacheCode = CacheBuilder.newBuilder()
+                // max  size
+                .maximumSize(cacheMaximumSize)
+                .expireAfterAccess(CAPTCHA_EXPIRED, TimeUnit.SECONDS)
+                .build();
+    }
 
     @Override
     public Map<String, Object> getImageCode(int width, int height, OutputStream os, HttpServletRequest request, HttpServletResponse response, HttpHeaders headers) {
         Map<String, Object> returnMap = new HashMap<>();
         if (width <= 0) {
-            width = 60;
+            width = CaptchaPool.DEFAULT_WIDTH;
         }
         if (height <= 0) {
-            height = 20;
-        }
-        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-
-        Graphics g = image.getGraphics();
-
-        Random random = new Random(); //NOSONAR
-
-        g.setColor(getRandColor(200, 250));
-        g.fillRect(0, 0, width, height);
-
-        g.setFont(new Font("Times New Roman", Font.PLAIN, 18));
-
-        g.setColor(getRandColor(160, 200));
-        for (int i = 0; i < 168; i++) {
-            int x = random.nextInt(width);
-            int y = random.nextInt(height);
-            int xl = random.nextInt(12);
-            int yl = random.nextInt(12);
-            g.drawLine(x, y, x + xl, y + yl);
+            height = CaptchaPool.DEFAULT_HEIGHT;
         }
+        CaptchaPool.Captcha captcha = captchaPool.take(width, height);
+        String strEnsure = captcha.getCode();
 
-        String strEnsure = "";
-
-        for (int i = 0; i < 4; ++i) {
-            strEnsure += mapTable[(int) (mapTable.length * Math.random())];
-
-            g.setColor(new Color(20 + random.nextInt(110), 20 + random.nextInt(110), 20 + random.nextInt(110)));
-
-            String str = strEnsure.substring(i, i + 1);
-            g.drawString(str, 13 * i + 6, 16);
-        }
-
-        g.dispose();
-        returnMap.put("image", image);
+        returnMap.put("image", captcha.getImage());
+        returnMap.put("imageBytes", captcha.getJpeg());
         returnMap.put("strEnsure", strEnsure);
 
         Cookie cookie = CookieUtil.getCookieByName(request, ysbCaptcha);
@@ -135,18 +108,4 @@ public class VerifyCodeServiceImpl implements VerifyCodeService {
     }
 
 
-    static Color getRandColor(int fc, int bc) {
-        Random random = new Random(); //NOSONAR
-        if (fc > 255) {
-            fc = 255;
-        }
-        if (bc > 255) {
-            bc = 255;
-        }
-        int r = fc + random.nextInt(bc - fc);
-        int g = fc + random.nextInt(bc - fc);
-        int b = fc + random.nextInt(bc - fc);
-        return new Color(r, g, b);
-    }
-
 }
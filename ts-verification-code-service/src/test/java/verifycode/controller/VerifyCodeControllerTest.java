@@ -53,6 +53,18 @@ public class VerifyCodeControllerTest {
         Mockito.verify(verifyCodeService, Mockito.times(1)).getImageCode(Mockito.anyInt(), Mockito.anyInt(), Mockito.any(OutputStream.class), Mockito.any(HttpServletRequest.class), Mockito.any(HttpServletResponse.class), Mockito.any(HttpHeaders.class));
     }
 
+    @Test
+    public void testImageCodeFromEncodedBytes() throws Exception {
+        Map<String, Object> map = new HashMap<>();
+        byte[] imageBytes = new byte[]{1, 2, 3};
+        map.put("strEnsure", "XYZ8");
+        map.put("imageBytes", imageBytes);
+        Mockito.when(verifyCodeService.getImageCode(Mockito.anyInt(), Mockito.anyInt(), Mockito.any(OutputStream.class), Mockito.any(HttpServletRequest.class), Mockito.any(HttpServletResponse.class), Mockito.any(HttpHeaders.class))).thenReturn(map);
+        byte[] result = mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/verifycode/generate"))
+                .andReturn().getResponse().getContentAsByteArray();
+        Assert.assertArrayEquals(imageBytes, result);
+    }
+
     @Test
     public void testVerifyCode() throws Exception {
         Mockito.when(verifyCodeService.verifyCode(Mockito.any(HttpServletRequest.class), Mockito.any(HttpServletResponse.class), Mockito.anyString(), Mockito.any(HttpHeaders.class))).thenReturn(true);
@@ -5,6 +5,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 import org.springframework.http.HttpHeaders;
+import verifycode.service.impl.CaptchaPool;
 import verifycode.service.impl.VerifyCodeServiceImpl;
 
 import javax.servlet.*;
@@ -19,7 +20,8 @@ import java.util.Map;
 @RunWith(JUnit4.class)
 public class VerifyCodeServiceImplTest {
 
-    private VerifyCodeServiceImpl verifyCodeServiceImpl = new VerifyCodeServiceImpl();
+    private CaptchaPool captchaPool = new CaptchaPool(10, 4);
+    private VerifyCodeServiceImpl verifyCodeServiceImpl = new VerifyCodeServiceImpl(captchaPool, 1000);
     private HttpHeaders headers = new HttpHeaders();
 
     private HttpServletRequest request = new HttpServletRequest() {
@@ -563,6 +565,24 @@ public class VerifyCodeServiceImplTest {
         Assert.assertNotNull(returnMap.get("strEnsure"));
     }
 
+    @Test
+    public void testGetImageCodeFromPool() {
+        captchaPool.refill();
+        Assert.assertEquals(4, captchaPool.size());
+        Map<String, Object> returnMap = verifyCodeServiceImpl.getImageCode(60, 20, System.out, request, response, headers);
+        Assert.assertEquals(3, captchaPool.size());
+        Assert.assertEquals(4, returnMap.get("strEnsure").toString().length());
+        Assert.assertTrue(((byte[]) returnMap.get("imageBytes")).length > 0);
+    }
+
+    @Test
+    public void testGetImageCodeOtherSizeNotFromPool() {
+        captchaPool.refill();
+        Map<String, Object> returnMap = verifyCodeServiceImpl.getImageCode(120, 40, System.out, request, response, headers);
+        Assert.assertEquals(4, captchaPool.size());
+        Assert.assertNotNull(returnMap.get("strEnsure"));
+    }
+
     @Test
     public void testVerifyCode() {
         boolean result = verifyCodeServiceImpl.verifyCode(request, response, "XYZ5", headers);